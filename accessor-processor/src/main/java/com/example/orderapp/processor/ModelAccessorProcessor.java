@@ -0,0 +1,310 @@
+package com.example.orderapp.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a {@code ModelAccessor} for every {@code @ModelConfig} class: its
+ * {@code @ModelField} fields numbered in declaration order, read through their public
+ * getters and written through the model's step builder, so hydrating or filtering models
+ * needs no reflection. Also generates {@code GeneratedModelAccessors}, the accessors by
+ * model class.
+ *
+ * <p>The generated classes go to the package named by the {@value #PACKAGE_OPTION} option,
+ * {@code com.example.orderapp} by default, where the {@code ModelAccessor} interface is.
+ */
+@SupportedAnnotationTypes(ModelAccessorProcessor.MODEL_CONFIG)
+@SupportedOptions(ModelAccessorProcessor.PACKAGE_OPTION)
+public final class ModelAccessorProcessor extends AbstractProcessor {
+    static final String MODEL_CONFIG = "com.amplifyframework.core.model.annotations.ModelConfig";
+    static final String PACKAGE_OPTION = "modelAccessor.package";
+    private static final String MODEL_FIELD = "com.amplifyframework.core.model.annotations.ModelField";
+    private static final String DEFAULT_PACKAGE = "com.example.orderapp";
+    private static final String INDEX = "GeneratedModelAccessors";
+
+    private final List<TypeElement> models = new ArrayList<>();
+    private boolean indexWritten;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    TypeElement model = (TypeElement) element;
+                    try {
+                        writeAccessor(model, new Model(model));
+                        models.add(model);
+                    } catch (IllegalStateException error) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, error.getMessage(), model);
+                    } catch (IOException error) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                "Could not write the accessor: " + error.getMessage(), model);
+                    }
+                }
+            }
+        }
+        // The models are sources of the same compilation, so they all arrive in one round.
+        if (!models.isEmpty() && !indexWritten) {
+            indexWritten = true;
+            try {
+                writeIndex();
+            } catch (IOException error) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write " + INDEX + ": " + error.getMessage());
+            }
+        }
+        // Leaves @ModelConfig to any other processor.
+        return false;
+    }
+
+    private String targetPackage() {
+        String name = processingEnv.getOptions().get(PACKAGE_OPTION);
+        return name != null ? name : DEFAULT_PACKAGE;
+    }
+
+    private void writeAccessor(TypeElement type, Model model) throws IOException {
+        String modelClass = type.getQualifiedName().toString();
+        String accessor = type.getSimpleName() + "Accessor";
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler()
+                .createSourceFile(targetPackage() + "." + accessor, type).openWriter())) {
+            out.println("package " + targetPackage() + ";");
+            out.println();
+            out.println("import java.util.Arrays;");
+            out.println("import java.util.Collections;");
+            out.println("import java.util.List;");
+            out.println();
+            out.println("/** Generated by ModelAccessorProcessor from {@link " + modelClass + "}. Do not edit. */");
+            out.println("public final class " + accessor + " implements ModelAccessor<" + modelClass + "> {");
+            out.println("    public static final " + accessor + " INSTANCE = new " + accessor + "();");
+            out.println();
+            out.println("    private static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList(");
+            for (int i = 0; i < model.fields.size(); i++) {
+                out.println("            \"" + model.fields.get(i).getSimpleName() + "\""
+                        + (i + 1 < model.fields.size() ? "," : "));"));
+            }
+            out.println("    private static final List<Class<?>> TYPES = Collections.unmodifiableList(");
+            out.println("            Arrays.<Class<?>>asList(");
+            for (int i = 0; i < model.fields.size(); i++) {
+                out.println("                    " + erasure(model.fields.get(i).asType()) + ".class"
+                        + (i + 1 < model.fields.size() ? "," : "));"));
+            }
+            out.println();
+            out.println("    private " + accessor + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<" + modelClass + "> modelClass() {");
+            out.println("        return " + modelClass + ".class;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public List<String> fieldNames() {");
+            out.println("        return NAMES;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public List<Class<?>> fieldTypes() {");
+            out.println("        return TYPES;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public int fieldIndex(String fieldName) {");
+            out.println("        switch (fieldName) {");
+            for (int i = 0; i < model.fields.size(); i++) {
+                out.println("            case \"" + model.fields.get(i).getSimpleName() + "\":");
+                out.println("                return " + i + ";");
+            }
+            out.println("            default:");
+            out.println("                return -1;");
+            out.println("        }");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public boolean isSettable(int field) {");
+            if (model.buildOrder.isEmpty()) {
+                out.println("        return false;");
+            } else {
+                out.println("        switch (field) {");
+                for (int i = 0; i < model.fields.size(); i++) {
+                    if (model.setters.get(i) != null) {
+                        out.println("            case " + i + ":");
+                    }
+                }
+                out.println("                return true;");
+                out.println("            default:");
+                out.println("                return false;");
+                out.println("        }");
+            }
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Object get(" + modelClass + " model, int field) {");
+            out.println("        switch (field) {");
+            for (int i = 0; i < model.fields.size(); i++) {
+                out.println("            case " + i + ":");
+                out.println("                return model." + model.getters.get(i).getSimpleName() + "();");
+            }
+            out.println("            default:");
+            out.println("                throw new IndexOutOfBoundsException(\"No field \" + field + \" in "
+                    + type.getSimpleName() + "\");");
+            out.println("        }");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + modelClass + " newInstance(Object[] values) {");
+            out.println("        return " + modelClass + ".builder()");
+            for (int step : model.buildOrder) {
+                out.println("                ." + model.setters.get(step).getSimpleName()
+                        + "((" + model.fields.get(step).asType() + ") values[" + step + "])");
+            }
+            out.println("                .build();");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        TypeElement[] originating = models.toArray(new TypeElement[0]);
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler()
+                .createSourceFile(targetPackage() + "." + INDEX, originating).openWriter())) {
+            out.println("package " + targetPackage() + ";");
+            out.println();
+            out.println("import java.util.Collections;");
+            out.println("import java.util.HashMap;");
+            out.println("import java.util.Map;");
+            out.println();
+            out.println("/** Generated by ModelAccessorProcessor. Do not edit. */");
+            out.println("final class " + INDEX + " {");
+            out.println("    static final Map<Class<?>, ModelAccessor<?>> BY_CLASS;");
+            out.println("    static {");
+            out.println("        Map<Class<?>, ModelAccessor<?>> accessors = new HashMap<>();");
+            for (TypeElement model : models) {
+                out.println("        accessors.put(" + model.getQualifiedName() + ".class, "
+                        + model.getSimpleName() + "Accessor.INSTANCE);");
+            }
+            out.println("        BY_CLASS = Collections.unmodifiableMap(accessors);");
+            out.println("    }");
+            out.println();
+            out.println("    private " + INDEX + "() {");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * A model's {@code @ModelField} fields with the getter of each, and the builder method
+     * that sets it if there is one: first the steps of the required fields in the order the
+     * step builder takes them, then the optional setters of its {@code BuildStep}.
+     */
+    private final class Model {
+        final List<VariableElement> fields = new ArrayList<>();
+        final List<ExecutableElement> getters = new ArrayList<>();
+        final List<ExecutableElement> setters = new ArrayList<>();
+        final List<Integer> buildOrder = new ArrayList<>();
+
+        Model(TypeElement type) {
+            List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (hasAnnotation(field, MODEL_FIELD) && !field.getModifiers().contains(Modifier.STATIC)) {
+                    fields.add(field);
+                    getters.add(getter(type, field, methods));
+                    setters.add(null);
+                }
+            }
+
+            ExecutableElement builder = null;
+            for (ExecutableElement method : methods) {
+                if (method.getSimpleName().contentEquals("builder") && method.getParameters().isEmpty()
+                        && method.getModifiers().contains(Modifier.STATIC)) {
+                    builder = method;
+                }
+            }
+            if (builder == null) {
+                throw new IllegalStateException(type.getSimpleName() + " has no static builder()");
+            }
+            TypeMirror step = builder.getReturnType();
+            while (true) {
+                TypeElement stepType = (TypeElement) ((DeclaredType) step).asElement();
+                List<ExecutableElement> stepMethods = ElementFilter.methodsIn(stepType.getEnclosedElements());
+                if (stepType.getSimpleName().contentEquals("BuildStep")) {
+                    for (ExecutableElement method : stepMethods) {
+                        if (method.getParameters().size() == 1) {
+                            addSetter(type, method);
+                        }
+                    }
+                    break;
+                }
+                if (stepMethods.size() != 1 || stepMethods.get(0).getReturnType().getKind() != TypeKind.DECLARED) {
+                    throw new IllegalStateException(type.getSimpleName() + "." + stepType.getSimpleName()
+                            + " is not a builder step with one method");
+                }
+                addSetter(type, stepMethods.get(0));
+                step = stepMethods.get(0).getReturnType();
+            }
+        }
+
+        private void addSetter(TypeElement type, ExecutableElement setter) {
+            for (int i = 0; i < fields.size(); i++) {
+                if (fields.get(i).getSimpleName().toString().equalsIgnoreCase(setter.getSimpleName().toString())) {
+                    setters.set(i, setter);
+                    buildOrder.add(i);
+                    return;
+                }
+            }
+            throw new IllegalStateException("The builder of " + type.getSimpleName() + " sets "
+                    + setter.getSimpleName() + ", which is not a @ModelField");
+        }
+
+        private ExecutableElement getter(TypeElement type, VariableElement field, List<ExecutableElement> methods) {
+            String name = "get" + field.getSimpleName();
+            for (ExecutableElement method : methods) {
+                if (method.getSimpleName().toString().equalsIgnoreCase(name) && method.getParameters().isEmpty()
+                        && method.getModifiers().contains(Modifier.PUBLIC)) {
+                    return method;
+                }
+            }
+            throw new IllegalStateException(type.getSimpleName() + "." + field.getSimpleName()
+                    + " has no public getter");
+        }
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
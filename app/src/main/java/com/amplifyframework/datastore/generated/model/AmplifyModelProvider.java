@@ -14,16 +14,22 @@ import java.util.Set;
 
 public final class AmplifyModelProvider implements ModelProvider {
   private static final String AMPLIFY_MODEL_VERSION = "8b9734f6f920f59ebc57a6fb3aac5993";
-  private static AmplifyModelProvider amplifyGeneratedModelInstance;
+  // Built once: DataStore asks for the models on every schema walk. Immutable, so sharing
+  // it between threads is safe.
+  private static final Set<Class<? extends Model>> MODELS = Immutable.of(new HashSet<>(
+      Arrays.<Class<? extends Model>>asList(Order.class, Customer.class, Address.class, Employee.class, Warehouse.class, AccountRepresentative.class, Inventory.class, Product.class, Blog.class)
+    ));
   private AmplifyModelProvider() {
     
   }
   
+  /** Class initialization publishes the instance safely to every thread. */
+  private static final class InstanceHolder {
+    static final AmplifyModelProvider INSTANCE = new AmplifyModelProvider();
+  }
+  
   public static AmplifyModelProvider getInstance() {
-    if (amplifyGeneratedModelInstance == null) {
-      amplifyGeneratedModelInstance = new AmplifyModelProvider();
-    }
-    return amplifyGeneratedModelInstance;
+    return InstanceHolder.INSTANCE;
   }
   
   /**
@@ -33,12 +39,7 @@ public final class AmplifyModelProvider implements ModelProvider {
    */
   @Override
    public Set<Class<? extends Model>> models() {
-    final Set<Class<? extends Model>> modifiableSet = new HashSet<>(
-          Arrays.<Class<? extends Model>>asList(Order.class, Customer.class, Address.class, Employee.class, Warehouse.class, AccountRepresentative.class, Inventory.class, Product.class, Blog.class)
-        );
-    
-        return Immutable.of(modifiableSet);
-        
+    return MODELS;
   }
   
   /**
@@ -0,0 +1,101 @@
+package com.example.orderapp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Chooses the {@code limit} of each sync page per model from the latency and payload
+ * of the pages already fetched, so that small rows such as Blog come in large pages and
+ * wide rows such as Customer come in pages that still fit the latency budget.
+ *
+ * <p>The per-row cost is tracked as a moving average. A page may grow to at most
+ * twice the previous limit, but it shrinks to the estimate at once.
+ */
+public final class AdaptivePageSizer {
+    public static final long DEFAULT_TARGET_PAGE_MILLIS = 1000;
+    /** DynamoDB reads at most 1 MB per query page, so larger pages bring no more rows. */
+    public static final long DEFAULT_MAX_PAGE_BYTES = 1_000_000;
+    public static final int DEFAULT_MIN_LIMIT = 50;
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+    public static final int DEFAULT_INITIAL_LIMIT = 100;
+    private static final double SMOOTHING = 0.5;
+
+    private final long targetPageMillis;
+    private final long maxPageBytes;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int initialLimit;
+    private final Map<String, Estimate> estimates = new HashMap<>();
+
+    public AdaptivePageSizer() {
+        this(DEFAULT_TARGET_PAGE_MILLIS, DEFAULT_MAX_PAGE_BYTES, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT,
+                DEFAULT_INITIAL_LIMIT);
+    }
+
+    public AdaptivePageSizer(long targetPageMillis, long maxPageBytes, int minLimit, int maxLimit, int initialLimit) {
+        this.targetPageMillis = targetPageMillis;
+        this.maxPageBytes = maxPageBytes;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.initialLimit = initialLimit;
+    }
+
+    /**
+     * Starts a model that has no estimate yet at a limit reached earlier, such as the one
+     * saved with a sync checkpoint before the process restarted.
+     */
+    public synchronized void resume(String modelName, int limit) {
+        if (!estimates.containsKey(modelName)) {
+            estimates.put(modelName, new Estimate(Math.max(minLimit, Math.min(maxLimit, limit)), 0, 0));
+        }
+    }
+
+    public synchronized int limitFor(String modelName) {
+        Estimate estimate = estimates.get(modelName);
+        return estimate == null ? initialLimit : estimate.limit;
+    }
+
+    /**
+     * Records a fetched page and adjusts the model's next limit.
+     *
+     * @param rows the rows the page actually returned, which is below the limit on the last page
+     */
+    public synchronized void record(String modelName, int rows, double millis, long bytes) {
+        if (rows == 0) {
+            return;
+        }
+        Estimate estimate = estimates.get(modelName);
+        if (estimate == null) {
+            estimate = new Estimate(initialLimit, millis / rows, (double) bytes / rows);
+            estimates.put(modelName, estimate);
+        } else if (estimate.millisPerRow == 0 && estimate.bytesPerRow == 0) {
+            // Resumed at a limit, with nothing measured yet.
+            estimate.millisPerRow = millis / rows;
+            estimate.bytesPerRow = (double) bytes / rows;
+        } else {
+            estimate.millisPerRow = smooth(estimate.millisPerRow, millis / rows);
+            estimate.bytesPerRow = smooth(estimate.bytesPerRow, (double) bytes / rows);
+        }
+
+        double byLatency = estimate.millisPerRow > 0 ? targetPageMillis / estimate.millisPerRow : maxLimit;
+        double byPayload = estimate.bytesPerRow > 0 ? maxPageBytes / estimate.bytesPerRow : maxLimit;
+        long next = (long) Math.min(Math.min(byLatency, byPayload), 2.0 * estimate.limit);
+        estimate.limit = (int) Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    private static double smooth(double previous, double sample) {
+        return SMOOTHING * sample + (1 - SMOOTHING) * previous;
+    }
+
+    private static final class Estimate {
+        int limit;
+        double millisPerRow;
+        double bytesPerRow;
+
+        Estimate(int limit, double millisPerRow, double bytesPerRow) {
+            this.limit = limit;
+            this.millisPerRow = millisPerRow;
+            this.bytesPerRow = bytesPerRow;
+        }
+    }
+}
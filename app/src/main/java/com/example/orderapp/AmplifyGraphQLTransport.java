@@ -0,0 +1,94 @@
+package com.example.orderapp;
+
+import android.util.Log;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.api.aws.GsonVariablesSerializer;
+import com.amplifyframework.api.graphql.GraphQLPathSegment;
+import com.amplifyframework.api.graphql.GraphQLResponse;
+import com.amplifyframework.api.graphql.SimpleGraphQLRequest;
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link GraphQLTransport} and {@link SubscriptionTransport} backed by the configured
+ * Amplify API plugin. The plugin carries every subscription to the same endpoint over a
+ * single websocket connection.
+ */
+public final class AmplifyGraphQLTransport implements GraphQLTransport, SubscriptionTransport {
+    private static final String LOG_TAG = "OrderApp";
+
+    @Override
+    public void execute(String document,
+                        Map<String, Object> variables,
+                        Consumer<String> onData,
+                        Consumer<ApiException> onError) {
+        SimpleGraphQLRequest<String> request = new SimpleGraphQLRequest<>(
+                document, variables, String.class, new GsonVariablesSerializer());
+        CallTracer.Span span = CallTracer.get().begin("API.query(" + operationName(document) + ")");
+        Amplify.API.query(request,
+                response -> {
+                    String data = response.getData();
+                    span.completed(data == null ? 0 : data.getBytes(StandardCharsets.UTF_8).length);
+                    if (response.hasErrors()) {
+                        onError.accept(errors(data, response.getErrors()));
+                    } else {
+                        onData.accept(data);
+                    }
+                },
+                error -> {
+                    span.completed(0);
+                    onError.accept(error);
+                }
+        );
+        span.returned();
+    }
+
+    /** Keeps each error's top-level field, so a caller can tell which fields failed. */
+    static GraphQLResponseException errors(String data, List<GraphQLResponse.Error> errors) {
+        List<String> fields = new ArrayList<>(errors.size());
+        List<String> messages = new ArrayList<>(errors.size());
+        for (GraphQLResponse.Error error : errors) {
+            List<GraphQLPathSegment> path = error.getPath();
+            fields.add(path != null && !path.isEmpty() && path.get(0).isString() ? path.get(0).getAsString() : null);
+            messages.add(error.getMessage());
+        }
+        return new GraphQLResponseException(data, fields, messages);
+    }
+
+    /** @return the name after {@code query}, e.g. SyncOrders, or the document's first word */
+    static String operationName(String document) {
+        String[] words = document.trim().split("[\\s({]+", 3);
+        return words.length > 1 ? words[1] : words[0];
+    }
+
+    @Override
+    public Cancelable subscribe(String document,
+                                Map<String, Object> variables,
+                                Consumer<String> onData,
+                                Consumer<ApiException> onError,
+                                Action onComplete) {
+        SimpleGraphQLRequest<String> request = new SimpleGraphQLRequest<>(
+                document, variables, String.class, new GsonVariablesSerializer());
+        return Amplify.API.subscribe(request,
+                subscriptionId -> Log.d(LOG_TAG, "Subscription established " + subscriptionId),
+                response -> {
+                    if (response.hasErrors()) {
+                        onError.accept(new ApiException("Subscription message failed: " + response.getErrors(),
+                                "Inspect the errors returned by AppSync."));
+                    } else {
+                        onData.accept(response.getData());
+                    }
+                },
+                onError,
+                onComplete
+        );
+    }
+}
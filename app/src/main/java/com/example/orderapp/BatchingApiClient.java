@@ -0,0 +1,453 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.google.gson.stream.JsonReader;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remote access layer over a {@link GraphQLTransport} that avoids redundant round trips:
+ * <ul>
+ *   <li>answers repeated lookups from a TTL cache of at most {@link #DEFAULT_CACHE_SIZE} results,</li>
+ *   <li>attaches concurrent identical requests to the one already in flight (single-flight),</li>
+ *   <li>folds every {@code get*} lookup issued within {@link #batchWindowMs} into one aliased
+ *       document ({@code g0: getOrder(id: "1") {...} g1: getProduct(id: "P1") {...}}).</li>
+ * </ul>
+ */
+public final class BatchingApiClient {
+    static final long DEFAULT_BATCH_WINDOW_MS = 10;
+    static final long DEFAULT_CACHE_TTL_MS = 30_000;
+    static final int DEFAULT_CACHE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 25;
+
+    private final GraphQLTransport transport;
+    private final ScheduledExecutorService scheduler;
+    private final long batchWindowMs;
+    private final long cacheTtlMs;
+    private final int cacheSize;
+    /**
+     * In insertion order, which with one TTL is also expiry order: expired entries are swept
+     * from the head on each insert, and past {@link #cacheSize} the oldest is dropped.
+     */
+    private final LinkedHashMap<String, CacheEntry> cache = new LinkedHashMap<>();
+    private final Map<String, List<Waiter>> inFlight = new HashMap<>();
+    private final Map<String, GetKey> window = new HashMap<>();
+    private final Metrics metrics = new Metrics();
+    private final boolean ownsScheduler;
+    private boolean closed;
+
+    /** Starts a scheduler thread for the batch window; end it with {@link #close()}. */
+    public BatchingApiClient(GraphQLTransport transport) {
+        this(transport, Executors.newSingleThreadScheduledExecutor(), true, DEFAULT_BATCH_WINDOW_MS,
+                DEFAULT_CACHE_TTL_MS, DEFAULT_CACHE_SIZE);
+    }
+
+    BatchingApiClient(GraphQLTransport transport, ScheduledExecutorService scheduler,
+                      long batchWindowMs, long cacheTtlMs) {
+        this(transport, scheduler, batchWindowMs, cacheTtlMs, DEFAULT_CACHE_SIZE);
+    }
+
+    BatchingApiClient(GraphQLTransport transport, ScheduledExecutorService scheduler,
+                      long batchWindowMs, long cacheTtlMs, int cacheSize) {
+        this(transport, scheduler, false, batchWindowMs, cacheTtlMs, cacheSize);
+    }
+
+    private BatchingApiClient(GraphQLTransport transport, ScheduledExecutorService scheduler, boolean ownsScheduler,
+                              long batchWindowMs, long cacheTtlMs, int cacheSize) {
+        this.transport = transport;
+        this.scheduler = scheduler;
+        this.ownsScheduler = ownsScheduler;
+        this.batchWindowMs = batchWindowMs;
+        this.cacheTtlMs = cacheTtlMs;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Looks up one record by id. The callback receives the record, built from the response
+     * through the model's {@link ModelAccessor}, or null when it does not exist.
+     */
+    public <M extends Model> void get(Class<M> type, String id,
+                                      Consumer<M> onResult, Consumer<ApiException> onError) {
+        ModelRegistry.Entry entry = ModelRegistry.get().byClass(type);
+        String modelName = entry != null ? entry.name : type.getSimpleName();
+        if (entry == null || !GraphQLSelections.hasSingleIdKey(modelName)) {
+            onError.accept(new ApiException("No single-id get query for " + modelName,
+                    "Use query() with the model's generated document instead."));
+            return;
+        }
+        metrics.requested.incrementAndGet();
+        String key = modelName + "#" + id;
+        Consumer<Object> onRecord = record -> onResult.accept(type.cast(record));
+        if (answerFromCache(key, onRecord)) {
+            return;
+        }
+        boolean rejected = false;
+        boolean full = false;
+        synchronized (this) {
+            if (closed) {
+                rejected = true;
+            } else if (joinInFlight(key, onRecord, onError)) {
+                return;
+            } else {
+                if (window.isEmpty()) {
+                    scheduler.schedule(this::flushWindow, batchWindowMs, TimeUnit.MILLISECONDS);
+                }
+                window.put(key, new GetKey(type, modelName, id));
+                full = window.size() >= MAX_BATCH_SIZE;
+            }
+        }
+        if (rejected) {
+            onError.accept(closedError());
+        } else if (full) {
+            flushWindow();
+        }
+    }
+
+    /**
+     * Runs an arbitrary document, sharing the result with identical concurrent calls
+     * and caching it for the TTL. Like {@link #get}, it is rejected after {@link #close()}.
+     */
+    public void query(String document, Map<String, Object> variables,
+                      Consumer<JSONObject> onResult, Consumer<ApiException> onError) {
+        metrics.requested.incrementAndGet();
+        String key = document + "|" + new JSONObject(variables);
+        Consumer<Object> onObject = result -> onResult.accept((JSONObject) result);
+        if (answerFromCache(key, onObject)) {
+            return;
+        }
+        boolean rejected;
+        synchronized (this) {
+            rejected = closed;
+            if (!rejected && joinInFlight(key, onObject, onError)) {
+                return;
+            }
+        }
+        if (rejected) {
+            onError.accept(closedError());
+            return;
+        }
+        metrics.networkRequests.incrementAndGet();
+        transport.execute(document, variables,
+                data -> {
+                    try {
+                        JSONObject result = new JSONObject(data);
+                        remember(key, result);
+                        succeed(key, result);
+                    } catch (JSONException error) {
+                        fail(key, malformed(error));
+                    }
+                },
+                error -> fail(key, error)
+        );
+    }
+
+    public void invalidate(String modelName, String id) {
+        synchronized (cache) {
+            cache.remove(modelName + "#" + id);
+        }
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stops accepting lookups. Lookups already waiting for the batch window are still sent;
+     * then the client's own scheduler thread ends. A client built on a caller's scheduler
+     * leaves it running.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        if (ownsScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    /** Takes the window under the lock and sends it after releasing it. */
+    private void flushWindow() {
+        List<String> keys;
+        List<GetKey> gets;
+        synchronized (this) {
+            if (window.isEmpty()) {
+                return;
+            }
+            keys = new ArrayList<>(window.keySet());
+            gets = new ArrayList<>(window.values());
+            window.clear();
+        }
+        metrics.networkRequests.incrementAndGet();
+        metrics.batchedGets.addAndGet(gets.size());
+
+        transport.execute(batchDocument(gets), Collections.<String, Object>emptyMap(),
+                data -> answer(keys, gets, data, null),
+                error -> {
+                    if (error instanceof GraphQLResponseException && ((GraphQLResponseException) error).isPartial()) {
+                        GraphQLResponseException partial = (GraphQLResponseException) error;
+                        answer(keys, gets, partial.getData(), partial);
+                    } else {
+                        for (String key : keys) {
+                            fail(key, error);
+                        }
+                    }
+                }
+        );
+    }
+
+    /**
+     * Hands each get its aliased field, streamed into a model. With {@code errors}, a get
+     * whose alias an error names fails with that error and the others still succeed.
+     */
+    private void answer(List<String> keys, List<GetKey> gets, String data, GraphQLResponseException errors) {
+        Model[] records = new Model[keys.size()];
+        ApiException[] failures = new ApiException[keys.size()];
+        try (JsonReader reader = new JsonReader(new StringReader(data))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                int i = aliasIndex(reader.nextName(), keys.size());
+                if (i < 0) {
+                    reader.skipValue();
+                    continue;
+                }
+                try {
+                    records[i] = ModelAccessors.fromJsonRow(ModelAccessors.of(gets.get(i).type), reader);
+                } catch (NullPointerException missingField) {
+                    // The builder rejects a missing required field after the row is read.
+                    failures[i] = malformed(missingField);
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException error) {
+            for (String key : keys) {
+                fail(key, malformed(error));
+            }
+            return;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            List<String> messages = errors != null ? errors.messagesFor(alias(i)) : Collections.<String>emptyList();
+            if (!messages.isEmpty()) {
+                fail(keys.get(i), new ApiException("Lookup of " + keys.get(i) + " failed: " + messages,
+                        "Inspect the errors returned by AppSync."));
+            } else if (failures[i] != null) {
+                fail(keys.get(i), failures[i]);
+            } else {
+                remember(keys.get(i), records[i]);
+                succeed(keys.get(i), records[i]);
+            }
+        }
+    }
+
+    static String batchDocument(List<GetKey> gets) {
+        StringBuilder document = new StringBuilder("query BatchGet {");
+        for (int i = 0; i < gets.size(); i++) {
+            GetKey get = gets.get(i);
+            document.append(' ').append(alias(i)).append(": get").append(get.modelName)
+                    .append("(id: ").append(JSONObject.quote(get.id)).append(") { ")
+                    .append(GraphQLSelections.of(get.modelName)).append(" }");
+        }
+        return document.append(" }").toString();
+    }
+
+    private static String alias(int index) {
+        return "g" + index;
+    }
+
+    /** @return the index {@code name} is the alias of, or -1 */
+    private static int aliasIndex(String name, int count) {
+        for (int i = 0; i < count; i++) {
+            if (alias(i).equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean answerFromCache(String key, Consumer<Object> onResult) {
+        CacheEntry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.expiresAtNanos < System.nanoTime()) {
+                cache.remove(key);
+                return false;
+            }
+        }
+        metrics.cacheHits.incrementAndGet();
+        onResult.accept(entry.value);
+        return true;
+    }
+
+    private void remember(String key, Object value) {
+        long now = System.nanoTime();
+        synchronized (cache) {
+            Iterator<CacheEntry> oldest = cache.values().iterator();
+            while (oldest.hasNext() && oldest.next().expiresAtNanos < now) {
+                oldest.remove();
+            }
+            // Removed first so the key moves to the end, in expiry order.
+            cache.remove(key);
+            cache.put(key, new CacheEntry(value, now + TimeUnit.MILLISECONDS.toNanos(cacheTtlMs)));
+            if (cache.size() > cacheSize) {
+                Iterator<String> eldest = cache.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /** @return how many results the cache holds, expired or not */
+    int cachedCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Registers the callbacks against the request for this key. Returns true when an
+     * identical request is already in flight and the caller should not issue another.
+     * Must be called while holding the client's lock.
+     */
+    private boolean joinInFlight(String key, Consumer<Object> onResult, Consumer<ApiException> onError) {
+        List<Waiter> waiters = inFlight.get(key);
+        if (waiters != null) {
+            metrics.coalesced.incrementAndGet();
+            waiters.add(new Waiter(onResult, onError));
+            return true;
+        }
+        waiters = new ArrayList<>();
+        waiters.add(new Waiter(onResult, onError));
+        inFlight.put(key, waiters);
+        return false;
+    }
+
+    private void succeed(String key, Object value) {
+        List<Waiter> waiters;
+        synchronized (this) {
+            waiters = inFlight.remove(key);
+        }
+        if (waiters != null) {
+            for (Waiter waiter : waiters) {
+                waiter.onResult.accept(value);
+            }
+        }
+    }
+
+    private void fail(String key, ApiException error) {
+        List<Waiter> waiters;
+        synchronized (this) {
+            waiters = inFlight.remove(key);
+        }
+        if (waiters != null) {
+            for (Waiter waiter : waiters) {
+                waiter.onError.accept(error);
+            }
+        }
+    }
+
+    private static ApiException closedError() {
+        return new ApiException("The client is closed", "Create a new BatchingApiClient.");
+    }
+
+    private static ApiException malformed(Exception error) {
+        return new ApiException("Malformed GraphQL response", error, "Check the selection set of the document.");
+    }
+
+    static final class GetKey {
+        final Class<? extends Model> type;
+        final String modelName;
+        final String id;
+
+        GetKey(Class<? extends Model> type, String modelName, String id) {
+            this.type = type;
+            this.modelName = modelName;
+            this.id = id;
+        }
+    }
+
+    private static final class Waiter {
+        final Consumer<Object> onResult;
+        final Consumer<ApiException> onError;
+
+        Waiter(Consumer<Object> onResult, Consumer<ApiException> onError) {
+            this.onResult = onResult;
+            this.onError = onError;
+        }
+    }
+
+    private static final class CacheEntry {
+        /** A model for a get, the JSON data for a query; null for a get that found nothing. */
+        final Object value;
+        final long expiresAtNanos;
+
+        CacheEntry(Object value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * Counters for how much traffic the client absorbed. {@link #requestsSaved()} is the
+     * number of logical requests that did not turn into their own network call.
+     */
+    public static final class Metrics {
+        final AtomicLong requested = new AtomicLong();
+        final AtomicLong networkRequests = new AtomicLong();
+        final AtomicLong cacheHits = new AtomicLong();
+        final AtomicLong coalesced = new AtomicLong();
+        final AtomicLong batchedGets = new AtomicLong();
+
+        public long getRequested() {
+            return requested.get();
+        }
+
+        public long getNetworkRequests() {
+            return networkRequests.get();
+        }
+
+        public long getCacheHits() {
+            return cacheHits.get();
+        }
+
+        public long getCoalesced() {
+            return coalesced.get();
+        }
+
+        public long getBatchedGets() {
+            return batchedGets.get();
+        }
+
+        public long requestsSaved() {
+            return requested.get() - networkRequests.get();
+        }
+
+        @Override
+        public String toString() {
+            return "requested=" + getRequested()
+                    + ", network=" + getNetworkRequests()
+                    + ", cacheHits=" + getCacheHits()
+                    + ", coalesced=" + getCoalesced()
+                    + ", batchedGets=" + getBatchedGets()
+                    + ", saved=" + requestsSaved();
+        }
+    }
+}
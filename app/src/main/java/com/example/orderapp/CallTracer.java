@@ -0,0 +1,174 @@
+package com.example.orderapp;
+
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every traced DataStore and API call: the thread that made it, how long the
+ * call itself blocked that thread, how long until its callback arrived, and the size of
+ * its payload. Work on the main thread that takes longer than a frame is logged as it
+ * happens; {@link #writeReport(File)} exports per-call histograms for CI to compare
+ * across builds.
+ */
+public final class CallTracer {
+    private static final String LOG_TAG = "OrderApp";
+    public static final long FRAME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+    private static final CallTracer INSTANCE = new CallTracer();
+
+    private final ConcurrentHashMap<String, CallStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public static CallTracer get() {
+        return INSTANCE;
+    }
+
+    /** Tracing is off until enabled, so release builds pay nothing for it. */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts tracing one call; end the call site with {@link Span#returned()}. While tracing
+     * is disabled this returns a span that records nothing.
+     */
+    public Span begin(String call) {
+        return enabled ? new Span(statsFor(call), call) : Span.DISABLED;
+    }
+
+    /**
+     * Runs a block that is expected to stay within a frame when run on the main thread,
+     * such as a click handler.
+     */
+    public void section(String name, Runnable block) {
+        Span span = begin(name);
+        try {
+            block.run();
+        } finally {
+            span.returned();
+        }
+    }
+
+    private CallStats statsFor(String call) {
+        return stats.computeIfAbsent(call, name -> new CallStats());
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        boolean first = true;
+        for (Map.Entry<String, CallStats> entry : new TreeMap<>(stats).entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            CallStats call = entry.getValue();
+            json.append('"').append(entry.getKey()).append("\":{")
+                    .append("\"calls\":").append(call.callSite.count())
+                    .append(",\"mainThreadCalls\":").append(call.mainThreadCalls.get())
+                    .append(",\"overFrameBudget\":").append(call.overFrameBudget.get())
+                    .append(",\"payloadBytes\":").append(call.payloadBytes.get())
+                    .append(",\"threads\":").append(call.threads.size())
+                    .append(",\"callSite\":").append(call.callSite.toJson())
+                    .append(",\"completion\":").append(call.completion.toJson())
+                    .append('}');
+            first = false;
+        }
+        return json.append('}').toString();
+    }
+
+    /** Writes {@link #toJson()} to the file; call from a background thread. */
+    public void writeReport(File file) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(toJson());
+        }
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private static boolean onMainThread() {
+        Looper main = Looper.getMainLooper();
+        return main != null && main.getThread() == Thread.currentThread();
+    }
+
+    private static final class CallStats {
+        final LatencyHistogram callSite = new LatencyHistogram();
+        final LatencyHistogram completion = new LatencyHistogram();
+        final AtomicLong mainThreadCalls = new AtomicLong();
+        final AtomicLong overFrameBudget = new AtomicLong();
+        final AtomicLong payloadBytes = new AtomicLong();
+        final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    public static final class Span {
+        static final Span DISABLED = new Span(null, null);
+
+        private final CallStats stats;
+        private final String call;
+        private final long startNanos = System.nanoTime();
+        private final boolean mainThread;
+
+        private Span(CallStats stats, String call) {
+            this.stats = stats;
+            this.call = call;
+            this.mainThread = stats != null && onMainThread();
+            if (stats != null) {
+                stats.threads.add(Thread.currentThread().getName());
+            }
+        }
+
+        /** Marks the end of the synchronous part of the call, on the calling thread. */
+        public void returned() {
+            if (stats == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - startNanos;
+            stats.callSite.record(nanos);
+            if (mainThread) {
+                stats.mainThreadCalls.incrementAndGet();
+                if (nanos > FRAME_BUDGET_NANOS) {
+                    stats.overFrameBudget.incrementAndGet();
+                    Log.w(LOG_TAG, call + " blocked the main thread for "
+                            + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+                }
+            }
+        }
+
+        /** Marks the arrival of the call's result callback. */
+        public void completed(long payloadBytes) {
+            completed();
+            payload(payloadBytes);
+        }
+
+        /** Marks the arrival of a result whose size is added later with {@link #payload(long)}. */
+        public void completed() {
+            if (stats != null) {
+                stats.completion.record(System.nanoTime() - startNanos);
+            }
+        }
+
+        /** Adds to the call's payload size; may be called after {@link #completed()}, on any thread. */
+        public void payload(long payloadBytes) {
+            if (stats != null) {
+                stats.payloadBytes.addAndGet(payloadBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.orderapp;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Negotiates compressed responses for the API plugin's GraphQL traffic, see
+ * {@link PayloadCompression}. Installed through
+ * {@code AWSApiPlugin.builder().configureClient(...)} when the build enables
+ * {@code API_COMPRESSION}.
+ *
+ * <p>Every request offers the {@link PayloadCompression#PREFERRED} codings, and a response
+ * in any of them is decoded here. Naming the codings replaces OkHttp's own transparent
+ * gzip, which only offers and decodes gzip. Request bodies are sent as they are: the API
+ * is AppSync, which rejects a compressed request. With tracing on, {@link CallTracer}
+ * records the time spent decoding each body and its size on the wire as
+ * {@code API.decode(<coding>)}.
+ */
+public final class CompressingInterceptor implements Interceptor {
+    private static final String ACCEPT_ENCODING = PayloadCompression.acceptEncoding(PayloadCompression.PREFERRED);
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request().newBuilder().header("Accept-Encoding", ACCEPT_ENCODING).build();
+        Response response = chain.proceed(request);
+        PayloadCompression.Coding coding = PayloadCompression.Coding.forToken(response.header("Content-Encoding"));
+        ResponseBody responseBody = response.body();
+        if (coding == null || coding == PayloadCompression.Coding.IDENTITY || responseBody == null) {
+            // An unknown coding is left for the caller to fail on.
+            return response;
+        }
+        byte[] decoded;
+        try {
+            byte[] wire = responseBody.bytes();
+            CallTracer.Span span = CallTracer.get().begin("API.decode(" + coding + ")");
+            decoded = PayloadCompression.decode(coding, wire);
+            span.returned();
+            span.completed(wire.length);
+        } finally {
+            responseBody.close();
+        }
+        return response.newBuilder()
+                .removeHeader("Content-Encoding")
+                .removeHeader("Content-Length")
+                .body(ResponseBody.create(decoded, responseBody.contentType()))
+                .build();
+    }
+}
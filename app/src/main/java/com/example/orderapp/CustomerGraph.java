@@ -0,0 +1,52 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Address;
+import com.amplifyframework.datastore.generated.model.Customer;
+import com.amplifyframework.datastore.generated.model.Order;
+import com.amplifyframework.datastore.generated.model.Product;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A customer together with its addresses, its orders (oldest first, as served by
+ * the byCustomerByDate index) and every product those orders reference.
+ */
+public final class CustomerGraph {
+    private final Customer customer;
+    private final List<Address> addresses;
+    private final List<Order> ordersByDate;
+    private final Map<String, Product> productsById;
+
+    CustomerGraph(Customer customer, List<Address> addresses, List<Order> ordersByDate,
+                  Map<String, Product> productsById) {
+        this.customer = customer;
+        this.addresses = Collections.unmodifiableList(addresses);
+        this.ordersByDate = Collections.unmodifiableList(ordersByDate);
+        this.productsById = Collections.unmodifiableMap(productsById);
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public List<Address> getAddresses() {
+        return addresses;
+    }
+
+    public List<Order> getOrdersByDate() {
+        return ordersByDate;
+    }
+
+    public Map<String, Product> getProductsById() {
+        return productsById;
+    }
+
+    /**
+     * @return the product referenced by the order, or null if it is not in the local store
+     */
+    public Product productFor(Order order) {
+        return productsById.get(order.getProductId());
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.core.model.query.predicate.QueryField;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateGroup;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.generated.model.Address;
+import com.amplifyframework.datastore.generated.model.Customer;
+import com.amplifyframework.datastore.generated.model.Order;
+import com.amplifyframework.datastore.generated.model.Product;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads a {@link CustomerGraph} without the N+1 pattern of resolving each order's
+ * product separately. A graph costs one query for the customer, one for its addresses,
+ * one for its orders and one per {@link #ID_BATCH_SIZE} distinct products.
+ */
+public final class CustomerGraphLoader {
+    static final int ID_BATCH_SIZE = 50;
+
+    private final DataStoreQuery store;
+
+    public CustomerGraphLoader() {
+        this(TracedDataStore::query);
+    }
+
+    CustomerGraphLoader(DataStoreQuery store) {
+        this.store = store;
+    }
+
+    public void load(String customerId,
+                     Consumer<CustomerGraph> onResult,
+                     Consumer<DataStoreException> onError) {
+        Assembly assembly = new Assembly(onResult, onError);
+
+        store.query(Customer.class, Where.matches(Customer.ID.eq(customerId)),
+                matches -> {
+                    if (!matches.hasNext()) {
+                        assembly.fail(new DataStoreException("No customer with id " + customerId,
+                                "Check that the customer has been synced to this device."));
+                        return;
+                    }
+                    assembly.customer = matches.next();
+                    assembly.complete();
+                },
+                assembly::fail
+        );
+
+        store.query(Address.class, Where.matches(Address.CUSTOMER_ID.eq(customerId)),
+                matches -> {
+                    assembly.addresses = drain(matches);
+                    assembly.complete();
+                },
+                assembly::fail
+        );
+
+        store.query(Order.class,
+                Where.matches(Order.CUSTOMER_ID.eq(customerId)).sorted(Order.DATE.ascending()),
+                matches -> {
+                    assembly.orders = inDateOrder(drain(matches));
+                    loadProducts(assembly);
+                },
+                assembly::fail
+        );
+    }
+
+    private void loadProducts(Assembly assembly) {
+        Set<String> productIds = new LinkedHashSet<>();
+        for (Order order : assembly.orders) {
+            productIds.add(order.getProductId());
+        }
+        List<List<String>> batches = partition(new ArrayList<>(productIds), ID_BATCH_SIZE);
+        if (batches.isEmpty()) {
+            assembly.complete();
+            return;
+        }
+
+        AtomicInteger pendingBatches = new AtomicInteger(batches.size());
+        for (List<String> batch : batches) {
+            store.query(Product.class, Where.matches(anyIdOf(Product.ID, batch)),
+                    matches -> {
+                        while (matches.hasNext()) {
+                            Product product = matches.next();
+                            assembly.products.put(product.getId(), product);
+                        }
+                        if (pendingBatches.decrementAndGet() == 0) {
+                            assembly.complete();
+                        }
+                    },
+                    assembly::fail
+            );
+        }
+    }
+
+    /**
+     * The Order query sorts on the stored {@code date} strings, which is the date order only
+     * for values in the {@link SortableDates} encoding. Until {@link DateEncodingMigration}
+     * has rewritten the older {@code Date.toString()} values, a list holding any is sorted
+     * again here by the instant; unreadable dates go first.
+     */
+    static List<Order> inDateOrder(List<Order> orders) {
+        for (Order order : orders) {
+            if (!SortableDates.isOrderDate(order.getDate())) {
+                List<Order> sorted = new ArrayList<>(orders);
+                sorted.sort(Comparator.comparingLong(each -> SortableDates.legacyMillis(each.getDate())));
+                return sorted;
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Builds the IN-list predicate {@code id == a OR id == b OR ...} for one batch.
+     */
+    static QueryPredicate anyIdOf(QueryField idField, List<String> ids) {
+        if (ids.size() == 1) {
+            return idField.eq(ids.get(0));
+        }
+        List<QueryPredicate> alternatives = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            alternatives.add(idField.eq(id));
+        }
+        return new QueryPredicateGroup(QueryPredicateGroup.Type.OR, alternatives);
+    }
+
+    static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += size) {
+            batches.add(items.subList(start, Math.min(start + size, items.size())));
+        }
+        return batches;
+    }
+
+    private static <T> List<T> drain(Iterator<T> matches) {
+        List<T> items = new ArrayList<>();
+        while (matches.hasNext()) {
+            items.add(matches.next());
+        }
+        return items;
+    }
+
+    /**
+     * Collects the pieces of one graph as the queries return, in whatever order they
+     * arrive, and hands the graph over once the customer, address and order/product
+     * branches have all completed.
+     */
+    private static final class Assembly {
+        private static final int BRANCHES = 3;
+
+        private final Consumer<CustomerGraph> onResult;
+        private final Consumer<DataStoreException> onError;
+        private final AtomicInteger pendingBranches = new AtomicInteger(BRANCHES);
+        private final AtomicBoolean failed = new AtomicBoolean(false);
+        private final Map<String, Product> products = new ConcurrentHashMap<>();
+        private volatile Customer customer;
+        private volatile List<Address> addresses;
+        private volatile List<Order> orders;
+
+        Assembly(Consumer<CustomerGraph> onResult, Consumer<DataStoreException> onError) {
+            this.onResult = onResult;
+            this.onError = onError;
+        }
+
+        void complete() {
+            if (pendingBranches.decrementAndGet() == 0 && !failed.get()) {
+                onResult.accept(new CustomerGraph(customer, addresses, orders, products));
+            }
+        }
+
+        void fail(DataStoreException error) {
+            if (failed.compareAndSet(false, true)) {
+                onError.accept(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Consumer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds customers by the start of their name on the backend, for {@link CustomerSearch},
+ * reading only ids and names through a {@link ProjectedListQuery} of
+ * {@link CustomerName#PROJECTION}. AppSync applies a list filter to each page after reading it, so a page can come back
+ * short or empty with a token for more; a lookup reads on until it has enough names or
+ * has read {@link #MAX_PAGES} pages. As in AppSync's {@code beginsWith}, case matters.
+ */
+public final class CustomerLookup {
+    static final int PAGE_SIZE = 100;
+    static final int MAX_PAGES = 5;
+
+    private final ProjectedListQuery<CustomerName> names;
+
+    public CustomerLookup(GraphQLTransport transport) {
+        this.names = new ProjectedListQuery<>(transport, CustomerName.PROJECTION);
+    }
+
+    /** @param onResult receives at most {@code limit} customers, in the backend's order */
+    public void find(String prefix, int limit,
+                     Consumer<List<CustomerName>> onResult, Consumer<ApiException> onError) {
+        Map<String, Object> filter = Collections.<String, Object>singletonMap("name",
+                Collections.singletonMap("beginsWith", prefix));
+        fetch(filter, null, 0, limit, new ArrayList<>(), onResult, onError);
+    }
+
+    private void fetch(Map<String, Object> filter, String nextToken, int pages, int limit, List<CustomerName> found,
+                       Consumer<List<CustomerName>> onResult, Consumer<ApiException> onError) {
+        names.fetchPage(filter, PAGE_SIZE, nextToken,
+                page -> {
+                    for (CustomerName name : page.getItems()) {
+                        if (found.size() < limit) {
+                            found.add(name);
+                        }
+                    }
+                    if (found.size() >= limit || page.getNextToken() == null || pages + 1 >= MAX_PAGES) {
+                        onResult.accept(found);
+                    } else {
+                        fetch(filter, page.getNextToken(), pages + 1, limit, found, onResult, onError);
+                    }
+                },
+                onError
+        );
+    }
+
+    public ProjectedListQuery.Stats getStats() {
+        return names.getStats();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.orderapp;
+
+/**
+ * Read-only projection of a {@code Customer} for name lists: no address or order connections.
+ */
+public final class CustomerName {
+    public static final ListProjection<CustomerName> PROJECTION =
+            new ListProjection<CustomerName>("Customer", "Customers", "id", "name") {
+                @Override
+                protected CustomerName map(Object[] values) {
+                    return new CustomerName((String) values[0], (String) values[1]);
+                }
+            };
+
+    private final String id;
+    private final String name;
+
+    CustomerName(String id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerName {id=" + id + ", name=" + name + "}";
+    }
+}
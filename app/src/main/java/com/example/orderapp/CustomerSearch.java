@@ -0,0 +1,44 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The customer search box's lookup. Customers come from the local {@link NameSearchIndex}
+ * first, which needs no network, ignores case and forgives a typo in longer queries. Only
+ * when the index has none, e.g. before the DataStore has synced them, does the search
+ * fall back to the backend through {@link CustomerLookup}.
+ */
+public final class CustomerSearch {
+    /** Queries shorter than this must match exactly; one typo in them matches almost anything. */
+    static final int TYPO_MIN_LENGTH = 4;
+
+    private final NameSearchIndex index;
+    private final CustomerLookup lookup;
+
+    public CustomerSearch(NameSearchIndex index, CustomerLookup lookup) {
+        this.index = index;
+        this.lookup = lookup;
+    }
+
+    /**
+     * @param onResult receives at most {@code limit} customers; on the calling thread when
+     *     the index has them
+     */
+    public void find(String query, int limit,
+                     Consumer<List<CustomerName>> onResult, Consumer<ApiException> onError) {
+        int maxTypos = query.trim().length() >= TYPO_MIN_LENGTH ? 1 : 0;
+        List<CustomerName> local = new ArrayList<>();
+        for (NameSearchIndex.Hit hit : index.search(query, NameSearchIndex.Kind.CUSTOMER, maxTypos, limit)) {
+            local.add(new CustomerName(hit.getId(), hit.getName()));
+        }
+        if (!local.isEmpty()) {
+            onResult.accept(local);
+            return;
+        }
+        lookup.find(query, limit, onResult, onError);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.DataStoreItemChange;
+
+/**
+ * The {@code DataStore.observe} call, as taken by classes that follow the local store so
+ * that tests can hand them a fake store. The app passes {@code TracedDataStore::observe}.
+ */
+public interface DataStoreObserve {
+    <T extends Model> void observe(Class<T> itemClass,
+                                   Consumer<Cancelable> onStart,
+                                   Consumer<DataStoreItemChange<T>> onChange,
+                                   Consumer<DataStoreException> onError,
+                                   Action onComplete);
+}
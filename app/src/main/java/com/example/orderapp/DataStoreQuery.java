@@ -0,0 +1,19 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.datastore.DataStoreException;
+
+import java.util.Iterator;
+
+/**
+ * The {@code DataStore.query} call, as taken by classes that read the local store so that
+ * tests can hand them a fake store. The app passes {@code TracedDataStore::query}.
+ */
+public interface DataStoreQuery {
+    <T extends Model> void query(Class<T> itemClass,
+                                 QueryOptions options,
+                                 Consumer<Iterator<T>> onResult,
+                                 Consumer<DataStoreException> onError);
+}
@@ -0,0 +1,16 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.DataStoreException;
+
+/**
+ * The {@code DataStore.save} and {@code DataStore.delete} calls, as taken by classes that
+ * write the local store so that tests can hand them a fake store. The app passes
+ * {@code TracedDataStore::write}.
+ */
+public interface DataStoreWrite {
+    /** Saves {@code item}, or deletes it if {@code delete}. */
+    void write(Model item, boolean delete, Action onDone, Consumer<DataStoreException> onError);
+}
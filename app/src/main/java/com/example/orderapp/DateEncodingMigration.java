@@ -0,0 +1,222 @@
+package com.example.orderapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.DataStoreItemChange;
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Backfills {@link SortableDates} encodings into Orders and Employees written before it:
+ * every row whose {@code date} or {@code startDate} is in another form is saved again with
+ * the converted value, which also syncs the fix to AppSync. Values that cannot be read as a
+ * date are logged and left alone. {@link #runOnce()} runs until one pass over both models
+ * has had every rewrite confirmed, recorded in its own preferences file.
+ *
+ * <p>Older clients can still write legacy values after that pass, and those arrive through
+ * sync; {@link #watch()} rewrites them as the DataStore reports them.
+ */
+public final class DateEncodingMigration {
+    private static final String LOG_TAG = "OrderApp";
+    private static final String PREFERENCES_NAME = "orderapp_migrations";
+    private static final String DONE_KEY = "sortableDates.v1";
+
+    /** Where the finished pass is recorded. */
+    interface Progress {
+        boolean isDone();
+
+        void markDone();
+    }
+
+    private final Progress progress;
+    private final DataStoreQuery store;
+    private final DataStoreWrite writer;
+    private final DataStoreObserve observer;
+
+    public DateEncodingMigration(Context context) {
+        this(preferences(context.getApplicationContext()
+                        .getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE)),
+                TracedDataStore::query, TracedDataStore::write, TracedDataStore::observe);
+    }
+
+    DateEncodingMigration(Progress progress, DataStoreQuery store, DataStoreWrite writer,
+                          DataStoreObserve observer) {
+        this.progress = progress;
+        this.store = store;
+        this.writer = writer;
+        this.observer = observer;
+    }
+
+    private static Progress preferences(SharedPreferences preferences) {
+        return new Progress() {
+            @Override
+            public boolean isDone() {
+                return preferences.getBoolean(DONE_KEY, false);
+            }
+
+            @Override
+            public void markDone() {
+                preferences.edit().putBoolean(DONE_KEY, true).apply();
+            }
+        };
+    }
+
+    /**
+     * Rewrites every legacy row unless a past pass has finished. The pass is recorded once
+     * every rewrite has been saved; after a failure the next run goes over the rows again.
+     */
+    public void runOnce() {
+        if (progress.isDone()) {
+            return;
+        }
+        // The two queries, then one per rewrite issued.
+        AtomicInteger pending = new AtomicInteger(2);
+        AtomicInteger failures = new AtomicInteger();
+        Runnable finished = () -> {
+            if (pending.decrementAndGet() == 0) {
+                if (failures.get() == 0) {
+                    progress.markDone();
+                    Log.i(LOG_TAG, "Date migration finished");
+                } else {
+                    Log.w(LOG_TAG, "Date migration had " + failures.get() + " failures; it runs again next time");
+                }
+            }
+        };
+        Consumer<DataStoreException> failed = failure -> {
+            Log.e(LOG_TAG, "Date migration failed", failure);
+            failures.incrementAndGet();
+            finished.run();
+        };
+
+        store.query(Order.class, Where.matchesAll(),
+                matches -> {
+                    int rewritten = 0;
+                    while (matches.hasNext()) {
+                        Order order = normalized(matches.next());
+                        if (order != null) {
+                            pending.incrementAndGet();
+                            writer.write(order, false, finished::run, failed);
+                            rewritten++;
+                        }
+                    }
+                    Log.i(LOG_TAG, "Rewriting the date of " + rewritten + " orders");
+                    finished.run();
+                },
+                failed
+        );
+        store.query(Employee.class, Where.matchesAll(),
+                matches -> {
+                    int rewritten = 0;
+                    while (matches.hasNext()) {
+                        Employee employee = normalized(matches.next());
+                        if (employee != null) {
+                            pending.incrementAndGet();
+                            writer.write(employee, false, finished::run, failed);
+                            rewritten++;
+                        }
+                    }
+                    Log.i(LOG_TAG, "Rewriting the start date of " + rewritten + " employees");
+                    finished.run();
+                },
+                failed
+        );
+    }
+
+    /**
+     * Rewrites legacy dates in Orders and Employees as they are saved or synced from now on.
+     *
+     * @return stops watching
+     */
+    public Cancelable watch() {
+        Cancelable orders = observe(Order.class, DateEncodingMigration::normalized);
+        Cancelable employees = observe(Employee.class, DateEncodingMigration::normalized);
+        return () -> {
+            orders.cancel();
+            employees.cancel();
+        };
+    }
+
+    /** A normalizer returns the row with its dates converted, or null if it needs no rewrite. */
+    private interface Normalizer<T> {
+        T normalized(T item);
+    }
+
+    private <T extends Model> Cancelable observe(Class<T> type, Normalizer<T> normalizer) {
+        Watch watch = new Watch();
+        observer.observe(type, watch::started,
+                change -> {
+                    if (change.type() == DataStoreItemChange.Type.DELETE) {
+                        return;
+                    }
+                    T rewritten = normalizer.normalized(change.item());
+                    if (rewritten != null) {
+                        writer.write(rewritten, false,
+                                () -> Log.i(LOG_TAG, "Rewrote the dates of " + type.getSimpleName() + " "
+                                        + rewritten.getId()),
+                                failure -> Log.e(LOG_TAG, "Date rewrite of " + rewritten.getId() + " failed",
+                                        failure));
+                    }
+                },
+                failure -> Log.e(LOG_TAG, type.getSimpleName() + " date watch failed", failure),
+                () -> { }
+        );
+        return watch;
+    }
+
+    /** An observation that can be cancelled before it has started. */
+    private static final class Watch implements Cancelable {
+        private Cancelable observation;
+        private boolean cancelled;
+
+        synchronized void started(Cancelable started) {
+            observation = started;
+            if (cancelled) {
+                started.cancel();
+            }
+        }
+
+        @Override
+        public synchronized void cancel() {
+            cancelled = true;
+            if (observation != null) {
+                observation.cancel();
+            }
+        }
+    }
+
+    /** @return the order with its date converted, or null if it is already converted or unreadable */
+    static Order normalized(Order order) {
+        if (SortableDates.isOrderDate(order.getDate())) {
+            return null;
+        }
+        String date = SortableDates.toOrderDate(order.getDate());
+        if (date == null) {
+            Log.w(LOG_TAG, "Order " + order.getId() + " has an unreadable date " + order.getDate());
+            return null;
+        }
+        return order.copyOfBuilder().date(date).build();
+    }
+
+    /** @return the employee with its start date converted, or null if already converted or unreadable */
+    static Employee normalized(Employee employee) {
+        if (SortableDates.isStartDate(employee.getStartDate())) {
+            return null;
+        }
+        String startDate = SortableDates.toStartDate(employee.getStartDate());
+        if (startDate == null) {
+            Log.w(LOG_TAG, "Employee " + employee.getId() + " has an unreadable start date "
+                    + employee.getStartDate());
+            return null;
+        }
+        return employee.copyOfBuilder().startDate(startDate).build();
+    }
+}
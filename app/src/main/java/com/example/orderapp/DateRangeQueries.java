@@ -0,0 +1,86 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Date range queries shaped to the schema's sort-key indexes: an equality on the index's
+ * partition field plus a half-open range on its {@link SortableDates} sort key, ordered by
+ * that key. The DataStore answers them with a range scan of the matching SQLite index
+ * instead of reading and comparing every row.
+ */
+public final class DateRangeQueries {
+    private final DataStoreQuery store;
+
+    public DateRangeQueries() {
+        this(TracedDataStore::query);
+    }
+
+    DateRangeQueries(DataStoreQuery store) {
+        this.store = store;
+    }
+
+    /**
+     * Orders of a representative dated from {@code fromMillis} inclusive to {@code toMillis}
+     * exclusive ({@code byRepresentativebyDate}).
+     */
+    public void ordersOfRepresentative(String representativeId, long fromMillis, long toMillis,
+                                       Consumer<List<Order>> onResult, Consumer<DataStoreException> onError) {
+        collect(Order.class,
+                Where.matches(Order.ACCOUNT_REPRESENTATIVE_ID.eq(representativeId)
+                        .and(Order.DATE.ge(SortableDates.orderDate(fromMillis)))
+                        .and(Order.DATE.lt(SortableDates.orderDate(toMillis))))
+                        .sorted(Order.DATE.ascending()),
+                onResult, onError);
+    }
+
+    /**
+     * Orders of a customer dated from {@code fromMillis} inclusive to {@code toMillis}
+     * exclusive ({@code byCustomerByDate}).
+     */
+    public void ordersOfCustomer(String customerId, long fromMillis, long toMillis,
+                                 Consumer<List<Order>> onResult, Consumer<DataStoreException> onError) {
+        collect(Order.class,
+                Where.matches(Order.CUSTOMER_ID.eq(customerId)
+                        .and(Order.DATE.ge(SortableDates.orderDate(fromMillis)))
+                        .and(Order.DATE.lt(SortableDates.orderDate(toMillis))))
+                        .sorted(Order.DATE.ascending()),
+                onResult, onError);
+    }
+
+    /**
+     * Employees with the given {@code newHire} value who started on a day from
+     * {@code fromMillis} inclusive to {@code toMillis} exclusive ({@code newHireByStartDate}).
+     */
+    public void employeesStartingBetween(String newHire, long fromMillis, long toMillis,
+                                         Consumer<List<Employee>> onResult,
+                                         Consumer<DataStoreException> onError) {
+        collect(Employee.class,
+                Where.matches(Employee.NEW_HIRE.eq(newHire)
+                        .and(Employee.START_DATE.ge(SortableDates.startDate(fromMillis)))
+                        .and(Employee.START_DATE.lt(SortableDates.startDate(toMillis))))
+                        .sorted(Employee.START_DATE.ascending()),
+                onResult, onError);
+    }
+
+    private <T extends Model> void collect(Class<T> type, QueryOptions options,
+                                           Consumer<List<T>> onResult, Consumer<DataStoreException> onError) {
+        store.query(type, options,
+                matches -> {
+                    List<T> items = new ArrayList<>();
+                    while (matches.hasNext()) {
+                        items.add(matches.next());
+                    }
+                    onResult.accept(items);
+                },
+                onError);
+    }
+}
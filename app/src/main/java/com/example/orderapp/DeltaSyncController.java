@@ -0,0 +1,217 @@
+package com.example.orderapp;
+
+import android.util.Log;
+
+import com.amplifyframework.AmplifyException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brings app-side copies of the models up to date with the backend, asking only for
+ * the changes since the last completed sync whenever that sync is still inside the
+ * retention window, and paging through a full base sync otherwise.
+ *
+ * <p>Sync timestamps live in a {@link SyncStateStore} rather than in the DataStore
+ * database, so they also survive {@code Amplify.DataStore.clear()}; after wiping the local
+ * copies, {@link #reset} them so the next sync refills the copies from a base sync.
+ * Syncing blocks; run it on a background thread.
+ */
+public final class DeltaSyncController {
+    private static final String LOG_TAG = "OrderApp";
+
+    /** Matches the DataStore's default full sync interval. */
+    public static final long DEFAULT_RETENTION_MS = TimeUnit.HOURS.toMillis(24);
+    /**
+     * How long a checkpoint's token is trusted. AppSync does not document how long a
+     * {@code nextToken} stays valid, so this is kept well short of a day.
+     */
+    public static final long DEFAULT_TOKEN_RETENTION_MS = TimeUnit.HOURS.toMillis(1);
+
+    public enum Mode {
+        BASE,
+        DELTA
+    }
+
+    private final SyncPageSource source;
+    private final SyncStateStore state;
+    private final SyncSink sink;
+    private final long retentionMs;
+    private final long tokenRetentionMs;
+    private final AdaptivePageSizer pageSizer;
+
+    public DeltaSyncController(SyncPageSource source, SyncStateStore state, SyncSink sink) {
+        this(source, state, sink, DEFAULT_RETENTION_MS, DEFAULT_TOKEN_RETENTION_MS, new AdaptivePageSizer());
+    }
+
+    DeltaSyncController(SyncPageSource source, SyncStateStore state, SyncSink sink, long retentionMs,
+                        long tokenRetentionMs, AdaptivePageSizer pageSizer) {
+        this.source = source;
+        this.state = state;
+        this.sink = sink;
+        this.retentionMs = retentionMs;
+        this.tokenRetentionMs = tokenRetentionMs;
+        this.pageSizer = pageSizer;
+    }
+
+    /**
+     * Forgets the last sync and any unfinished sync of the models, so that their next sync
+     * is a base sync. A delta sync into emptied copies would only bring back the records
+     * changed since the last sync.
+     */
+    public void reset(List<String> modelNames) {
+        for (String modelName : modelNames) {
+            state.clearCheckpoint(modelName);
+            state.setLastSync(modelName, 0);
+        }
+    }
+
+    public List<Report> syncAll(List<String> modelNames) throws AmplifyException {
+        List<Report> reports = new ArrayList<>(modelNames.size());
+        for (String modelName : modelNames) {
+            reports.add(sync(modelName));
+        }
+        return reports;
+    }
+
+    /**
+     * Syncs one model, continuing from its checkpoint if a previous sync was interrupted.
+     * A failed page leaves the checkpoint of the last page that reached the sink, so
+     * calling this again after reconnecting, or after the process restarts, transfers
+     * each page once. A checkpoint older than the token retention, or whose token the
+     * backend rejects, is dropped and the model syncs again from its last completed sync.
+     */
+    public Report sync(String modelName) throws AmplifyException {
+        SyncCheckpoint checkpoint = state.getCheckpoint(modelName);
+        if (checkpoint != null && System.currentTimeMillis() - checkpoint.getSavedAt() > tokenRetentionMs) {
+            Log.i(LOG_TAG, "Dropping the expired checkpoint of " + modelName);
+            state.clearCheckpoint(modelName);
+            checkpoint = null;
+        }
+        try {
+            return sync(modelName, checkpoint);
+        } catch (SyncTokenRejectedException error) {
+            Log.w(LOG_TAG, "Restarting the sync of " + modelName, error);
+            state.clearCheckpoint(modelName);
+            return sync(modelName, null);
+        }
+    }
+
+    private Report sync(String modelName, SyncCheckpoint checkpoint) throws AmplifyException {
+        Mode mode;
+        long lastSync;
+        if (checkpoint != null) {
+            mode = checkpoint.getMode();
+            lastSync = checkpoint.getLastSync();
+            pageSizer.resume(modelName, checkpoint.getLimit());
+            Log.i(LOG_TAG, "Resuming " + mode + " sync of " + modelName + " after page " + checkpoint.getPages());
+        } else {
+            lastSync = state.getLastSync(modelName);
+            mode = lastSync > 0 && System.currentTimeMillis() - lastSync < retentionMs ? Mode.DELTA : Mode.BASE;
+        }
+
+        long start = System.nanoTime();
+        long startedAt = checkpoint != null ? checkpoint.getStartedAt() : 0;
+        long bytes = checkpoint != null ? checkpoint.getBytes() : 0;
+        int pages = checkpoint != null ? checkpoint.getPages() : 0;
+        int records = checkpoint != null ? checkpoint.getRecords() : 0;
+        String nextToken = checkpoint != null ? checkpoint.getNextToken() : null;
+        do {
+            long pageStart = System.nanoTime();
+            SyncPage page = source.fetch(modelName, mode == Mode.DELTA ? lastSync : null, nextToken,
+                    pageSizer.limitFor(modelName));
+            pageSizer.record(modelName, page.getItems().size(),
+                    (System.nanoTime() - pageStart) / 1e6, page.getPayloadBytes());
+            if (pages == 0) {
+                startedAt = page.getStartedAt();
+            }
+            sink.accept(modelName, page);
+            pages++;
+            records += page.getItems().size();
+            bytes += page.getPayloadBytes();
+            nextToken = page.getNextToken();
+            if (nextToken != null) {
+                state.saveCheckpoint(modelName, new SyncCheckpoint(mode, lastSync, startedAt, nextToken,
+                        pages, records, bytes, pageSizer.limitFor(modelName), System.currentTimeMillis()));
+            }
+        } while (nextToken != null);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        state.setLastSync(modelName, startedAt);
+        state.clearCheckpoint(modelName);
+        if (mode == Mode.BASE) {
+            state.setBaseSyncCost(modelName, bytes, millis);
+        }
+        Report report = new Report(modelName, mode, pages, records, bytes, millis,
+                state.getBaseSyncBytes(modelName), state.getBaseSyncMillis(modelName));
+        Log.i(LOG_TAG, "Sync " + report);
+        return report;
+    }
+
+    /**
+     * Outcome of syncing one model. For a delta sync, the savings are measured against the
+     * cost of the model's most recent base sync.
+     */
+    public static final class Report {
+        private final String modelName;
+        private final Mode mode;
+        private final int pages;
+        private final int records;
+        private final long bytes;
+        private final long millis;
+        private final long baseBytes;
+        private final long baseMillis;
+
+        Report(String modelName, Mode mode, int pages, int records, long bytes, long millis,
+               long baseBytes, long baseMillis) {
+            this.modelName = modelName;
+            this.mode = mode;
+            this.pages = pages;
+            this.records = records;
+            this.bytes = bytes;
+            this.millis = millis;
+            this.baseBytes = baseBytes;
+            this.baseMillis = baseMillis;
+        }
+
+        public String getModelName() {
+            return modelName;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public int getPages() {
+            return pages;
+        }
+
+        public int getRecords() {
+            return records;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public long getBytesSaved() {
+            return mode == Mode.DELTA ? Math.max(0, baseBytes - bytes) : 0;
+        }
+
+        public long getMillisSaved() {
+            return mode == Mode.DELTA ? Math.max(0, baseMillis - millis) : 0;
+        }
+
+        @Override
+        public String toString() {
+            return modelName + " " + mode + ": pages=" + pages + ", records=" + records
+                    + ", bytes=" + bytes + ", millis=" + millis
+                    + ", bytesSaved=" + getBytesSaved() + ", millisSaved=" + getMillisSaved();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A GraphQL response that carried errors, with whatever data came back beside them. A
+ * document of several top-level fields can fail for some fields and still answer the
+ * others; each error names the field (or alias) it belongs to as the first element of
+ * its path.
+ */
+public final class GraphQLResponseException extends ApiException {
+    private final String data;
+    private final List<String> fields;
+    private final List<String> messages;
+
+    /**
+     * @param data   the response's {@code data}, or null if there was none
+     * @param fields per error, the first element of its path, or null for an error of the
+     *               whole request
+     */
+    public GraphQLResponseException(String data, List<String> fields, List<String> messages) {
+        super("GraphQL request failed: " + messages, "Inspect the errors returned by AppSync.");
+        this.data = data;
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+        this.messages = Collections.unmodifiableList(new ArrayList<>(messages));
+    }
+
+    /** @return the data returned beside the errors, or null */
+    public String getData() {
+        return data;
+    }
+
+    /** @return whether every error names a field, so the fields not named were answered */
+    public boolean isPartial() {
+        return data != null && !fields.contains(null);
+    }
+
+    /** @return the messages of the errors for one top-level field or alias */
+    public List<String> messagesFor(String field) {
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (field.equals(fields.get(i))) {
+                found.add(messages.get(i));
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.orderapp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scalar selection sets and plural names of the models, taken from the generated
+ * documents in queries.graphql without their nested connections.
+ */
+final class GraphQLSelections {
+    private static final Map<String, String> SELECTIONS = new HashMap<>();
+    private static final Map<String, String> PLURALS = new HashMap<>();
+    static {
+        String meta = " createdAt updatedAt _version _deleted _lastChangedAt";
+        SELECTIONS.put("Order", "id customerID accountRepresentativeID productID status amount date awsTimeValue" + meta);
+        SELECTIONS.put("Customer", "id name phoneNumber accountRepresentativeID" + meta);
+        SELECTIONS.put("Employee", "id name startDate phoneNumber warehouseID jobTitle newHire" + meta);
+        SELECTIONS.put("Warehouse", "id" + meta);
+        SELECTIONS.put("AccountRepresentative", "id orderTotal salesPeriod" + meta);
+        SELECTIONS.put("Product", "id name" + meta);
+        SELECTIONS.put("Address", "id address city state customerID" + meta);
+        SELECTIONS.put("Blog", "id name awsTimeValue" + meta);
+        SELECTIONS.put("Inventory", "id productID warehouseID inventoryAmount" + meta);
+
+        PLURALS.put("Order", "Orders");
+        PLURALS.put("Customer", "Customers");
+        PLURALS.put("Employee", "Employees");
+        PLURALS.put("Warehouse", "Warehouses");
+        PLURALS.put("AccountRepresentative", "AccountRepresentatives");
+        PLURALS.put("Product", "Products");
+        PLURALS.put("Address", "Addresses");
+        PLURALS.put("Blog", "Blogs");
+        PLURALS.put("Inventory", "Inventories");
+    }
+
+    private GraphQLSelections() {
+    }
+
+    static boolean has(String modelName) {
+        return SELECTIONS.containsKey(modelName);
+    }
+
+    /**
+     * @return true when {@code get<Model>(id:)} looks the model up by id alone; Inventory is
+     *         keyed by productID and warehouseID
+     */
+    static boolean hasSingleIdKey(String modelName) {
+        return has(modelName) && !"Inventory".equals(modelName);
+    }
+
+    /** @return the selection set, or null for unknown models */
+    static String of(String modelName) {
+        return SELECTIONS.get(modelName);
+    }
+
+    /** @return the plural used in list and sync query names, e.g. Inventories */
+    static String pluralOf(String modelName) {
+        return PLURALS.get(modelName);
+    }
+}
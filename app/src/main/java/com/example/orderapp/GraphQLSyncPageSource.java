@@ -0,0 +1,138 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.model.Model;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link SyncPageSource} that runs the {@code sync<Model>s} queries over a {@link GraphQLTransport}.
+ */
+public final class GraphQLSyncPageSource implements SyncPageSource {
+    static final long TIMEOUT_SECONDS = 60;
+
+    private final GraphQLTransport transport;
+
+    public GraphQLSyncPageSource(GraphQLTransport transport) {
+        this.transport = transport;
+    }
+
+    static String document(String modelName) {
+        String plural = GraphQLSelections.pluralOf(modelName);
+        return "query Sync" + plural + "($limit: Int, $nextToken: String, $lastSync: AWSTimestamp) {"
+                + " sync" + plural + "(limit: $limit, nextToken: $nextToken, lastSync: $lastSync) {"
+                + " items { " + GraphQLSelections.of(modelName) + " } nextToken startedAt } }";
+    }
+
+    @Override
+    public SyncPage fetch(String modelName, Long lastSync, String nextToken, int limit) throws ApiException {
+        if (!GraphQLSelections.has(modelName)) {
+            throw new ApiException("No sync query for " + modelName, "Use one of the models in schema.graphql.");
+        }
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("limit", limit);
+        if (nextToken != null) {
+            variables.put("nextToken", nextToken);
+        }
+        if (lastSync != null) {
+            variables.put("lastSync", lastSync);
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> data = new AtomicReference<>();
+        AtomicReference<ApiException> failure = new AtomicReference<>();
+        transport.execute(document(modelName), variables,
+                response -> {
+                    data.set(response);
+                    done.countDown();
+                },
+                error -> {
+                    failure.set(error);
+                    done.countDown();
+                }
+        );
+        try {
+            if (!done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new ApiException("Timed out syncing " + modelName, "Retry when the network is available.");
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while syncing " + modelName, error, "Retry the sync.");
+        }
+        if (failure.get() != null) {
+            if (nextToken != null && isTokenError(failure.get())) {
+                throw new SyncTokenRejectedException(modelName, failure.get());
+            }
+            throw failure.get();
+        }
+        return parse(modelName, data.get());
+    }
+
+    /**
+     * AppSync has no error type of its own for a bad token; the resolver's DynamoDB error
+     * names the token or the starting key it decodes to.
+     */
+    static boolean isTokenError(ApiException error) {
+        String message = String.valueOf(error.getMessage()).toLowerCase(Locale.US);
+        return message.contains("nexttoken") || message.contains("starting key")
+                || message.contains("pagination token");
+    }
+
+    /** Streams the page into models through the model's {@link ModelAccessor}. */
+    static SyncPage parse(String modelName, String data) throws ApiException {
+        ModelAccessor<?> accessor = ModelAccessors.of(ModelRegistry.get().byName(modelName).type);
+        String connection = "sync" + GraphQLSelections.pluralOf(modelName);
+        List<? extends Model> items = null;
+        BitSet deleted = new BitSet();
+        String nextToken = null;
+        long startedAt = 0;
+        try (JsonReader reader = new JsonReader(new StringReader(data))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals(connection)) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else if (name.equals("items")) {
+                        items = ModelAccessors.fromJson(accessor, reader, deleted);
+                    } else if (name.equals("nextToken")) {
+                        nextToken = reader.nextString();
+                    } else if (name.equals("startedAt")) {
+                        startedAt = reader.nextLong();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException | NullPointerException error) {
+            // JsonReader reports a value of the wrong type with the runtime exceptions, and
+            // the builders a missing required field with a NullPointerException.
+            throw new ApiException("Malformed sync response for " + modelName, error,
+                    "Check the selection set of the sync document.");
+        }
+        if (items == null) {
+            throw new ApiException("No items in the sync response for " + modelName,
+                    "Check the selection set of the sync document.");
+        }
+        return new SyncPage(items, deleted, nextToken, startedAt, data.getBytes(StandardCharsets.UTF_8).length);
+    }
+}
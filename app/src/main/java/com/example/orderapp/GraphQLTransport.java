@@ -0,0 +1,17 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Consumer;
+
+import java.util.Map;
+
+/**
+ * Sends a raw GraphQL document and hands back the JSON of its {@code data} object.
+ * The app goes through Amplify.API; tests and benchmarks substitute a local stand-in.
+ */
+public interface GraphQLTransport {
+    void execute(String document,
+                 Map<String, Object> variables,
+                 Consumer<String> onData,
+                 Consumer<ApiException> onError);
+}
@@ -0,0 +1,118 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Inventory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Column-per-field view of the Inventory rows: warehouse and product ids as dictionary
+ * codes and stock as an {@code int[]}, one row per warehouse and product, summed per
+ * warehouse or product without boxing. Unlike {@link OrderColumns} it is kept up to date
+ * in place, a row at a time, by the {@link #updater()} a {@link ModelFeed} or delta sync
+ * calls, so a change costs a single array write instead of a rebuild.
+ */
+public final class InventoryColumns {
+    public enum Dimension {
+        WAREHOUSE,
+        PRODUCT
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final StringDictionary[] dictionaries = {new StringDictionary(), new StringDictionary()};
+    /** Row of each warehouse and product, by {@link #rowKey}. */
+    private final Map<Long, Integer> rows = new HashMap<>();
+    private int[][] keys = new int[][] {new int[INITIAL_CAPACITY], new int[INITIAL_CAPACITY]};
+    private int[] amounts = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /** @return applies each saved row as its stock and each deleted row as none */
+    public ModelFeed.Listener<Inventory> updater() {
+        return (row, deleted) -> {
+            if (deleted) {
+                remove(row);
+            } else {
+                put(row);
+            }
+        };
+    }
+
+    public synchronized void put(Inventory inventory) {
+        int row = row(inventory);
+        amounts[row] = inventory.getInventoryAmount();
+    }
+
+    /** Zeroes the stock; the row stays, so the codes and row indexes never shift. */
+    public synchronized void remove(Inventory inventory) {
+        int row = row(inventory);
+        amounts[row] = 0;
+    }
+
+    private int row(Inventory inventory) {
+        int warehouse = dictionaries[Dimension.WAREHOUSE.ordinal()].encode(inventory.getWarehouseId());
+        int product = dictionaries[Dimension.PRODUCT.ordinal()].encode(inventory.getProductId());
+        Long key = rowKey(warehouse, product);
+        Integer row = rows.get(key);
+        if (row != null) {
+            return row;
+        }
+        if (size == amounts.length) {
+            int capacity = size * 2;
+            keys[Dimension.WAREHOUSE.ordinal()] = Arrays.copyOf(keys[Dimension.WAREHOUSE.ordinal()], capacity);
+            keys[Dimension.PRODUCT.ordinal()] = Arrays.copyOf(keys[Dimension.PRODUCT.ordinal()], capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        keys[Dimension.WAREHOUSE.ordinal()][size] = warehouse;
+        keys[Dimension.PRODUCT.ordinal()][size] = product;
+        rows.put(key, size);
+        return size++;
+    }
+
+    private static long rowKey(int warehouse, int product) {
+        return (long) warehouse << 32 | product;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** @return the stock of a product in a warehouse, or 0 if it has no row */
+    public synchronized int amount(String warehouseId, String productId) {
+        int warehouse = dictionaries[Dimension.WAREHOUSE.ordinal()].codeOf(warehouseId);
+        int product = dictionaries[Dimension.PRODUCT.ordinal()].codeOf(productId);
+        Integer row = warehouse < 0 || product < 0 ? null : rows.get(rowKey(warehouse, product));
+        return row != null ? amounts[row] : 0;
+    }
+
+    public synchronized long totalAmount() {
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            total += amounts[row];
+        }
+        return total;
+    }
+
+    /** @return the stock summed per code of the dimension's dictionary */
+    public synchronized long[] sumBy(Dimension dimension) {
+        int[] key = keys[dimension.ordinal()];
+        long[] sums = new long[dictionaries[dimension.ordinal()].size()];
+        for (int row = 0; row < size; row++) {
+            sums[key[row]] += amounts[row];
+        }
+        return sums;
+    }
+
+    /** @return {@link #sumBy(Dimension)} keyed by the decoded ids, for display */
+    public synchronized Map<String, Long> totalsBy(Dimension dimension) {
+        long[] sums = sumBy(dimension);
+        StringDictionary dictionary = dictionaries[dimension.ordinal()];
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (int code = 0; code < sums.length; code++) {
+            totals.put(dictionary.decode(code), sums[code]);
+        }
+        return totals;
+    }
+}
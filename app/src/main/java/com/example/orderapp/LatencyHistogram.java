@@ -0,0 +1,73 @@
+package com.example.orderapp;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with power-of-two buckets from 1 microsecond to about 17 minutes.
+ * Bucket {@code i} counts latencies in {@code [2^i, 2^(i+1))} microseconds; bucket 0 also
+ * takes anything under a microsecond.
+ */
+public final class LatencyHistogram {
+    static final int BUCKETS = 30;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the upper bound in microseconds of the bucket holding the percentile, 0 if empty
+     */
+    public long percentileMicros(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= Math.max(1, rank)) {
+                return upperBoundMicros(i);
+            }
+        }
+        return upperBoundMicros(BUCKETS - 1);
+    }
+
+    static long upperBoundMicros(int bucket) {
+        return 1L << (bucket + 1);
+    }
+
+    /** @return {"count":..,"p50Micros":..,"p90Micros":..,"p99Micros":..,"buckets":{"<=2":n,...}} */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append(String.format(Locale.US, "{\"count\":%d,\"p50Micros\":%d,\"p90Micros\":%d,\"p99Micros\":%d,\"buckets\":{",
+                count(), percentileMicros(50), percentileMicros(90), percentileMicros(99)));
+        boolean first = true;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            if (count == 0) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            json.append("\"<=").append(upperBoundMicros(i)).append("\":").append(count);
+            first = false;
+        }
+        return json.append("}}").toString();
+    }
+}
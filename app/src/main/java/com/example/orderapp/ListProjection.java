@@ -0,0 +1,39 @@
+package com.example.orderapp;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Declares which fields a list screen needs from a model and how to map one item of
+ * the response into a lightweight read-only view.
+ */
+public abstract class ListProjection<T> {
+    private final String modelName;
+    private final String pluralName;
+    private final List<String> fields;
+
+    protected ListProjection(String modelName, String pluralName, String... fields) {
+        this.modelName = modelName;
+        this.pluralName = pluralName;
+        this.fields = Collections.unmodifiableList(Arrays.asList(fields));
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public String getPluralName() {
+        return pluralName;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * @param values the item's values of {@link #getFields()}, in that order, typed as the
+     *               model's fields and null where absent; the array is reused for the next item
+     */
+    protected abstract T map(Object[] values);
+}
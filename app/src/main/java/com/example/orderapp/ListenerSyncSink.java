@@ -0,0 +1,50 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.Model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link SyncSink} that hands each synced row to the {@link ModelFeed.Listener}s of its
+ * model, the same listeners the feeds hand DataStore changes to. The app's in-memory stores
+ * take the rows straight from AppSync, and nothing is written to the DataStore: a DataStore
+ * save would go back out through its outbox, and its own sync engine applies the same
+ * changes there. Rows of a model without a listener are dropped.
+ */
+final class ListenerSyncSink implements SyncSink {
+    private final Map<String, List<ModelFeed.Listener<Model>>> listeners = new LinkedHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <T extends Model> ListenerSyncSink add(Class<T> type, ModelFeed.Listener<T> listener) {
+        String modelName = ModelRegistry.get().byClass(type).name;
+        List<ModelFeed.Listener<Model>> ofModel = listeners.get(modelName);
+        if (ofModel == null) {
+            ofModel = new ArrayList<>();
+            listeners.put(modelName, ofModel);
+        }
+        ofModel.add((ModelFeed.Listener<Model>) listener);
+        return this;
+    }
+
+    /** @return the models with a listener, in the order they were first added */
+    List<String> modelNames() {
+        return new ArrayList<>(listeners.keySet());
+    }
+
+    @Override
+    public void accept(String modelName, SyncPage page) {
+        List<ModelFeed.Listener<Model>> ofModel = listeners.get(modelName);
+        if (ofModel == null) {
+            return;
+        }
+        List<Model> items = page.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            for (ModelFeed.Listener<Model> listener : ofModel) {
+                listener.changed(items.get(i), page.isDeleted(i));
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.orderapp;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import android.content.Context;
 import android.net.ConnectivityManager;
@@ -10,9 +12,16 @@ import android.net.NetworkInfo;
 import android.net.NetworkRequest;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.StrictMode;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
 import android.view.View;
 import android.widget.Button;
+import android.widget.EditText;
+import android.widget.TextView;
 
 import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.aws.AWSApiPlugin;
@@ -21,6 +30,7 @@ import com.amplifyframework.core.Action;
 import com.amplifyframework.core.Amplify;
 import com.amplifyframework.core.Consumer;
 import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
 import com.amplifyframework.core.model.query.ObserveQueryOptions;
 import com.amplifyframework.core.model.query.Where;
 import com.amplifyframework.core.model.temporal.Temporal;
@@ -40,9 +50,13 @@ import com.amplifyframework.datastore.generated.model.Product;
 import com.amplifyframework.datastore.generated.model.Warehouse;
 import com.amplifyframework.hub.HubChannel;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.stream.StreamSupport;
@@ -58,6 +72,49 @@ public class MainActivity extends AppCompatActivity
     private int orderNumber=1;
     private int totalOrders=0;
     private Order order;
+    private StagedSaveQueue stagedSaves;
+    private static final String STARTUP_AMPLIFY="amplify";
+    /** The api name in amplifyconfiguration.json. */
+    private static final String API_NAME="orderapp";
+    private static final String STARTUP_STAGED_SAVES="stagedSaves";
+    private StartupOrchestrator startup;
+    private boolean amplifyConfigured;
+    private OrderSnapshotCache orderSnapshot;
+    private final OrderListAdapter orderList = new OrderListAdapter();
+    private final WarehouseShardedStore warehouses = new WarehouseShardedStore();
+    private final InventoryColumns inventoryColumns = new InventoryColumns();
+    private volatile OrderColumns orderColumns;
+    private final OrderColumnsUpdater orderColumnsUpdater = new OrderColumnsUpdater(columns -> orderColumns = columns);
+    private final SalesReportEngine salesReport = new SalesReportEngine();
+    private final RepLeaderboard leaderboard = new RepLeaderboard(salesReport);
+    private final NameSearchIndex nameSearch = new NameSearchIndex();
+    private final DateRangeQueries dateRanges = new DateRangeQueries();
+    private final BatchingApiClient apiClient = new BatchingApiClient(new AmplifyGraphQLTransport());
+    private final RemoteUpdates remoteUpdates = new RemoteUpdates(new AmplifyGraphQLTransport());
+    private static final long SEARCH_DELAY_MILLIS=300;
+    private static final int SEARCH_RESULTS=10;
+    private final CustomerSearch customerSearch = new CustomerSearch(nameSearch,
+            new CustomerLookup(new AmplifyGraphQLTransport()));
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private TextView mCustomerResults;
+    private Runnable pendingSearch;
+    private int searchGeneration;
+    private static final long RESUBSCRIBE_DELAY_MILLIS=5000;
+    private final SubscriptionManager subscriptions = new SubscriptionManager(new AmplifyGraphQLTransport(),
+            failure -> Log.e(logger, "Subscription failed", failure));
+    private TextView mOrderUpdates;
+    private static final int LEADERBOARD_SIZE=10;
+    private TextView mLeaderboard;
+    private Cancelable orderUpdates;
+    /** The feeds observe the DataStore for this activity's stores; cancelled in onDestroy. */
+    private Cancelable warehouseFeed;
+    private Cancelable nameSearchFeed;
+    private volatile SalesReportFeed salesReportFeed;
+    /** Set on the DataStore's READY hub event, which may come before the salesReport stage. */
+    private volatile boolean dataStoreReady;
+    private Cancelable dateWatch;
+    /** Set by the deltaSync stage; the network callback runs on another thread. */
+    private volatile SyncRunner syncRunner;
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -73,30 +130,206 @@ public class MainActivity extends AppCompatActivity
         mButtonClear.setOnClickListener(this);
         mButtonTotalOrder=findViewById(R.id.button_totalOrders);
         mButtonTotalOrder.setOnClickListener(this);
+        mCustomerResults=findViewById(R.id.customer_results);
+        mOrderUpdates=findViewById(R.id.order_updates);
+        mLeaderboard=findViewById(R.id.leaderboard);
+        RecyclerView orderListView=findViewById(R.id.order_list);
+        orderListView.setLayoutManager(new LinearLayoutManager(this));
+        orderListView.setAdapter(orderList);
+        EditText customerSearch=findViewById(R.id.customer_search);
+        customerSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence text, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence text, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable text) {
+                searchCustomers(text.toString().trim());
+            }
+        });
+
+        if (BuildConfig.DEBUG) {
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .detectNetwork()
+                    .penaltyLog()
+                    .build());
+            CallTracer.get().setEnabled(true);
+        }
+
+        // Only the layout is drawn before the first frame; Amplify, the DataStore and its
+        // observations start right after it, and work that nothing on screen waits for runs
+        // when the main thread is idle.
+        startup = new StartupOrchestrator(this)
+                .add(StartupOrchestrator.Stage.CRITICAL, "orderSnapshot", this::showOrderSnapshot)
+                .add(StartupOrchestrator.Stage.FIRST_FRAME, STARTUP_AMPLIFY, this::configureAmplify)
+                .add(StartupOrchestrator.Stage.FIRST_FRAME, "dataStoreReady", afterAmplify(this::watchDataStoreReady))
+                .add(StartupOrchestrator.Stage.FIRST_FRAME, "observeOrder", afterAmplify(this::observeOrder))
+                .add(StartupOrchestrator.Stage.FIRST_FRAME, "reconcileOrders", afterAmplify(this::reconcileOrders))
+                // Opened after Amplify.configure: saves recovered from the last run drain right away.
+                .add(StartupOrchestrator.Stage.IDLE, STARTUP_STAGED_SAVES, afterAmplify(this::openStagedSaves))
+                .add(StartupOrchestrator.Stage.IDLE, "networkStatus", this::networkStatus)
+                .add(StartupOrchestrator.Stage.IDLE, "timer", this::setupTimer)
+                .add(StartupOrchestrator.Stage.IDLE, "orderUpdates", afterAmplify(this::watchOrderUpdates))
+                .add(StartupOrchestrator.Stage.IDLE, "observeBlog", afterAmplify(this::observeBlog))
+                .add(StartupOrchestrator.Stage.IDLE, "saveBlog", afterAmplify(this::saveBlog))
+                .add(StartupOrchestrator.Stage.IDLE, "warehouseStore",
+                        afterAmplify(() -> warehouseFeed = WarehouseStoreFeed.start(warehouses, inventoryColumns)))
+                .add(StartupOrchestrator.Stage.IDLE, "salesReport", afterAmplify(this::startSalesReport))
+                .add(StartupOrchestrator.Stage.IDLE, "nameSearch",
+                        afterAmplify(() -> nameSearchFeed = NameSearchFeed.start(nameSearch)))
+                .add(StartupOrchestrator.Stage.IDLE, "deltaSync", afterAmplify(this::startDeltaSync))
+                .add(StartupOrchestrator.Stage.IDLE, "dateMigration", afterAmplify(this::migrateDates));
+        startup.start();
+    }
 
+    private void migrateDates(){
+        DateEncodingMigration migration = new DateEncodingMigration(this);
+        dateWatch = migration.watch();
+        migration.runOnce();
+    }
+
+    /**
+     * Brings the in-memory name index, warehouse store and stock columns up to date from
+     * AppSync, with a delta sync since the last run where it can, now and each time the
+     * network comes back.
+     * Their feeds load them from the DataStore, which syncs itself; this neither waits for
+     * that nor writes to the DataStore.
+     */
+    private void startDeltaSync(){
+        ListenerSyncSink sink = new ListenerSyncSink()
+                .add(Customer.class, NameSearchFeed.customers(nameSearch))
+                .add(Employee.class, NameSearchFeed.employees(nameSearch))
+                .add(Employee.class, WarehouseStoreFeed.employees(warehouses))
+                .add(Product.class, NameSearchFeed.products(nameSearch))
+                .add(Inventory.class, WarehouseStoreFeed.inventory(warehouses))
+                .add(Inventory.class, inventoryColumns.updater());
+        DeltaSyncController sync = new DeltaSyncController(new GraphQLSyncPageSource(new AmplifyGraphQLTransport()),
+                new SharedPreferencesSyncStateStore(this), sink);
+        syncRunner = new SyncRunner(sync, sink.modelNames());
+        syncRunner.requestSync();
+    }
+
+    /**
+     * Aggregates the local Orders into the sales report and, once the DataStore is ready,
+     * writes the totals back; see {@link #watchDataStoreReady()}.
+     */
+    private void startSalesReport(){
+        SalesReportFeed feed = new SalesReportFeed(salesReport, leaderboard, this::stage);
+        salesReportFeed = feed;
+        feed.start();
+        if (dataStoreReady) {
+            feed.dataStoreReady();
+        }
+    }
+
+    /** Subscribed before anything starts the DataStore, so its READY event is not missed. */
+    private void watchDataStoreReady(){
+        Amplify.Hub.subscribe(
+                HubChannel.DATASTORE,
+                hubEvent -> DataStoreChannelEventName.READY.toString().equals(hubEvent.getName()),
+                hubEvent -> {
+                    dataStoreReady = true;
+                    SalesReportFeed feed = salesReportFeed;
+                    if (feed != null) {
+                        feed.dataStoreReady();
+                    }
+                }
+        );
+    }
+
+    private void configureAmplify(){
         try {
             Amplify.addPlugin(new AWSDataStorePlugin());
-            Amplify.addPlugin(new AWSApiPlugin());
+            Amplify.addPlugin(apiPlugin());
             Amplify.configure(getApplicationContext());
             Log.i("OrderApp", "Initialized Amplify");
           //  startDataStore();
-            observeOrder();
-            setupTimer();
-            networkStatus();
-            observeBlog();
-            saveBlog();
-
+            amplifyConfigured = true;
         } catch (AmplifyException error) {
             Log.e("OrderApp", "Could not initialize Amplify", error);
         }
     }
 
+    /** The API plugin, which DataStore syncs through too; compressing if the build opts in. */
+    private static AWSApiPlugin apiPlugin(){
+        if (!BuildConfig.API_COMPRESSION) {
+            return new AWSApiPlugin();
+        }
+        return AWSApiPlugin.builder()
+                .configureClient(API_NAME, client -> client.addInterceptor(new CompressingInterceptor()))
+                .build();
+    }
+
+    /** Runs the task if Amplify is configured; a stage that comes due after onDestroy is skipped. */
+    private Runnable afterAmplify(Runnable task){
+        return () -> {
+            if (amplifyConfigured && !isDestroyed()) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Shows the order list rendered on the last run. The snapshot is a small memory-mapped
+     * file, so this read is the one disk access allowed before the first frame.
+     */
+    private void showOrderSnapshot(){
+        orderSnapshot = new OrderSnapshotCache(new File(getFilesDir(), "order-snapshot.bin"));
+        List<OrderRow> rows = orderSnapshot.load();
+        if (!rows.isEmpty()) {
+            renderOrders(rows);
+        }
+    }
+
+    /** Replaces the snapshot with live DataStore rows; the list redraws only the rows that differ. */
+    private void reconcileOrders(){
+        new OrderListLoader().load(
+                rows -> {
+                    try {
+                        orderSnapshot.save(rows);
+                    } catch (IOException error) {
+                        Log.e(logger, "Could not write order snapshot", error);
+                    }
+                    runOnUiThread(() -> Log.i(logger, "Reconciled order list with live data: " + renderOrders(rows)));
+                },
+                failure -> Log.e(logger, "Order list query failed", failure)
+        );
+    }
+
+    /** @return the rows that changed on screen */
+    private OrderListDiff renderOrders(List<OrderRow> rows){
+        OrderListDiff diff = orderList.submit(rows);
+        if (StartupTimings.markFirstData()) {
+            reportFullyDrawn();
+        }
+        return diff;
+    }
+
+    private void openStagedSaves(){
+        try {
+            stagedSaves = StagedSaveQueue.open(new File(getFilesDir(), "staged-saves.log"));
+        } catch (IOException error) {
+            Log.e(logger, "Could not open staged save queue, saving directly", error);
+        }
+    }
+
     private void networkStatus(){
         ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
             @Override
             public void onAvailable(Network network) {
                 // network available
                 Log.i(logger,"network avaiable");
+                // A sync the lost connection cut short continues from its checkpoint.
+                SyncRunner runner = syncRunner;
+                if (runner != null) {
+                    runner.requestSync();
+                }
             }
 
             @Override
@@ -118,12 +351,119 @@ public class MainActivity extends AppCompatActivity
         }
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (CallTracer.get().isEnabled()) {
+            File report = new File(getFilesDir(), "call-latency.json");
+            new Thread(() -> {
+                try {
+                    CallTracer.get().writeReport(report);
+                } catch (IOException error) {
+                    Log.e(logger, "Could not write call latency report", error);
+                }
+            }, "call-latency-report").start();
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mainHandler.removeCallbacksAndMessages(null);
+        if (orderUpdates != null) {
+            orderUpdates.cancel();
+        }
+        if (warehouseFeed != null) {
+            warehouseFeed.cancel();
+        }
+        if (nameSearchFeed != null) {
+            nameSearchFeed.cancel();
+        }
+        if (salesReportFeed != null) {
+            salesReportFeed.close();
+        }
+        if (dateWatch != null) {
+            dateWatch.cancel();
+        }
+        if (syncRunner != null) {
+            syncRunner.close();
+        }
+        if (stagedSaves != null) {
+            stagedSaves.close();
+        }
+        orderColumnsUpdater.close();
+        apiClient.close();
+    }
+
+    /**
+     * Shows the latest order status change as AppSync sends it. If the subscription fails
+     * or ends, it is opened again after a pause.
+     */
+    private void watchOrderUpdates(){
+        if (isDestroyed()) {
+            return;
+        }
+        orderUpdates = subscriptions.subscribe("Order", SubscriptionManager.Event.UPDATE,
+                Collections.<String, String>emptyMap(),
+                record -> runOnUiThread(() -> mOrderUpdates.setText(
+                        "Order " + record.optString("id") + " is " + record.optString("status"))),
+                () -> mainHandler.postDelayed(this::watchOrderUpdates, RESUBSCRIBE_DELAY_MILLIS)
+        );
+    }
+
+    /**
+     * Looks customers up by the start of their name once typing pauses. Each keystroke
+     * starts a new generation, and answers to an older one are dropped.
+     */
+    private void searchCustomers(String prefix){
+        int generation = ++searchGeneration;
+        if (pendingSearch != null) {
+            mainHandler.removeCallbacks(pendingSearch);
+        }
+        if (prefix.isEmpty()) {
+            mCustomerResults.setText("");
+            return;
+        }
+        pendingSearch = () -> {
+            startup.require(STARTUP_AMPLIFY);
+            if (!amplifyConfigured) {
+                return;
+            }
+            customerSearch.find(prefix, SEARCH_RESULTS,
+                    found -> runOnUiThread(() -> {
+                        if (generation == searchGeneration) {
+                            showCustomers(found);
+                        }
+                    }),
+                    failure -> Log.e(logger, "Customer lookup failed", failure)
+            );
+        };
+        mainHandler.postDelayed(pendingSearch, SEARCH_DELAY_MILLIS);
+    }
+
+    private void showCustomers(List<CustomerName> customers){
+        StringBuilder text = new StringBuilder();
+        for (CustomerName customer : customers) {
+            text.append(customer.getName()).append('\n');
+        }
+        mCustomerResults.setText(customers.isEmpty() ? "No customers found" : text.toString().trim());
+    }
+
     @Override
     public void onClick(View view)
     {
+        CallTracer.get().section("onClick:" + getResources().getResourceEntryName(view.getId()),
+                () -> handleClick(view));
+    }
+
+    private void handleClick(View view)
+    {
+        // A click before startup finished needs Amplify and the staged save queue now.
+        startup.require(STARTUP_STAGED_SAVES);
         switch (view.getId()) {
             case R.id.button_send:
-                addRecords();
+                // A full staged save queue makes stage() wait, so keep it off the UI thread.
+                new Thread(this::addRecords, "add-records").start();
                 Log.i("OrderApp","Recrods Button clicked");
                 break;
             case R.id.button_order:
@@ -160,7 +500,7 @@ public class MainActivity extends AppCompatActivity
         timer.schedule (hourlyTask, 0l, 1000*60*1);
     }
     private void startDataStore(){
-        Amplify.DataStore.start(
+        TracedDataStore.start(
                 ()->{Log.i(logger,"Data Store started");
                     displayOrders();
                     },
@@ -180,10 +520,26 @@ public class MainActivity extends AppCompatActivity
         }
     }
 
+    private void stage(Model model){
+        StagedSaveQueue queue = stagedSaves;
+        if (queue != null) {
+            try {
+                queue.save(model);
+                return;
+            } catch (IllegalStateException closed) {
+                // The activity went while add-records was still staging; save the rest directly.
+            }
+        }
+        TracedDataStore.save(model,
+                saved->Log.i("OrderApp",model.getClass().getSimpleName()+" saved"),
+                failure-> Log.e("OrderApp",model.getClass().getSimpleName()+" save failed",failure)
+        );
+    }
+
     private void createEmployee(int i){
         Employee employee=Employee.builder()
                 .name("Employee"+i)
-                .startDate("2022-01-2022")
+                .startDate(SortableDates.startDate(System.currentTimeMillis()))
                 .phoneNumber("123-456-7890")
                 .warehouseId("WareHouse"+i)
                 .jobTitle("Helper")
@@ -191,10 +547,7 @@ public class MainActivity extends AppCompatActivity
                 .id(""+i)
                 .build();
 
-        Amplify.DataStore.save(employee,
-                saved-> Log.i("OrderApp","Employee saved"),
-                failure-> Log.e("OrderApp","Employee save failed",failure)
-                );
+        stage(employee);
 
     }
 
@@ -205,10 +558,7 @@ public class MainActivity extends AppCompatActivity
                 .id("P"+i)
                 .build();
 
-        Amplify.DataStore.save(product,
-                saved->Log.i("OrderApp","Product saved"),
-                failure-> Log.e("OrderApp","Product save failed",failure)
-                );
+        stage(product);
 
 
     }
@@ -218,10 +568,7 @@ public class MainActivity extends AppCompatActivity
                 .id("WareHouse"+i)
                 .build();
 
-        Amplify.DataStore.save(warehouse,
-                saved->Log.i("OrderApp","warehouse saved"),
-                failure-> Log.e("OrderApp","warehouse save failed",failure)
-        );
+        stage(warehouse);
     }
 
     private void createInventory(int i){
@@ -230,10 +577,7 @@ public class MainActivity extends AppCompatActivity
                 .warehouseId("WareHouse"+i)
                 .inventoryAmount(100)
                 .build();
-        Amplify.DataStore.save(inventory,
-                saved->Log.i("OrderApp","inventory saved"),
-                failure-> Log.e("OrderApp","inventory save failed",failure)
-        );
+        stage(inventory);
     }
 
     private void createCustomer(int i){
@@ -243,10 +587,7 @@ public class MainActivity extends AppCompatActivity
                 .phoneNumber("123-456-7890")
                 .id("c"+i)
                 .build();
-        Amplify.DataStore.save(customer,
-                saved->Log.i("OrderApp","customer saved"),
-                failure-> Log.e("OrderApp","customer save failed",failure)
-        );
+        stage(customer);
 
     }
 
@@ -257,10 +598,7 @@ public class MainActivity extends AppCompatActivity
                 .state("State")
                 .customerId("c"+i)
                 .build();
-        Amplify.DataStore.save(address,
-                saved->Log.i("OrderApp","address saved"),
-                failure-> Log.e("OrderApp","address save failed",failure)
-        );
+        stage(address);
     }
 
     private void createAccountRepresentative(int i){
@@ -268,10 +606,7 @@ public class MainActivity extends AppCompatActivity
                 .id("AR"+i)
                 .salesPeriod("2022")
                 .build();
-        Amplify.DataStore.save(accountRepresentative,
-                saved->Log.i("OrderApp","accountRepresentative saved"),
-                failure-> Log.e("OrderApp","accountRepresentative save failed",failure)
-        );
+        stage(accountRepresentative);
     }
 
     private void createOrder(int i){
@@ -281,13 +616,13 @@ public class MainActivity extends AppCompatActivity
                 .awsTimeValue(new Temporal.Time(String.valueOf("21:37:56.955359000")))
                 .id(""+i)
                 .build();
-        Amplify.DataStore.save(blog,
+        TracedDataStore.save(blog,
                 saved->Log.i("OrderApp","Blog saved"),
                 failure-> Log.e("OrderApp","Blog save failed",failure)
         );
 
 
-        Amplify.DataStore.query(Blog.class,
+        TracedDataStore.query(Blog.class, Where.matchesAll(),
                 matches -> {
                     while (matches.hasNext()) {
                         Blog blog1 = matches.next();
@@ -303,7 +638,7 @@ public class MainActivity extends AppCompatActivity
                 .status("InProcess")
                 .amount(10)
                 .awsTimeValue(new Temporal.Time(String.valueOf(new Date())))
-                .date(String.valueOf(new Date()))
+                .date(SortableDates.orderDate(System.currentTimeMillis()))
                 .id(""+i)
                 .build();
         Amplify.DataStore.save(order,
@@ -317,14 +652,15 @@ public class MainActivity extends AppCompatActivity
         for(int i=35011;i<=35013;i++){
             createOrder(i);
         }
-        Amplify.DataStore.query(Todo.class, Where.matches(Todo.NAME.eq("Finish quarterly taxes")),
+        shipLatestOrder();
+        TracedDataStore.query(Todo.class, Where.matches(Todo.NAME.eq("Finish quarterly taxes")),
                 matches -> {
                     if (matches.hasNext()) {
                         Todo todo = matches.next();
                         Todo updatedTodo = todo.copyOfBuilder()
                                 .name("File quarterly taxes")
                                 .build();
-                        Amplify.DataStore.save(updatedTodo,
+                        TracedDataStore.save(updatedTodo,
                                 updated -> Log.i("Tutorial", "Updated item: " + updatedTodo.getName()),
                                 failure -> Log.e("Tutorial", "Update failed.", failure)
                         );
@@ -334,10 +670,41 @@ public class MainActivity extends AppCompatActivity
         );
     }
 
+    /**
+     * Marks the newest order shipped and takes one unit of its product from the warehouse
+     * holding the most, each as a patch of the one field.
+     */
+    private void shipLatestOrder(){
+        Order latest = order;
+        if (latest == null || !"InProcess".equals(latest.getStatus())) {
+            return;
+        }
+        remoteUpdates.setOrderStatus(latest.getId(), "Shipped",
+                shipped -> Log.i(logger, "Order " + shipped.getId() + " shipped"),
+                failure -> Log.e(logger, "Shipping order " + latest.getId() + " failed", failure)
+        );
+        // The warehouse store holds every warehouse's stock, from the DataStore and from sync.
+        Inventory fullest = warehouses.fullestInventory(latest.getProductId());
+        if (fullest == null) {
+            Log.w(logger, "No inventory of product " + latest.getProductId());
+            return;
+        }
+        remoteUpdates.adjustInventory(fullest.getProductId(), fullest.getWarehouseId(), -1,
+                updated -> Log.i(logger, "Inventory of " + updated.getProductId() + " in "
+                        + updated.getWarehouseId() + " is now " + updated.getInventoryAmount()),
+                failure -> Log.e(logger, "Inventory update failed", failure)
+        );
+    }
+
     private void displayOrders(){
         totalOrders=0;
-        Amplify.API.query
-        Amplify.DataStore.query(Blog.class,
+        if (order != null) {
+            apiClient.get(Order.class, order.getId(),
+                    remote -> Log.i(logger, "Remote order " + remote),
+                    failure -> Log.e(logger, "Remote order lookup failed", failure)
+            );
+        }
+        TracedDataStore.query(Blog.class,
                 Where.sorted(Blog.NAME.ascending()),
                 matches -> {
                     while (matches.hasNext()) {
@@ -362,11 +729,11 @@ public class MainActivity extends AppCompatActivity
     }
 
     private void deleteBlog(){
-        Amplify.DataStore.query(Blog.class, Where.matches(Blog.NAME.eq("new blog 6")),
+        TracedDataStore.query(Blog.class, Where.matches(Blog.NAME.eq("new blog 6")),
                 matches -> {
                     if (matches.hasNext()) {
                         Blog deleteBlog = matches.next();
-                        Amplify.DataStore.delete(deleteBlog,
+                        TracedDataStore.delete(deleteBlog,
                                 deleted -> Log.i("OrderApp", "Deleted Blog."),
                                 failure -> Log.e("OrderApp", "Delete failed.", failure)
                         );
@@ -385,10 +752,14 @@ public class MainActivity extends AppCompatActivity
 
     }
 
+    /**
+     * Wipes the local store and starts the DataStore again, whose sync engine refills it
+     * with a base sync: its sync metadata goes with the wipe.
+     */
     private void clearDataStore(){
-        Amplify.DataStore.clear(
+        TracedDataStore.clear(
                 () -> { Log.i(logger,"Start time-->"+new Date());
-                Amplify.DataStore.start(
+                TracedDataStore.start(
                         () -> {
                             Log.i(logger, "DataStore started");
                             Log.i(logger,"End time-->"+new Date());
@@ -416,6 +787,7 @@ public class MainActivity extends AppCompatActivity
             if (value.getItems().size() > 0) {
                 order = value.getItems().get(0);
             }
+            orderColumnsUpdater.submit(value.getItems());
         };
         Consumer<Cancelable> observationStarted = value ->{
             Log.d(logger, "success on cancelable");
@@ -429,7 +801,7 @@ public class MainActivity extends AppCompatActivity
 
         ObserveQueryOptions options = new ObserveQueryOptions();
 
-        Amplify.DataStore.<Order>observeQuery(
+        TracedDataStore.<Order>observeQuery(
                 Order.class,
                 options,
                 observationStarted,
@@ -454,7 +826,16 @@ public class MainActivity extends AppCompatActivity
 
     private long totalOrdersCount(){
          long totalOrders=0;
-        Amplify.DataStore.query(Blog.class,Where.matchesAll(),
+        OrderColumns columns = orderColumns;
+        if (columns != null) {
+            Log.i(logger, "Order amounts by status " + columns.totalsBy(OrderColumns.Dimension.STATUS));
+            Log.i(logger, "Order amounts by representative "
+                    + columns.totalsBy(OrderColumns.Dimension.REPRESENTATIVE));
+        }
+        Log.i(logger, "Stock by warehouse " + inventoryColumns.totalsBy(InventoryColumns.Dimension.WAREHOUSE));
+        showLeaderboard();
+        logLeaderOrders();
+        TracedDataStore.query(Blog.class,Where.matchesAll(),
                 matches -> {
                     int count=0;
                     while(matches.hasNext()){
@@ -472,6 +853,42 @@ public class MainActivity extends AppCompatActivity
 
 
 
+    /** Shows the top representatives of the latest sales period, as the local totals rank them. */
+    private void showLeaderboard(){
+        String period = leaderboard.latestPeriod();
+        if (period == null) {
+            mLeaderboard.setText("No sales yet");
+            return;
+        }
+        StringBuilder text = new StringBuilder("Top representatives of ").append(period);
+        int place = 1;
+        for (RepLeaderboard.Standing standing : leaderboard.top(period, LEADERBOARD_SIZE)) {
+            text.append('\n').append(place++).append(". ").append(standing.getRepresentativeId())
+                    .append("  ").append(standing.getTotal());
+        }
+        mLeaderboard.setText(text);
+    }
+
+    /**
+     * Logs the orders the leading representative took in the latest sales period, read with
+     * a range scan of the {@code byRepresentativebyDate} index.
+     */
+    private void logLeaderOrders(){
+        String period = leaderboard.latestPeriod();
+        List<RepLeaderboard.Standing> top = period != null
+                ? leaderboard.top(period, 1) : Collections.<RepLeaderboard.Standing>emptyList();
+        long from = period != null ? TemporalCodec.parseDateTimeMillis(period + "-01-01") : TemporalCodec.INVALID;
+        if (top.isEmpty() || from == TemporalCodec.INVALID) {
+            return;
+        }
+        String representativeId = top.get(0).getRepresentativeId();
+        long to = TemporalCodec.parseDateTimeMillis((Integer.parseInt(period) + 1) + "-01-01");
+        dateRanges.ordersOfRepresentative(representativeId, from, to,
+                orders -> Log.i(logger, representativeId + " took " + orders.size() + " orders in " + period
+                        + (orders.isEmpty() ? "" : ", the last on " + orders.get(orders.size() - 1).getDate())),
+                failure -> Log.e(logger, "Orders of " + representativeId + " failed", failure));
+    }
+
     private Blog blog;
     public void observeBlog() {
         Consumer<DataStoreQuerySnapshot<Blog>> onQuerySnapshot = value ->{
@@ -493,7 +910,7 @@ public class MainActivity extends AppCompatActivity
 
         ObserveQueryOptions options = new ObserveQueryOptions();
 
-        Amplify.DataStore.<Blog>observeQuery(
+        TracedDataStore.<Blog>observeQuery(
                 Blog.class,
                 options,
                 observationStarted,
@@ -505,7 +922,7 @@ public class MainActivity extends AppCompatActivity
 
     public void saveBlog() {
         // called from UI event, for example:
-        Amplify.DataStore.save(
+        TracedDataStore.save(
                 Blog.builder()
                         .name("new blog 7")
                         .build(),
@@ -0,0 +1,42 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.Model;
+
+import java.util.List;
+
+/**
+ * Reads and builds one model type without reflection. Implementations are generated at
+ * compile time by {@code :accessor-processor}, one per {@code @ModelConfig} class, and
+ * found through {@link ModelAccessors#of}. Fields are numbered in declaration order, the
+ * same order as {@link ModelRegistry.Entry#fields}. An accessor holds no state, so any
+ * thread may use it.
+ */
+public interface ModelAccessor<M extends Model> {
+    Class<M> modelClass();
+
+    /** The {@code @ModelField} names, by field number. */
+    List<String> fieldNames();
+
+    /** The declared field types with generics erased, by field number. */
+    List<Class<?>> fieldTypes();
+
+    /** @return the number of the field, or -1 if the model has no field of that name */
+    int fieldIndex(String fieldName);
+
+    /**
+     * @return whether {@link #newInstance} takes the field: false for the read-only
+     *         timestamps and for has-many connections, which the builder does not set
+     */
+    boolean isSettable(int field);
+
+    /** @return the field's value, as its getter returns it */
+    Object get(M model, int field);
+
+    /**
+     * Builds a model through its step builder.
+     *
+     * @param values by field number, each of the field's declared type or null; values of
+     *               fields that are not {@link #isSettable settable} are ignored
+     */
+    M newInstance(Object[] values);
+}
@@ -0,0 +1,288 @@
+package com.example.orderapp;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.predicate.MatchAllQueryPredicate;
+import com.amplifyframework.core.model.query.predicate.MatchNoneQueryPredicate;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateGroup;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateOperation;
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Uses the generated {@link ModelAccessor}s to build models from GraphQL rows and to test
+ * them against a {@link QueryPredicate}, in place of Gson's and Amplify's reflection.
+ */
+public final class ModelAccessors {
+    private static final int SKIP = 0;
+    private static final int STRING = 1;
+    private static final int INTEGER = 2;
+    private static final int LONG = 3;
+    private static final int DOUBLE = 4;
+    private static final int BOOLEAN = 5;
+    private static final int TIME = 6;
+    private static final int DATE_TIME = 7;
+    private static final int DATE = 8;
+    /** The conflict-resolution flag AppSync sets on deleted rows. */
+    private static final String DELETED = "_deleted";
+
+    private ModelAccessors() {
+    }
+
+    /** @throws IllegalArgumentException if {@code type} is not a model of this app */
+    @SuppressWarnings("unchecked")
+    public static <M extends Model> ModelAccessor<M> of(Class<M> type) {
+        ModelAccessor<?> accessor = GeneratedModelAccessors.BY_CLASS.get(type);
+        if (accessor == null) {
+            throw new IllegalArgumentException("No accessor for " + type.getName());
+        }
+        return (ModelAccessor<M>) accessor;
+    }
+
+    /**
+     * Builds a model from a row as AppSync returns it. Fields missing from the row or null
+     * in it are null; connections and the read-only timestamps are left out.
+     */
+    public static <M extends Model> M fromJson(ModelAccessor<M> accessor, JSONObject row) {
+        return fromJson(accessor, kinds(accessor), row, new Object[accessor.fieldNames().size()]);
+    }
+
+    /** Builds a model from each row of {@code rows}, as {@link #fromJson(ModelAccessor, JSONObject)}. */
+    public static <M extends Model> List<M> fromJson(ModelAccessor<M> accessor, JSONArray rows) {
+        int[] kinds = kinds(accessor);
+        // newInstance() copies what it needs, so one array serves every row.
+        Object[] values = new Object[kinds.length];
+        List<M> models = new ArrayList<>(rows.length());
+        for (int i = 0; i < rows.length(); i++) {
+            models.add(fromJson(accessor, kinds, rows.getJSONObject(i), values));
+        }
+        return models;
+    }
+
+    /**
+     * Builds a model from each row of a JSON array as
+     * {@link #fromJson(ModelAccessor, JSONObject)}, streaming the rows from {@code reader}
+     * without parsing them into a tree first.
+     */
+    public static <M extends Model> List<M> fromJson(ModelAccessor<M> accessor, JsonReader reader)
+            throws IOException {
+        return fromJson(accessor, reader, new BitSet());
+    }
+
+    /**
+     * As {@link #fromJson(ModelAccessor, JsonReader)}, also setting in {@code deleted} the
+     * position of each row that is a tombstone ({@code _deleted: true}).
+     */
+    public static <M extends Model> List<M> fromJson(ModelAccessor<M> accessor, JsonReader reader,
+            BitSet deleted) throws IOException {
+        List<M> models = new ArrayList<>();
+        readRows(accessor, reader, (values, tombstone) -> {
+            if (tombstone) {
+                deleted.set(models.size());
+            }
+            models.add(accessor.newInstance(values));
+        });
+        return models;
+    }
+
+    /**
+     * Builds a model from the row object at the reader's position, as
+     * {@link #fromJson(ModelAccessor, JSONObject)}.
+     *
+     * @return the model, or null if the value is JSON null
+     */
+    public static <M extends Model> M fromJsonRow(ModelAccessor<M> accessor, JsonReader reader)
+            throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        Object[] values = new Object[accessor.fieldNames().size()];
+        readRow(accessor, kinds(accessor), reader, values);
+        return accessor.newInstance(values);
+    }
+
+    /** Receives the settable fields of each row, by field number; the array is reused for the next row. */
+    interface RowVisitor {
+        void row(Object[] values, boolean deleted);
+    }
+
+    /** Streams each row of the JSON array at the reader's position to {@code visitor}. */
+    static void readRows(ModelAccessor<?> accessor, JsonReader reader, RowVisitor visitor) throws IOException {
+        int[] kinds = kinds(accessor);
+        // newInstance() copies what it needs, so one array serves every row.
+        Object[] values = new Object[kinds.length];
+        reader.beginArray();
+        while (reader.hasNext()) {
+            boolean deleted = readRow(accessor, kinds, reader, values);
+            visitor.row(values, deleted);
+        }
+        reader.endArray();
+    }
+
+    /** @return whether the row is a tombstone */
+    private static boolean readRow(ModelAccessor<?> accessor, int[] kinds, JsonReader reader, Object[] values)
+            throws IOException {
+        Arrays.fill(values, null);
+        boolean deleted = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            int field = accessor.fieldIndex(name);
+            if (field >= 0 && kinds[field] != SKIP && reader.peek() != JsonToken.NULL) {
+                values[field] = read(kinds[field], reader);
+            } else if (name.equals(DELETED) && reader.peek() == JsonToken.BOOLEAN) {
+                deleted = reader.nextBoolean();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return deleted;
+    }
+
+    private static <M extends Model> M fromJson(ModelAccessor<M> accessor, int[] kinds, JSONObject row,
+            Object[] values) {
+        List<String> names = accessor.fieldNames();
+        Arrays.fill(values, null);
+        for (int field = 0; field < kinds.length; field++) {
+            if (kinds[field] != SKIP) {
+                Object value = row.opt(names.get(field));
+                values[field] = value == null || value == JSONObject.NULL ? null : convert(kinds[field], value);
+            }
+        }
+        return accessor.newInstance(values);
+    }
+
+    private static int[] kinds(ModelAccessor<?> accessor) {
+        List<Class<?>> types = accessor.fieldTypes();
+        int[] kinds = new int[types.size()];
+        for (int field = 0; field < kinds.length; field++) {
+            kinds[field] = accessor.isSettable(field) ? kind(types.get(field)) : SKIP;
+        }
+        return kinds;
+    }
+
+    private static int kind(Class<?> type) {
+        if (type == String.class) {
+            return STRING;
+        } else if (type == Integer.class) {
+            return INTEGER;
+        } else if (type == Long.class) {
+            return LONG;
+        } else if (type == Double.class) {
+            return DOUBLE;
+        } else if (type == Boolean.class) {
+            return BOOLEAN;
+        } else if (type == Temporal.Time.class) {
+            return TIME;
+        } else if (type == Temporal.DateTime.class) {
+            return DATE_TIME;
+        } else if (type == Temporal.Date.class) {
+            return DATE;
+        }
+        throw new IllegalArgumentException("Cannot read a " + type.getName() + " from JSON");
+    }
+
+    private static Object convert(int kind, Object value) {
+        switch (kind) {
+            case STRING:
+                return value.toString();
+            case INTEGER:
+                return ((Number) value).intValue();
+            case LONG:
+                return ((Number) value).longValue();
+            case DOUBLE:
+                return ((Number) value).doubleValue();
+            case BOOLEAN:
+                return (Boolean) value;
+            case TIME:
+                return new Temporal.Time(value.toString());
+            case DATE_TIME:
+                return new Temporal.DateTime(value.toString());
+            default:
+                return new Temporal.Date(value.toString());
+        }
+    }
+
+    private static Object read(int kind, JsonReader reader) throws IOException {
+        switch (kind) {
+            case STRING:
+                return reader.nextString();
+            case INTEGER:
+                return reader.nextInt();
+            case LONG:
+                return reader.nextLong();
+            case DOUBLE:
+                return reader.nextDouble();
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case TIME:
+                return new Temporal.Time(reader.nextString());
+            case DATE_TIME:
+                return new Temporal.DateTime(reader.nextString());
+            default:
+                return new Temporal.Date(reader.nextString());
+        }
+    }
+
+    /**
+     * Tests a model as {@code predicate.evaluate(model)} would, reading the fields the
+     * operations name through the model's accessor. Predicate types this does not know
+     * are left to their own {@code evaluate}.
+     */
+    public static boolean matches(QueryPredicate predicate, Model model) throws AmplifyException {
+        return matches(predicate, model, of(model.getClass()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean matches(QueryPredicate predicate, Model model, ModelAccessor accessor)
+            throws AmplifyException {
+        if (predicate instanceof QueryPredicateOperation) {
+            QueryPredicateOperation<?> operation = (QueryPredicateOperation<?>) predicate;
+            int field = accessor.fieldIndex(operation.field());
+            if (field < 0) {
+                return predicate.evaluate(model);
+            }
+            return operation.operator().evaluate(accessor.get(model, field));
+        } else if (predicate instanceof QueryPredicateGroup) {
+            QueryPredicateGroup group = (QueryPredicateGroup) predicate;
+            switch (group.type()) {
+                case AND:
+                    for (QueryPredicate member : group.predicates()) {
+                        if (!matches(member, model, accessor)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                case OR:
+                    for (QueryPredicate member : group.predicates()) {
+                        if (matches(member, model, accessor)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                case NOT:
+                    return !matches(group.predicates().get(0), model, accessor);
+                default:
+                    return predicate.evaluate(model);
+            }
+        } else if (predicate instanceof MatchAllQueryPredicate) {
+            return true;
+        } else if (predicate instanceof MatchNoneQueryPredicate) {
+            return false;
+        }
+        return predicate.evaluate(model);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.orderapp;
+
+import android.util.Log;
+
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.datastore.DataStoreItemChange;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hands one model's rows in the DataStore to a {@link Listener}: the rows loaded at the
+ * start, then every observed change. The load is queried once the observation has
+ * started, and changes observed before the load has been applied are held back and
+ * replayed on top of it in order. A loaded row is never newer than the last change held
+ * back for it, so an older snapshot cannot overwrite a change or bring back a deleted
+ * row. The listener is called for one row at a time.
+ */
+final class ModelFeed<T extends Model> implements Cancelable {
+    private static final String LOG_TAG = "OrderApp";
+
+    interface Listener<T> {
+        /** The rows loaded at the start; by default each is applied as a save. */
+        default void loaded(List<T> items) {
+            for (T item : items) {
+                changed(item, false);
+            }
+        }
+
+        /** A row was saved, or deleted if {@code deleted}. */
+        void changed(T item, boolean deleted);
+    }
+
+    private final Class<T> type;
+    private final Listener<T> listener;
+    private final DataStoreQuery store;
+    /** Changes observed before the load was applied; null once it has been. */
+    private List<DataStoreItemChange<T>> held = new ArrayList<>();
+    private Cancelable observation;
+    private boolean cancelled;
+
+    private ModelFeed(Class<T> type, Listener<T> listener, DataStoreQuery store) {
+        this.type = type;
+        this.listener = listener;
+        this.store = store;
+    }
+
+    static <T extends Model> ModelFeed<T> start(Class<T> type, Listener<T> listener) {
+        return start(type, listener, TracedDataStore::observe, TracedDataStore::query);
+    }
+
+    static <T extends Model> ModelFeed<T> start(Class<T> type, Listener<T> listener,
+                                                DataStoreObserve observer, DataStoreQuery store) {
+        ModelFeed<T> feed = new ModelFeed<>(type, listener, store);
+        observer.observe(type, feed::started, feed::observed,
+                failure -> Log.e(LOG_TAG, type.getSimpleName() + " observation failed", failure),
+                () -> { });
+        return feed;
+    }
+
+    private void started(Cancelable cancelable) {
+        synchronized (this) {
+            if (cancelled) {
+                cancelable.cancel();
+                return;
+            }
+            observation = cancelable;
+        }
+        store.query(type, Where.matchesAll(), this::loaded,
+                failure -> {
+                    // Without the load the listener still gets every change from here on.
+                    Log.e(LOG_TAG, type.getSimpleName() + " load failed", failure);
+                    release();
+                });
+    }
+
+    private void loaded(Iterator<T> matches) {
+        List<T> items = new ArrayList<>();
+        while (matches.hasNext()) {
+            items.add(matches.next());
+        }
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            listener.loaded(items);
+            Log.i(LOG_TAG, "Loaded " + items.size() + " " + type.getSimpleName() + " rows, then "
+                    + held.size() + " changes held back");
+            release();
+        }
+    }
+
+    private synchronized void release() {
+        if (held == null) {
+            return;
+        }
+        for (DataStoreItemChange<T> change : held) {
+            apply(change);
+        }
+        held = null;
+    }
+
+    private synchronized void observed(DataStoreItemChange<T> change) {
+        if (cancelled) {
+            return;
+        }
+        if (held != null) {
+            held.add(change);
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(DataStoreItemChange<T> change) {
+        listener.changed(change.item(), change.type() == DataStoreItemChange.Type.DELETE);
+    }
+
+    /** Stops the observation; the listener is not called again. */
+    @Override
+    public synchronized void cancel() {
+        cancelled = true;
+        held = null;
+        if (observation != null) {
+            observation.cancel();
+        }
+    }
+}
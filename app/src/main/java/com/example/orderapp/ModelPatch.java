@@ -0,0 +1,284 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.predicate.QueryField;
+import com.amplifyframework.core.model.temporal.Temporal;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Changes to one stored model, kept apart from it until they are applied or sent:
+ * {@code ModelPatch.of(order, version).set(Order.STATUS, "Shipped")}. The patch copies the
+ * model's field values on the first {@link #set} and never touches the model itself.
+ *
+ * <p>{@link #send} writes only the changed fields, the primary key and {@code _version}
+ * as an {@code update<Model>} mutation, where {@code copyOfBuilder().build()} handed to
+ * DataStore sends every field. The mutation still selects every scalar field, because
+ * AppSync passes the mutation's selection set on to the {@code onUpdate} subscribers.
+ *
+ * <p>Patches go to the API directly, not through the DataStore: the DataStore has no
+ * local-only write, so saving the result there would send the whole model again at a stale
+ * {@code _version}. Its copy follows through its own {@code onUpdate} subscription. The
+ * models a patch is read or sent back with are built from the response alone, so their
+ * read-only timestamps and connections are null; use them as the base of the next patch,
+ * and the DataStore's copy for anything else. {@link RemoteUpdates} is how the app uses them.
+ *
+ * <p>A patch is not thread-safe.
+ */
+public final class ModelPatch<M extends Model> {
+    private final M base;
+    private final int version;
+    private final ModelAccessor<M> accessor;
+    private final ModelRegistry.Entry entry;
+    /** Bit n is set when field n differs from the base; models have far fewer than 64 fields. */
+    private long changed;
+    /** The base's values with the changes over them, by field number; null until the first change. */
+    private Object[] values;
+
+    private ModelPatch(M base, int version, ModelAccessor<M> accessor, ModelRegistry.Entry entry) {
+        this.base = base;
+        this.version = version;
+        this.accessor = accessor;
+        this.entry = entry;
+    }
+
+    /**
+     * @param version the {@code _version} the model was read at; if the record has changed
+     *                since, sending the patch ends in a conflict, see {@link #send}
+     */
+    @SuppressWarnings("unchecked")
+    public static <M extends Model> ModelPatch<M> of(M base, int version) {
+        Class<M> type = (Class<M>) base.getClass();
+        ModelRegistry.Entry entry = ModelRegistry.get().byClass(type);
+        if (entry == null || entry.fields.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Cannot patch " + type.getName());
+        }
+        return new ModelPatch<>(base, version, ModelAccessors.of(type), entry);
+    }
+
+    public M base() {
+        return base;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public ModelPatch<M> set(QueryField field, Object value) {
+        return set(field.getFieldName(), value);
+    }
+
+    /**
+     * Changes a field; setting it back to the base's value drops the change.
+     *
+     * @throws IllegalArgumentException for a key, read-only or connection field, a null
+     *                                  for a required field, or a value of the wrong type
+     */
+    public ModelPatch<M> set(String fieldName, Object value) {
+        int field = accessor.fieldIndex(fieldName);
+        if (field < 0) {
+            throw new IllegalArgumentException(entry.name + " has no field " + fieldName);
+        }
+        if (!accessor.isSettable(field) || entry.primaryKey.contains(fieldName)) {
+            throw new IllegalArgumentException(entry.name + "." + fieldName + " cannot be updated");
+        }
+        if (value == null ? entry.field(fieldName).required : !accessor.fieldTypes().get(field).isInstance(value)) {
+            throw new IllegalArgumentException(entry.name + "." + fieldName + " cannot be " + value);
+        }
+        if (values == null) {
+            values = new Object[accessor.fieldNames().size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = accessor.get(base, i);
+            }
+        }
+        values[field] = value;
+        if (Objects.equals(value, accessor.get(base, field))) {
+            changed &= ~(1L << field);
+        } else {
+            changed |= 1L << field;
+        }
+        return this;
+    }
+
+    /** @return the field's value with the patch applied */
+    public Object get(String fieldName) {
+        int field = accessor.fieldIndex(fieldName);
+        if (field < 0) {
+            throw new IllegalArgumentException(entry.name + " has no field " + fieldName);
+        }
+        return values != null ? values[field] : accessor.get(base, field);
+    }
+
+    public boolean isEmpty() {
+        return changed == 0;
+    }
+
+    /** @return the names of the changed fields, in declaration order */
+    public List<String> changedFields() {
+        List<String> names = new ArrayList<>(Long.bitCount(changed));
+        for (long rest = changed; rest != 0; rest &= rest - 1) {
+            names.add(accessor.fieldNames().get(Long.numberOfTrailingZeros(rest)));
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @return the model with the changes, built once from the patched values however many
+     *         fields changed; the base itself when nothing changed
+     */
+    public M apply() {
+        return isEmpty() ? base : accessor.newInstance(values);
+    }
+
+    /** @return the {@code update<Model>} mutation, taking the patch as {@code $input} */
+    public String document() {
+        return "mutation Update" + entry.name + "($input: Update" + entry.name + "Input!) { update" + entry.name
+                + "(input: $input) { " + GraphQLSelections.of(entry.name) + " } }";
+    }
+
+    /** @return {@code {"input": {<primary key>, <changed fields>, "_version"}}} */
+    public Map<String, Object> variables() {
+        Map<String, Object> input = new LinkedHashMap<>();
+        for (String keyField : entry.primaryKey) {
+            input.put(keyField, accessor.get(base, accessor.fieldIndex(keyField)));
+        }
+        for (long rest = changed; rest != 0; rest &= rest - 1) {
+            int field = Long.numberOfTrailingZeros(rest);
+            input.put(accessor.fieldNames().get(field), toVariable(values[field]));
+        }
+        input.put("_version", version);
+        return Collections.<String, Object>singletonMap("input", input);
+    }
+
+    private static Object toVariable(Object value) {
+        if (value instanceof Temporal.Time) {
+            return ((Temporal.Time) value).format();
+        } else if (value instanceof Temporal.DateTime) {
+            return ((Temporal.DateTime) value).format();
+        } else if (value instanceof Temporal.Date) {
+            return ((Temporal.Date) value).format();
+        }
+        return value;
+    }
+
+    /**
+     * Reads a record as the backend stores it, at its current {@code _version}, as the base
+     * of a patch. {@code onRead} receives null when there is no such record or it is deleted.
+     *
+     * @param key a value for each primary key field, e.g. {@code {"id": "O-1"}}
+     */
+    public static <M extends Model> void read(GraphQLTransport transport, Class<M> type, Map<String, String> key,
+                                              Consumer<ModelPatch<M>> onRead, Consumer<ApiException> onError) {
+        ModelRegistry.Entry entry = ModelRegistry.get().byClass(type);
+        if (entry == null || entry.fields.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Cannot patch " + type.getName());
+        }
+        if (!key.keySet().equals(new HashSet<>(entry.primaryKey))) {
+            throw new IllegalArgumentException(entry.name + " is keyed by " + entry.primaryKey + ", not " + key.keySet());
+        }
+        ModelAccessor<M> accessor = ModelAccessors.of(type);
+        StringBuilder document = new StringBuilder("query Get").append(entry.name).append(" { get").append(entry.name);
+        String separator = "(";
+        for (String keyField : entry.primaryKey) {
+            document.append(separator).append(keyField).append(": ").append(JSONObject.quote(key.get(keyField)));
+            separator = ", ";
+        }
+        document.append(") { ").append(GraphQLSelections.of(entry.name)).append(" } }");
+        transport.execute(document.toString(), Collections.<String, Object>emptyMap(),
+                data -> {
+                    ModelPatch<M> stored;
+                    try {
+                        JSONObject row = new JSONObject(data).optJSONObject("get" + entry.name);
+                        stored = row == null || row.optBoolean("_deleted") ? null : stored(row, accessor, entry);
+                    } catch (JSONException error) {
+                        onError.accept(new ApiException("Unreadable get" + entry.name + " response", error,
+                                "Check the query's selection set."));
+                        return;
+                    }
+                    onRead.accept(stored);
+                },
+                onError);
+    }
+
+    /**
+     * Sends the patch; an empty one completes at once without a request. On success
+     * {@code onSaved} receives an empty patch of the record as the backend stored it, at
+     * its new {@code _version}, ready for the next change.
+     *
+     * <p>A conflict comes to {@code onError}; read the record again and redo the patch on it.
+     * With optimistic concurrency a stale {@code _version} is rejected as
+     * {@code ConflictUnhandled}. The app's API uses AUTOMERGE, which accepts it instead and
+     * keeps the stored value of any scalar changed since, so a response that does not carry
+     * every patched value is a conflict too, a {@link MergedException}. The merge has been
+     * written by then, at a new {@code _version}.
+     */
+    public void send(GraphQLTransport transport, Consumer<ModelPatch<M>> onSaved, Consumer<ApiException> onError) {
+        if (isEmpty()) {
+            onSaved.accept(this);
+            return;
+        }
+        transport.execute(document(), variables(),
+                data -> {
+                    ModelPatch<M> saved;
+                    try {
+                        saved = stored(new JSONObject(data).getJSONObject("update" + entry.name), accessor, entry);
+                    } catch (JSONException error) {
+                        onError.accept(new ApiException("Unreadable update" + entry.name + " response", error,
+                                "Check the mutation's selection set."));
+                        return;
+                    }
+                    List<String> kept = notIn(saved.base);
+                    if (!kept.isEmpty()) {
+                        onError.accept(new MergedException("Conflict: update" + entry.name + " kept the stored "
+                                + kept + " at _version " + saved.version));
+                        return;
+                    }
+                    onSaved.accept(saved);
+                },
+                onError);
+    }
+
+    /** @return the changed fields whose patched value the stored model does not have */
+    private List<String> notIn(M stored) {
+        List<String> names = new ArrayList<>();
+        for (long rest = changed; rest != 0; rest &= rest - 1) {
+            int field = Long.numberOfTrailingZeros(rest);
+            if (!Objects.equals(values[field], accessor.get(stored, field))) {
+                names.add(accessor.fieldNames().get(field));
+            }
+        }
+        return names;
+    }
+
+    /** @return an empty patch of the row, at the row's {@code _version} */
+    private static <M extends Model> ModelPatch<M> stored(JSONObject row, ModelAccessor<M> accessor,
+                                                         ModelRegistry.Entry entry) throws JSONException {
+        return new ModelPatch<>(ModelAccessors.fromJson(accessor, row), row.getInt("_version"), accessor, entry);
+    }
+
+    @Override
+    public String toString() {
+        return "ModelPatch {" + entry.name + " " + variables().get("input") + "}";
+    }
+
+    /**
+     * The backend merged a stale patch and kept its own value of a changed field, as
+     * AppSync's AUTOMERGE does with a scalar that changed since the patch's {@code _version}.
+     */
+    public static final class MergedException extends ApiException {
+        MergedException(String message) {
+            super(message, "Read the record again and redo the patch on it.");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.annotations.Index;
+import com.amplifyframework.core.model.annotations.ModelConfig;
+import com.amplifyframework.core.model.annotations.ModelField;
+import com.amplifyframework.core.model.query.predicate.QueryField;
+import com.amplifyframework.datastore.generated.model.AmplifyModelProvider;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The models of {@link AmplifyModelProvider} with their metadata read once: plural name
+ * from {@code @ModelConfig}, {@code @Index}es, and each {@code @ModelField} with its
+ * {@link QueryField} constant. Lookups by model name, class or class name are hash map
+ * reads. The registry is built when this class initializes and never changes after, so
+ * any thread may use it without locking.
+ */
+public final class ModelRegistry {
+    private final Map<String, Entry> byName;
+    private final Map<Class<?>, Entry> byClass;
+    private final Map<String, Entry> byClassName;
+
+    private ModelRegistry(Collection<Class<? extends Model>> types) {
+        Map<String, Entry> names = new HashMap<>();
+        Map<Class<?>, Entry> classes = new HashMap<>();
+        Map<String, Entry> classNames = new HashMap<>();
+        for (Class<? extends Model> type : types) {
+            Entry entry = new Entry(type);
+            names.put(entry.name, entry);
+            classes.put(type, entry);
+            classNames.put(type.getName(), entry);
+        }
+        byName = Collections.unmodifiableMap(names);
+        byClass = Collections.unmodifiableMap(classes);
+        byClassName = Collections.unmodifiableMap(classNames);
+    }
+
+    private static final class InstanceHolder {
+        static final ModelRegistry INSTANCE = new ModelRegistry(AmplifyModelProvider.getInstance().models());
+    }
+
+    public static ModelRegistry get() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /** @return the model named e.g. {@code Order}, or null */
+    public Entry byName(String modelName) {
+        return byName.get(modelName);
+    }
+
+    /** @return the entry of a model class, or null if the provider does not list it */
+    public Entry byClass(Class<?> type) {
+        return byClass.get(type);
+    }
+
+    /** @return the model whose class has the {@link Class#getName} {@code className}, or null */
+    public Entry byClassName(String className) {
+        return byClassName.get(className);
+    }
+
+    public Collection<Entry> entries() {
+        return byClass.values();
+    }
+
+    public static final class Entry {
+        public final Class<? extends Model> type;
+        public final String name;
+        public final String pluralName;
+        public final List<Index> indexes;
+        /** The fields that identify a record: {@code id}, or those of a custom primary key. */
+        public final List<String> primaryKey;
+        /** In declaration order. */
+        public final Map<String, FieldInfo> fields;
+
+        Entry(Class<? extends Model> type) {
+            this.type = type;
+            this.name = type.getSimpleName();
+            ModelConfig config = type.getAnnotation(ModelConfig.class);
+            this.pluralName = config != null && !config.pluralName().isEmpty() ? config.pluralName() : name + "s";
+            this.indexes = Collections.unmodifiableList(Arrays.asList(type.getAnnotationsByType(Index.class)));
+            // Codegen writes a @primaryKey as the index named "undefined".
+            Index primary = index("undefined");
+            this.primaryKey = primary != null
+                    ? Collections.unmodifiableList(Arrays.asList(primary.fields()))
+                    : Collections.singletonList("id");
+
+            Map<String, QueryField> queryFields = new HashMap<>();
+            for (Field constant : type.getFields()) {
+                if (constant.getType() == QueryField.class && Modifier.isStatic(constant.getModifiers())) {
+                    try {
+                        QueryField queryField = (QueryField) constant.get(null);
+                        queryFields.put(queryField.getFieldName(), queryField);
+                    } catch (IllegalAccessException error) {
+                        throw new IllegalStateException("Cannot read " + name + "." + constant.getName(), error);
+                    }
+                }
+            }
+            Map<String, FieldInfo> fieldInfos = new LinkedHashMap<>();
+            for (Field field : type.getDeclaredFields()) {
+                ModelField annotation = field.getAnnotation(ModelField.class);
+                if (annotation != null) {
+                    fieldInfos.put(field.getName(),
+                            new FieldInfo(field.getName(), annotation, queryFields.get(field.getName())));
+                }
+            }
+            this.fields = Collections.unmodifiableMap(fieldInfos);
+        }
+
+        /** @return the field, or null if the model has no {@code @ModelField} of that name */
+        public FieldInfo field(String fieldName) {
+            return fields.get(fieldName);
+        }
+
+        /** @return the index of that name, or null */
+        public Index index(String indexName) {
+            for (Index index : indexes) {
+                if (index.name().equals(indexName)) {
+                    return index;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name + fields.keySet();
+        }
+    }
+
+    public static final class FieldInfo {
+        public final String name;
+        public final String targetType;
+        public final boolean required;
+        public final boolean readOnly;
+        /** The model's constant for predicates on this field; null for e.g. createdAt. */
+        public final QueryField queryField;
+
+        FieldInfo(String name, ModelField annotation, QueryField queryField) {
+            this.name = name;
+            this.targetType = annotation.targetType();
+            this.required = annotation.isRequired();
+            this.readOnly = annotation.isReadOnly();
+            this.queryField = queryField;
+        }
+    }
+}
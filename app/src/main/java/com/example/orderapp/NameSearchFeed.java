@@ -0,0 +1,57 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.datastore.generated.model.Customer;
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Product;
+
+/**
+ * Keeps a {@link NameSearchIndex} in step with the Customer, Employee and Product names in
+ * the DataStore, through a {@link ModelFeed} per model.
+ */
+public final class NameSearchFeed {
+    private NameSearchFeed() {
+    }
+
+    /** @return cancels the observations, e.g. when the activity holding the index goes */
+    public static Cancelable start(NameSearchIndex index) {
+        ModelFeed<Customer> customers = ModelFeed.start(Customer.class, customers(index));
+        ModelFeed<Employee> employees = ModelFeed.start(Employee.class, employees(index));
+        ModelFeed<Product> products = ModelFeed.start(Product.class, products(index));
+        return () -> {
+            customers.cancel();
+            employees.cancel();
+            products.cancel();
+        };
+    }
+
+    static ModelFeed.Listener<Customer> customers(NameSearchIndex index) {
+        return (customer, deleted) -> {
+            if (deleted) {
+                index.remove(NameSearchIndex.Kind.CUSTOMER, customer.getId());
+            } else {
+                index.put(NameSearchIndex.Kind.CUSTOMER, customer.getId(), customer.getName());
+            }
+        };
+    }
+
+    static ModelFeed.Listener<Employee> employees(NameSearchIndex index) {
+        return (employee, deleted) -> {
+            if (deleted) {
+                index.remove(NameSearchIndex.Kind.EMPLOYEE, employee.getId());
+            } else {
+                index.put(NameSearchIndex.Kind.EMPLOYEE, employee.getId(), employee.getName());
+            }
+        };
+    }
+
+    static ModelFeed.Listener<Product> products(NameSearchIndex index) {
+        return (product, deleted) -> {
+            if (deleted) {
+                index.remove(NameSearchIndex.Kind.PRODUCT, product.getId());
+            } else {
+                index.put(NameSearchIndex.Kind.PRODUCT, product.getId(), product.getName());
+            }
+        };
+    }
+}
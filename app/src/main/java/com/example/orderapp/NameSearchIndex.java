@@ -0,0 +1,312 @@
+package com.example.orderapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix search over Customer, Employee and Product names that tolerates typos.
+ *
+ * <p>Names are lower-cased, their whitespace collapsed, and stored in a trie both whole and
+ * from the start of every later word, so "35" finds "Customer 35" as well as "cust" does.
+ * {@link #search(String, int, int)} walks the trie carrying one row of the Levenshtein
+ * table between the query and the path so far, and stops descending where every entry of
+ * the row exceeds the allowed typos. A node whose path is within the allowed typos of the
+ * whole query is a match for every name below it.
+ *
+ * <p>Safe for concurrent use: searches share a read lock, changes take the write lock.
+ */
+public final class NameSearchIndex {
+    public enum Kind {
+        CUSTOMER,
+        EMPLOYEE,
+        PRODUCT
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /** Adds or renames a record; a record without a name is removed. */
+    public void put(Kind kind, String id, String name) {
+        if (name == null) {
+            remove(kind, id);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            String key = key(kind, id);
+            Entry previous = entries.get(key);
+            if (previous != null) {
+                if (previous.name.equals(name)) {
+                    return;
+                }
+                unindex(previous);
+            }
+            Entry entry = new Entry(kind, id, name);
+            entries.put(key, entry);
+            for (String term : terms(name)) {
+                insert(term).add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Kind kind, String id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(key(kind, id));
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds names with a word that starts with the query, allowing up to {@code maxTypos}
+     * inserted, deleted or substituted characters.
+     *
+     * @return up to {@code limit} hits, those with fewer typos first
+     */
+    public List<Hit> search(String query, int maxTypos, int limit) {
+        return search(query, null, maxTypos, limit);
+    }
+
+    /** As {@link #search(String, int, int)}, for names of one kind, or of every kind if null. */
+    public List<Hit> search(String query, Kind kind, int maxTypos, int limit) {
+        char[] pattern = normalize(query).toCharArray();
+        int[] firstRow = new int[pattern.length + 1];
+        for (int j = 0; j <= pattern.length; j++) {
+            firstRow[j] = j;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            if (pattern.length <= maxTypos) {
+                matches.add(new Match(root, pattern.length));
+            } else {
+                walk(root, pattern, firstRow, maxTypos, matches);
+            }
+            Collections.sort(matches, Comparator.comparingInt(match -> match.typos));
+
+            List<Hit> hits = new ArrayList<>(Math.min(limit, 64));
+            Set<Entry> seen = new HashSet<>();
+            for (Match match : matches) {
+                if (hits.size() >= limit) {
+                    break;
+                }
+                collect(match.node, kind, match.typos, limit, seen, hits);
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void walk(Node node, char[] pattern, int[] row, int maxTypos, List<Match> matches) {
+        for (int i = 0; i < node.size; i++) {
+            char c = node.keys[i];
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            int best = next[0];
+            for (int j = 1; j < row.length; j++) {
+                int substitute = row[j - 1] + (pattern[j - 1] == c ? 0 : 1);
+                next[j] = Math.min(substitute, Math.min(row[j] + 1, next[j - 1] + 1));
+                best = Math.min(best, next[j]);
+            }
+            if (best > maxTypos) {
+                continue;
+            }
+            Node child = node.children[i];
+            int typos = next[pattern.length];
+            if (typos <= maxTypos) {
+                matches.add(new Match(child, typos));
+                if (typos == best) {
+                    // Going deeper can only add typos to the whole query.
+                    continue;
+                }
+            }
+            walk(child, pattern, next, maxTypos, matches);
+        }
+    }
+
+    private static void collect(Node node, Kind kind, int typos, int limit, Set<Entry> seen, List<Hit> hits) {
+        for (int i = 0; i < node.entryCount && hits.size() < limit; i++) {
+            Entry entry = node.entries[i];
+            if ((kind == null || entry.kind == kind) && seen.add(entry)) {
+                hits.add(new Hit(entry.kind, entry.id, entry.name, typos));
+            }
+        }
+        for (int i = 0; i < node.size && hits.size() < limit; i++) {
+            collect(node.children[i], kind, typos, limit, seen, hits);
+        }
+    }
+
+    private Node insert(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.childFor(term.charAt(i));
+        }
+        return node;
+    }
+
+    private void unindex(Entry entry) {
+        for (String term : terms(entry.name)) {
+            Node node = root;
+            for (int i = 0; i < term.length() && node != null; i++) {
+                node = node.child(term.charAt(i));
+            }
+            if (node != null) {
+                node.remove(entry);
+            }
+        }
+    }
+
+    /** @return the normalized name and its suffix from the start of each later word */
+    static List<String> terms(String name) {
+        String normalized = normalize(name);
+        List<String> terms = new ArrayList<>();
+        terms.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            terms.add(normalized.substring(i + 1));
+        }
+        return terms;
+    }
+
+    static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static String key(Kind kind, String id) {
+        return kind.name() + "#" + id;
+    }
+
+    /** A trie node: children in sorted parallel arrays and the entries whose term ends here. */
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        int size;
+        Entry[] entries = new Entry[0];
+        int entryCount;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, 0, size, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childFor(char c) {
+            int index = Arrays.binarySearch(keys, 0, size, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(2, size * 2));
+                children = Arrays.copyOf(children, keys.length);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, size - insertAt);
+            Node child = new Node();
+            keys[insertAt] = c;
+            children[insertAt] = child;
+            size++;
+            return child;
+        }
+
+        void add(Entry entry) {
+            if (entryCount == entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(1, entryCount * 2));
+            }
+            entries[entryCount++] = entry;
+        }
+
+        void remove(Entry entry) {
+            for (int i = 0; i < entryCount; i++) {
+                if (entries[i] == entry) {
+                    entries[i] = entries[--entryCount];
+                    entries[entryCount] = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Kind kind;
+        final String id;
+        final String name;
+
+        Entry(Kind kind, String id, String name) {
+            this.kind = kind;
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static final class Match {
+        final Node node;
+        final int typos;
+
+        Match(Node node, int typos) {
+            this.node = node;
+            this.typos = typos;
+        }
+    }
+
+    public static final class Hit {
+        private final Kind kind;
+        private final String id;
+        private final String name;
+        private final int typos;
+
+        Hit(Kind kind, String id, String name, int typos) {
+            this.kind = kind;
+            this.id = id;
+            this.name = name;
+            this.typos = typos;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getTypos() {
+            return typos;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + id + " \"" + name + "\" (" + typos + " typos)";
+        }
+    }
+}
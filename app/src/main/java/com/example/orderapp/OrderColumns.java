@@ -0,0 +1,165 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Order;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, column-per-field copy of a set of Orders for analytics. Customer, product,
+ * representative and status ids are dictionary codes in {@code int[]} columns, amounts
+ * are an {@code int[]} and dates are epoch milliseconds in a {@code long[]}, so sums and
+ * group-bys run over primitive arrays without touching a model object or boxing a value.
+ * A group-by allocates only its result array, indexed by the dimension's codes.
+ *
+ * <p>Build one from a DataStore query or {@code observeQuery} snapshot with {@link #of}, or
+ * let an {@link OrderColumnsUpdater} rebuild them off the main thread as snapshots arrive.
+ */
+public final class OrderColumns {
+    /** Date of an order whose date string could not be parsed. */
+    public static final long UNKNOWN_DATE = TemporalCodec.INVALID;
+
+    public enum Dimension {
+        CUSTOMER,
+        PRODUCT,
+        REPRESENTATIVE,
+        STATUS
+    }
+
+    private final StringDictionary[] dictionaries = new StringDictionary[Dimension.values().length];
+    private final int[][] keys = new int[Dimension.values().length][];
+    private final String[] ids;
+    private final int[] amounts;
+    private final long[] dates;
+    private final int size;
+
+    private OrderColumns(int size) {
+        for (int d = 0; d < dictionaries.length; d++) {
+            dictionaries[d] = new StringDictionary();
+            keys[d] = new int[size];
+        }
+        this.ids = new String[size];
+        this.amounts = new int[size];
+        this.dates = new long[size];
+        this.size = size;
+    }
+
+    public static OrderColumns of(List<Order> orders) {
+        OrderColumns columns = new OrderColumns(orders.size());
+        TemporalCodec.DateTimeCache dates = new TemporalCodec.DateTimeCache();
+        for (int row = 0; row < orders.size(); row++) {
+            Order order = orders.get(row);
+            columns.ids[row] = order.getId();
+            columns.set(Dimension.CUSTOMER, row, order.getCustomerId());
+            columns.set(Dimension.PRODUCT, row, order.getProductId());
+            columns.set(Dimension.REPRESENTATIVE, row, order.getAccountRepresentativeId());
+            columns.set(Dimension.STATUS, row, order.getStatus());
+            columns.amounts[row] = order.getAmount();
+            String date = order.getDate();
+            columns.dates[row] = date != null ? dates.parse(date) : UNKNOWN_DATE;
+        }
+        return columns;
+    }
+
+    private void set(Dimension dimension, int row, String value) {
+        keys[dimension.ordinal()][row] = dictionaries[dimension.ordinal()].encode(value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String idAt(int row) {
+        return ids[row];
+    }
+
+    public int amountAt(int row) {
+        return amounts[row];
+    }
+
+    public long dateAt(int row) {
+        return dates[row];
+    }
+
+    public int keyAt(Dimension dimension, int row) {
+        return keys[dimension.ordinal()][row];
+    }
+
+    public StringDictionary dictionary(Dimension dimension) {
+        return dictionaries[dimension.ordinal()];
+    }
+
+    public long totalAmount() {
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            total += amounts[row];
+        }
+        return total;
+    }
+
+    /** @return the amount summed per code of the dimension's dictionary */
+    public long[] sumBy(Dimension dimension) {
+        int[] key = keys[dimension.ordinal()];
+        long[] sums = new long[dictionaries[dimension.ordinal()].size()];
+        for (int row = 0; row < size; row++) {
+            sums[key[row]] += amounts[row];
+        }
+        return sums;
+    }
+
+    /**
+     * @return the amount summed per code of the dimension's dictionary, over orders dated
+     *     from {@code fromMillis} inclusive to {@code toMillis} exclusive
+     */
+    public long[] sumBy(Dimension dimension, long fromMillis, long toMillis) {
+        int[] key = keys[dimension.ordinal()];
+        long[] sums = new long[dictionaries[dimension.ordinal()].size()];
+        for (int row = 0; row < size; row++) {
+            long date = dates[row];
+            if (date >= fromMillis && date < toMillis) {
+                sums[key[row]] += amounts[row];
+            }
+        }
+        return sums;
+    }
+
+    /** @return the number of orders per code of the dimension's dictionary */
+    public int[] countBy(Dimension dimension) {
+        int[] key = keys[dimension.ordinal()];
+        int[] counts = new int[dictionaries[dimension.ordinal()].size()];
+        for (int row = 0; row < size; row++) {
+            counts[key[row]]++;
+        }
+        return counts;
+    }
+
+    /** @return {@link #sumBy(Dimension)} keyed by the decoded ids, for display */
+    public Map<String, Long> totalsBy(Dimension dimension) {
+        long[] sums = sumBy(dimension);
+        StringDictionary dictionary = dictionary(dimension);
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (int code = 0; code < sums.length; code++) {
+            totals.put(dictionary.decode(code), sums[code]);
+        }
+        return totals;
+    }
+
+    /**
+     * Parses the date forms found in {@code Order.date}: ISO dates ({@code 2022-01-20},
+     * read as UTC midnight) and ISO date-times, see {@link TemporalCodec}.
+     *
+     * @return epoch milliseconds, or {@link #UNKNOWN_DATE} for any other string
+     */
+    static long epochMillis(String date) {
+        return date != null ? TemporalCodec.parseDateTimeMillis(date) : UNKNOWN_DATE;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderColumns {orders=" + size + ", customers=" + dictionary(Dimension.CUSTOMER).size()
+                + ", products=" + dictionary(Dimension.PRODUCT).size()
+                + ", representatives=" + dictionary(Dimension.REPRESENTATIVE).size()
+                + ", statuses=" + dictionary(Dimension.STATUS).size() + "}";
+    }
+}
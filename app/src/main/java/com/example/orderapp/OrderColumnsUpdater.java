@@ -0,0 +1,59 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds {@link OrderColumns} from {@code observeQuery} snapshots on a background thread.
+ * A build runs {@link #DEFAULT_DELAY_MS} after the first snapshot that follows the last
+ * one, from the newest snapshot by then, so a burst of snapshots costs one build and the
+ * main thread never builds.
+ */
+public final class OrderColumnsUpdater {
+    static final long DEFAULT_DELAY_MS = 500;
+
+    private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor();
+    private final long delayMs;
+    private final Consumer<OrderColumns> onBuilt;
+    /** The newest snapshot not built yet. */
+    private List<Order> pending;
+    private boolean scheduled;
+
+    /** @param onBuilt called on the builder thread with each new set of columns */
+    public OrderColumnsUpdater(Consumer<OrderColumns> onBuilt) {
+        this(DEFAULT_DELAY_MS, onBuilt);
+    }
+
+    OrderColumnsUpdater(long delayMs, Consumer<OrderColumns> onBuilt) {
+        this.delayMs = delayMs;
+        this.onBuilt = onBuilt;
+    }
+
+    public synchronized void submit(List<Order> orders) {
+        pending = orders;
+        if (!scheduled && !builder.isShutdown()) {
+            scheduled = true;
+            builder.schedule(this::build, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void build() {
+        List<Order> orders;
+        synchronized (this) {
+            orders = pending;
+            pending = null;
+            scheduled = false;
+        }
+        onBuilt.accept(OrderColumns.of(orders));
+    }
+
+    /** Drops any snapshot not built yet and stops the builder thread. */
+    public void close() {
+        builder.shutdownNow();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.orderapp;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The order list on screen. A new list is applied as the {@link OrderListDiff} from the
+ * shown one, so the RecyclerView redraws only the rows that were inserted, removed, moved
+ * or changed.
+ */
+final class OrderListAdapter extends RecyclerView.Adapter<OrderListAdapter.Holder> {
+    private List<OrderRow> rows = Collections.emptyList();
+
+    /** @return the edits the view was notified of */
+    OrderListDiff submit(List<OrderRow> newRows) {
+        OrderListDiff diff = OrderListDiff.between(rows, newRows);
+        rows = newRows;
+        diff.applyTo(new OrderListDiff.Updates() {
+            @Override
+            public void removed(int position) {
+                notifyItemRemoved(position);
+            }
+
+            @Override
+            public void inserted(int position) {
+                notifyItemInserted(position);
+            }
+
+            @Override
+            public void changed(int position) {
+                notifyItemChanged(position);
+            }
+        });
+        return diff;
+    }
+
+    List<OrderRow> getRows() {
+        return rows;
+    }
+
+    @Override
+    public Holder onCreateViewHolder(ViewGroup parent, int viewType) {
+        return new Holder(LayoutInflater.from(parent.getContext())
+                .inflate(android.R.layout.simple_list_item_2, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(Holder holder, int position) {
+        OrderRow row = rows.get(position);
+        holder.title.setText(row.getCustomerName() + "  " + row.getAmount());
+        holder.detail.setText(row.getStatus() + "  " + row.getDate() + "  #" + row.getId());
+    }
+
+    @Override
+    public int getItemCount() {
+        return rows.size();
+    }
+
+    static final class Holder extends RecyclerView.ViewHolder {
+        final TextView title;
+        final TextView detail;
+
+        Holder(View view) {
+            super(view);
+            title = view.findViewById(android.R.id.text1);
+            detail = view.findViewById(android.R.id.text2);
+        }
+    }
+}
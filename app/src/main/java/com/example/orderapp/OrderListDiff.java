@@ -0,0 +1,176 @@
+package com.example.orderapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The edits that turn the displayed order list into a newer one, matched by order id,
+ * so that reconciling the startup snapshot with live data only redraws the rows that
+ * differ ({@link #applyTo}):
+ * <ul>
+ *   <li>removed: rows of the old list whose id is gone,</li>
+ *   <li>inserted: rows of the new list whose id is new,</li>
+ *   <li>moved: rows that kept their id but not their relative order,</li>
+ *   <li>changed: rows that kept their id and position but whose contents differ.</li>
+ * </ul>
+ * The rows that keep their relative order are a longest increasing subsequence of old
+ * positions, so the number of moves is minimal. Positions are indexes into the new list
+ * except for removals, which index the old list.
+ */
+public final class OrderListDiff {
+    private final List<Integer> removed;
+    private final List<Integer> inserted;
+    private final List<Integer> moved;
+    /** The old position of each of {@link #moved}. */
+    private final List<Integer> movedFrom;
+    private final List<Integer> changed;
+
+    /** Single-row edits, as a list adapter notifies its view of them. */
+    public interface Updates {
+        void removed(int position);
+
+        void inserted(int position);
+
+        void changed(int position);
+    }
+
+    private OrderListDiff(List<Integer> removed, List<Integer> inserted, List<Integer> moved,
+                          List<Integer> movedFrom, List<Integer> changed) {
+        this.removed = removed;
+        this.inserted = inserted;
+        this.moved = moved;
+        this.movedFrom = movedFrom;
+        this.changed = changed;
+    }
+
+    public static OrderListDiff between(List<OrderRow> oldRows, List<OrderRow> newRows) {
+        Map<String, Integer> oldPositions = new HashMap<>(oldRows.size() * 2);
+        for (int i = 0; i < oldRows.size(); i++) {
+            oldPositions.put(oldRows.get(i).getId(), i);
+        }
+        Map<String, Integer> newPositions = new HashMap<>(newRows.size() * 2);
+        for (int i = 0; i < newRows.size(); i++) {
+            newPositions.put(newRows.get(i).getId(), i);
+        }
+
+        List<Integer> removed = new ArrayList<>();
+        for (int i = 0; i < oldRows.size(); i++) {
+            if (!newPositions.containsKey(oldRows.get(i).getId())) {
+                removed.add(i);
+            }
+        }
+
+        List<Integer> inserted = new ArrayList<>();
+        List<Integer> kept = new ArrayList<>();
+        List<Integer> keptOldPositions = new ArrayList<>();
+        for (int i = 0; i < newRows.size(); i++) {
+            Integer oldPosition = oldPositions.get(newRows.get(i).getId());
+            if (oldPosition == null) {
+                inserted.add(i);
+            } else {
+                kept.add(i);
+                keptOldPositions.add(oldPosition);
+            }
+        }
+
+        boolean[] inOrder = longestIncreasingSubsequence(keptOldPositions);
+        List<Integer> moved = new ArrayList<>();
+        List<Integer> movedFrom = new ArrayList<>();
+        List<Integer> changed = new ArrayList<>();
+        for (int k = 0; k < kept.size(); k++) {
+            int position = kept.get(k);
+            if (!inOrder[k]) {
+                moved.add(position);
+                movedFrom.add(keptOldPositions.get(k));
+            } else if (!newRows.get(position).equals(oldRows.get(keptOldPositions.get(k)))) {
+                changed.add(position);
+            }
+        }
+        return new OrderListDiff(Collections.unmodifiableList(removed), Collections.unmodifiableList(inserted),
+                Collections.unmodifiableList(moved), Collections.unmodifiableList(movedFrom),
+                Collections.unmodifiableList(changed));
+    }
+
+    /**
+     * Replays the diff as single-row edits, each position valid when its edit is applied:
+     * removals from the bottom of the old list up, then inserts from the top of the new list
+     * down, then changes. A moved row is removed and inserted again, which also redraws it.
+     */
+    public void applyTo(Updates updates) {
+        List<Integer> removals = new ArrayList<>(removed);
+        removals.addAll(movedFrom);
+        removals.sort(Collections.reverseOrder());
+        for (int position : removals) {
+            updates.removed(position);
+        }
+        List<Integer> inserts = new ArrayList<>(inserted);
+        inserts.addAll(moved);
+        Collections.sort(inserts);
+        for (int position : inserts) {
+            updates.inserted(position);
+        }
+        for (int position : changed) {
+            updates.changed(position);
+        }
+    }
+
+    /** @return for each value, whether it is part of one longest strictly increasing subsequence */
+    private static boolean[] longestIncreasingSubsequence(List<Integer> values) {
+        int n = values.size();
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            int value = values.get(i);
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values.get(tails[middle]) < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] member = new boolean[n];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            member[i] = true;
+        }
+        return member;
+    }
+
+    public List<Integer> getRemoved() {
+        return removed;
+    }
+
+    public List<Integer> getInserted() {
+        return inserted;
+    }
+
+    public List<Integer> getMoved() {
+        return moved;
+    }
+
+    public List<Integer> getChanged() {
+        return changed;
+    }
+
+    public boolean isEmpty() {
+        return removed.isEmpty() && inserted.isEmpty() && moved.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "removed=" + removed.size() + ", inserted=" + inserted.size()
+                + ", moved=" + moved.size() + ", changed=" + changed.size();
+    }
+}
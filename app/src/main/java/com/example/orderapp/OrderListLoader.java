@@ -0,0 +1,88 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.query.Page;
+import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.generated.model.Customer;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads the first screen of the order list from the DataStore, newest first, with each
+ * order's customer name resolved in batches of {@link CustomerGraphLoader#ID_BATCH_SIZE}
+ * ids per query.
+ */
+public final class OrderListLoader {
+    public static final int SCREEN_ROWS = 50;
+
+    public void load(Consumer<List<OrderRow>> onResult, Consumer<DataStoreException> onError) {
+        TracedDataStore.query(Order.class,
+                Where.sorted(Order.DATE.descending()).paginated(Page.startingAt(0).withLimit(SCREEN_ROWS)),
+                matches -> {
+                    List<Order> orders = new ArrayList<>();
+                    while (matches.hasNext()) {
+                        orders.add(matches.next());
+                    }
+                    resolveCustomers(orders, onResult, onError);
+                },
+                onError
+        );
+    }
+
+    private void resolveCustomers(List<Order> orders, Consumer<List<OrderRow>> onResult,
+                                  Consumer<DataStoreException> onError) {
+        Set<String> customerIds = new LinkedHashSet<>();
+        for (Order order : orders) {
+            customerIds.add(order.getCustomerId());
+        }
+        List<List<String>> batches = CustomerGraphLoader.partition(new ArrayList<>(customerIds),
+                CustomerGraphLoader.ID_BATCH_SIZE);
+        if (batches.isEmpty()) {
+            onResult.accept(new ArrayList<>());
+            return;
+        }
+
+        Map<String, String> names = new ConcurrentHashMap<>();
+        AtomicInteger pendingBatches = new AtomicInteger(batches.size());
+        AtomicBoolean failed = new AtomicBoolean(false);
+        for (List<String> batch : batches) {
+            TracedDataStore.query(Customer.class,
+                    Where.matches(CustomerGraphLoader.anyIdOf(Customer.ID, batch)),
+                    matches -> {
+                        while (matches.hasNext()) {
+                            Customer customer = matches.next();
+                            names.put(customer.getId(), customer.getName());
+                        }
+                        if (pendingBatches.decrementAndGet() == 0 && !failed.get()) {
+                            onResult.accept(toRows(orders, names));
+                        }
+                    },
+                    error -> {
+                        if (failed.compareAndSet(false, true)) {
+                            onError.accept(error);
+                        }
+                    }
+            );
+        }
+    }
+
+    /** Orders whose customer has not synced yet show the customer id instead of a name. */
+    static List<OrderRow> toRows(List<Order> orders, Map<String, String> customerNames) {
+        List<OrderRow> rows = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            String name = customerNames.get(order.getCustomerId());
+            rows.add(new OrderRow(order.getId(), name != null ? name : order.getCustomerId(),
+                    order.getAmount(), order.getStatus(), order.getDate()));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.orderapp;
+
+/**
+ * One row of the order list as displayed: the order with its customer's name resolved.
+ */
+public final class OrderRow {
+    private final String id;
+    private final String customerName;
+    private final int amount;
+    private final String status;
+    private final String date;
+
+    public OrderRow(String id, String customerName, int amount, String status, String date) {
+        this.id = id;
+        this.customerName = customerName;
+        this.amount = amount;
+        this.status = status;
+        this.date = date;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        OrderRow other = (OrderRow) obj;
+        return amount == other.amount
+                && id.equals(other.id)
+                && customerName.equals(other.customerName)
+                && status.equals(other.status)
+                && date.equals(other.date);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + customerName.hashCode();
+        result = 31 * result + amount;
+        result = 31 * result + status.hashCode();
+        result = 31 * result + date.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderRow {id=" + id + ", customerName=" + customerName + ", amount=" + amount
+                + ", status=" + status + ", date=" + date + "}";
+    }
+}
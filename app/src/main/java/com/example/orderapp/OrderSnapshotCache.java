@@ -0,0 +1,152 @@
+package com.example.orderapp;
+
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The last order list that was rendered, kept in a small file so the next cold start can
+ * show it before the DataStore has started.
+ *
+ * <p>Layout: a magic number, the number of distinct strings among customer names and
+ * statuses followed by those strings, then the row count and each row as
+ * {@code [id][name index][amount][status index][date]}. Strings are an int byte count
+ * followed by UTF-8. Files are written to a temporary file and renamed over the old
+ * one, so a reader sees either the old snapshot or the new one.
+ */
+public final class OrderSnapshotCache {
+    private static final String LOG_TAG = "OrderApp";
+    private static final int MAGIC = 0x4f534e31;
+
+    private final File file;
+
+    public OrderSnapshotCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Maps and decodes the snapshot. Returns an empty list when there is no snapshot or it
+     * cannot be read, in which case the screen simply waits for live data.
+     */
+    public List<OrderRow> load() {
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            ByteBuffer buffer = input.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, input.length());
+            return decode(buffer);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException error) {
+            Log.w(LOG_TAG, "Ignoring unreadable order snapshot " + file, error);
+            return Collections.emptyList();
+        }
+    }
+
+    public void save(List<OrderRow> rows) throws IOException {
+        byte[] encoded = encode(rows);
+        File temporary = new File(file.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(temporary)) {
+            output.write(encoded);
+            output.getFD().sync();
+        }
+        if (!temporary.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    static byte[] encode(List<OrderRow> rows) throws IOException {
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (OrderRow row : rows) {
+            intern(row.getCustomerName(), indexes, strings);
+            intern(row.getStatus(), indexes, strings);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIC);
+        output.writeInt(strings.size());
+        for (String string : strings) {
+            writeString(output, string);
+        }
+        output.writeInt(rows.size());
+        for (OrderRow row : rows) {
+            writeString(output, row.getId());
+            output.writeInt(indexes.get(row.getCustomerName()));
+            output.writeInt(row.getAmount());
+            output.writeInt(indexes.get(row.getStatus()));
+            writeString(output, row.getDate());
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    static List<OrderRow> decode(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an order snapshot");
+        }
+        String[] strings = new String[count(buffer)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(buffer);
+        }
+        int rowCount = count(buffer);
+        List<OrderRow> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            String id = readString(buffer);
+            String customerName = strings[index(buffer, strings)];
+            int amount = buffer.getInt();
+            String status = strings[index(buffer, strings)];
+            rows.add(new OrderRow(id, customerName, amount, status, readString(buffer)));
+        }
+        return rows;
+    }
+
+    private static void intern(String string, Map<String, Integer> indexes, List<String> strings) {
+        if (!indexes.containsKey(string)) {
+            indexes.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(utf8.length);
+        output.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] utf8 = new byte[count(buffer)];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /** Reads a length and rejects ones the remaining bytes cannot hold, as a corrupt file would have. */
+    private static int count(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt order snapshot");
+        }
+        return count;
+    }
+
+    private static int index(ByteBuffer buffer, String[] strings) {
+        int index = buffer.getInt();
+        if (index < 0 || index >= strings.length) {
+            throw new IllegalArgumentException("Corrupt order snapshot");
+        }
+        return index;
+    }
+}
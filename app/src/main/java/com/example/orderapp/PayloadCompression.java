@@ -0,0 +1,275 @@
+package com.example.orderapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * The content codings the API transport can use for GraphQL bodies, and the
+ * {@code Accept-Encoding} negotiation between them. Besides {@code gzip} and
+ * {@code deflate} there is a deflate primed with a dictionary of the models' field and
+ * type names, which GraphQL pages repeat in every item: it saves most on small bodies such
+ * as a single mutation, where plain deflate has nothing earlier to refer back to. The
+ * dictionary is derived from the models, and its coding token names a checksum of it, so a
+ * peer built from a different schema simply does not match that token and falls back to
+ * gzip.
+ */
+public final class PayloadCompression {
+    /** Bodies below this size go out as they are; the coding's header would eat the saving. */
+    public static final int MIN_BYTES = 256;
+    /** Largest body {@link #decode} inflates to, against a small body that inflates without end. */
+    static final int MAX_DECODED_BYTES = 32 * 1024 * 1024;
+
+    public enum Coding {
+        IDENTITY("identity"),
+        GZIP("gzip"),
+        DEFLATE("deflate"),
+        FIELD_DICTIONARY("x-deflate-fields-" + Dictionary.ID);
+
+        private final String token;
+
+        Coding(String token) {
+            this.token = token;
+        }
+
+        /** @return the name in {@code Content-Encoding} and {@code Accept-Encoding} */
+        public String token() {
+            return token;
+        }
+
+        /** @return the coding named {@code token}, IDENTITY for null, or null for an unknown coding */
+        public static Coding forToken(String token) {
+            if (token == null) {
+                return IDENTITY;
+            }
+            String name = token.trim().toLowerCase(Locale.US);
+            for (Coding coding : values()) {
+                if (coding.token.equals(name)) {
+                    return coding;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Dictionary {
+        static final byte[] BYTES = build();
+        static final String ID = id(BYTES);
+
+        private static byte[] build() {
+            // Sorted, so both ends build the same bytes whatever the order of reflection.
+            Set<String> names = new TreeSet<>();
+            Set<String> types = new TreeSet<>();
+            for (ModelRegistry.Entry entry : ModelRegistry.get().entries()) {
+                types.add(entry.name);
+                names.addAll(entry.fields.keySet());
+            }
+            StringBuilder text = new StringBuilder("{\"data\":{\"items\":[{\"nextToken\":null,\"startedAt\":");
+            for (String type : types) {
+                text.append("\"__typename\":\"").append(type).append("\",");
+            }
+            for (String name : names) {
+                text.append('"').append(name).append("\":\"");
+            }
+            // Deflate refers back at most 32 KB and codes near matches shorter, so the
+            // fields every item carries go last.
+            text.append("\"_deleted\":false,\"_lastChangedAt\":\"_version\":\"createdAt\":\"updatedAt\":\"id\":\"");
+            return text.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static String id(byte[] dictionary) {
+            CRC32 crc = new CRC32();
+            crc.update(dictionary, 0, dictionary.length);
+            return String.format(Locale.US, "%08x", crc.getValue());
+        }
+    }
+
+    /** The codings this app offers and answers with, best first. */
+    public static final List<Coding> PREFERRED =
+            Collections.unmodifiableList(Arrays.asList(Coding.FIELD_DICTIONARY, Coding.GZIP, Coding.DEFLATE));
+
+    private PayloadCompression() {
+    }
+
+    /** @return the dictionary {@link Coding#FIELD_DICTIONARY} primes deflate with */
+    static byte[] dictionary() {
+        return Dictionary.BYTES.clone();
+    }
+
+    public static byte[] encode(Coding coding, byte[] body) {
+        switch (coding) {
+            case GZIP:
+                ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(body);
+                } catch (IOException error) {
+                    throw new IllegalStateException("Writing to memory failed", error);
+                }
+                return out.toByteArray();
+            case DEFLATE:
+                return deflate(body, null);
+            case FIELD_DICTIONARY:
+                return deflate(body, Dictionary.BYTES);
+            default:
+                return body;
+        }
+    }
+
+    /** @throws IOException if the body is not valid in its coding or inflates past the limit */
+    public static byte[] decode(Coding coding, byte[] body) throws IOException {
+        switch (coding) {
+            case GZIP:
+                try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(body.length * 4);
+                    byte[] buffer = new byte[8192];
+                    for (int read; (read = gzip.read(buffer)) > 0; ) {
+                        out.write(buffer, 0, read);
+                        checkSize(out.size());
+                    }
+                    return out.toByteArray();
+                }
+            case DEFLATE:
+            case FIELD_DICTIONARY:
+                return inflate(body, coding == Coding.FIELD_DICTIONARY ? Dictionary.BYTES : null);
+            default:
+                return body;
+        }
+    }
+
+    private static byte[] deflate(byte[] body, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] body, byte[] dictionary) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(body);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0) {
+                    if (inflater.needsDictionary() && dictionary != null) {
+                        inflater.setDictionary(dictionary);
+                        dictionary = null;
+                    } else if (inflater.needsInput() || inflater.needsDictionary()) {
+                        throw new IOException("Truncated or unreadable deflate body");
+                    }
+                }
+                out.write(buffer, 0, read);
+                checkSize(out.size());
+            }
+            return out.toByteArray();
+        } catch (DataFormatException error) {
+            throw new IOException("Corrupt deflate body", error);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void checkSize(int size) throws IOException {
+        if (size > MAX_DECODED_BYTES) {
+            throw new IOException("Body inflates past " + MAX_DECODED_BYTES + " bytes");
+        }
+    }
+
+    /**
+     * @return an {@code Accept-Encoding} value offering the codings, in order of preference
+     */
+    public static String acceptEncoding(List<Coding> codings) {
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < codings.size(); i++) {
+            header.append(i > 0 ? ", " : "").append(codings.get(i).token);
+            if (i > 0) {
+                // Falling q-values, so a server that sorts by q keeps the order.
+                header.append(String.format(Locale.US, ";q=%.1f", Math.max(0.1, 1.0 - 0.1 * i)));
+            }
+        }
+        return header.toString();
+    }
+
+    /**
+     * Picks the coding for a response: among the {@code supported} codings the header
+     * accepts, the one with the highest q-value, ties going to the earlier one in
+     * {@code supported}. {@code *} accepts any coding not named.
+     *
+     * @return the coding to use, IDENTITY if the header accepts none
+     */
+    public static Coding negotiate(String acceptEncoding, List<Coding> supported) {
+        if (acceptEncoding == null || acceptEncoding.trim().isEmpty()) {
+            return Coding.IDENTITY;
+        }
+        List<String[]> entries = new ArrayList<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokenAndParameters = part.split(";");
+            String q = "1";
+            for (int i = 1; i < tokenAndParameters.length; i++) {
+                String parameter = tokenAndParameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    q = parameter.substring(2).trim();
+                }
+            }
+            entries.add(new String[] {tokenAndParameters[0].trim().toLowerCase(Locale.US), q});
+        }
+        Set<Coding> named = EnumSet.noneOf(Coding.class);
+        for (String[] entry : entries) {
+            Coding coding = Coding.forToken(entry[0]);
+            if (coding != null) {
+                named.add(coding);
+            }
+        }
+        Coding best = Coding.IDENTITY;
+        double bestQ = 0;
+        for (Coding coding : supported) {
+            double q = 0;
+            for (String[] entry : entries) {
+                if (entry[0].equals(coding.token) || (entry[0].equals("*") && !named.contains(coding))) {
+                    q = Math.max(q, parseQ(entry[1]));
+                }
+            }
+            if (q > bestQ) {
+                best = coding;
+                bestQ = q;
+            }
+        }
+        return best;
+    }
+
+    private static double parseQ(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException error) {
+            return 0;
+        }
+    }
+}
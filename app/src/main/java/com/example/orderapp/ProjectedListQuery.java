@@ -0,0 +1,200 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Consumer;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pages through {@code list<Model>s} selecting only the fields declared by a
+ * {@link ListProjection}, instead of the full selection sets in queries.graphql.
+ */
+public final class ProjectedListQuery<T> {
+    private final GraphQLTransport transport;
+    private final ListProjection<T> projection;
+    private final ModelAccessor<?> accessor;
+    /** The accessor's number of each projected field. */
+    private final int[] columns;
+    private final String document;
+    private final Stats stats = new Stats();
+
+    public ProjectedListQuery(GraphQLTransport transport, ListProjection<T> projection) {
+        this.transport = transport;
+        this.projection = projection;
+        this.accessor = ModelAccessors.of(ModelRegistry.get().byName(projection.getModelName()).type);
+        this.columns = columns(accessor, projection);
+        this.document = document(projection);
+    }
+
+    /** @throws IllegalArgumentException if a projected field is not a scalar field of the model */
+    static int[] columns(ModelAccessor<?> accessor, ListProjection<?> projection) {
+        List<String> fields = projection.getFields();
+        int[] columns = new int[fields.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = accessor.fieldIndex(fields.get(i));
+            if (columns[i] < 0 || !accessor.isSettable(columns[i])) {
+                throw new IllegalArgumentException(fields.get(i) + " is not a scalar field of "
+                        + projection.getModelName());
+            }
+        }
+        return columns;
+    }
+
+    static String document(ListProjection<?> projection) {
+        String model = projection.getModelName();
+        String plural = projection.getPluralName();
+        StringBuilder selection = new StringBuilder();
+        for (String field : projection.getFields()) {
+            selection.append(field).append(' ');
+        }
+        return "query List" + plural + "Projected($filter: Model" + model + "FilterInput, $limit: Int, $nextToken: String) {"
+                + " list" + plural + "(filter: $filter, limit: $limit, nextToken: $nextToken) {"
+                + " items { " + selection + "_deleted } nextToken } }";
+    }
+
+    /**
+     * @param filter the {@code Model<X>FilterInput}, e.g. {@code {"name": {"beginsWith": "Ad"}}},
+     *               or null for every item. AppSync filters a page after reading it, so a
+     *               filtered page can hold fewer than {@code limit} items, or none, and still
+     *               have a next token.
+     */
+    public void fetchPage(Map<String, Object> filter, int limit, String nextToken,
+                          Consumer<Page<T>> onPage, Consumer<ApiException> onError) {
+        Map<String, Object> variables = new HashMap<>();
+        if (filter != null) {
+            variables.put("filter", filter);
+        }
+        variables.put("limit", limit);
+        if (nextToken != null) {
+            variables.put("nextToken", nextToken);
+        }
+        transport.execute(document, variables,
+                data -> {
+                    Page<T> page;
+                    try {
+                        page = parse(data);
+                    } catch (IOException | IllegalStateException | NumberFormatException error) {
+                        onError.accept(new ApiException("Malformed list response", error,
+                                "Check that the projected fields exist on " + projection.getModelName()));
+                        return;
+                    }
+                    onPage.accept(page);
+                },
+                onError
+        );
+    }
+
+    /** Streams the page through the model's {@link ModelAccessor}, skipping tombstones. */
+    Page<T> parse(String data) throws IOException {
+        long start = System.nanoTime();
+        String connection = "list" + projection.getPluralName();
+        List<T> mapped = new ArrayList<>();
+        Object[] projected = new Object[columns.length];
+        String nextToken = null;
+        try (JsonReader reader = new JsonReader(new StringReader(data))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals(connection)) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else if (name.equals("items")) {
+                        ModelAccessors.readRows(accessor, reader, (values, deleted) -> {
+                            if (!deleted) {
+                                for (int i = 0; i < columns.length; i++) {
+                                    projected[i] = values[columns[i]];
+                                }
+                                mapped.add(projection.map(projected));
+                            }
+                        });
+                    } else if (name.equals("nextToken")) {
+                        nextToken = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        }
+        stats.record(data.getBytes(StandardCharsets.UTF_8).length, System.nanoTime() - start, mapped.size());
+        return new Page<>(mapped, nextToken);
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    public static final class Page<T> {
+        private final List<T> items;
+        private final String nextToken;
+
+        Page(List<T> items, String nextToken) {
+            this.items = items;
+            this.nextToken = nextToken;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        /** @return the token for the next page, or null on the last page */
+        public String getNextToken() {
+            return nextToken;
+        }
+    }
+
+    /**
+     * Payload size and parse time of the pages fetched so far, for comparison against the
+     * full-selection documents.
+     */
+    public static final class Stats {
+        private final AtomicLong pages = new AtomicLong();
+        private final AtomicLong items = new AtomicLong();
+        private final AtomicLong payloadBytes = new AtomicLong();
+        private final AtomicLong parseNanos = new AtomicLong();
+
+        void record(long bytes, long nanos, int itemCount) {
+            pages.incrementAndGet();
+            items.addAndGet(itemCount);
+            payloadBytes.addAndGet(bytes);
+            parseNanos.addAndGet(nanos);
+        }
+
+        public long getPages() {
+            return pages.get();
+        }
+
+        public long getItems() {
+            return items.get();
+        }
+
+        public long getPayloadBytes() {
+            return payloadBytes.get();
+        }
+
+        public long getParseNanos() {
+            return parseNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            return "pages=" + getPages() + ", items=" + getItems()
+                    + ", payloadBytes=" + getPayloadBytes() + ", parseMicros=" + getParseNanos() / 1000;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.generated.model.Inventory;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The app's single-field updates of Orders and Inventory, sent as {@link ModelPatch}es:
+ * each reads the record at its current {@code _version}, changes the field and sends only
+ * that. A conflict means the record changed in between, whether the backend rejected the
+ * patch or merged it and kept the stored value, so the change is redone on a fresh read, up
+ * to {@link #MAX_ATTEMPTS} times, and a concurrent {@code inventoryAmount} adjustment is
+ * not silently lost. The DataStore picks the new version up from its {@code onUpdate}
+ * subscription; the models handed back are the patch bases, without timestamps or
+ * connections.
+ */
+public final class RemoteUpdates {
+    static final int MAX_ATTEMPTS = 3;
+
+    private final GraphQLTransport transport;
+
+    public RemoteUpdates(GraphQLTransport transport) {
+        this.transport = transport;
+    }
+
+    public void setOrderStatus(String orderId, String status,
+                               Consumer<Order> onSaved, Consumer<ApiException> onError) {
+        update(Order.class, Collections.singletonMap("id", orderId),
+                patch -> patch.set(Order.STATUS, status), onSaved, onError, 1);
+    }
+
+    /** Adds {@code delta}, which may be negative, to the stock of a product in a warehouse. */
+    public void adjustInventory(String productId, String warehouseId, int delta,
+                                Consumer<Inventory> onSaved, Consumer<ApiException> onError) {
+        Map<String, String> key = new LinkedHashMap<>();
+        key.put("productID", productId);
+        key.put("warehouseID", warehouseId);
+        update(Inventory.class, key,
+                patch -> patch.set(Inventory.INVENTORY_AMOUNT, (Integer) patch.get("inventoryAmount") + delta),
+                onSaved, onError, 1);
+    }
+
+    /** A change made to a freshly read patch; it runs again for each attempt. */
+    private interface Change<M extends Model> {
+        void apply(ModelPatch<M> patch);
+    }
+
+    private <M extends Model> void update(Class<M> type, Map<String, String> key, Change<M> change,
+                                          Consumer<M> onSaved, Consumer<ApiException> onError, int attempt) {
+        ModelPatch.read(transport, type, key,
+                patch -> {
+                    if (patch == null) {
+                        onError.accept(new ApiException("No " + type.getSimpleName() + " " + key.values(),
+                                "Check that the record exists and is not deleted."));
+                        return;
+                    }
+                    change.apply(patch);
+                    patch.send(transport, saved -> onSaved.accept(saved.base()),
+                            error -> {
+                                if (isConflict(error) && attempt < MAX_ATTEMPTS) {
+                                    update(type, key, change, onSaved, onError, attempt + 1);
+                                } else {
+                                    onError.accept(error);
+                                }
+                            });
+                },
+                onError);
+    }
+
+    /**
+     * Under AUTOMERGE a stale {@code _version} comes back as a merge that kept the stored
+     * value, which {@link ModelPatch#send} reports as a {@link ModelPatch.MergedException}.
+     * Under optimistic concurrency AppSync rejects it as a {@code ConflictUnhandled} error,
+     * which the Amplify transport passes on by its message alone.
+     */
+    static boolean isConflict(ApiException error) {
+        if (error instanceof ModelPatch.MergedException) {
+            return true;
+        }
+        String message = String.valueOf(error.getMessage());
+        return message.contains("ConflictUnhandled") || message.contains("Conflict resolver rejects mutation");
+    }
+}
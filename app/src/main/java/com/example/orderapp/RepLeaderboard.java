@@ -0,0 +1,175 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.AccountRepresentative;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Representatives of each sales period ranked by {@code orderTotal}, the local
+ * counterpart of the {@code repsByPeriodAndTotal} query: {@link #top(String, int)} walks
+ * the first {@code k} entries of the period's skip list instead of downloading and
+ * sorting every representative of the period.
+ *
+ * <p>Entries follow AccountRepresentative records (their salesPeriod and stored
+ * orderTotal) and, through {@link SalesReportEngine.Listener}, the totals recomputed from
+ * local Order changes before they have been written back. Updates are serialized; reads
+ * take no lock. A representative whose total is changing is inserted at its new position
+ * before it leaves the old one, so a concurrent read sees it once or twice but never
+ * misses it, and {@link #top(String, int)} drops the second sighting.
+ */
+public final class RepLeaderboard implements SalesReportEngine.Listener {
+    private final SalesReportEngine engine;
+    private final Map<String, ConcurrentSkipListSet<Standing>> periods = new ConcurrentHashMap<>();
+    /** Representative id to its current entry. */
+    private final Map<String, Standing> standings = new HashMap<>();
+
+    public RepLeaderboard(SalesReportEngine engine) {
+        this.engine = engine;
+        engine.addListener(this);
+    }
+
+    public synchronized void representativeSaved(AccountRepresentative representative) {
+        String period = representative.getSalesPeriod();
+        if (period == null) {
+            remove(representative.getId());
+            return;
+        }
+        // A total recomputed from local orders is at least as fresh as the stored one.
+        long total;
+        if (engine.hasTotal(period, representative.getId())) {
+            total = engine.total(period, representative.getId());
+        } else {
+            total = representative.getOrderTotal() != null ? representative.getOrderTotal() : 0;
+        }
+        put(new Standing(representative.getId(), period, total));
+    }
+
+    public synchronized void representativeDeleted(String representativeId) {
+        remove(representativeId);
+    }
+
+    @Override
+    public synchronized void totalChanged(String salesPeriod, String representativeId, long total) {
+        Standing current = standings.get(representativeId);
+        if (current != null && current.period.equals(salesPeriod)) {
+            put(new Standing(representativeId, salesPeriod, total));
+        }
+    }
+
+    @Override
+    public synchronized void totalsReplaced() {
+        for (Standing current : new ArrayList<>(standings.values())) {
+            if (engine.hasTotal(current.period, current.representativeId)) {
+                put(new Standing(current.representativeId, current.period,
+                        engine.total(current.period, current.representativeId)));
+            }
+        }
+    }
+
+    /** @return up to {@code k} representatives of the period, highest total first */
+    public List<Standing> top(String salesPeriod, int k) {
+        ConcurrentSkipListSet<Standing> ranking = periods.get(salesPeriod);
+        List<Standing> top = new ArrayList<>(k);
+        if (ranking == null) {
+            return top;
+        }
+        Set<String> seen = new HashSet<>();
+        for (Standing standing : ranking) {
+            if (top.size() == k) {
+                break;
+            }
+            if (seen.add(standing.representativeId)) {
+                top.add(standing);
+            }
+        }
+        return top;
+    }
+
+    /** @return the latest sales period that has representatives, or null if none has */
+    public String latestPeriod() {
+        String latest = null;
+        for (Map.Entry<String, ConcurrentSkipListSet<Standing>> period : periods.entrySet()) {
+            if (!period.getValue().isEmpty() && (latest == null || period.getKey().compareTo(latest) > 0)) {
+                latest = period.getKey();
+            }
+        }
+        return latest;
+    }
+
+    private void put(Standing next) {
+        Standing previous = standings.get(next.representativeId);
+        if (next.equals(previous)) {
+            return;
+        }
+        periods.computeIfAbsent(next.period, period -> new ConcurrentSkipListSet<>()).add(next);
+        standings.put(next.representativeId, next);
+        if (previous != null) {
+            periods.get(previous.period).remove(previous);
+        }
+    }
+
+    private void remove(String representativeId) {
+        Standing previous = standings.remove(representativeId);
+        if (previous != null) {
+            periods.get(previous.period).remove(previous);
+        }
+    }
+
+    /** One representative's place in a period: ordered by total, highest first, then by id. */
+    public static final class Standing implements Comparable<Standing> {
+        private final String representativeId;
+        private final String period;
+        private final long total;
+
+        Standing(String representativeId, String period, long total) {
+            this.representativeId = representativeId;
+            this.period = period;
+            this.total = total;
+        }
+
+        public String getRepresentativeId() {
+            return representativeId;
+        }
+
+        public String getPeriod() {
+            return period;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        @Override
+        public int compareTo(Standing other) {
+            int byTotal = Long.compare(other.total, total);
+            return byTotal != 0 ? byTotal : representativeId.compareTo(other.representativeId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Standing)) {
+                return false;
+            }
+            Standing other = (Standing) obj;
+            return total == other.total && representativeId.equals(other.representativeId)
+                    && period.equals(other.period);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * representativeId.hashCode() + period.hashCode()) + Long.hashCode(total);
+        }
+
+        @Override
+        public String toString() {
+            return representativeId + "=" + total;
+        }
+    }
+}
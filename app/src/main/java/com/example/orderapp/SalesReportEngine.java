@@ -0,0 +1,407 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Order;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order totals per AccountRepresentative and sales period. A sales period is the year of
+ * the order's date, matching the {@code salesPeriod} values the app writes ("2022").
+ *
+ * <p>{@link #rebuild(OrderColumns)} recomputes every total with a fork/join pass over the
+ * order columns. After that, {@link #orderSaved(Order)} and {@link #orderDeleted(Order)}
+ * move only the changed order's amount between totals, using the contribution each order
+ * made last time. Changes that arrive while a rebuild runs are held back and applied on
+ * top of the rebuilt totals, so none is lost to the swap. Representatives whose totals
+ * changed are collected until {@link #drainDirty()} so that they can be written back
+ * together.
+ */
+public final class SalesReportEngine {
+    /** Rows per fork/join leaf; below this, splitting costs more than it saves. */
+    static final int LEAF_ROWS = 16_384;
+
+    /** Notified of each total that changes, e.g. by a leaderboard. */
+    public interface Listener {
+        void totalChanged(String salesPeriod, String representativeId, long total);
+
+        /** All totals were replaced; read them again with {@link #totals(String)}. */
+        void totalsReplaced();
+    }
+
+    private final ForkJoinPool pool;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    /** Sales period to representative id to total. */
+    private Map<String, Map<String, Long>> totals = new HashMap<>();
+    private Map<String, Contribution> contributions = new HashMap<>();
+    private final Set<String> dirty = new HashSet<>();
+    /** Orders saved or deleted while a rebuild runs; null between rebuilds. */
+    private List<HeldChange> held;
+    private final Object rebuilding = new Object();
+
+    public SalesReportEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    SalesReportEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Replaces every total with one computed from the orders; all representatives become
+     * dirty. Orders saved or deleted meanwhile are applied after the swap.
+     */
+    public void rebuild(OrderColumns orders) {
+        synchronized (rebuilding) {
+            synchronized (this) {
+                held = new ArrayList<>();
+            }
+            replace(orders);
+            // Apply the held changes in order; ones arriving meanwhile join the end.
+            int applied = 0;
+            while (true) {
+                HeldChange change;
+                synchronized (this) {
+                    if (applied == held.size()) {
+                        held = null;
+                        break;
+                    }
+                    change = held.get(applied++);
+                }
+                if (change.deleted) {
+                    applyDeleted(change.order);
+                } else {
+                    applySaved(change.order);
+                }
+            }
+        }
+    }
+
+    private void replace(OrderColumns orders) {
+        Partial partial = pool.invoke(new Aggregation(orders, 0, orders.size()));
+        StringDictionary representatives = orders.dictionary(OrderColumns.Dimension.REPRESENTATIVE);
+
+        Map<String, Map<String, Long>> rebuilt = new HashMap<>();
+        for (Map.Entry<Integer, long[]> year : partial.byYear.entrySet()) {
+            Map<String, Long> byRepresentative = new HashMap<>();
+            long[] sums = year.getValue();
+            for (int code = 0; code < sums.length; code++) {
+                if (partial.seen(year.getKey(), code)) {
+                    byRepresentative.put(representatives.decode(code), sums[code]);
+                }
+            }
+            rebuilt.put(String.valueOf(year.getKey()), byRepresentative);
+        }
+        Map<String, Contribution> rebuiltContributions = new HashMap<>(orders.size() * 2);
+        YearCursor cursor = new YearCursor();
+        for (int row = 0; row < orders.size(); row++) {
+            String period = cursor.periodAt(orders.dateAt(row));
+            if (period != null) {
+                rebuiltContributions.put(orders.idAt(row), new Contribution(
+                        representatives.decode(orders.keyAt(OrderColumns.Dimension.REPRESENTATIVE, row)),
+                        period, orders.amountAt(row)));
+            }
+        }
+
+        synchronized (this) {
+            totals = rebuilt;
+            contributions = rebuiltContributions;
+            for (Map<String, Long> byRepresentative : rebuilt.values()) {
+                dirty.addAll(byRepresentative.keySet());
+            }
+        }
+        for (Listener listener : listeners) {
+            listener.totalsReplaced();
+        }
+    }
+
+    /** Applies a created or updated order: its previous amount leaves its previous total. */
+    public void orderSaved(Order order) {
+        if (!hold(order, false)) {
+            applySaved(order);
+        }
+    }
+
+    public void orderDeleted(Order order) {
+        if (!hold(order, true)) {
+            applyDeleted(order);
+        }
+    }
+
+    /** @return whether a rebuild is running and took the change to apply after it */
+    private synchronized boolean hold(Order order, boolean deleted) {
+        if (held == null) {
+            return false;
+        }
+        held.add(new HeldChange(order, deleted));
+        return true;
+    }
+
+    private void applySaved(Order order) {
+        String period = periodOf(OrderColumns.epochMillis(order.getDate()));
+        Contribution next = period != null
+                ? new Contribution(order.getAccountRepresentativeId(), period, order.getAmount())
+                : null;
+        Contribution previous;
+        synchronized (this) {
+            previous = next != null ? contributions.put(order.getId(), next) : contributions.remove(order.getId());
+        }
+        move(previous, next);
+    }
+
+    private void applyDeleted(Order order) {
+        Contribution previous;
+        synchronized (this) {
+            previous = contributions.remove(order.getId());
+        }
+        move(previous, null);
+    }
+
+    private void move(Contribution previous, Contribution next) {
+        if (previous != null && previous.equals(next)) {
+            return;
+        }
+        if (previous != null) {
+            notifyChanged(previous.period, previous.representativeId, add(previous, -previous.amount));
+        }
+        if (next != null) {
+            notifyChanged(next.period, next.representativeId, add(next, next.amount));
+        }
+    }
+
+    private synchronized long add(Contribution contribution, long amount) {
+        Map<String, Long> byRepresentative = totals.get(contribution.period);
+        if (byRepresentative == null) {
+            byRepresentative = new HashMap<>();
+            totals.put(contribution.period, byRepresentative);
+        }
+        Long current = byRepresentative.get(contribution.representativeId);
+        long total = (current != null ? current : 0) + amount;
+        byRepresentative.put(contribution.representativeId, total);
+        dirty.add(contribution.representativeId);
+        return total;
+    }
+
+    private void notifyChanged(String period, String representativeId, long total) {
+        for (Listener listener : listeners) {
+            listener.totalChanged(period, representativeId, total);
+        }
+    }
+
+    /** @return the representative's order total in the sales period, 0 if it has no orders there */
+    public synchronized long total(String salesPeriod, String representativeId) {
+        Map<String, Long> byRepresentative = totals.get(salesPeriod);
+        Long total = byRepresentative != null ? byRepresentative.get(representativeId) : null;
+        return total != null ? total : 0;
+    }
+
+    /** @return whether the representative has orders in the sales period */
+    public synchronized boolean hasTotal(String salesPeriod, String representativeId) {
+        Map<String, Long> byRepresentative = totals.get(salesPeriod);
+        return byRepresentative != null && byRepresentative.containsKey(representativeId);
+    }
+
+    /** @return a copy of the totals of every representative with orders in the period */
+    public synchronized Map<String, Long> totals(String salesPeriod) {
+        Map<String, Long> byRepresentative = totals.get(salesPeriod);
+        return byRepresentative != null ? new HashMap<>(byRepresentative) : Collections.<String, Long>emptyMap();
+    }
+
+    /** @return the representatives whose totals changed since the last call */
+    public synchronized Set<String> drainDirty() {
+        Set<String> drained = new HashSet<>(dirty);
+        dirty.clear();
+        return drained;
+    }
+
+    /** @return the year of the date as a sales period, or null for an unknown date */
+    static String periodOf(long epochMillis) {
+        if (epochMillis == OrderColumns.UNKNOWN_DATE) {
+            return null;
+        }
+        return String.valueOf(yearOf(epochMillis));
+    }
+
+    private static int yearOf(long epochMillis) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochMillis, TimeUnit.DAYS.toMillis(1))).getYear();
+    }
+
+    private static final class HeldChange {
+        final Order order;
+        final boolean deleted;
+
+        HeldChange(Order order, boolean deleted) {
+            this.order = order;
+            this.deleted = deleted;
+        }
+    }
+
+    private static final class Contribution {
+        final String representativeId;
+        final String period;
+        final int amount;
+
+        Contribution(String representativeId, String period, int amount) {
+            this.representativeId = representativeId;
+            this.period = period;
+            this.amount = amount;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Contribution)) {
+                return false;
+            }
+            Contribution other = (Contribution) obj;
+            return amount == other.amount && representativeId.equals(other.representativeId)
+                    && period.equals(other.period);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * representativeId.hashCode() + period.hashCode()) + amount;
+        }
+    }
+
+    /**
+     * Finds the year of each date in turn. Orders of a period are usually adjacent, so the
+     * year is only recomputed when a date leaves the current year.
+     */
+    private static final class YearCursor {
+        private long yearStart = Long.MAX_VALUE;
+        private long yearEnd = Long.MIN_VALUE;
+        private int year;
+        private String period;
+
+        /** @return the year of a known date */
+        int yearAt(long epochMillis) {
+            if (epochMillis < yearStart || epochMillis >= yearEnd) {
+                year = yearOf(epochMillis);
+                period = String.valueOf(year);
+                yearStart = LocalDate.of(year, 1, 1).toEpochDay() * TimeUnit.DAYS.toMillis(1);
+                yearEnd = LocalDate.of(year + 1, 1, 1).toEpochDay() * TimeUnit.DAYS.toMillis(1);
+            }
+            return year;
+        }
+
+        /** @return the sales period of the date, or null for an unknown date */
+        String periodAt(long epochMillis) {
+            if (epochMillis == OrderColumns.UNKNOWN_DATE) {
+                return null;
+            }
+            yearAt(epochMillis);
+            return period;
+        }
+    }
+
+    /**
+     * Sums per year, each an array indexed by representative code, plus which codes
+     * actually had orders in that year so that zero totals from offsetting orders are kept
+     * apart from representatives with no orders.
+     */
+    private static final class Partial {
+        final Map<Integer, long[]> byYear = new HashMap<>();
+        final Map<Integer, boolean[]> present = new HashMap<>();
+        final int representatives;
+
+        Partial(int representatives) {
+            this.representatives = representatives;
+        }
+
+        long[] sums(int year) {
+            long[] sums = byYear.get(year);
+            if (sums == null) {
+                sums = new long[representatives];
+                byYear.put(year, sums);
+                present.put(year, new boolean[representatives]);
+            }
+            return sums;
+        }
+
+        boolean[] seenIn(int year) {
+            sums(year);
+            return present.get(year);
+        }
+
+        boolean seen(int year, int representative) {
+            return present.get(year)[representative];
+        }
+
+        Partial merge(Partial other) {
+            for (Map.Entry<Integer, long[]> year : other.byYear.entrySet()) {
+                long[] sums = byYear.get(year.getKey());
+                if (sums == null) {
+                    byYear.put(year.getKey(), year.getValue());
+                    present.put(year.getKey(), other.present.get(year.getKey()));
+                    continue;
+                }
+                long[] otherSums = year.getValue();
+                boolean[] seen = present.get(year.getKey());
+                boolean[] otherSeen = other.present.get(year.getKey());
+                for (int code = 0; code < representatives; code++) {
+                    sums[code] += otherSums[code];
+                    seen[code] |= otherSeen[code];
+                }
+            }
+            return this;
+        }
+    }
+
+    private static final class Aggregation extends RecursiveTask<Partial> {
+        private final OrderColumns orders;
+        private final int from;
+        private final int to;
+
+        Aggregation(OrderColumns orders, int from, int to) {
+            this.orders = orders;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_ROWS) {
+                Partial partial = new Partial(orders.dictionary(OrderColumns.Dimension.REPRESENTATIVE).size());
+                YearCursor cursor = new YearCursor();
+                int year = Integer.MIN_VALUE;
+                long[] sums = null;
+                boolean[] seen = null;
+                for (int row = from; row < to; row++) {
+                    long date = orders.dateAt(row);
+                    if (date == OrderColumns.UNKNOWN_DATE) {
+                        continue;
+                    }
+                    int rowYear = cursor.yearAt(date);
+                    if (rowYear != year) {
+                        year = rowYear;
+                        sums = partial.sums(year);
+                        seen = partial.seenIn(year);
+                    }
+                    int representative = orders.keyAt(OrderColumns.Dimension.REPRESENTATIVE, row);
+                    sums[representative] += orders.amountAt(row);
+                    seen[representative] = true;
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            Aggregation left = new Aggregation(orders, from, middle);
+            left.fork();
+            Partial right = new Aggregation(orders, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
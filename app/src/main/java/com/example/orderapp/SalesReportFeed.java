@@ -0,0 +1,183 @@
+package com.example.orderapp;
+
+import android.util.Log;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.generated.model.AccountRepresentative;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link SalesReportEngine} from the DataStore and writes its totals back to
+ * {@code AccountRepresentative.orderTotal}: one full aggregation of the local Orders,
+ * then one incremental update per observed Order change, in the order a
+ * {@link ModelFeed} hands them over. Changed totals are written
+ * {@link #FLUSH_DELAY_MS} after the first change that follows a write, so a burst of
+ * order changes becomes one batch of representative saves. Representative records are
+ * also passed on to a {@link RepLeaderboard}.
+ *
+ * <p>Until the DataStore has synced, the local Orders are a partial set and their totals
+ * would overwrite the server's. Nothing is written before {@link #dataStoreReady()}; the
+ * totals keep aggregating, and the first flush after it writes every representative
+ * changed since the start.
+ */
+public final class SalesReportFeed {
+    private static final String LOG_TAG = "OrderApp";
+    static final long FLUSH_DELAY_MS = 2_000;
+
+    private final SalesReportEngine engine;
+    private final RepLeaderboard leaderboard;
+    private final Consumer<Model> save;
+    private final long flushDelayMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, AccountRepresentative> representatives = new ConcurrentHashMap<>();
+    /** Dirty representatives not loaded yet, written once they are. */
+    private final Set<String> waiting = new HashSet<>();
+    private boolean flushScheduled;
+    /** Whether the DataStore has synced, so the local Orders are all of them. */
+    private boolean complete;
+    private ModelFeed<AccountRepresentative> representativeFeed;
+    private ModelFeed<Order> orderFeed;
+
+    /**
+     * @param save how representative updates are saved, e.g. through a {@link StagedSaveQueue}
+     */
+    public SalesReportFeed(SalesReportEngine engine, RepLeaderboard leaderboard, Consumer<Model> save) {
+        this(engine, leaderboard, save, FLUSH_DELAY_MS);
+    }
+
+    SalesReportFeed(SalesReportEngine engine, RepLeaderboard leaderboard, Consumer<Model> save,
+                    long flushDelayMs) {
+        this.engine = engine;
+        this.leaderboard = leaderboard;
+        this.save = save;
+        this.flushDelayMs = flushDelayMs;
+    }
+
+    public void start() {
+        start(TracedDataStore::observe, TracedDataStore::query);
+    }
+
+    void start(DataStoreObserve observer, DataStoreQuery store) {
+        representativeFeed = ModelFeed.start(AccountRepresentative.class, (representative, deleted) -> {
+            if (deleted) {
+                representatives.remove(representative.getId());
+                leaderboard.representativeDeleted(representative.getId());
+            } else {
+                representatives.put(representative.getId(), representative);
+                leaderboard.representativeSaved(representative);
+                flushIfWaiting(representative.getId());
+            }
+        }, observer, store);
+        orderFeed = ModelFeed.start(Order.class, new ModelFeed.Listener<Order>() {
+            @Override
+            public void loaded(List<Order> orders) {
+                long start = System.nanoTime();
+                engine.rebuild(OrderColumns.of(orders));
+                Log.i(LOG_TAG, "Aggregated " + orders.size() + " orders in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                scheduleFlush();
+            }
+
+            @Override
+            public void changed(Order order, boolean deleted) {
+                if (deleted) {
+                    engine.orderDeleted(order);
+                } else {
+                    engine.orderSaved(order);
+                }
+                scheduleFlush();
+            }
+        }, observer, store);
+    }
+
+    /**
+     * Lets writes start: call on the DataStore's {@code READY} hub event, once its sync
+     * queries have brought every Order down. Calling it again does nothing.
+     */
+    public synchronized void dataStoreReady() {
+        if (!complete) {
+            complete = true;
+            scheduleFlush();
+        }
+    }
+
+    /** Stops observing the DataStore and drops any write not flushed yet. */
+    public void close() {
+        synchronized (this) {
+            scheduler.shutdownNow();
+        }
+        if (representativeFeed != null) {
+            representativeFeed.cancel();
+        }
+        if (orderFeed != null) {
+            orderFeed.cancel();
+        }
+    }
+
+    private synchronized void scheduleFlush() {
+        if (complete && !flushScheduled && !scheduler.isShutdown()) {
+            flushScheduled = true;
+            scheduler.schedule(this::flush, flushDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void flushIfWaiting(String representativeId) {
+        if (waiting.contains(representativeId)) {
+            scheduleFlush();
+        }
+    }
+
+    private void flush() {
+        Set<String> dirty;
+        synchronized (this) {
+            flushScheduled = false;
+            dirty = engine.drainDirty();
+            dirty.addAll(waiting);
+            waiting.clear();
+        }
+        int saved = 0;
+        for (String representativeId : dirty) {
+            AccountRepresentative representative = representatives.get(representativeId);
+            if (representative == null) {
+                synchronized (this) {
+                    waiting.add(representativeId);
+                }
+                continue;
+            }
+            if (representative.getSalesPeriod() == null) {
+                continue;
+            }
+            int total = orderTotal(engine.total(representative.getSalesPeriod(), representativeId),
+                    representativeId);
+            Integer stored = representative.getOrderTotal();
+            if (stored == null || stored != total) {
+                AccountRepresentative updated = representative.copyOfBuilder().orderTotal(total).build();
+                representatives.put(representativeId, updated);
+                save.accept(updated);
+                saved++;
+            }
+        }
+        if (saved > 0) {
+            Log.i(LOG_TAG, "Wrote orderTotal of " + saved + " representatives");
+        }
+    }
+
+    /** {@code orderTotal} is a GraphQL Int; a total beyond it is written as the nearest Int. */
+    static int orderTotal(long total, String representativeId) {
+        if (total > Integer.MAX_VALUE || total < Integer.MIN_VALUE) {
+            Log.w(LOG_TAG, "Order total " + total + " of " + representativeId + " does not fit orderTotal");
+            return total > 0 ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        }
+        return (int) total;
+    }
+}
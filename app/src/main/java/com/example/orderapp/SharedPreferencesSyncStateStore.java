@@ -0,0 +1,98 @@
+package com.example.orderapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * {@link SyncStateStore} kept in its own preferences file, outside the DataStore database.
+ */
+public final class SharedPreferencesSyncStateStore implements SyncStateStore {
+    private static final String PREFERENCES_NAME = "orderapp_sync_state";
+
+    private final SharedPreferences preferences;
+
+    public SharedPreferencesSyncStateStore(Context context) {
+        this.preferences = context.getApplicationContext()
+                .getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public long getLastSync(String modelName) {
+        return preferences.getLong(modelName + ".lastSync", 0);
+    }
+
+    @Override
+    public void setLastSync(String modelName, long startedAt) {
+        preferences.edit().putLong(modelName + ".lastSync", startedAt).apply();
+    }
+
+    @Override
+    public long getBaseSyncBytes(String modelName) {
+        return preferences.getLong(modelName + ".baseBytes", 0);
+    }
+
+    @Override
+    public long getBaseSyncMillis(String modelName) {
+        return preferences.getLong(modelName + ".baseMillis", 0);
+    }
+
+    @Override
+    public void setBaseSyncCost(String modelName, long bytes, long millis) {
+        preferences.edit()
+                .putLong(modelName + ".baseBytes", bytes)
+                .putLong(modelName + ".baseMillis", millis)
+                .apply();
+    }
+
+    @Override
+    public SyncCheckpoint getCheckpoint(String modelName) {
+        String nextToken = preferences.getString(modelName + ".checkpoint.nextToken", null);
+        if (nextToken == null) {
+            return null;
+        }
+        return new SyncCheckpoint(
+                DeltaSyncController.Mode.valueOf(preferences.getString(modelName + ".checkpoint.mode", "BASE")),
+                preferences.getLong(modelName + ".checkpoint.lastSync", 0),
+                preferences.getLong(modelName + ".checkpoint.startedAt", 0),
+                nextToken,
+                preferences.getInt(modelName + ".checkpoint.pages", 0),
+                preferences.getInt(modelName + ".checkpoint.records", 0),
+                preferences.getLong(modelName + ".checkpoint.bytes", 0),
+                preferences.getInt(modelName + ".checkpoint.limit", AdaptivePageSizer.DEFAULT_INITIAL_LIMIT),
+                preferences.getLong(modelName + ".checkpoint.savedAt", 0));
+    }
+
+    /**
+     * Written with {@code commit()} rather than {@code apply()}: a checkpoint that is lost when
+     * the process dies right after a page costs that page again.
+     */
+    @Override
+    public void saveCheckpoint(String modelName, SyncCheckpoint checkpoint) {
+        preferences.edit()
+                .putString(modelName + ".checkpoint.mode", checkpoint.getMode().name())
+                .putLong(modelName + ".checkpoint.lastSync", checkpoint.getLastSync())
+                .putLong(modelName + ".checkpoint.startedAt", checkpoint.getStartedAt())
+                .putString(modelName + ".checkpoint.nextToken", checkpoint.getNextToken())
+                .putInt(modelName + ".checkpoint.pages", checkpoint.getPages())
+                .putInt(modelName + ".checkpoint.records", checkpoint.getRecords())
+                .putLong(modelName + ".checkpoint.bytes", checkpoint.getBytes())
+                .putInt(modelName + ".checkpoint.limit", checkpoint.getLimit())
+                .putLong(modelName + ".checkpoint.savedAt", checkpoint.getSavedAt())
+                .commit();
+    }
+
+    @Override
+    public void clearCheckpoint(String modelName) {
+        preferences.edit()
+                .remove(modelName + ".checkpoint.mode")
+                .remove(modelName + ".checkpoint.lastSync")
+                .remove(modelName + ".checkpoint.startedAt")
+                .remove(modelName + ".checkpoint.nextToken")
+                .remove(modelName + ".checkpoint.pages")
+                .remove(modelName + ".checkpoint.records")
+                .remove(modelName + ".checkpoint.bytes")
+                .remove(modelName + ".checkpoint.limit")
+                .remove(modelName + ".checkpoint.savedAt")
+                .commit();
+    }
+}
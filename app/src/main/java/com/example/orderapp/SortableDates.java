@@ -0,0 +1,81 @@
+package com.example.orderapp;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+/**
+ * The encodings of {@code Order.date} and {@code Employee.startDate}. Both fields stay
+ * {@code String!} in the schema, but only fixed-width ISO values are written: order dates
+ * as UTC date-times with milliseconds ({@code 2022-01-20T10:11:12.345Z}) and start dates
+ * as {@code yyyy-MM-dd}. Comparing these strings compares the instants, so sorting on
+ * {@code Order.DATE} and range predicates on the {@code byRepresentativebyDate},
+ * {@code byCustomerByDate} and {@code newHireByStartDate} sort keys are correct, in the
+ * DataStore's SQLite indexes as in AppSync.
+ *
+ * <p>{@link #toOrderDate(String)} and {@link #toStartDate(String)} convert values written
+ * before this encoding, see {@link DateEncodingMigration}.
+ */
+public final class SortableDates {
+    /** What {@code String.valueOf(new Date())} produced. */
+    private static final String DATE_TO_STRING = "EEE MMM dd HH:mm:ss zzz yyyy";
+
+    private SortableDates() {
+    }
+
+    public static String orderDate(long epochMillis) {
+        return TemporalCodec.formatDateTimeMillis(epochMillis);
+    }
+
+    public static String startDate(long epochMillis) {
+        return TemporalCodec.formatDate(epochMillis);
+    }
+
+    public static boolean isOrderDate(String value) {
+        if (value == null || value.length() != 24) {
+            return false;
+        }
+        long millis = TemporalCodec.parseDateTimeMillis(value);
+        return millis != TemporalCodec.INVALID && value.equals(orderDate(millis));
+    }
+
+    public static boolean isStartDate(String value) {
+        return value != null && value.length() == 10
+                && TemporalCodec.parseDateTimeMillis(value) != TemporalCodec.INVALID;
+    }
+
+    /** @return the value in the order date encoding, or null if it cannot be read as a date */
+    public static String toOrderDate(String value) {
+        long millis = legacyMillis(value);
+        return millis != TemporalCodec.INVALID ? orderDate(millis) : null;
+    }
+
+    /** @return the value in the start date encoding, or null if it cannot be read as a date */
+    public static String toStartDate(String value) {
+        long millis = legacyMillis(value);
+        return millis != TemporalCodec.INVALID ? startDate(millis) : null;
+    }
+
+    /**
+     * Reads the date forms the app has written: ISO dates and date-times,
+     * {@code Date.toString()} output, and {@code yyyy-MM-yyyy} values such as
+     * {@code "2022-01-2022"}, whose day is lost and taken as the first of the month.
+     */
+    static long legacyMillis(String value) {
+        if (value == null) {
+            return TemporalCodec.INVALID;
+        }
+        long millis = TemporalCodec.parseDateTimeMillis(value);
+        if (millis != TemporalCodec.INVALID) {
+            return millis;
+        }
+        if (value.length() == 12 && value.charAt(7) == '-' && value.startsWith(value.substring(8), 0)) {
+            return TemporalCodec.parseDateTimeMillis(value.substring(0, 8) + "01");
+        }
+        try {
+            return new SimpleDateFormat(DATE_TO_STRING, Locale.US).parse(value).getTime();
+        } catch (ParseException error) {
+            return TemporalCodec.INVALID;
+        }
+    }
+}
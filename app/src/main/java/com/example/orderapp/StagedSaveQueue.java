@@ -0,0 +1,366 @@
+package com.example.orderapp;
+
+import android.util.Log;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.util.GsonFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Takes DataStore saves off the caller's thread. {@link #save(Model)} appends the model
+ * to a {@link WriteAheadLog} and returns; a background worker drains the log into
+ * {@code Amplify.DataStore.save} in batches. Entries still in the log when the process
+ * dies are saved after the next {@link #open(File)}.
+ *
+ * <p>The DataStore has no multi-item transaction, so a batch is a group of saves in
+ * flight together. Only the entries up to the first one whose save has not succeeded
+ * are marked drained. A batch that times out is waited on again later rather than
+ * saved a second time; a failed save is retried after a pause, with the entries behind
+ * it, so that saves of one model still land in order. A batch interrupted by a crash is
+ * saved again on restart, which the DataStore treats as an update with the same values.
+ *
+ * <p>{@link #close()} sends what is staged one last time and ends the worker thread. A
+ * queue opened on the same file meanwhile waits for that to finish, so the two never drain
+ * the log at once.
+ */
+public final class StagedSaveQueue {
+    private static final String LOG_TAG = "OrderApp";
+    static final int CAPACITY_BYTES = 16 * 1024 * 1024;
+    static final int BATCH_SIZE = 200;
+    static final long BATCH_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(60);
+    static final long RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(5);
+    /** A save that fails this many times in a row is dropped, so it cannot hold up the rest for good. */
+    static final int MAX_ATTEMPTS = 5;
+
+    /** Closing queues by the canonical path of their log, removed once closed. */
+    private static final Map<String, CountDownLatch> CLOSING = new HashMap<>();
+
+    private final WriteAheadLog log;
+    private final String path;
+    private final int capacityBytes;
+    private final DataStoreWrite store;
+    private final long batchTimeoutMs;
+    private final long retryDelayMs;
+    private final CountDownLatch closedLatch = new CountDownLatch(1);
+    /** Closes the log once the last drain has run after {@link #close()}. */
+    private final ScheduledExecutorService drainer = new ScheduledThreadPoolExecutor(1) {
+        @Override
+        protected void terminated() {
+            super.terminated();
+            closeLog();
+        }
+    };
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private volatile boolean closed;
+    /** Notified when drained entries make room in the log. */
+    private final Object room = new Object();
+    /** The drainer's state. */
+    private Batch inFlight;
+    private int headFailures;
+    private long retryAt;
+
+    private StagedSaveQueue(WriteAheadLog log, String path, int capacityBytes, DataStoreWrite store,
+                            long batchTimeoutMs, long retryDelayMs) {
+        this.log = log;
+        this.path = path;
+        this.capacityBytes = capacityBytes;
+        this.store = store;
+        this.batchTimeoutMs = batchTimeoutMs;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    public static StagedSaveQueue open(File path) throws IOException {
+        return open(path, CAPACITY_BYTES, TracedDataStore::write, BATCH_TIMEOUT_MS, RETRY_DELAY_MS);
+    }
+
+    static StagedSaveQueue open(File path, int capacityBytes, DataStoreWrite store,
+                                long batchTimeoutMs, long retryDelayMs) throws IOException {
+        String canonical = path.getCanonicalPath();
+        CountDownLatch closing;
+        synchronized (CLOSING) {
+            closing = CLOSING.get(canonical);
+        }
+        if (closing != null) {
+            awaitClosed(closing, canonical);
+        }
+        StagedSaveQueue queue = new StagedSaveQueue(WriteAheadLog.open(path, capacityBytes), canonical, capacityBytes,
+                store, batchTimeoutMs, retryDelayMs);
+        if (queue.log.pending() > 0) {
+            Log.i(LOG_TAG, "Recovered " + queue.log.pending() + " staged saves");
+            queue.scheduleDrain();
+        }
+        return queue;
+    }
+
+    /**
+     * Stages a save. While the log is full this blocks until the drain has made room:
+     * saving the model around the log instead would let an older staged copy of it, saved
+     * later, overwrite it.
+     *
+     * @throws IllegalArgumentException if the model is too large to ever fit the log
+     * @throws IllegalStateException if the queue is closed, or closes while this waits
+     */
+    public void save(Model model) {
+        byte[] record = encode(model);
+        if (record.length > capacityBytes / 2) {
+            throw new IllegalArgumentException(model.getId() + " is too large to stage: " + record.length + " bytes");
+        }
+        boolean interrupted = false;
+        try {
+            synchronized (room) {
+                checkOpen(model);
+                if (!log.append(record)) {
+                    Log.w(LOG_TAG, "Save queue full, waiting to stage " + model.getId());
+                    do {
+                        scheduleDrain();
+                        try {
+                            room.wait();
+                        } catch (InterruptedException error) {
+                            // The save must not be lost; finish waiting and keep the interrupt.
+                            interrupted = true;
+                        }
+                        checkOpen(model);
+                    } while (!log.append(record));
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        scheduleDrain();
+    }
+
+    /** Must be called while holding {@link #room}. */
+    private void checkOpen(Model model) {
+        if (closed) {
+            throw new IllegalStateException("The save queue is closed; " + model.getId() + " was not staged");
+        }
+    }
+
+    public int pending() {
+        return log.pending();
+    }
+
+    /**
+     * Stops taking saves and drains the log one last time on the worker thread, which then
+     * ends; this does not wait for it. What that drain cannot save stays in the log and is
+     * saved after the next {@link #open(File)}.
+     */
+    public void close() {
+        synchronized (room) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // Savers waiting for room give up rather than wait for a drain that is not coming.
+            room.notifyAll();
+        }
+        synchronized (CLOSING) {
+            CLOSING.put(path, closedLatch);
+        }
+        drainer.execute(this::drain);
+        drainer.shutdown();
+    }
+
+    /** Waits until the worker thread has ended and the log is closed. */
+    boolean awaitClosed(long timeoutMs) throws InterruptedException {
+        return closedLatch.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void awaitClosed(CountDownLatch closing, String path) throws IOException {
+        try {
+            closing.await();
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for the last queue on " + path + " to close", error);
+        }
+    }
+
+    private void closeLog() {
+        try {
+            log.close();
+        } catch (IOException error) {
+            Log.e(LOG_TAG, "Could not close the staged save log", error);
+        }
+        synchronized (CLOSING) {
+            CLOSING.remove(path, closedLatch);
+        }
+        closedLatch.countDown();
+    }
+
+    /**
+     * After {@link #close()}, nothing more is scheduled: the last drain runs as queued, and
+     * one that races the shutdown is rejected and left to it.
+     */
+    private void scheduleDrain() {
+        if (!closed && drainScheduled.compareAndSet(false, true)) {
+            try {
+                drainer.execute(this::drain);
+            } catch (RejectedExecutionException closing) {
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    private void drainLater(long delayMs) {
+        if (!closed && drainScheduled.compareAndSet(false, true)) {
+            try {
+                drainer.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException closing) {
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        long wait = retryAt - System.currentTimeMillis();
+        if (wait > 0) {
+            drainLater(wait);
+            return;
+        }
+        while (true) {
+            Batch batch = inFlight;
+            if (batch == null) {
+                List<byte[]> records = log.peek(BATCH_SIZE);
+                if (records.isEmpty()) {
+                    return;
+                }
+                batch = send(records);
+                inFlight = batch;
+            }
+            boolean complete = batch.await(batchTimeoutMs);
+            int saved = batch.savedPrefix();
+            markDrained(saved - batch.drained);
+            batch.drained = saved;
+            if (!complete) {
+                Log.w(LOG_TAG, "Staged batch timed out; waiting for its saves again");
+                drainLater(0);
+                return;
+            }
+            inFlight = null;
+            if (saved == batch.size()) {
+                headFailures = 0;
+                Log.i(LOG_TAG, "Drained " + saved + " staged saves, " + log.pending() + " pending");
+                continue;
+            }
+            // The first failed save heads the log now; it and the saves behind it go again.
+            headFailures = saved == 0 ? headFailures + 1 : 1;
+            if (headFailures >= MAX_ATTEMPTS) {
+                Log.e(LOG_TAG, "Dropping a staged save that failed " + headFailures + " times");
+                markDrained(1);
+                headFailures = 0;
+            }
+            retryAt = System.currentTimeMillis() + retryDelayMs;
+            drainLater(retryDelayMs);
+            return;
+        }
+    }
+
+    private Batch send(List<byte[]> records) {
+        Batch batch = new Batch(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            int entry = i;
+            Model model;
+            try {
+                model = decode(records.get(i));
+            } catch (ClassNotFoundException error) {
+                Log.e(LOG_TAG, "Dropping staged save of unknown model", error);
+                batch.finish(entry, true);
+                continue;
+            }
+            store.write(model, false,
+                    () -> batch.finish(entry, true),
+                    failure -> {
+                        Log.e(LOG_TAG, "Staged save failed", failure);
+                        batch.finish(entry, false);
+                    }
+            );
+        }
+        return batch;
+    }
+
+    private void markDrained(int count) {
+        if (count > 0) {
+            log.markDrained(count);
+            synchronized (room) {
+                room.notifyAll();
+            }
+        }
+    }
+
+    /** Saves in flight together, with the outcome of each in log order. */
+    private static final class Batch {
+        private static final int PENDING = 0;
+        private static final int SAVED = 1;
+        private static final int FAILED = 2;
+
+        private final AtomicIntegerArray outcomes;
+        private final CountDownLatch done;
+        /** How many of the batch's entries have been marked drained. */
+        int drained;
+
+        Batch(int size) {
+            outcomes = new AtomicIntegerArray(size);
+            done = new CountDownLatch(size);
+        }
+
+        int size() {
+            return outcomes.length();
+        }
+
+        void finish(int entry, boolean saved) {
+            if (outcomes.compareAndSet(entry, PENDING, saved ? SAVED : FAILED)) {
+                done.countDown();
+            }
+        }
+
+        boolean await(long timeoutMs) {
+            try {
+                return done.await(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        int savedPrefix() {
+            int saved = 0;
+            while (saved < outcomes.length() && outcomes.get(saved) == SAVED) {
+                saved++;
+            }
+            return saved;
+        }
+    }
+
+    /** A record is the model's class name, a newline, and the model as JSON. */
+    static byte[] encode(Model model) {
+        String json = GsonFactory.instance().toJson(model);
+        return (model.getClass().getName() + "\n" + json).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static Model decode(byte[] record) throws ClassNotFoundException {
+        String text = new String(record, StandardCharsets.UTF_8);
+        int separator = text.indexOf('\n');
+        String className = text.substring(0, separator);
+        ModelRegistry.Entry model = ModelRegistry.get().byClassName(className);
+        if (model == null) {
+            throw new ClassNotFoundException(className + " is not a model of the AmplifyModelProvider");
+        }
+        return GsonFactory.instance().fromJson(text.substring(separator + 1), model.type);
+    }
+}
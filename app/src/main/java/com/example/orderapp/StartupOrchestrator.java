@@ -0,0 +1,138 @@
+package com.example.orderapp;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs an activity's startup work in stages so that only what the first frame needs
+ * happens before it is drawn:
+ * <ul>
+ *   <li>{@link Stage#CRITICAL} runs inside {@link #start()}, before the first frame,</li>
+ *   <li>{@link Stage#FIRST_FRAME} runs right after the first frame is drawn, one task per
+ *       main-thread message so input is handled between them,</li>
+ *   <li>{@link Stage#IDLE} runs one task at a time whenever the main thread is idle after that.</li>
+ * </ul>
+ * A deferred task that something needs sooner is run on first use with {@link #require(String)}.
+ * All methods must be called on the main thread.
+ */
+public final class StartupOrchestrator {
+    private static final String LOG_TAG = "OrderApp";
+
+    public enum Stage {
+        CRITICAL,
+        FIRST_FRAME,
+        IDLE
+    }
+
+    private final Activity activity;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final List<Task> tasks = new ArrayList<>();
+    private boolean started;
+
+    public StartupOrchestrator(Activity activity) {
+        this.activity = activity;
+    }
+
+    /** Registers a task; tasks of the same stage run in the order they were added. */
+    public StartupOrchestrator add(Stage stage, String name, Runnable work) {
+        if (started) {
+            throw new IllegalStateException("Startup tasks must be added before start()");
+        }
+        tasks.add(new Task(stage, name, work));
+        return this;
+    }
+
+    public void start() {
+        started = true;
+        runStage(Stage.CRITICAL);
+        View decorView = activity.getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean drawn;
+
+            @Override
+            public void onDraw() {
+                if (drawn) {
+                    return;
+                }
+                drawn = true;
+                // Listeners cannot be removed while the tree is dispatching onDraw.
+                handler.postAtFrontOfQueue(() -> {
+                    decorView.getViewTreeObserver().removeOnDrawListener(this);
+                    onFirstFrame();
+                });
+            }
+        });
+    }
+
+    /**
+     * Runs the named task now if it has not run yet, together with every pending task
+     * registered before it, since later tasks may rely on earlier ones such as
+     * {@code Amplify.configure}.
+     */
+    public void require(String name) {
+        for (Task task : tasks) {
+            if (!task.done) {
+                Log.i(LOG_TAG, "Startup task " + task.name + " pulled forward by first use");
+                run(task);
+            }
+            if (task.name.equals(name)) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException("No startup task named " + name);
+    }
+
+    private void onFirstFrame() {
+        StartupTimings.markFirstFrame();
+        for (Task task : tasks) {
+            if (task.stage == Stage.FIRST_FRAME) {
+                handler.post(() -> run(task));
+            }
+        }
+        handler.post(() -> Looper.myQueue().addIdleHandler(() -> {
+            for (Task task : tasks) {
+                if (task.stage == Stage.IDLE && !task.done) {
+                    run(task);
+                    return true;
+                }
+            }
+            return false;
+        }));
+    }
+
+    private void runStage(Stage stage) {
+        for (Task task : tasks) {
+            if (task.stage == stage) {
+                run(task);
+            }
+        }
+    }
+
+    private void run(Task task) {
+        if (task.done) {
+            return;
+        }
+        task.done = true;
+        CallTracer.get().section("startup:" + task.name, task.work);
+    }
+
+    private static final class Task {
+        final Stage stage;
+        final String name;
+        final Runnable work;
+        boolean done;
+
+        Task(Stage stage, String name, Runnable work) {
+            this.stage = stage;
+            this.name = name;
+            this.work = work;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.orderapp;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Cold-start milestones of this process, measured from the moment the process was forked:
+ * the first frame drawn and the first data shown. Each milestone is recorded once per
+ * process, so warm starts of the activity do not overwrite the cold-start numbers.
+ */
+public final class StartupTimings {
+    private static final String LOG_TAG = "OrderApp";
+
+    private static long firstFrameMillis = -1;
+    private static long firstDataMillis = -1;
+
+    private StartupTimings() {
+    }
+
+    static synchronized void markFirstFrame() {
+        if (firstFrameMillis < 0) {
+            firstFrameMillis = sinceProcessStart();
+            Log.i(LOG_TAG, "Cold start: first frame after " + firstFrameMillis + " ms");
+        }
+    }
+
+    /** @return true the first time it is called in this process */
+    static synchronized boolean markFirstData() {
+        if (firstDataMillis >= 0) {
+            return false;
+        }
+        firstDataMillis = sinceProcessStart();
+        Log.i(LOG_TAG, "Cold start: first data after " + firstDataMillis + " ms");
+        return true;
+    }
+
+    /** @return milliseconds from process start to the first frame, or -1 before it is drawn */
+    public static synchronized long getFirstFrameMillis() {
+        return firstFrameMillis;
+    }
+
+    /** @return milliseconds from process start to the first data, or -1 before it arrives */
+    public static synchronized long getFirstDataMillis() {
+        return firstDataMillis;
+    }
+
+    private static long sinceProcessStart() {
+        return SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares model subscriptions between observers. Each distinct (model, event, filter)
+ * opens one upstream subscription no matter how many observers attach to it, the
+ * filter is sent as the server-side {@code filter} argument so AppSync only delivers
+ * matching records, and each channel keeps its own message counters. A channel whose
+ * upstream fails or completes is closed: its listeners are told, and the next subscriber
+ * opens a fresh one.
+ *
+ * <p>For example, a rep's screen observes only their own orders with
+ * {@code subscribe("Order", Event.CREATE, Collections.singletonMap("accountRepresentativeID", "AR1"), listener)}.
+ */
+public final class SubscriptionManager {
+    public enum Event {
+        CREATE("onCreate"),
+        UPDATE("onUpdate"),
+        DELETE("onDelete");
+
+        private final String fieldPrefix;
+
+        Event(String fieldPrefix) {
+            this.fieldPrefix = fieldPrefix;
+        }
+    }
+
+    private final SubscriptionTransport transport;
+    private final Consumer<ApiException> onError;
+    private final Map<String, Channel> channels = new HashMap<>();
+
+    public SubscriptionManager(SubscriptionTransport transport, Consumer<ApiException> onError) {
+        this.transport = transport;
+        this.onError = onError;
+    }
+
+    /** As {@link #subscribe(String, Event, Map, Consumer, Action)}, for a listener that need not resubscribe. */
+    public Cancelable subscribe(String modelName, Event event,
+                                Map<String, String> equalityFilter,
+                                Consumer<JSONObject> listener) {
+        return subscribe(modelName, event, equalityFilter, listener, () -> { });
+    }
+
+    /**
+     * Attaches a listener to the channel for the model, event and equality filter, opening
+     * the channel if this is its first listener.
+     *
+     * @param equalityFilter field name to required value; empty to receive every record
+     * @param onClosed       called once if the channel's upstream fails or completes; the
+     *                       listener gets nothing more unless it subscribes again
+     * @return a handle whose {@code cancel()} detaches the listener
+     */
+    public synchronized Cancelable subscribe(String modelName, Event event,
+                                             Map<String, String> equalityFilter,
+                                             Consumer<JSONObject> listener, Action onClosed) {
+        if (!GraphQLSelections.has(modelName)) {
+            throw new IllegalArgumentException("No subscription selection for " + modelName);
+        }
+        Map<String, String> filter = new TreeMap<>(equalityFilter);
+        String key = event.fieldPrefix + modelName + filter;
+        Listener attached = new Listener(listener, onClosed);
+        Channel channel = channels.get(key);
+        if (channel == null) {
+            channel = new Channel(key, modelName, event, filter);
+            channels.put(key, channel);
+            channel.listeners.add(attached);
+            // Last, as a transport may fail the subscription before it returns.
+            channel.open();
+        } else {
+            channel.listeners.add(attached);
+        }
+        Channel joined = channel;
+        return () -> detach(joined, attached);
+    }
+
+    private synchronized void detach(Channel channel, Listener listener) {
+        channel.listeners.remove(listener);
+        if (channel.listeners.isEmpty() && channels.get(channel.key) == channel) {
+            channels.remove(channel.key);
+            channel.upstream.cancel();
+        }
+    }
+
+    /** Drops a channel whose upstream failed or completed, and tells its listeners. */
+    private void close(Channel channel) {
+        List<Listener> closed;
+        synchronized (this) {
+            if (channel.closed) {
+                return;
+            }
+            channel.closed = true;
+            if (channels.get(channel.key) == channel) {
+                channels.remove(channel.key);
+            }
+            if (channel.upstream != null) {
+                channel.upstream.cancel();
+            }
+            closed = new ArrayList<>(channel.listeners);
+            channel.listeners.clear();
+        }
+        for (Listener listener : closed) {
+            listener.onClosed.call();
+        }
+    }
+
+    /** @return message statistics keyed by channel, e.g. {@code onCreateOrder{accountRepresentativeID=AR1}} */
+    public synchronized Map<String, ChannelStats> getStats() {
+        Map<String, ChannelStats> stats = new TreeMap<>();
+        for (Channel channel : channels.values()) {
+            stats.put(channel.key, channel.stats());
+        }
+        return stats;
+    }
+
+    public synchronized int openChannelCount() {
+        return channels.size();
+    }
+
+    static String document(String modelName, Event event) {
+        String operation = event.fieldPrefix + modelName;
+        return "subscription " + Character.toUpperCase(operation.charAt(0)) + operation.substring(1)
+                + "($filter: ModelSubscription" + modelName + "FilterInput) { "
+                + operation + "(filter: $filter) { " + GraphQLSelections.of(modelName) + " } }";
+    }
+
+    static Map<String, Object> variables(Map<String, String> equalityFilter) {
+        if (equalityFilter.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> filter = new HashMap<>();
+        for (Map.Entry<String, String> condition : equalityFilter.entrySet()) {
+            filter.put(condition.getKey(), Collections.singletonMap("eq", condition.getValue()));
+        }
+        return Collections.<String, Object>singletonMap("filter", filter);
+    }
+
+    private static final class Listener {
+        final Consumer<JSONObject> onRecord;
+        final Action onClosed;
+
+        Listener(Consumer<JSONObject> onRecord, Action onClosed) {
+            this.onRecord = onRecord;
+            this.onClosed = onClosed;
+        }
+    }
+
+    private final class Channel {
+        final String key;
+        final String modelName;
+        final Event event;
+        final Map<String, String> filter;
+        final List<Listener> listeners = new CopyOnWriteArrayList<>();
+        final AtomicLong received = new AtomicLong();
+        final AtomicLong delivered = new AtomicLong();
+        final long openedAtNanos = System.nanoTime();
+        /** Guarded by the manager. */
+        Cancelable upstream;
+        boolean closed;
+
+        Channel(String key, String modelName, Event event, Map<String, String> filter) {
+            this.key = key;
+            this.modelName = modelName;
+            this.event = event;
+            this.filter = filter;
+        }
+
+        void open() {
+            Cancelable opened = transport.subscribe(document(modelName, event), variables(filter),
+                    this::onMessage, this::onFailure, () -> close(this));
+            upstream = opened;
+            if (closed) {
+                opened.cancel();
+            }
+        }
+
+        private void onFailure(ApiException error) {
+            onError.accept(error);
+            close(this);
+        }
+
+        private void onMessage(String data) {
+            received.incrementAndGet();
+            JSONObject record;
+            try {
+                record = new JSONObject(data).getJSONObject(event.fieldPrefix + modelName);
+            } catch (JSONException error) {
+                onError.accept(new ApiException("Malformed subscription message on " + key, error,
+                        "Check the selection set of the subscription document."));
+                return;
+            }
+            // The server applies the filter; this only guards against backends that ignore it.
+            for (Map.Entry<String, String> condition : filter.entrySet()) {
+                if (!condition.getValue().equals(record.optString(condition.getKey(), null))) {
+                    return;
+                }
+            }
+            delivered.incrementAndGet();
+            for (Listener listener : listeners) {
+                listener.onRecord.accept(record);
+            }
+        }
+
+        ChannelStats stats() {
+            return new ChannelStats(listeners.size(), received.get(), delivered.get(),
+                    System.nanoTime() - openedAtNanos);
+        }
+    }
+
+    public static final class ChannelStats {
+        private final int listeners;
+        private final long received;
+        private final long delivered;
+        private final long openNanos;
+
+        ChannelStats(int listeners, long received, long delivered, long openNanos) {
+            this.listeners = listeners;
+            this.received = received;
+            this.delivered = delivered;
+            this.openNanos = openNanos;
+        }
+
+        public int getListeners() {
+            return listeners;
+        }
+
+        public long getReceived() {
+            return received;
+        }
+
+        public long getDelivered() {
+            return delivered;
+        }
+
+        public double messagesPerSecond() {
+            double seconds = (double) openNanos / TimeUnit.SECONDS.toNanos(1);
+            return seconds > 0 ? received / seconds : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "listeners=" + listeners + ", received=" + received + ", delivered=" + delivered
+                    + String.format(Locale.US, ", rate=%.2f/s", messagesPerSecond());
+        }
+    }
+}
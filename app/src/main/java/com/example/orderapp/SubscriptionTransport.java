@@ -0,0 +1,21 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+
+import java.util.Map;
+
+/**
+ * Opens a GraphQL subscription and hands back the JSON of the {@code data} object of
+ * every message it receives. {@code onError} reports a failed message as well as a failed
+ * subscription; {@code onComplete} means the subscription has ended.
+ */
+public interface SubscriptionTransport {
+    Cancelable subscribe(String document,
+                         Map<String, Object> variables,
+                         Consumer<String> onData,
+                         Consumer<ApiException> onError,
+                         Action onComplete);
+}
@@ -0,0 +1,72 @@
+package com.example.orderapp;
+
+/**
+ * Progress of an unfinished sync of one model: where to continue and what has already
+ * been transferred. Saved after every page so an interrupted sync resumes mid-model,
+ * with the page limit it had reached and the time it was saved, as the token it holds
+ * expires.
+ */
+public final class SyncCheckpoint {
+    private final DeltaSyncController.Mode mode;
+    private final long lastSync;
+    private final long startedAt;
+    private final String nextToken;
+    private final int pages;
+    private final int records;
+    private final long bytes;
+    private final int limit;
+    private final long savedAt;
+
+    public SyncCheckpoint(DeltaSyncController.Mode mode, long lastSync, long startedAt,
+                          String nextToken, int pages, int records, long bytes, int limit, long savedAt) {
+        this.mode = mode;
+        this.lastSync = lastSync;
+        this.startedAt = startedAt;
+        this.nextToken = nextToken;
+        this.pages = pages;
+        this.records = records;
+        this.bytes = bytes;
+        this.limit = limit;
+        this.savedAt = savedAt;
+    }
+
+    public DeltaSyncController.Mode getMode() {
+        return mode;
+    }
+
+    /** @return the lastSync the interrupted sync was sent with, 0 for a base sync */
+    public long getLastSync() {
+        return lastSync;
+    }
+
+    /** @return the startedAt of the interrupted sync's first page */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public int getRecords() {
+        return records;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /** @return the limit of the next page */
+    public int getLimit() {
+        return limit;
+    }
+
+    /** @return when the checkpoint was saved, in epoch milliseconds */
+    public long getSavedAt() {
+        return savedAt;
+    }
+}
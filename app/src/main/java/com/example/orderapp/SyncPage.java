@@ -0,0 +1,52 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.Model;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a {@code sync<Model>s} query.
+ */
+public final class SyncPage {
+    private final List<Model> items;
+    private final BitSet deleted;
+    private final String nextToken;
+    private final long startedAt;
+    private final long payloadBytes;
+
+    /** @param deleted the positions in {@code items} of the tombstones */
+    public SyncPage(List<? extends Model> items, BitSet deleted, String nextToken, long startedAt,
+                    long payloadBytes) {
+        this.items = Collections.unmodifiableList(items);
+        this.deleted = (BitSet) deleted.clone();
+        this.nextToken = nextToken;
+        this.startedAt = startedAt;
+        this.payloadBytes = payloadBytes;
+    }
+
+    /** @return the rows in the order AppSync returned them, tombstones included */
+    public List<Model> getItems() {
+        return items;
+    }
+
+    /** @return whether the item at {@code index} is a tombstone ({@code _deleted: true}) */
+    public boolean isDeleted(int index) {
+        return deleted.get(index);
+    }
+
+    /** @return the token for the next page, or null on the last page */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /** @return the server time the sync began, to be sent as {@code lastSync} next time */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getPayloadBytes() {
+        return payloadBytes;
+    }
+}
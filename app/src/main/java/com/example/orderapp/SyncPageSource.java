@@ -0,0 +1,16 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+
+/**
+ * Fetches pages of {@code sync<Model>s}. Calls block, so they must not be made on the
+ * main thread.
+ */
+public interface SyncPageSource {
+    /**
+     * @param lastSync  the {@code startedAt} of the previous completed sync, or null for a base sync
+     * @param nextToken the token returned by the previous page, or null for the first page
+     * @throws SyncTokenRejectedException if the backend no longer accepts {@code nextToken}
+     */
+    SyncPage fetch(String modelName, Long lastSync, String nextToken, int limit) throws ApiException;
+}
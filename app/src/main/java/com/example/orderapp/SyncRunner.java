@@ -0,0 +1,62 @@
+package com.example.orderapp;
+
+import android.util.Log;
+
+import com.amplifyframework.AmplifyException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a {@link DeltaSyncController} over a set of models on its own thread, when the app
+ * starts and again whenever the network comes back. A run cut short by a lost connection
+ * leaves the checkpoint of the page it got to, so the next run continues from there; the
+ * models it had finished come back as delta syncs. Runs asked for while one is going fold
+ * into a single run after it.
+ */
+public final class SyncRunner {
+    private static final String LOG_TAG = "OrderApp";
+
+    private final DeltaSyncController controller;
+    private final List<String> modelNames;
+    private final ExecutorService executor;
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private volatile boolean closed;
+
+    public SyncRunner(DeltaSyncController controller, List<String> modelNames) {
+        this(controller, modelNames, Executors.newSingleThreadExecutor());
+    }
+
+    /** @param executor runs one task at a time */
+    SyncRunner(DeltaSyncController controller, List<String> modelNames, ExecutorService executor) {
+        this.controller = controller;
+        this.modelNames = new ArrayList<>(modelNames);
+        this.executor = executor;
+    }
+
+    /** Starts a run, or queues one if a run is going; returns at once. Ignored after {@link #close()}. */
+    public void requestSync() {
+        if (closed || !queued.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(this::run);
+    }
+
+    private void run() {
+        queued.set(false);
+        try {
+            controller.syncAll(modelNames);
+        } catch (AmplifyException error) {
+            Log.w(LOG_TAG, "Sync stopped; it continues from its checkpoint when the network is back", error);
+        }
+    }
+
+    /** Stops the thread, interrupting a run; the interrupted model keeps its checkpoint. */
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.DataStoreException;
+
+/**
+ * Receives each sync page, including its tombstones (see {@link SyncPage#isDeleted}).
+ * A failure stops the sync before the page is checkpointed, so it is fetched again.
+ */
+public interface SyncSink {
+    void accept(String modelName, SyncPage page) throws DataStoreException;
+}
@@ -0,0 +1,27 @@
+package com.example.orderapp;
+
+/**
+ * Per-model sync bookkeeping that has to survive process death and
+ * {@code Amplify.DataStore.clear()}.
+ */
+public interface SyncStateStore {
+    /** @return the {@code startedAt} of the last completed sync, or 0 if the model never synced */
+    long getLastSync(String modelName);
+
+    void setLastSync(String modelName, long startedAt);
+
+    /** @return the bytes transferred by the last base sync, or 0 if unknown */
+    long getBaseSyncBytes(String modelName);
+
+    /** @return the duration of the last base sync, or 0 if unknown */
+    long getBaseSyncMillis(String modelName);
+
+    void setBaseSyncCost(String modelName, long bytes, long millis);
+
+    /** @return the progress of an interrupted sync, or null if the last sync completed */
+    SyncCheckpoint getCheckpoint(String modelName);
+
+    void saveCheckpoint(String modelName, SyncCheckpoint checkpoint);
+
+    void clearCheckpoint(String modelName);
+}
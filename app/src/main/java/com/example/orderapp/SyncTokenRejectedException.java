@@ -0,0 +1,15 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+
+/**
+ * The backend refused the {@code nextToken} of a sync page, as it does once the token has
+ * expired. Fetching again with the same token fails the same way; the sync has to start
+ * over without it.
+ */
+public final class SyncTokenRejectedException extends ApiException {
+    public SyncTokenRejectedException(String modelName, ApiException cause) {
+        super("The sync token of " + modelName + " was rejected: " + cause.getMessage(), cause,
+                "Start the sync again without a token.");
+    }
+}
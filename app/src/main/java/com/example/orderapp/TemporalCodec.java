@@ -0,0 +1,282 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.temporal.Temporal;
+
+/**
+ * Hand-written ISO-8601 parsing and formatting for the AWSDate, AWSTime and AWSDateTime
+ * strings the models carry, without {@code java.time} formatters or intermediate objects.
+ * Date-times become epoch milliseconds and times become nanoseconds of the day, both
+ * moved to UTC when the string has an offset, so they sort and compare as plain
+ * {@code long}s.
+ *
+ * <p>Accepted forms: {@code yyyy-MM-dd}, optionally followed by {@code T} and a time; a
+ * time is {@code HH:mm}, {@code HH:mm:ss} or {@code HH:mm:ss.f} with one to nine fraction
+ * digits, optionally followed by {@code Z} or an offset {@code +HH:mm} or {@code +HH:mm:ss}.
+ * Anything else parses to {@link #INVALID}.
+ */
+public final class TemporalCodec {
+    /** Result for a string that is not one of the accepted forms. */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+    static final long NANOS_PER_DAY = 86_400L * NANOS_PER_SECOND;
+    static final long MILLIS_PER_DAY = 86_400_000L;
+    /** Days from 0000-03-01 to 1970-01-01 in the proleptic Gregorian calendar. */
+    private static final long DAYS_0000_TO_1970 = 719_468;
+    private static final int DAYS_PER_ERA = 146_097;
+    private static final int NO_OFFSET = Integer.MIN_VALUE;
+    private static final int BAD_OFFSET = Integer.MAX_VALUE;
+
+    private TemporalCodec() {
+    }
+
+    /** @return the date or date-time as epoch milliseconds (a date alone is UTC midnight) */
+    public static long parseDateTimeMillis(CharSequence text) {
+        int length = text.length();
+        if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return INVALID;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID;
+        }
+        long millis = epochDay(year, month, day) * MILLIS_PER_DAY;
+        if (length == 10) {
+            return millis;
+        }
+        char separator = text.charAt(10);
+        if (separator != 'T' && separator != 't') {
+            return INVALID;
+        }
+        int offsetStart = offsetStart(text, 11);
+        long nanos = parseLocalTime(text, 11, offsetStart);
+        int offsetSeconds = parseOffset(text, offsetStart);
+        if (nanos < 0 || offsetSeconds == BAD_OFFSET) {
+            return INVALID;
+        }
+        if (offsetSeconds != NO_OFFSET) {
+            millis -= offsetSeconds * 1_000L;
+        }
+        return millis + nanos / 1_000_000L;
+    }
+
+    /** @return the time as nanoseconds of the day, moved to UTC if it has an offset */
+    public static long parseTimeNanos(CharSequence text) {
+        int offsetStart = offsetStart(text, 0);
+        long nanos = parseLocalTime(text, 0, offsetStart);
+        int offsetSeconds = parseOffset(text, offsetStart);
+        if (nanos < 0 || offsetSeconds == BAD_OFFSET) {
+            return INVALID;
+        }
+        if (offsetSeconds != NO_OFFSET) {
+            nanos = Math.floorMod(nanos - offsetSeconds * NANOS_PER_SECOND, NANOS_PER_DAY);
+        }
+        return nanos;
+    }
+
+    /** @return {@link #parseDateTimeMillis} of the value, or {@link #INVALID} for null */
+    public static long dateTimeMillis(Temporal.DateTime value) {
+        return value != null ? parseDateTimeMillis(value.format()) : INVALID;
+    }
+
+    /** @return {@link #parseTimeNanos} of the value, or {@link #INVALID} for null */
+    public static long timeNanos(Temporal.Time value) {
+        return value != null ? parseTimeNanos(value.format()) : INVALID;
+    }
+
+    /** @return {@code yyyy-MM-ddTHH:mm:ss.SSSZ}, which sorts as text in time order for years 0-9999 */
+    public static String formatDateTimeMillis(long epochMillis) {
+        char[] out = new char[24];
+        long epochDay = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        writeDate(out, epochDay);
+        out[10] = 'T';
+        writeTime(out, 11, Math.floorMod(epochMillis, MILLIS_PER_DAY) * 1_000_000L, 3);
+        out[23] = 'Z';
+        return new String(out);
+    }
+
+    /** @return {@code yyyy-MM-dd} of the UTC day containing the instant */
+    public static String formatDate(long epochMillis) {
+        char[] out = new char[10];
+        writeDate(out, Math.floorDiv(epochMillis, MILLIS_PER_DAY));
+        return new String(out);
+    }
+
+    /** @return {@code HH:mm:ss.SSSSSSSSS}, the form of the AWSTime values the app writes */
+    public static String formatTimeNanos(long nanoOfDay) {
+        char[] out = new char[18];
+        writeTime(out, 0, nanoOfDay, 9);
+        return new String(out);
+    }
+
+    /**
+     * Remembers recent {@link #parseDateTimeMillis} results in a small direct-mapped table.
+     * Hydrating a list of records parses the same few dates over and over; a hit costs a
+     * hash lookup and a string comparison. Not thread-safe: use one per pass.
+     */
+    public static final class DateTimeCache {
+        private static final int SLOTS = 1024;
+        private final String[] keys = new String[SLOTS];
+        private final long[] values = new long[SLOTS];
+
+        public long parse(String text) {
+            int hash = text.hashCode();
+            int slot = (hash ^ (hash >>> 16)) & (SLOTS - 1);
+            if (text.equals(keys[slot])) {
+                return values[slot];
+            }
+            long value = parseDateTimeMillis(text);
+            keys[slot] = text;
+            values[slot] = value;
+            return value;
+        }
+    }
+
+    /** Days since 1970-01-01 of a valid proleptic Gregorian date. */
+    static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    private static void writeDate(char[] out, long epochDay) {
+        long days = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(days, DAYS_PER_ERA);
+        long dayOfEra = days - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        write(out, 0, year, 4);
+        out[4] = '-';
+        write(out, 5, month, 2);
+        out[7] = '-';
+        write(out, 8, day, 2);
+    }
+
+    private static void writeTime(char[] out, int at, long nanoOfDay, int fractionDigits) {
+        long seconds = nanoOfDay / NANOS_PER_SECOND;
+        write(out, at, (int) (seconds / 3600), 2);
+        out[at + 2] = ':';
+        write(out, at + 3, (int) (seconds / 60 % 60), 2);
+        out[at + 5] = ':';
+        write(out, at + 6, (int) (seconds % 60), 2);
+        out[at + 8] = '.';
+        long fraction = nanoOfDay % NANOS_PER_SECOND;
+        for (int i = fractionDigits; i < 9; i++) {
+            fraction /= 10;
+        }
+        for (int i = at + 8 + fractionDigits; i > at + 8; i--) {
+            out[i] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+    }
+
+    private static void write(char[] out, int at, int value, int width) {
+        for (int i = at + width - 1; i >= at; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /** @return where the offset of a time starting at {@code from} begins, or the length if none */
+    private static int offsetStart(CharSequence text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == 'Z' || c == 'z' || c == '+' || c == '-') {
+                return i;
+            }
+        }
+        return text.length();
+    }
+
+    /** @return nanoseconds of the day of {@code HH:mm[:ss[.f]]} in [from, to), or -1 */
+    private static long parseLocalTime(CharSequence text, int from, int to) {
+        int length = to - from;
+        if (length < 5 || text.charAt(from + 2) != ':') {
+            return -1;
+        }
+        int hour = digits(text, from, 2);
+        int minute = digits(text, from + 3, 2);
+        int second = 0;
+        long fraction = 0;
+        if (length > 5) {
+            if (length < 8 || text.charAt(from + 5) != ':') {
+                return -1;
+            }
+            second = digits(text, from + 6, 2);
+            if (length > 8) {
+                int fractionDigits = length - 9;
+                if (text.charAt(from + 8) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                    return -1;
+                }
+                int value = digits(text, from + 9, fractionDigits);
+                if (value < 0) {
+                    return -1;
+                }
+                fraction = value;
+                for (int i = fractionDigits; i < 9; i++) {
+                    fraction *= 10;
+                }
+            }
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return -1;
+        }
+        return (hour * 3600L + minute * 60L + second) * NANOS_PER_SECOND + fraction;
+    }
+
+    /** @return the offset in seconds, {@link #NO_OFFSET} at the end of the text, or {@link #BAD_OFFSET} */
+    private static int parseOffset(CharSequence text, int from) {
+        int length = text.length() - from;
+        if (length == 0) {
+            return NO_OFFSET;
+        }
+        char sign = text.charAt(from);
+        if (sign == 'Z' || sign == 'z') {
+            return length == 1 ? 0 : BAD_OFFSET;
+        }
+        if ((length != 6 && length != 9) || text.charAt(from + 3) != ':') {
+            return BAD_OFFSET;
+        }
+        int hours = digits(text, from + 1, 2);
+        int minutes = digits(text, from + 4, 2);
+        int seconds = 0;
+        if (length == 9) {
+            seconds = text.charAt(from + 6) == ':' ? digits(text, from + 7, 2) : -1;
+        }
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) {
+            return BAD_OFFSET;
+        }
+        int offset = hours * 3600 + minutes * 60 + seconds;
+        return sign == '-' ? -offset : offset;
+    }
+
+    /** @return the non-negative decimal value of {@code count} digits at {@code from}, or -1 */
+    private static int digits(CharSequence text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+}
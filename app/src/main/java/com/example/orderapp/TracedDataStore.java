@@ -0,0 +1,234 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.ObserveQueryOptions;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.DataStoreItemChange;
+import com.amplifyframework.datastore.DataStoreQuerySnapshot;
+import com.amplifyframework.util.GsonFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code Amplify.DataStore} calls routed through {@link CallTracer}. Traces are named
+ * like {@code DataStore.save(Order)}; payload sizes are the JSON size of the models
+ * saved or returned, measured on a background thread after the span completes so the
+ * recorded latency leaves out the tracer's own work. An observation completes when it
+ * has started ({@code observe}) or delivered its first snapshot ({@code observeQuery});
+ * the changes it delivers later count towards its payload. While tracing is disabled the
+ * calls go straight to the DataStore.
+ */
+public final class TracedDataStore {
+    private static final ExecutorService SIZER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "call-tracer-sizes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TracedDataStore() {
+    }
+
+    public static <T extends Model> void save(T item,
+                                              Consumer<DataStoreItemChange<T>> onSuccess,
+                                              Consumer<DataStoreException> onError) {
+        if (!CallTracer.get().isEnabled()) {
+            Amplify.DataStore.save(item, onSuccess, onError);
+            return;
+        }
+        CallTracer.Span span = CallTracer.get().begin("DataStore.save(" + item.getClass().getSimpleName() + ")");
+        Amplify.DataStore.save(item,
+                saved -> {
+                    span.completed();
+                    measure(span, Collections.singletonList(item));
+                    onSuccess.accept(saved);
+                },
+                failure -> {
+                    span.completed(0);
+                    onError.accept(failure);
+                }
+        );
+        span.returned();
+    }
+
+    public static <T extends Model> void delete(T item,
+                                                Consumer<DataStoreItemChange<T>> onSuccess,
+                                                Consumer<DataStoreException> onError) {
+        if (!CallTracer.get().isEnabled()) {
+            Amplify.DataStore.delete(item, onSuccess, onError);
+            return;
+        }
+        CallTracer.Span span = CallTracer.get().begin("DataStore.delete(" + item.getClass().getSimpleName() + ")");
+        Amplify.DataStore.delete(item,
+                deleted -> {
+                    span.completed(0);
+                    onSuccess.accept(deleted);
+                },
+                failure -> {
+                    span.completed(0);
+                    onError.accept(failure);
+                }
+        );
+        span.returned();
+    }
+
+    /** Saves or deletes a model; the {@link DataStoreWrite} the app passes to its writers. */
+    public static void write(Model item, boolean delete, Action onDone, Consumer<DataStoreException> onError) {
+        if (delete) {
+            delete(item, deleted -> onDone.call(), onError);
+        } else {
+            save(item, saved -> onDone.call(), onError);
+        }
+    }
+
+    /**
+     * Queries and hands the results on as an iterator, like {@code Amplify.DataStore.query}.
+     * The results are read into a list first so that their size can be measured.
+     */
+    public static <T extends Model> void query(Class<T> itemClass,
+                                               QueryOptions options,
+                                               Consumer<Iterator<T>> onResult,
+                                               Consumer<DataStoreException> onError) {
+        if (!CallTracer.get().isEnabled()) {
+            Amplify.DataStore.query(itemClass, options, onResult, onError);
+            return;
+        }
+        CallTracer.Span span = CallTracer.get().begin("DataStore.query(" + itemClass.getSimpleName() + ")");
+        Amplify.DataStore.query(itemClass, options,
+                matches -> {
+                    List<T> items = new ArrayList<>();
+                    while (matches.hasNext()) {
+                        items.add(matches.next());
+                    }
+                    span.completed();
+                    measure(span, items);
+                    onResult.accept(items.iterator());
+                },
+                failure -> {
+                    span.completed(0);
+                    onError.accept(failure);
+                }
+        );
+        span.returned();
+    }
+
+    public static <T extends Model> void observe(Class<T> itemClass,
+                                                 Consumer<Cancelable> onStart,
+                                                 Consumer<DataStoreItemChange<T>> onChange,
+                                                 Consumer<DataStoreException> onError,
+                                                 Action onComplete) {
+        if (!CallTracer.get().isEnabled()) {
+            Amplify.DataStore.observe(itemClass, onStart, onChange, onError, onComplete);
+            return;
+        }
+        CallTracer.Span span = CallTracer.get().begin("DataStore.observe(" + itemClass.getSimpleName() + ")");
+        AtomicBoolean started = new AtomicBoolean();
+        Amplify.DataStore.observe(itemClass,
+                cancelable -> {
+                    started.set(true);
+                    span.completed();
+                    onStart.accept(cancelable);
+                },
+                change -> {
+                    measure(span, Collections.singletonList(change.item()));
+                    onChange.accept(change);
+                },
+                failure -> {
+                    if (started.compareAndSet(false, true)) {
+                        span.completed(0);
+                    }
+                    onError.accept(failure);
+                },
+                onComplete
+        );
+        span.returned();
+    }
+
+    public static <T extends Model> void observeQuery(Class<T> itemClass,
+                                                      ObserveQueryOptions options,
+                                                      Consumer<Cancelable> onStart,
+                                                      Consumer<DataStoreQuerySnapshot<T>> onSnapshot,
+                                                      Consumer<DataStoreException> onError,
+                                                      Action onComplete) {
+        if (!CallTracer.get().isEnabled()) {
+            Amplify.DataStore.observeQuery(itemClass, options, onStart, onSnapshot, onError, onComplete);
+            return;
+        }
+        CallTracer.Span span = CallTracer.get().begin("DataStore.observeQuery(" + itemClass.getSimpleName() + ")");
+        AtomicBoolean delivered = new AtomicBoolean();
+        Amplify.DataStore.observeQuery(itemClass, options, onStart,
+                snapshot -> {
+                    // Later snapshots repeat the first one's rows; only the first is measured.
+                    if (delivered.compareAndSet(false, true)) {
+                        span.completed();
+                        measure(span, snapshot.getItems());
+                    }
+                    onSnapshot.accept(snapshot);
+                },
+                failure -> {
+                    if (delivered.compareAndSet(false, true)) {
+                        span.completed(0);
+                    }
+                    onError.accept(failure);
+                },
+                onComplete
+        );
+        span.returned();
+    }
+
+    public static void start(Action onStarted, Consumer<DataStoreException> onError) {
+        CallTracer.Span span = CallTracer.get().begin("DataStore.start");
+        Amplify.DataStore.start(
+                () -> {
+                    span.completed(0);
+                    onStarted.call();
+                },
+                failure -> {
+                    span.completed(0);
+                    onError.accept(failure);
+                }
+        );
+        span.returned();
+    }
+
+    public static void clear(Action onCleared, Consumer<DataStoreException> onError) {
+        CallTracer.Span span = CallTracer.get().begin("DataStore.clear");
+        Amplify.DataStore.clear(
+                () -> {
+                    span.completed(0);
+                    onCleared.call();
+                },
+                failure -> {
+                    span.completed(0);
+                    onError.accept(failure);
+                }
+        );
+        span.returned();
+    }
+
+    /** Adds the models' size to the span on a background thread. */
+    private static void measure(CallTracer.Span span, List<? extends Model> items) {
+        SIZER.execute(() -> {
+            long payloadBytes = 0;
+            for (Model item : items) {
+                payloadBytes += jsonBytes(item);
+            }
+            span.payload(payloadBytes);
+        });
+    }
+
+    private static long jsonBytes(Model item) {
+        return GsonFactory.instance().toJson(item).getBytes(StandardCharsets.UTF_8).length;
+    }
+}
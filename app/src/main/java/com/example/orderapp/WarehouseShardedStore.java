@@ -0,0 +1,223 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory Employees and Inventory partitioned by warehouse. Every Employee belongs to
+ * one warehouse through {@code byWarehouse} and every Inventory row through
+ * {@code byWarehouseID}, so each warehouse is a shard with its own read/write lock and
+ * operations on different warehouses never wait for each other.
+ *
+ * <p>Shards are created on first use. Reads return copies taken under the shard's read
+ * lock, so callers never see a warehouse mid-update.
+ */
+public final class WarehouseShardedStore {
+    private final Map<String, Shard> shards = new ConcurrentHashMap<>();
+    /**
+     * Employee id to warehouse id, to find the old shard when an employee changes warehouse.
+     * Moves and removals run inside {@code compute} on the employee's entry, which locks that
+     * one id, so two moves of the same employee cannot leave it in two shards.
+     */
+    private final Map<String, String> employeeWarehouses = new ConcurrentHashMap<>();
+
+    public void putEmployee(Employee employee) {
+        employeeWarehouses.compute(employee.getId(), (id, previous) -> {
+            if (previous != null && !previous.equals(employee.getWarehouseId())) {
+                Shard old = shards.get(previous);
+                if (old != null) {
+                    old.removeEmployee(id);
+                }
+            }
+            shard(employee.getWarehouseId()).putEmployee(employee);
+            return employee.getWarehouseId();
+        });
+    }
+
+    public void removeEmployee(Employee employee) {
+        employeeWarehouses.compute(employee.getId(), (id, warehouseId) -> {
+            Shard shard = shards.get(warehouseId != null ? warehouseId : employee.getWarehouseId());
+            if (shard != null) {
+                shard.removeEmployee(id);
+            }
+            return null;
+        });
+    }
+
+    public void putInventory(Inventory inventory) {
+        shard(inventory.getWarehouseId()).putInventory(inventory);
+    }
+
+    public void removeInventory(Inventory inventory) {
+        Shard shard = shards.get(inventory.getWarehouseId());
+        if (shard != null) {
+            shard.removeInventory(inventory.getProductId());
+        }
+    }
+
+    /**
+     * Adds {@code delta} to a product's stock in one warehouse as a single step, so
+     * concurrent adjustments of the same row are not lost.
+     *
+     * @return the updated row, or null if the warehouse does not stock the product
+     */
+    public Inventory adjustInventory(String warehouseId, String productId, int delta) {
+        Shard shard = shards.get(warehouseId);
+        return shard != null ? shard.adjustInventory(productId, delta) : null;
+    }
+
+    public List<Employee> employees(String warehouseId) {
+        Shard shard = shards.get(warehouseId);
+        return shard != null ? shard.employees() : Collections.<Employee>emptyList();
+    }
+
+    public Inventory inventory(String warehouseId, String productId) {
+        Shard shard = shards.get(warehouseId);
+        return shard != null ? shard.inventory(productId) : null;
+    }
+
+    public List<Inventory> inventories(String warehouseId) {
+        Shard shard = shards.get(warehouseId);
+        return shard != null ? shard.inventories() : Collections.<Inventory>emptyList();
+    }
+
+    /**
+     * The one lookup across warehouses: each shard is read under its own lock in turn, so
+     * the answer is as of some moment per warehouse, not one moment for all.
+     *
+     * @return the product's row in the warehouse holding the most of it, or null if none stocks it
+     */
+    public Inventory fullestInventory(String productId) {
+        Inventory fullest = null;
+        for (Shard shard : shards.values()) {
+            Inventory row = shard.inventory(productId);
+            if (row != null && (fullest == null || row.getInventoryAmount() > fullest.getInventoryAmount())) {
+                fullest = row;
+            }
+        }
+        return fullest;
+    }
+
+    /** @return the units of every product in stock at the warehouse */
+    public long totalInventory(String warehouseId) {
+        Shard shard = shards.get(warehouseId);
+        return shard != null ? shard.totalInventory() : 0;
+    }
+
+    public int warehouseCount() {
+        return shards.size();
+    }
+
+    private Shard shard(String warehouseId) {
+        return shards.computeIfAbsent(warehouseId, id -> new Shard());
+    }
+
+    private static final class Shard {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Employee> employees = new HashMap<>();
+        /** Keyed by product id; together with the shard's warehouse, Inventory's primary key. */
+        private final Map<String, Inventory> inventory = new HashMap<>();
+
+        void putEmployee(Employee employee) {
+            lock.writeLock().lock();
+            try {
+                employees.put(employee.getId(), employee);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void removeEmployee(String employeeId) {
+            lock.writeLock().lock();
+            try {
+                employees.remove(employeeId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void putInventory(Inventory row) {
+            lock.writeLock().lock();
+            try {
+                inventory.put(row.getProductId(), row);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void removeInventory(String productId) {
+            lock.writeLock().lock();
+            try {
+                inventory.remove(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Inventory adjustInventory(String productId, int delta) {
+            lock.writeLock().lock();
+            try {
+                Inventory row = inventory.get(productId);
+                if (row == null) {
+                    return null;
+                }
+                Inventory updated = row.copyOfBuilder()
+                        .inventoryAmount(row.getInventoryAmount() + delta)
+                        .build();
+                inventory.put(productId, updated);
+                return updated;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Employee> employees() {
+            lock.readLock().lock();
+            try {
+                return new ArrayList<>(employees.values());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Inventory inventory(String productId) {
+            lock.readLock().lock();
+            try {
+                return inventory.get(productId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Inventory> inventories() {
+            lock.readLock().lock();
+            try {
+                return new ArrayList<>(inventory.values());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long totalInventory() {
+            lock.readLock().lock();
+            try {
+                long total = 0;
+                for (Inventory row : inventory.values()) {
+                    total += row.getInventoryAmount();
+                }
+                return total;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
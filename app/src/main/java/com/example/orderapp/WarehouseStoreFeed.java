@@ -0,0 +1,50 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Inventory;
+
+/**
+ * Keeps a {@link WarehouseShardedStore} and the {@link InventoryColumns} in step with the
+ * DataStore: loads the current Employee and Inventory rows and applies every change after
+ * them, through a {@link ModelFeed} per model.
+ */
+public final class WarehouseStoreFeed {
+    private WarehouseStoreFeed() {
+    }
+
+    /** @return cancels the observations, e.g. when the activity holding the store goes */
+    public static Cancelable start(WarehouseShardedStore store, InventoryColumns columns) {
+        ModelFeed.Listener<Inventory> rows = inventory(store);
+        ModelFeed.Listener<Inventory> stock = columns.updater();
+        ModelFeed<Employee> employees = ModelFeed.start(Employee.class, employees(store));
+        ModelFeed<Inventory> inventory = ModelFeed.start(Inventory.class, (row, deleted) -> {
+            rows.changed(row, deleted);
+            stock.changed(row, deleted);
+        });
+        return () -> {
+            employees.cancel();
+            inventory.cancel();
+        };
+    }
+
+    static ModelFeed.Listener<Employee> employees(WarehouseShardedStore store) {
+        return (employee, deleted) -> {
+            if (deleted) {
+                store.removeEmployee(employee);
+            } else {
+                store.putEmployee(employee);
+            }
+        };
+    }
+
+    static ModelFeed.Listener<Inventory> inventory(WarehouseShardedStore store) {
+        return (row, deleted) -> {
+            if (deleted) {
+                store.removeInventory(row);
+            } else {
+                store.putInventory(row);
+            }
+        };
+    }
+}
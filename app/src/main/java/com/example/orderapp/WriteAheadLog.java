@@ -0,0 +1,175 @@
+package com.example.orderapp;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of byte records in a fixed-size memory-mapped file.
+ *
+ * <p>Layout: an 8-byte magic number, the 4-byte offset of the first record not yet
+ * drained, then records of {@code [int length][bytes]}. A record's length is written
+ * after its bytes, so a record cut short by a crash reads as the end of the log. The
+ * pages are written back by the kernel, so records survive the process dying but not
+ * the device losing power before the next {@link #force()}.
+ */
+public final class WriteAheadLog implements Closeable {
+    private static final long MAGIC = 0x4f72646572574131L;
+    private static final int DRAIN_OFFSET_POSITION = 8;
+    private static final int HEADER_BYTES = 12;
+    private static final int LENGTH_BYTES = 4;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private int drainOffset;
+    private int writeOffset;
+    private int pending;
+
+    private WriteAheadLog(RandomAccessFile file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps the log, creating it if needed, and recovers the records that were appended
+     * but not drained before the last shutdown.
+     */
+    public static WriteAheadLog open(File path, int capacityBytes) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        boolean fresh = file.length() == 0;
+        if (fresh) {
+            file.setLength(capacityBytes);
+        }
+        MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, file.length());
+        WriteAheadLog log = new WriteAheadLog(file, buffer);
+        if (fresh || buffer.getLong(0) != MAGIC) {
+            log.reset();
+        } else {
+            log.recover();
+        }
+        return log;
+    }
+
+    private void reset() {
+        buffer.putLong(0, MAGIC);
+        buffer.putInt(HEADER_BYTES, 0);
+        setDrainOffset(HEADER_BYTES);
+        writeOffset = HEADER_BYTES;
+        pending = 0;
+    }
+
+    private void recover() {
+        drainOffset = buffer.getInt(DRAIN_OFFSET_POSITION);
+        int offset = drainOffset;
+        int count = 0;
+        while (offset + LENGTH_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + LENGTH_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            offset += LENGTH_BYTES + length;
+            count++;
+        }
+        writeOffset = offset;
+        pending = count;
+    }
+
+    /**
+     * Appends a record. Runs in time proportional to the record, except when the log has
+     * to compact drained records out of the way first.
+     *
+     * @return false if the record does not fit even after compaction
+     */
+    public synchronized boolean append(byte[] record) {
+        int needed = LENGTH_BYTES + record.length + LENGTH_BYTES;
+        if (writeOffset + needed > buffer.capacity()) {
+            compact();
+            if (writeOffset + needed > buffer.capacity()) {
+                return false;
+            }
+        }
+        ByteBuffer target = buffer.duplicate();
+        target.position(writeOffset + LENGTH_BYTES);
+        target.put(record);
+        // Terminate the log after this record before publishing the record's length.
+        buffer.putInt(writeOffset + LENGTH_BYTES + record.length, 0);
+        buffer.putInt(writeOffset, record.length);
+        writeOffset += LENGTH_BYTES + record.length;
+        pending++;
+        return true;
+    }
+
+    /** @return up to {@code max} of the oldest records that have not been drained */
+    public synchronized List<byte[]> peek(int max) {
+        List<byte[]> records = new ArrayList<>(Math.min(max, pending));
+        ByteBuffer source = buffer.duplicate();
+        int offset = drainOffset;
+        while (records.size() < max && offset < writeOffset) {
+            int length = buffer.getInt(offset);
+            byte[] record = new byte[length];
+            source.position(offset + LENGTH_BYTES);
+            source.get(record);
+            records.add(record);
+            offset += LENGTH_BYTES + length;
+        }
+        return records;
+    }
+
+    /** Marks the {@code count} oldest records as applied; they are not returned again. */
+    public synchronized void markDrained(int count) {
+        int offset = drainOffset;
+        for (int i = 0; i < count && offset < writeOffset; i++) {
+            offset += LENGTH_BYTES + buffer.getInt(offset);
+            pending--;
+        }
+        setDrainOffset(offset);
+        if (pending == 0) {
+            buffer.putInt(HEADER_BYTES, 0);
+            setDrainOffset(HEADER_BYTES);
+            writeOffset = HEADER_BYTES;
+        }
+    }
+
+    public synchronized int pending() {
+        return pending;
+    }
+
+    /** Writes the mapped pages to storage. */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        file.close();
+    }
+
+    private void compact() {
+        int live = writeOffset - drainOffset;
+        // Copy only into space that is already drained, so the source stays intact until the
+        // drain offset moves and a crash mid-copy still recovers from the old position.
+        if (live + LENGTH_BYTES > drainOffset - HEADER_BYTES) {
+            return;
+        }
+        ByteBuffer source = buffer.duplicate();
+        source.position(drainOffset);
+        source.limit(writeOffset + LENGTH_BYTES);
+        ByteBuffer target = buffer.duplicate();
+        target.position(HEADER_BYTES);
+        target.put(source);
+        setDrainOffset(HEADER_BYTES);
+        writeOffset = HEADER_BYTES + live;
+    }
+
+    private void setDrainOffset(int offset) {
+        drainOffset = offset;
+        buffer.putInt(DRAIN_OFFSET_POSITION, offset);
+    }
+}
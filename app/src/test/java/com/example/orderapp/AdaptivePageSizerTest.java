@@ -0,0 +1,62 @@
+package com.example.orderapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptivePageSizerTest {
+    /** 1 s per page, 1 MB per page, limits between 50 and 1000, starting at 100. */
+    private final AdaptivePageSizer sizer = new AdaptivePageSizer();
+
+    @Test
+    public void fastPagesGrowByAtMostDouble() {
+        assertEquals(100, sizer.limitFor("Blog"));
+        sizer.record("Blog", 100, 10, 10_000);
+        assertEquals(200, sizer.limitFor("Blog"));
+        sizer.record("Blog", 200, 20, 20_000);
+        assertEquals(400, sizer.limitFor("Blog"));
+        sizer.record("Blog", 400, 40, 40_000);
+        sizer.record("Blog", 800, 80, 80_000);
+        assertEquals(1000, sizer.limitFor("Blog"));
+        assertEquals(100, sizer.limitFor("Customer"));
+    }
+
+    @Test
+    public void slowPagesShrinkAtOnce() {
+        sizer.record("Customer", 100, 100, 10_000);
+        assertEquals(200, sizer.limitFor("Customer"));
+        // 20 ms a row from now on: the average is 10.5 ms, so 95 rows fit in a second.
+        sizer.record("Customer", 200, 4_000, 20_000);
+        assertEquals(95, sizer.limitFor("Customer"));
+    }
+
+    @Test
+    public void pagesStayUnderThePayloadCap() {
+        sizer.record("Customer", 100, 10, 500_000);
+        assertEquals(200, sizer.limitFor("Customer"));
+        sizer.record("Customer", 200, 20, 1_000_000);
+        // 5 KB a row: 200 rows make the 1 MB DynamoDB reads per page.
+        assertEquals(200, sizer.limitFor("Customer"));
+    }
+
+    @Test
+    public void limitsAreClamped() {
+        sizer.record("Order", 100, 100_000, 10_000);
+        assertEquals(AdaptivePageSizer.DEFAULT_MIN_LIMIT, sizer.limitFor("Order"));
+        sizer.record("Order", 0, 100_000, 0);
+        assertEquals(AdaptivePageSizer.DEFAULT_MIN_LIMIT, sizer.limitFor("Order"));
+    }
+
+    @Test
+    public void resumedModelStartsAtItsLimitAndMeasuresFromThere() {
+        sizer.resume("Order", 600);
+        assertEquals(600, sizer.limitFor("Order"));
+        sizer.record("Order", 600, 60, 60_000);
+        assertEquals(1000, sizer.limitFor("Order"));
+
+        sizer.resume("Order", 50);
+        assertEquals(1000, sizer.limitFor("Order"));
+        sizer.resume("Blog", 5_000);
+        assertEquals(AdaptivePageSizer.DEFAULT_MAX_LIMIT, sizer.limitFor("Blog"));
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.generated.model.Blog;
+import com.amplifyframework.datastore.generated.model.Customer;
+import com.amplifyframework.datastore.generated.model.Inventory;
+import com.amplifyframework.datastore.generated.model.Order;
+import com.amplifyframework.datastore.generated.model.Product;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class BatchingApiClientTest {
+    private static final Pattern GET = Pattern.compile("(g\\d+): get(\\w+)\\(id: \"([^\"]*)\"\\)");
+
+    /**
+     * Answers every aliased get with a full row of its model, recording each document it receives. Ids
+     * in {@code failing} get a null field and an error naming their alias instead.
+     */
+    private static final class EchoTransport implements GraphQLTransport {
+        final List<String> documents = new ArrayList<>();
+        final Set<String> failing = new HashSet<>();
+
+        @Override
+        public synchronized void execute(String document, Map<String, Object> variables,
+                                         Consumer<String> onData, Consumer<ApiException> onError) {
+            documents.add(document);
+            JSONObject data = new JSONObject();
+            List<String> fields = new ArrayList<>();
+            List<String> messages = new ArrayList<>();
+            Matcher matcher = GET.matcher(document);
+            try {
+                while (matcher.find()) {
+                    if (failing.contains(matcher.group(3))) {
+                        data.put(matcher.group(1), JSONObject.NULL);
+                        fields.add(matcher.group(1));
+                        messages.add("Not authorized to access " + matcher.group(3));
+                    } else {
+                        data.put(matcher.group(1), FakeSyncBackend.row(matcher.group(2), matcher.group(3)));
+                    }
+                }
+            } catch (JSONException error) {
+                throw new AssertionError(error);
+            }
+            if (fields.isEmpty()) {
+                onData.accept(data.toString());
+            } else {
+                onError.accept(new GraphQLResponseException(data.toString(), fields, messages));
+            }
+        }
+    }
+
+    /** Collects what the client's callbacks receive, on whatever thread, for the test thread. */
+    private static final class Results {
+        final List<String> ids = new ArrayList<>();
+        final List<ApiException> errors = new ArrayList<>();
+        final CountDownLatch done;
+
+        Results(int expected) {
+            done = new CountDownLatch(expected);
+        }
+
+        void onResult(Model record) {
+            synchronized (this) {
+                ids.add(record.getId());
+            }
+            done.countDown();
+        }
+
+        void onError(ApiException error) {
+            synchronized (this) {
+                errors.add(error);
+            }
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void getsWithinWindowShareOneDocument() throws InterruptedException {
+        EchoTransport transport = new EchoTransport();
+        BatchingApiClient client = new BatchingApiClient(transport,
+                Executors.newSingleThreadScheduledExecutor(), 50, 60_000);
+        Results results = new Results(4);
+
+        client.get(Order.class, "1", results::onResult, results::onError);
+        client.get(Product.class, "P1", results::onResult, results::onError);
+        client.get(Customer.class, "c1", results::onResult, results::onError);
+        client.get(Order.class, "1", results::onResult, results::onError);
+
+        results.await();
+        assertEquals(Collections.emptyList(), results.errors);
+        assertEquals(1, transport.documents.size());
+        assertTrue(results.ids.containsAll(Arrays.asList("1", "P1", "c1")));
+        assertEquals(1, client.getMetrics().getCoalesced());
+        assertEquals(3, client.getMetrics().getBatchedGets());
+        assertEquals(3, client.getMetrics().requestsSaved());
+    }
+
+    @Test
+    public void repeatedGetIsServedFromCache() throws InterruptedException {
+        EchoTransport transport = new EchoTransport();
+        BatchingApiClient client = new BatchingApiClient(transport,
+                Executors.newSingleThreadScheduledExecutor(), 1, 60_000);
+        Results first = new Results(1);
+        client.get(Blog.class, "b1", first::onResult, first::onError);
+        first.await();
+        assertEquals(Collections.emptyList(), first.errors);
+
+        // A cache hit answers on the calling thread.
+        Results cached = new Results(1);
+        client.get(Blog.class, "b1", cached::onResult, cached::onError);
+
+        assertEquals(Collections.singletonList("b1"), cached.ids);
+        assertEquals(1, transport.documents.size());
+        assertEquals(1, client.getMetrics().getCacheHits());
+    }
+
+    @Test
+    public void anErrorFailsOnlyTheGetItNames() throws InterruptedException {
+        EchoTransport transport = new EchoTransport();
+        transport.failing.add("P1");
+        BatchingApiClient client = new BatchingApiClient(transport,
+                Executors.newSingleThreadScheduledExecutor(), 50, 60_000);
+        Results results = new Results(3);
+
+        client.get(Order.class, "1", results::onResult, results::onError);
+        client.get(Product.class, "P1", results::onResult, results::onError);
+        client.get(Customer.class, "c1", results::onResult, results::onError);
+
+        results.await();
+        assertEquals(1, transport.documents.size());
+        assertEquals(Arrays.asList("1", "c1"), results.ids);
+        assertEquals(1, results.errors.size());
+        assertTrue(results.errors.get(0).getMessage().contains("Product#P1"));
+    }
+
+    @Test
+    public void closeSendsTheWindowAndRejectsLaterGets() throws InterruptedException {
+        EchoTransport transport = new EchoTransport();
+        BatchingApiClient client = new BatchingApiClient(transport);
+        Results results = new Results(2);
+
+        client.get(Order.class, "1", results::onResult, results::onError);
+        client.close();
+        client.get(Order.class, "2", results::onResult, results::onError);
+
+        results.await();
+        assertEquals(Collections.singletonList("1"), results.ids);
+        assertEquals(1, results.errors.size());
+        assertEquals(1, transport.documents.size());
+    }
+
+    @Test
+    public void queryAfterCloseIsRejected() {
+        EchoTransport transport = new EchoTransport();
+        BatchingApiClient client = new BatchingApiClient(transport);
+        client.close();
+        List<ApiException> errors = new ArrayList<>();
+        client.query("query ListOrders { listOrders { items { id } } }", Collections.<String, Object>emptyMap(),
+                result -> fail("answered after close"), errors::add);
+
+        assertEquals(1, errors.size());
+        assertTrue(transport.documents.isEmpty());
+    }
+
+    @Test
+    public void cacheKeepsOnlyTheNewestResults() throws InterruptedException {
+        EchoTransport transport = new EchoTransport();
+        BatchingApiClient client = new BatchingApiClient(transport,
+                Executors.newSingleThreadScheduledExecutor(), 1, 60_000, 3);
+        for (int i = 0; i < 5; i++) {
+            Results results = new Results(1);
+            client.get(Blog.class, "b" + i, results::onResult, results::onError);
+            results.await();
+        }
+        assertEquals(3, client.cachedCount());
+
+        // b4 is still cached; b0 was dropped and is fetched again.
+        client.get(Blog.class, "b4", record -> { }, error -> fail(error.getMessage()));
+        Results refetched = new Results(1);
+        client.get(Blog.class, "b0", refetched::onResult, refetched::onError);
+        refetched.await();
+        assertEquals(1, client.getMetrics().getCacheHits());
+        assertEquals(6, transport.documents.size());
+        assertEquals(3, client.cachedCount());
+    }
+
+    @Test
+    public void expiredResultsAreSweptOnInsert() throws InterruptedException {
+        EchoTransport transport = new EchoTransport();
+        BatchingApiClient client = new BatchingApiClient(transport,
+                Executors.newSingleThreadScheduledExecutor(), 1, 20, 100);
+        for (int i = 0; i < 3; i++) {
+            Results results = new Results(1);
+            client.get(Blog.class, "b" + i, results::onResult, results::onError);
+            results.await();
+        }
+        Thread.sleep(50);
+        Results last = new Results(1);
+        client.get(Blog.class, "b3", last::onResult, last::onError);
+        last.await();
+
+        assertEquals(1, client.cachedCount());
+    }
+
+    @Test
+    public void unknownModelIsRejected() {
+        BatchingApiClient client = new BatchingApiClient(new EchoTransport());
+        Results results = new Results(1);
+        client.get(Inventory.class, "x", results::onResult, results::onError);
+        assertTrue(results.ids.isEmpty());
+        assertEquals(1, results.errors.size());
+        client.close();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.orderapp;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CallTracerTest {
+    @After
+    public void tearDown() {
+        CallTracer.get().reset();
+        CallTracer.get().setEnabled(false);
+    }
+
+    @Test
+    public void histogramPercentilesUseBucketUpperBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+
+        assertEquals(100, histogram.count());
+        assertEquals(128, histogram.percentileMicros(50));
+        assertEquals(128, histogram.percentileMicros(90));
+        assertEquals(32_768, histogram.percentileMicros(99));
+    }
+
+    @Test
+    public void disabledTracerRecordsNothing() {
+        CallTracer.get().begin("DataStore.save(Order)").returned();
+        assertEquals("{}", CallTracer.get().toJson());
+    }
+
+    @Test
+    public void reportHasOneEntryPerCall() throws Exception {
+        CallTracer tracer = CallTracer.get();
+        tracer.setEnabled(true);
+        CallTracer.Span span = tracer.begin("DataStore.save(Order)");
+        span.returned();
+        span.completed(250);
+        tracer.section("onClick:button_send", () -> { });
+
+        JSONObject report = new JSONObject(tracer.toJson());
+        JSONObject save = report.getJSONObject("DataStore.save(Order)");
+        assertEquals(1, save.getInt("calls"));
+        assertEquals(250, save.getLong("payloadBytes"));
+        assertEquals(1, save.getJSONObject("completion").getInt("count"));
+        assertTrue(report.has("onClick:button_send"));
+    }
+
+    @Test
+    public void payloadCanBeAddedAfterCompletion() throws Exception {
+        CallTracer tracer = CallTracer.get();
+        tracer.setEnabled(true);
+        CallTracer.Span span = tracer.begin("DataStore.query(Order)");
+        span.returned();
+        span.completed();
+        Thread sizer = new Thread(() -> span.payload(1_000));
+        sizer.start();
+        sizer.join();
+
+        JSONObject query = new JSONObject(tracer.toJson()).getJSONObject("DataStore.query(Order)");
+        assertEquals(1, query.getJSONObject("completion").getInt("count"));
+        assertEquals(1_000, query.getLong("payloadBytes"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bytes on the wire and CPU time of each {@link PayloadCompression.Coding} for the bodies
+ * the app moves most: a page of Customers with their address and order connections, a
+ * page of the generated {@code SyncEmployees} query, and a one-field Order update. The
+ * pages are captured from a {@link LocalAppSyncBackend} seeded with a retail dataset, as
+ * the local server sends them.
+ */
+public class CompressionBenchmark {
+    private static final int CUSTOMERS = 4_000;
+    private static final int PAGE = 100;
+    private static final int PAGES = 200;
+    private static final int ROUNDS = 5;
+    private static final String CUSTOMERS_WITH_CONNECTIONS = "query ListCustomers($limit: Int) {"
+            + " listCustomers(limit: $limit) { items { " + GraphQLSelections.of("Customer")
+            + " address { items { " + GraphQLSelections.of("Address") + " } nextToken }"
+            + " ordersByDate(limit: 10) { items { " + GraphQLSelections.of("Order") + " } nextToken }"
+            + " } nextToken } }";
+
+    private static volatile Object sink;
+
+    @Test
+    public void bytesAndTimePerPage() throws Exception {
+        GraphQLSchema schema = GraphQLSchema.read(GraphQLSchema.APP_SCHEMA);
+        LocalAppSyncBackend backend = new LocalAppSyncBackend(schema, 1);
+        Map<String, String> operations = GraphQLDocument.generatedOperations();
+        for (Map.Entry<String, List<JSONObject>> model : LoadGenerator.retail(schema, CUSTOMERS, 42).generate()
+                .entrySet()) {
+            for (JSONObject record : model.getValue()) {
+                backend.executeNow(SoakHarness.mutation(model.getKey()),
+                        Collections.<String, Object>singletonMap("input", record.toMap()));
+            }
+        }
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("limit", PAGE);
+        byte[] customers = response(backend.executeNow(CUSTOMERS_WITH_CONNECTIONS, variables));
+        byte[] employees = response(backend.executeNow(operations.get("SyncEmployees"), variables));
+
+        Order order = Order.builder()
+                .customerId("5f0c2a6e-3b1d-4e8a-9c57-2d1f3e4a5b6c")
+                .accountRepresentativeId("9a8b7c6d-5e4f-4a3b-8c2d-1e0f9a8b7c6d")
+                .productId("1c2d3e4f-5a6b-4c7d-8e9f-0a1b2c3d4e5f")
+                .status("InProcess")
+                .amount(42)
+                .date(SortableDates.orderDate(1_656_590_400_000L))
+                .id("0b4d4a1c-5f1e-4c4b-9a57-1d2f3e4a5b6c")
+                .build();
+        ModelPatch<Order> patch = ModelPatch.of(order, 4).set(Order.STATUS, "Shipped");
+        byte[] mutation = new JSONObject().put("query", patch.document())
+                .put("variables", new JSONObject(patch.variables())).toString().getBytes(StandardCharsets.UTF_8);
+
+        report("Customer page with connections", customers);
+        report("SyncEmployees page", employees);
+        report("Order.status patch request", mutation);
+    }
+
+    private static byte[] response(String data) {
+        return new JSONObject().put("data", new JSONObject(data)).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void report(String name, byte[] body) throws Exception {
+        System.out.println(String.format(Locale.US, "%s: %,d bytes", name, body.length));
+        for (PayloadCompression.Coding coding : PayloadCompression.PREFERRED) {
+            byte[] encoded = PayloadCompression.encode(coding, body);
+            double encode = best(() -> {
+                for (int i = 0; i < PAGES; i++) {
+                    sink = PayloadCompression.encode(coding, body);
+                }
+            });
+            double decode = best(() -> {
+                try {
+                    for (int i = 0; i < PAGES; i++) {
+                        sink = PayloadCompression.decode(coding, encoded);
+                    }
+                } catch (Exception error) {
+                    throw new IllegalStateException(error);
+                }
+            });
+            System.out.println(String.format(Locale.US,
+                    "  %-9s %,7d bytes (%4.1f%%), encode %6.1f us, decode %6.1f us",
+                    coding == PayloadCompression.Coding.FIELD_DICTIONARY ? "fields" : coding.token(),
+                    encoded.length, 100.0 * encoded.length / body.length,
+                    encode * 1000 / PAGES, decode * 1000 / PAGES));
+        }
+    }
+
+    private static double best(Runnable run) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateGroup;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.generated.model.Address;
+import com.amplifyframework.datastore.generated.model.Customer;
+import com.amplifyframework.datastore.generated.model.Order;
+import com.amplifyframework.datastore.generated.model.Product;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CustomerGraphLoaderTest {
+    private final FakeDataStore store = new FakeDataStore();
+    private final List<CustomerGraph> graphs = new ArrayList<>();
+    private final List<DataStoreException> errors = new ArrayList<>();
+
+    private static Order order(String id, String customerId, String productId, String date) {
+        return OrderColumnsTest.order(id, customerId, "AR1", productId, "InProcess", 10, date);
+    }
+
+    private void load(String customerId) {
+        new CustomerGraphLoader(store).load(customerId, graphs::add, errors::add);
+    }
+
+    @Test
+    public void loadsProductsInBatchesOfIds() {
+        store.put(Customer.builder().name("Ada").accountRepresentativeId("AR1").id("c1").build(),
+                Address.builder().address("1 Main St").city("Seattle").state("WA").customerId("c1").id("a1").build());
+        int products = CustomerGraphLoader.ID_BATCH_SIZE + 7;
+        for (int i = 0; i < products; i++) {
+            store.put(Product.builder().name("Product " + i).id("P" + i).build());
+            // Two orders per product: each id is asked for once.
+            store.put(order("o" + i, "c1", "P" + i, SortableDates.orderDate(1_000L * i)),
+                    order("o" + i + "b", "c1", "P" + i, SortableDates.orderDate(1_000L * i + 1)));
+        }
+        store.put(order("other", "c2", "P0", SortableDates.orderDate(0)));
+
+        load("c1");
+
+        assertTrue(errors.isEmpty());
+        CustomerGraph graph = graphs.get(0);
+        assertEquals("Ada", graph.getCustomer().getName());
+        assertEquals(1, graph.getAddresses().size());
+        assertEquals(2 * products, graph.getOrdersByDate().size());
+        assertEquals(products, graph.getProductsById().size());
+        for (Order order : graph.getOrdersByDate()) {
+            assertEquals(order.getProductId(), graph.productFor(order).getId());
+        }
+
+        List<FakeDataStore.Query> productQueries = store.queriesOf(Product.class);
+        assertEquals(2, productQueries.size());
+        assertEquals(CustomerGraphLoader.ID_BATCH_SIZE, alternatives(productQueries.get(0)));
+        assertEquals(7, alternatives(productQueries.get(1)));
+    }
+
+    private static int alternatives(FakeDataStore.Query query) {
+        QueryPredicate predicate = query.options.getQueryPredicate();
+        if (!(predicate instanceof QueryPredicateGroup)) {
+            return 1;
+        }
+        QueryPredicateGroup group = (QueryPredicateGroup) predicate;
+        assertEquals(QueryPredicateGroup.Type.OR, group.type());
+        return group.predicates().size();
+    }
+
+    @Test
+    public void customerWithoutOrdersQueriesNoProducts() {
+        store.put(Customer.builder().name("Ada").accountRepresentativeId("AR1").id("c1").build());
+
+        load("c1");
+
+        assertTrue(errors.isEmpty());
+        assertTrue(graphs.get(0).getOrdersByDate().isEmpty());
+        assertTrue(graphs.get(0).getAddresses().isEmpty());
+        assertTrue(graphs.get(0).getProductsById().isEmpty());
+        assertTrue(store.queriesOf(Product.class).isEmpty());
+        assertTrue(CustomerGraphLoader.partition(new ArrayList<String>(), 50).isEmpty());
+    }
+
+    @Test
+    public void reportsTheFirstFailureOnly() {
+        store.put(Customer.builder().name("Ada").accountRepresentativeId("AR1").id("c1").build(),
+                order("o1", "c1", "P1", SortableDates.orderDate(0)));
+        DataStoreException productsFailed = new DataStoreException("Product table is locked", "Retry.");
+        store.failQueriesOf(Product.class, productsFailed);
+        store.failQueriesOf(Address.class, new DataStoreException("Address table is locked", "Retry."));
+
+        load("c1");
+
+        assertTrue(graphs.isEmpty());
+        assertEquals(1, errors.size());
+
+        errors.clear();
+        load("nobody");
+        assertTrue(graphs.isEmpty());
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    public void sortsLegacyDatesByInstant() {
+        store.put(Customer.builder().name("Ada").accountRepresentativeId("AR1").id("c1").build(),
+                order("march", "c1", "P1", "2022-03-01T00:00:00.000Z"),
+                // Sorts last as a string, but is the earliest.
+                order("january", "c1", "P1", "Sat Jan 01 10:00:00 UTC 2022"),
+                // February 1st, with the day lost.
+                order("february", "c1", "P1", "2022-02-2022"));
+
+        load("c1");
+
+        List<String> ids = new ArrayList<>();
+        for (Order order : graphs.get(0).getOrdersByDate()) {
+            ids.add(order.getId());
+        }
+        assertEquals("[january, february, march]", ids.toString());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.orderapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CustomerSearchTest {
+    private final NameSearchIndex index = new NameSearchIndex();
+    private final List<String> requests = new ArrayList<>();
+    private final CustomerSearch search = new CustomerSearch(index, new CustomerLookup(
+            (document, variables, onData, onError) -> {
+                requests.add(String.valueOf(variables.get("filter")));
+                onData.accept("{\"listCustomers\":{\"items\":[{\"id\":\"c9\",\"name\":\"Remote Customer\"}],"
+                        + "\"nextToken\":null}}");
+            }));
+
+    private List<String> find(String query) {
+        List<String> names = new ArrayList<>();
+        search.find(query, 10, found -> {
+            for (CustomerName name : found) {
+                names.add(name.getName());
+            }
+        }, error -> fail(error.getMessage()));
+        return names;
+    }
+
+    @Test
+    public void indexedCustomersAreFoundWithoutTheBackend() {
+        index.put(NameSearchIndex.Kind.CUSTOMER, "c1", "Ada Lovelace");
+        index.put(NameSearchIndex.Kind.EMPLOYEE, "e1", "Ada Employee");
+
+        assertEquals(Collections.singletonList("Ada Lovelace"), find("ada"));
+        assertEquals(Collections.singletonList("Ada Lovelace"), find("lovlace"));
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void backendIsAskedWhenTheIndexHasNoCustomer() {
+        index.put(NameSearchIndex.Kind.EMPLOYEE, "e1", "Remote Employee");
+
+        List<String> names = find("Remote");
+        assertEquals(1, names.size());
+        assertEquals("Remote Customer", names.get(0));
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0), requests.get(0).contains("beginsWith=Remote"));
+    }
+
+    @Test
+    public void shortQueriesMustMatchExactly() {
+        index.put(NameSearchIndex.Kind.CUSTOMER, "c1", "Bob");
+
+        assertEquals(1, find("bo").size());
+        assertEquals("Remote Customer", find("xo").get(0));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.orderapp;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 100,000 order dates as the app used to write them ({@code String.valueOf(new Date())})
+ * and in the {@link SortableDates} encoding: how wrong a plain string sort of the old
+ * values is, what sorting them correctly costs, and a one-month range query answered by
+ * parsing every old value against a binary search of the sorted new ones, which is what
+ * an index range scan does.
+ */
+public class DateEncodingBenchmark {
+    private static final int ORDERS = 100_000;
+    private static final int ROUNDS = 5;
+
+    private static volatile long sink;
+
+    @Test
+    public void legacyStringsVersusSortableDates() {
+        Random random = new Random(42);
+        long from = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+        String[] legacy = new String[ORDERS];
+        String[] sortable = new String[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            long millis = from + (long) (random.nextDouble() * 3 * 365 * TemporalCodec.MILLIS_PER_DAY);
+            legacy[i] = String.valueOf(new Date(millis));
+            sortable[i] = SortableDates.orderDate(millis);
+        }
+
+        String[] sortedLegacy = legacy.clone();
+        Arrays.sort(sortedLegacy);
+        Integer[] byTime = new Integer[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            byTime[i] = i;
+        }
+        Arrays.sort(byTime, (a, b) -> sortable[a].compareTo(sortable[b]));
+        int misplaced = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            if (!sortedLegacy[i].equals(legacy[byTime[i]])) {
+                misplaced++;
+            }
+        }
+        System.out.println(String.format(Locale.US,
+                "string sort of %,d Date.toString values: %.0f%% in the wrong position",
+                ORDERS, 100.0 * misplaced / ORDERS));
+
+        double legacySort = best(() -> {
+            long[] keys = new long[ORDERS];
+            for (int i = 0; i < ORDERS; i++) {
+                keys[i] = SortableDates.legacyMillis(legacy[i]);
+            }
+            Arrays.sort(keys);
+            sink = keys[0];
+        });
+        double sortableSort = best(() -> {
+            String[] sorted = sortable.clone();
+            Arrays.sort(sorted);
+            sink = sorted[0].length();
+        });
+        System.out.println(String.format(Locale.US,
+                "sorting in time order: parsing old values %.0f ms, sortable strings %.0f ms (%.0fx)",
+                legacySort, sortableSort, legacySort / sortableSort));
+
+        long monthStart = Instant.parse("2021-06-01T00:00:00Z").toEpochMilli();
+        long monthEnd = Instant.parse("2021-07-01T00:00:00Z").toEpochMilli();
+        double legacyRange = best(() -> {
+            int count = 0;
+            for (String value : legacy) {
+                long millis = SortableDates.legacyMillis(value);
+                if (millis >= monthStart && millis < monthEnd) {
+                    count++;
+                }
+            }
+            sink = count;
+        });
+        String[] index = sortable.clone();
+        Arrays.sort(index);
+        String low = SortableDates.orderDate(monthStart);
+        String high = SortableDates.orderDate(monthEnd);
+        int[] count = new int[1];
+        double indexRange = best(() -> {
+            count[0] = insertionPoint(index, high) - insertionPoint(index, low);
+            sink = count[0];
+        });
+        System.out.println(String.format(Locale.US,
+                "one month (%,d orders): scanning old values %.1f ms, sortable index range %.4f ms",
+                count[0], legacyRange, indexRange));
+    }
+
+    private static int insertionPoint(String[] sorted, String key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static double best(Runnable run) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
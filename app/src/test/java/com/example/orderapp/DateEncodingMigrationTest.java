@@ -0,0 +1,107 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.DataStoreItemChange;
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DateEncodingMigrationTest {
+    private final FakeDataStore store = new FakeDataStore();
+    /** Rewrites waiting for their outcome. */
+    private final List<Action> saved = new ArrayList<>();
+    private final List<Consumer<DataStoreException>> failed = new ArrayList<>();
+    private final List<Model> written = new ArrayList<>();
+    private Consumer<DataStoreItemChange<Order>> orderChanges;
+    private boolean done;
+
+    private final DateEncodingMigration migration = new DateEncodingMigration(
+            new DateEncodingMigration.Progress() {
+                @Override
+                public boolean isDone() {
+                    return done;
+                }
+
+                @Override
+                public void markDone() {
+                    done = true;
+                }
+            },
+            store,
+            (item, delete, onDone, onError) -> {
+                written.add(item);
+                saved.add(onDone);
+                failed.add(onError);
+            },
+            new DataStoreObserve() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T extends Model> void observe(Class<T> itemClass, Consumer<Cancelable> onStart,
+                                                      Consumer<DataStoreItemChange<T>> onChange,
+                                                      Consumer<DataStoreException> onError, Action onComplete) {
+                    if (itemClass == Order.class) {
+                        orderChanges = (Consumer<DataStoreItemChange<Order>>) (Consumer<?>) onChange;
+                    }
+                    onStart.accept(() -> { });
+                }
+            });
+
+    private static Order order(String id, String date) {
+        return OrderColumnsTest.order(id, "C1", "AR1", "P1", "New", 10, date);
+    }
+
+    @Test
+    public void passIsRecordedOnlyOnceEveryRewriteIsSaved() {
+        store.put(order("o1", "2022-01-20"), order("o2", "2022-01-20T00:00:00.000Z"),
+                WarehouseShardedStoreTest.employee("e1", "W1").copyOfBuilder().startDate("2022-01-2022").build());
+        migration.runOnce();
+
+        assertEquals(2, written.size());
+        assertEquals("2022-01-20T00:00:00.000Z", ((Order) written.get(0)).getDate());
+        assertEquals("2022-01-01", ((Employee) written.get(1)).getStartDate());
+        saved.get(0).call();
+        assertFalse(done);
+        saved.get(1).call();
+        assertTrue(done);
+
+        migration.runOnce();
+        assertEquals(2, written.size());
+    }
+
+    @Test
+    public void failedRewriteLeavesThePassToTheNextRun() {
+        store.put(order("o1", "2022-01-20"));
+        migration.runOnce();
+        failed.get(0).accept(new DataStoreException("Disk full", "Free some space."));
+        assertFalse(done);
+
+        migration.runOnce();
+        assertEquals(2, written.size());
+        saved.get(1).call();
+        assertTrue(done);
+    }
+
+    @Test
+    public void legacyDatesArrivingLaterAreRewritten() {
+        migration.watch();
+        orderChanges.accept(DataStoreItemChange.<Order>builder()
+                .uuid("o1").type(DataStoreItemChange.Type.CREATE).initiator(DataStoreItemChange.Initiator.REMOTE)
+                .itemClass(Order.class).item(order("o1", "2022-01-20")).build());
+        orderChanges.accept(DataStoreItemChange.<Order>builder()
+                .uuid("o1").type(DataStoreItemChange.Type.UPDATE).initiator(DataStoreItemChange.Initiator.LOCAL)
+                .itemClass(Order.class).item(order("o1", "2022-01-20T00:00:00.000Z")).build());
+
+        assertEquals(1, written.size());
+        assertEquals("2022-01-20T00:00:00.000Z", ((Order) written.get(0)).getDate());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class DateRangeQueriesTest {
+    private static final long JANUARY = TemporalCodec.parseDateTimeMillis("2022-01-01T00:00:00.000Z");
+    private static final long FEBRUARY = TemporalCodec.parseDateTimeMillis("2022-02-01T00:00:00.000Z");
+
+    private final FakeDataStore store = new FakeDataStore();
+    private final DateRangeQueries queries = new DateRangeQueries(store);
+
+    private static Order order(String id, String customerId, String repId, String date) {
+        return OrderColumnsTest.order(id, customerId, repId, "P1", "New", 1, date);
+    }
+
+    private static Employee employee(String id, String newHire, String startDate) {
+        return Employee.builder()
+                .name("Employee" + id)
+                .startDate(startDate)
+                .phoneNumber("123-456-7890")
+                .warehouseId("W1")
+                .jobTitle("Helper")
+                .newHire(newHire)
+                .id(id)
+                .build();
+    }
+
+    private static List<String> ids(List<? extends Model> models) {
+        List<String> ids = new ArrayList<>();
+        for (Model model : models) {
+            ids.add(model.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void ordersOfRepresentativeAreTheHalfOpenRangeInDateOrder() {
+        store.put(
+                order("late", "C1", "AR1", "2022-01-31T23:59:59.999Z"),
+                order("first", "C1", "AR1", "2022-01-01T00:00:00.000Z"),
+                order("before", "C1", "AR1", "2021-12-31T23:59:59.999Z"),
+                order("end", "C1", "AR1", "2022-02-01T00:00:00.000Z"),
+                order("mid", "C2", "AR1", "2022-01-15T12:00:00.000Z"),
+                order("other", "C1", "AR2", "2022-01-15T12:00:00.000Z"));
+        AtomicReference<List<Order>> result = new AtomicReference<>();
+
+        queries.ordersOfRepresentative("AR1", JANUARY, FEBRUARY, result::set,
+                error -> fail(error.toString()));
+
+        assertEquals(Arrays.asList("first", "mid", "late"), ids(result.get()));
+    }
+
+    @Test
+    public void ordersOfCustomerKeepToTheCustomer() {
+        store.put(
+                order("mid", "C2", "AR1", "2022-01-15T12:00:00.000Z"),
+                order("first", "C1", "AR1", "2022-01-01T00:00:00.000Z"),
+                order("other", "C1", "AR2", "2022-01-20T00:00:00.000Z"),
+                order("end", "C1", "AR1", "2022-02-01T00:00:00.000Z"));
+        AtomicReference<List<Order>> result = new AtomicReference<>();
+
+        queries.ordersOfCustomer("C1", JANUARY, FEBRUARY, result::set, error -> fail(error.toString()));
+
+        assertEquals(Arrays.asList("first", "other"), ids(result.get()));
+    }
+
+    @Test
+    public void employeesStartingBetweenCompareWholeDays() {
+        store.put(
+                employee("last", "yes", "2022-01-31"),
+                employee("first", "yes", "2022-01-01"),
+                employee("veteran", "no", "2022-01-10"),
+                employee("before", "yes", "2021-12-31"),
+                employee("end", "yes", "2022-02-01"));
+        AtomicReference<List<Employee>> result = new AtomicReference<>();
+
+        queries.employeesStartingBetween("yes", JANUARY, FEBRUARY, result::set,
+                error -> fail(error.toString()));
+
+        assertEquals(Arrays.asList("first", "last"), ids(result.get()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.Model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DeltaSyncControllerTest {
+    private final InMemorySyncStateStore state = new InMemorySyncStateStore();
+    private final List<Model> received = new ArrayList<>();
+    private final SyncSink sink = (modelName, page) -> received.addAll(page.getItems());
+
+    @Test
+    public void firstSyncIsBaseThenDelta() throws Exception {
+        FakeSyncBackend backend = new FakeSyncBackend("Order", 2500);
+        // Pages of 1000, so the page count does not depend on how fast this machine is.
+        AdaptivePageSizer pagesOf1000 = new AdaptivePageSizer(AdaptivePageSizer.DEFAULT_TARGET_PAGE_MILLIS,
+                AdaptivePageSizer.DEFAULT_MAX_PAGE_BYTES, 1000, 1000, 1000);
+        DeltaSyncController controller = new DeltaSyncController(backend, state, sink,
+                DeltaSyncController.DEFAULT_RETENTION_MS, DeltaSyncController.DEFAULT_TOKEN_RETENTION_MS, pagesOf1000);
+
+        DeltaSyncController.Report base = controller.sync("Order");
+        assertEquals(DeltaSyncController.Mode.BASE, base.getMode());
+        assertEquals(3, base.getPages());
+        assertEquals(2500, received.size());
+
+        Thread.sleep(2);
+        backend.put("Order", 2500);
+        received.clear();
+        DeltaSyncController.Report delta = controller.sync("Order");
+
+        assertEquals(DeltaSyncController.Mode.DELTA, delta.getMode());
+        assertEquals(1, received.size());
+        assertNotNull(backend.requestedLastSync.get(backend.requestedLastSync.size() - 1));
+        assertTrue(delta.getBytesSaved() > base.getBytes() / 2);
+    }
+
+    @Test
+    public void expiredLastSyncFallsBackToBase() throws Exception {
+        FakeSyncBackend backend = new FakeSyncBackend("Customer", 10);
+        state.setLastSync("Customer", System.currentTimeMillis() - DeltaSyncController.DEFAULT_RETENTION_MS - 1);
+
+        DeltaSyncController.Report report = new DeltaSyncController(backend, state, sink).sync("Customer");
+
+        assertEquals(DeltaSyncController.Mode.BASE, report.getMode());
+        assertNull(backend.requestedLastSync.get(0));
+        assertEquals(10, received.size());
+    }
+}
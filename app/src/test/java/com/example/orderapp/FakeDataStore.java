@@ -0,0 +1,117 @@
+package com.example.orderapp;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.core.model.query.QueryPaginationInput;
+import com.amplifyframework.core.model.query.QuerySortBy;
+import com.amplifyframework.core.model.query.QuerySortOrder;
+import com.amplifyframework.datastore.DataStoreException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A local store in memory for classes that take a {@link DataStoreQuery}. Queries answer
+ * on the calling thread with the stored rows that match the predicate, sorted and paged
+ * as asked; a model can be set to fail instead. Every query is recorded.
+ */
+final class FakeDataStore implements DataStoreQuery {
+    static final class Query {
+        final Class<? extends Model> itemClass;
+        final QueryOptions options;
+
+        Query(Class<? extends Model> itemClass, QueryOptions options) {
+            this.itemClass = itemClass;
+            this.options = options;
+        }
+    }
+
+    private final Map<Class<? extends Model>, Map<String, Model>> rows = new HashMap<>();
+    private final Map<Class<? extends Model>, DataStoreException> failures = new HashMap<>();
+    final List<Query> queries = new ArrayList<>();
+
+    synchronized FakeDataStore put(Model... models) {
+        for (Model model : models) {
+            rows.computeIfAbsent(model.getClass(), type -> new LinkedHashMap<>()).put(model.getId(), model);
+        }
+        return this;
+    }
+
+    synchronized void remove(Model model) {
+        Map<String, Model> table = rows.get(model.getClass());
+        if (table != null) {
+            table.remove(model.getId());
+        }
+    }
+
+    synchronized void failQueriesOf(Class<? extends Model> itemClass, DataStoreException error) {
+        failures.put(itemClass, error);
+    }
+
+    synchronized List<Query> queriesOf(Class<? extends Model> itemClass) {
+        List<Query> matching = new ArrayList<>();
+        for (Query query : queries) {
+            if (query.itemClass == itemClass) {
+                matching.add(query);
+            }
+        }
+        return matching;
+    }
+
+    @Override
+    public <T extends Model> void query(Class<T> itemClass,
+                                        QueryOptions options,
+                                        Consumer<Iterator<T>> onResult,
+                                        Consumer<DataStoreException> onError) {
+        List<T> matches = new ArrayList<>();
+        DataStoreException failure;
+        synchronized (this) {
+            queries.add(new Query(itemClass, options));
+            failure = failures.get(itemClass);
+            Map<String, Model> table = rows.get(itemClass);
+            if (failure == null && table != null) {
+                try {
+                    for (Model model : table.values()) {
+                        if (ModelAccessors.matches(options.getQueryPredicate(), model)) {
+                            matches.add(itemClass.cast(model));
+                        }
+                    }
+                } catch (AmplifyException error) {
+                    failure = new DataStoreException("Predicate failed", error, "Check the test's predicate.");
+                }
+            }
+        }
+        if (failure != null) {
+            onError.accept(failure);
+            return;
+        }
+        if (options.getSortBy() != null) {
+            ModelAccessor<T> accessor = ModelAccessors.of(itemClass);
+            for (QuerySortBy sortBy : reversed(options.getSortBy())) {
+                int field = accessor.fieldIndex(sortBy.getField());
+                Comparator<T> order = Comparator.comparing(model -> String.valueOf(accessor.get(model, field)));
+                matches.sort(sortBy.getSortOrder() == QuerySortOrder.DESCENDING ? order.reversed() : order);
+            }
+        }
+        QueryPaginationInput page = options.getPaginationInput();
+        if (page != null) {
+            int from = Math.min(matches.size(), page.getPage() * page.getLimit());
+            matches = new ArrayList<>(matches.subList(from, Math.min(matches.size(), from + page.getLimit())));
+        }
+        onResult.accept(matches.iterator());
+    }
+
+    private static <E> List<E> reversed(List<E> list) {
+        List<E> reversed = new ArrayList<>(list);
+        Collections.reverse(reversed);
+        return reversed;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.model.temporal.Temporal;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Serves one model's rows through {@link SyncPageSource} semantics: a base sync pages
+ * through every row, a delta sync through the rows changed since {@code lastSync}, and
+ * the next token is the offset of the next row. Tokens handed out before
+ * {@link #expireTokens} are rejected, as expired tokens are.
+ */
+class FakeSyncBackend implements SyncPageSource {
+    private final ModelAccessor<?> accessor;
+    private final List<JSONObject> rows = new ArrayList<>();
+    final List<Long> requestedLastSync = new ArrayList<>();
+    final List<String> requestedTokens = new ArrayList<>();
+    final List<Integer> requestedLimits = new ArrayList<>();
+    private int tokenGeneration;
+    long bytesServed;
+    int pagesServed;
+
+    FakeSyncBackend(String modelName, int rowCount) {
+        accessor = ModelAccessors.of(ModelRegistry.get().byName(modelName).type);
+        for (int i = 0; i < rowCount; i++) {
+            put(modelName, i);
+        }
+    }
+
+    void put(String modelName, int i) {
+        try {
+            rows.add(row(modelName, modelName + i)
+                    .put("_version", 1)
+                    .put("_deleted", false)
+                    .put("_lastChangedAt", System.currentTimeMillis()));
+        } catch (JSONException error) {
+            throw new AssertionError(error);
+        }
+    }
+
+    @Override
+    public SyncPage fetch(String modelName, Long lastSync, String nextToken, int limit) throws ApiException {
+        requestedLastSync.add(lastSync);
+        requestedTokens.add(nextToken);
+        requestedLimits.add(limit);
+        List<JSONObject> matching = new ArrayList<>();
+        for (JSONObject row : rows) {
+            if (lastSync == null || row.optLong("_lastChangedAt") > lastSync) {
+                matching.add(row);
+            }
+        }
+        int offset = 0;
+        if (nextToken != null) {
+            String[] token = nextToken.split(":");
+            if (token.length != 2 || !token[0].equals(String.valueOf(tokenGeneration))) {
+                throw new SyncTokenRejectedException(modelName,
+                        new ApiException("Invalid nextToken " + nextToken, "Start again without a token."));
+            }
+            offset = Integer.parseInt(token[1]);
+        }
+        int end = Math.min(offset + limit, matching.size());
+        List<JSONObject> items = matching.subList(offset, end);
+        long bytes = 0;
+        for (JSONObject item : items) {
+            bytes += item.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        bytesServed += bytes;
+        pagesServed++;
+        return new SyncPage(ModelAccessors.fromJson(accessor, new JSONArray(items)), new BitSet(),
+                end < matching.size() ? tokenGeneration + ":" + end : null, System.currentTimeMillis(), bytes);
+    }
+
+    /** A row with every settable scalar field of the model filled in, as AppSync would return it. */
+    static JSONObject row(String modelName, String id) {
+        ModelAccessor<?> accessor = ModelAccessors.of(ModelRegistry.get().byName(modelName).type);
+        JSONObject row = new JSONObject();
+        try {
+            for (int field = 0; field < accessor.fieldNames().size(); field++) {
+                String name = accessor.fieldNames().get(field);
+                Class<?> type = accessor.fieldTypes().get(field);
+                if (!accessor.isSettable(field)) {
+                    continue;
+                } else if (name.equals("id")) {
+                    row.put(name, id);
+                } else if (type == String.class) {
+                    row.put(name, modelName + " " + id);
+                } else if (type == Integer.class || type == Long.class || type == Double.class) {
+                    row.put(name, 1);
+                } else if (type == Boolean.class) {
+                    row.put(name, false);
+                } else if (type == Temporal.Time.class) {
+                    row.put(name, "09:00:00.000");
+                } else if (type == Temporal.DateTime.class) {
+                    row.put(name, "2022-01-20T09:00:00.000Z");
+                } else if (type == Temporal.Date.class) {
+                    row.put(name, "2022-01-20");
+                }
+            }
+        } catch (JSONException error) {
+            throw new AssertionError(error);
+        }
+        return row;
+    }
+
+    void expireTokens() {
+        tokenGeneration++;
+    }
+}
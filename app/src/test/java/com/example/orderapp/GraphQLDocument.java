@@ -0,0 +1,371 @@
+package com.example.orderapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One parsed GraphQL operation: its type, name and selection tree, with argument values
+ * kept as literals or {@link Variable} references until {@link #resolve} is given the
+ * request's variables. Covers what the generated and hand-built documents of the app use;
+ * fragments and directives are not supported.
+ */
+final class GraphQLDocument {
+    /** Where amplify codegen writes the app's documents, relative to the app module. */
+    static final File GENERATED = new File("src/main/graphql/com/amazonaws/amplify/generated/graphql");
+
+    private static final Pattern OPERATION = Pattern.compile("(?m)^(query|mutation|subscription)\\s+(\\w+)");
+
+    final String operation;
+    final String name;
+    final List<Selection> selections;
+
+    private GraphQLDocument(String operation, String name, List<Selection> selections) {
+        this.operation = operation;
+        this.name = name;
+        this.selections = selections;
+    }
+
+    static GraphQLDocument parse(String text) {
+        return new Parser(text).document();
+    }
+
+    /**
+     * Reads the generated {@code queries}, {@code mutations} and {@code subscriptions}
+     * documents.
+     *
+     * @return the text of each operation by its name, e.g. {@code GetOrder}
+     */
+    static Map<String, String> generatedOperations() throws IOException {
+        Map<String, String> operations = new LinkedHashMap<>();
+        for (String file : new String[] {"queries.graphql", "mutations.graphql", "subscriptions.graphql"}) {
+            String text = new String(Files.readAllBytes(new File(GENERATED, file).toPath()), StandardCharsets.UTF_8);
+            Matcher operation = OPERATION.matcher(text);
+            List<Integer> starts = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            while (operation.find()) {
+                starts.add(operation.start());
+                names.add(operation.group(2));
+            }
+            for (int i = 0; i < starts.size(); i++) {
+                int end = i + 1 < starts.size() ? starts.get(i + 1) : text.length();
+                operations.put(names.get(i), text.substring(starts.get(i), end).trim());
+            }
+        }
+        return operations;
+    }
+
+    /** @return the value with every {@link Variable} replaced by its value in the request */
+    static Object resolve(Object value, Map<String, Object> variables) {
+        if (value instanceof Variable) {
+            return variables.get(((Variable) value).name);
+        }
+        if (value instanceof Map) {
+            Map<String, Object> resolved = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                resolved.put((String) entry.getKey(), resolve(entry.getValue(), variables));
+            }
+            return resolved;
+        }
+        if (value instanceof List) {
+            List<Object> resolved = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                resolved.add(resolve(element, variables));
+            }
+            return resolved;
+        }
+        return value;
+    }
+
+    static final class Selection {
+        final String alias;
+        final String name;
+        final Map<String, Object> arguments;
+        /** Empty for a scalar field. */
+        final List<Selection> selections;
+
+        Selection(String alias, String name, Map<String, Object> arguments, List<Selection> selections) {
+            this.alias = alias;
+            this.name = name;
+            this.arguments = arguments;
+            this.selections = selections;
+        }
+
+        /** @return the key of this field in the response: its alias, or its name */
+        String responseKey() {
+            return alias != null ? alias : name;
+        }
+
+        Object argument(String argument, Map<String, Object> variables) {
+            return resolve(arguments.get(argument), variables);
+        }
+
+        Selection child(String childName) {
+            for (Selection selection : selections) {
+                if (selection.name.equals(childName)) {
+                    return selection;
+                }
+            }
+            return null;
+        }
+    }
+
+    static final class Variable {
+        final String name;
+
+        Variable(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        GraphQLDocument document() {
+            skipIgnored();
+            String operation = "query";
+            String name = null;
+            if (peek() != '{') {
+                operation = name();
+                skipIgnored();
+                if (peek() != '(' && peek() != '{') {
+                    name = name();
+                    skipIgnored();
+                }
+                if (peek() == '(') {
+                    skipVariableDefinitions();
+                }
+            }
+            return new GraphQLDocument(operation, name, selectionSet());
+        }
+
+        private List<Selection> selectionSet() {
+            expect('{');
+            List<Selection> selections = new ArrayList<>();
+            while (true) {
+                skipIgnored();
+                if (peek() == '}') {
+                    position++;
+                    return selections;
+                }
+                selections.add(selection());
+            }
+        }
+
+        private Selection selection() {
+            String alias = null;
+            String name = name();
+            skipIgnored();
+            if (peek() == ':') {
+                position++;
+                skipIgnored();
+                alias = name;
+                name = name();
+                skipIgnored();
+            }
+            Map<String, Object> arguments = Collections.emptyMap();
+            if (peek() == '(') {
+                arguments = arguments();
+                skipIgnored();
+            }
+            List<Selection> selections = Collections.emptyList();
+            if (peek() == '{') {
+                selections = selectionSet();
+            }
+            return new Selection(alias, name, arguments, selections);
+        }
+
+        private Map<String, Object> arguments() {
+            expect('(');
+            Map<String, Object> arguments = new LinkedHashMap<>();
+            while (true) {
+                skipIgnored();
+                if (peek() == ')') {
+                    position++;
+                    return arguments;
+                }
+                String name = name();
+                skipIgnored();
+                expect(':');
+                arguments.put(name, value());
+            }
+        }
+
+        private Object value() {
+            skipIgnored();
+            char c = peek();
+            if (c == '$') {
+                position++;
+                return new Variable(name());
+            }
+            if (c == '"') {
+                return string();
+            }
+            if (c == '[') {
+                position++;
+                List<Object> list = new ArrayList<>();
+                while (true) {
+                    skipIgnored();
+                    if (peek() == ']') {
+                        position++;
+                        return list;
+                    }
+                    list.add(value());
+                }
+            }
+            if (c == '{') {
+                position++;
+                Map<String, Object> object = new LinkedHashMap<>();
+                while (true) {
+                    skipIgnored();
+                    if (peek() == '}') {
+                        position++;
+                        return object;
+                    }
+                    String name = name();
+                    skipIgnored();
+                    expect(':');
+                    object.put(name, value());
+                }
+            }
+            if (c == '-' || Character.isDigit(c)) {
+                int start = position++;
+                while (position < text.length() && "0123456789.eE+-".indexOf(text.charAt(position)) >= 0) {
+                    position++;
+                }
+                String number = text.substring(start, position);
+                return number.contains(".") || number.contains("e") || number.contains("E")
+                        ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+            }
+            String word = name();
+            switch (word) {
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                case "null":
+                    return null;
+                default:
+                    // An enum value.
+                    return word;
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c == '\\') {
+                    char escaped = text.charAt(position++);
+                    switch (escaped) {
+                        case 'n':
+                            value.append('\n');
+                            break;
+                        case 't':
+                            value.append('\t');
+                            break;
+                        case 'r':
+                            value.append('\r');
+                            break;
+                        case 'b':
+                            value.append('\b');
+                            break;
+                        case 'f':
+                            value.append('\f');
+                            break;
+                        case 'u':
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                            position += 4;
+                            break;
+                        default:
+                            value.append(escaped);
+                            break;
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+        }
+
+        /** Skips {@code ($name: Type = default, ...)}; values come from the request's variables. */
+        private void skipVariableDefinitions() {
+            int depth = 0;
+            do {
+                char c = text.charAt(position++);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '"') {
+                    position--;
+                    string();
+                }
+            } while (depth > 0);
+            skipIgnored();
+        }
+
+        private String name() {
+            int start = position;
+            while (position < text.length()
+                    && (Character.isLetterOrDigit(text.charAt(position)) || text.charAt(position) == '_')) {
+                position++;
+            }
+            if (start == position) {
+                throw error("a name");
+            }
+            return text.substring(start, position);
+        }
+
+        private void expect(char c) {
+            skipIgnored();
+            if (peek() != c) {
+                throw error("'" + c + "'");
+            }
+            position++;
+        }
+
+        private char peek() {
+            if (position >= text.length()) {
+                throw error("more input");
+            }
+            return text.charAt(position);
+        }
+
+        /** Whitespace, commas and comments are insignificant in GraphQL. */
+        private void skipIgnored() {
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (c == '#') {
+                    while (position < text.length() && text.charAt(position) != '\n') {
+                        position++;
+                    }
+                } else if (Character.isWhitespace(c) || c == ',') {
+                    position++;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private IllegalArgumentException error(String expected) {
+            return new IllegalArgumentException("Expected " + expected + " at offset " + position + " of the document");
+        }
+    }
+}
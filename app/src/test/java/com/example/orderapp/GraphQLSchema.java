@@ -0,0 +1,297 @@
+package com.example.orderapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code @model} types of an Amplify schema.graphql, read line by line: their fields,
+ * primary keys and {@code @index} secondary indexes, {@code xxxID} references to other
+ * models and {@code @hasMany} connections.
+ * Enough of the schema language for the load generator and the local AppSync stand-in,
+ * not a general GraphQL SDL parser.
+ */
+final class GraphQLSchema {
+    /** The schema of the app, relative to the app module where unit tests run. */
+    static final File APP_SCHEMA = new File("../amplify/backend/api/orderapp/schema.graphql");
+
+    private static final Pattern TYPE = Pattern.compile("^type\\s+(\\w+)\\s+([^{]*)\\{");
+    private static final Pattern FIELD = Pattern.compile("^(\\w+)\\s*:\\s*(\\[?)\\s*(\\w+)\\s*(!?)\\s*(\\]?)\\s*(!?)(.*)$");
+    private static final Pattern SORT_KEYS = Pattern.compile("sortKeyFields\\s*:\\s*\\[([^\\]]*)\\]");
+    private static final Pattern PRIMARY_KEY = Pattern.compile("@primaryKey\\s*(?:\\(([^)]*)\\))?");
+    private static final Pattern INDEX = Pattern.compile("@index\\s*\\(([^)]*)\\)");
+    private static final Pattern INDEX_NAME = Pattern.compile("\\bname\\s*:\\s*\"(\\w+)\"");
+    private static final Pattern QUERY_FIELD = Pattern.compile("queryField\\s*:\\s*\"(\\w+)\"");
+    private static final Pattern HAS_MANY_INDEX = Pattern.compile("@hasMany\\s*\\([^)]*indexName\\s*:\\s*\"(\\w+)\"");
+
+    private final Map<String, Model> models = new LinkedHashMap<>();
+
+    static GraphQLSchema read(File file) throws IOException {
+        return parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    static GraphQLSchema parse(String text) {
+        GraphQLSchema schema = new GraphQLSchema();
+        Model current = null;
+        for (String rawLine : text.split("\n")) {
+            int comment = rawLine.indexOf('#');
+            String line = (comment >= 0 ? rawLine.substring(0, comment) : rawLine).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            Matcher type = TYPE.matcher(line);
+            if (type.find()) {
+                current = type.group(2).contains("@model") ? new Model(type.group(1)) : null;
+                if (current != null) {
+                    schema.models.put(current.name, current);
+                }
+                continue;
+            }
+            if (line.startsWith("}")) {
+                current = null;
+                continue;
+            }
+            Matcher field = FIELD.matcher(line);
+            if (current != null && field.matches()) {
+                boolean list = !field.group(2).isEmpty();
+                boolean required = list ? !field.group(6).isEmpty() : !field.group(4).isEmpty();
+                current.fields.put(field.group(1),
+                        new Field(field.group(1), field.group(3), required, list, field.group(7).trim()));
+            }
+        }
+        for (Model model : schema.models.values()) {
+            model.resolveKeys(schema);
+        }
+        // Connections point at the children's indexes, so every model's keys come first.
+        for (Model model : schema.models.values()) {
+            model.resolveConnections(schema);
+        }
+        return schema;
+    }
+
+    Collection<Model> models() {
+        return Collections.unmodifiableCollection(models.values());
+    }
+
+    /** @return the model, or null if the schema has none of that name */
+    Model model(String name) {
+        return models.get(name);
+    }
+
+    /** @return the model whose plural is {@code plural}, e.g. Inventory for Inventories, or null */
+    Model modelByPlural(String plural) {
+        for (Model model : models.values()) {
+            if (model.plural().equals(plural)) {
+                return model;
+            }
+        }
+        return null;
+    }
+
+    /** @return the index whose {@code queryField} is {@code queryField}, or null */
+    Index indexByQueryField(String queryField) {
+        for (Model model : models.values()) {
+            for (Index index : model.indexes) {
+                if (queryField.equals(index.queryField)) {
+                    return index;
+                }
+            }
+        }
+        return null;
+    }
+
+    static final class Model {
+        final String name;
+        final Map<String, Field> fields = new LinkedHashMap<>();
+        private final List<String> primaryKey = new ArrayList<>();
+        private final List<Index> indexes = new ArrayList<>();
+        private Index primaryIndex;
+
+        Model(String name) {
+            this.name = name;
+        }
+
+        /** @return the key fields, {@code id} unless a field declares {@code @primaryKey} */
+        List<String> primaryKey() {
+            return primaryKey;
+        }
+
+        /** @return the primary key as an index: its first field partitions, the rest sort */
+        Index primaryIndex() {
+            return primaryIndex;
+        }
+
+        /** @return the secondary indexes declared with {@code @index} */
+        List<Index> indexes() {
+            return Collections.unmodifiableList(indexes);
+        }
+
+        /** @return the fields stored on the record itself, leaving out connections */
+        List<Field> storedFields() {
+            List<Field> stored = new ArrayList<>();
+            for (Field field : fields.values()) {
+                if (field.connection == null) {
+                    stored.add(field);
+                }
+            }
+            return stored;
+        }
+
+        /** @return the fields holding another model's id */
+        List<Field> references() {
+            List<Field> references = new ArrayList<>();
+            for (Field field : fields.values()) {
+                if (field.referencedModel != null) {
+                    references.add(field);
+                }
+            }
+            return references;
+        }
+
+        /** @return the name in list and sync operations, as the Amplify codegen forms it */
+        String plural() {
+            if (name.endsWith("y") && name.length() > 1 && "aeiou".indexOf(name.charAt(name.length() - 2)) < 0) {
+                return name.substring(0, name.length() - 1) + "ies";
+            }
+            if (name.endsWith("s") || name.endsWith("x") || name.endsWith("ch") || name.endsWith("sh")) {
+                return name + "es";
+            }
+            return name + "s";
+        }
+
+        private void resolveKeys(GraphQLSchema schema) {
+            for (Field field : fields.values()) {
+                Matcher key = PRIMARY_KEY.matcher(field.directives);
+                if (key.find()) {
+                    primaryKey.add(field.name);
+                    primaryKey.addAll(sortKeys(key.group(1) != null ? key.group(1) : ""));
+                }
+                Matcher index = INDEX.matcher(field.directives);
+                while (index.find()) {
+                    Matcher indexName = INDEX_NAME.matcher(index.group(1));
+                    Matcher queryField = QUERY_FIELD.matcher(index.group(1));
+                    indexes.add(new Index(this, indexName.find() ? indexName.group(1) : null,
+                            queryField.find() ? queryField.group(1) : null, field.name, sortKeys(index.group(1))));
+                }
+                if (field.type.equals("ID") && field.name.endsWith("ID") && !field.list) {
+                    String target = field.name.substring(0, field.name.length() - 2);
+                    for (Model model : schema.models.values()) {
+                        if (model.name.equalsIgnoreCase(target)) {
+                            field.referencedModel = model.name;
+                        }
+                    }
+                }
+            }
+            if (primaryKey.isEmpty()) {
+                primaryKey.add("id");
+            }
+            primaryIndex = new Index(this, null, null, primaryKey.get(0), primaryKey.subList(1, primaryKey.size()));
+        }
+
+        private void resolveConnections(GraphQLSchema schema) {
+            for (Field field : fields.values()) {
+                Model child = schema.models.get(field.type);
+                if (!field.list || child == null) {
+                    continue;
+                }
+                Matcher indexName = HAS_MANY_INDEX.matcher(field.directives);
+                field.connection = child.name;
+                // A connection without an index name uses the child's primary key.
+                field.connectionIndex = indexName.find() ? child.index(indexName.group(1)) : child.primaryIndex;
+                field.connectionField = field.connectionIndex != null ? field.connectionIndex.partitionField : null;
+            }
+        }
+
+        private Index index(String indexName) {
+            for (Index index : indexes) {
+                if (indexName.equals(index.name)) {
+                    return index;
+                }
+            }
+            return null;
+        }
+
+        private static List<String> sortKeys(String directives) {
+            Matcher sortKeys = SORT_KEYS.matcher(directives);
+            if (!sortKeys.find()) {
+                return Collections.emptyList();
+            }
+            List<String> keys = new ArrayList<>();
+            for (String key : Arrays.asList(sortKeys.group(1).split(","))) {
+                keys.add(key.trim().replace("\"", ""));
+            }
+            return keys;
+        }
+
+        @Override
+        public String toString() {
+            return name + fields.keySet();
+        }
+    }
+
+    static final class Field {
+        final String name;
+        /** The element type for a list, e.g. {@code Order} for {@code [Order]}. */
+        final String type;
+        final boolean required;
+        final boolean list;
+        final String directives;
+        /** For an {@code xxxID} field, the model it points to. */
+        String referencedModel;
+        /** For a {@code @hasMany} field, the child model and the child's field holding this id. */
+        String connection;
+        String connectionField;
+        Index connectionIndex;
+
+        Field(String name, String type, boolean required, boolean list, String directives) {
+            this.name = name;
+            this.type = type;
+            this.required = required;
+            this.list = list;
+            this.directives = directives;
+        }
+    }
+
+    /**
+     * A key of a model's table: rows with the same partition field value, ordered by the
+     * sort key fields. A composite sort key compares as its values joined by {@code #}, the
+     * way AppSync stores it.
+     */
+    static final class Index {
+        final Model model;
+        /** Null for the primary key. */
+        final String name;
+        /** The query operation generated for the index, or null. */
+        final String queryField;
+        final String partitionField;
+        final List<String> sortKeyFields;
+
+        Index(Model model, String name, String queryField, String partitionField, List<String> sortKeyFields) {
+            this.model = model;
+            this.name = name;
+            this.queryField = queryField;
+            this.partitionField = partitionField;
+            this.sortKeyFields = Collections.unmodifiableList(new ArrayList<>(sortKeyFields));
+        }
+
+        /** @return the argument holding the sort key condition, e.g. {@code statusDate} */
+        String sortKeyArgument() {
+            StringBuilder argument = new StringBuilder();
+            for (String field : sortKeyFields) {
+                argument.append(argument.length() == 0 ? field
+                        : Character.toUpperCase(field.charAt(0)) + field.substring(1));
+            }
+            return argument.toString();
+        }
+    }
+}
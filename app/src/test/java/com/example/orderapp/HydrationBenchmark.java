@@ -0,0 +1,149 @@
+package com.example.orderapp;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.amplifyframework.datastore.generated.model.Order;
+import com.amplifyframework.util.GsonFactory;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 100,000 orders hydrated from a page of AppSync rows and filtered in memory, with the
+ * generated {@link ModelAccessor} against reflection: Gson's field-by-field adapter as
+ * DataStore uses it, a reflective {@link Field#set} over the already parsed rows, and
+ * Amplify's own {@link QueryPredicate#evaluate}, which looks each field up by name.
+ */
+public class HydrationBenchmark {
+    private static final int ORDERS = 100_000;
+    private static final int ROUNDS = 5;
+    private static final String[] STATUSES = {"InProcess", "Shipped", "Delivered", "Returned"};
+
+    private static volatile long sink;
+
+    @Test
+    public void accessorsVersusReflection() throws Exception {
+        Random random = new Random(42);
+        JSONArray rows = new JSONArray();
+        for (int i = 0; i < ORDERS; i++) {
+            rows.put(new JSONObject()
+                    .put("id", "O-" + i)
+                    .put("customerID", "C-" + random.nextInt(5_000))
+                    .put("accountRepresentativeID", "AR-" + random.nextInt(50))
+                    .put("productID", "P-" + random.nextInt(900))
+                    .put("status", STATUSES[random.nextInt(STATUSES.length)])
+                    .put("amount", 1 + random.nextInt(500))
+                    .put("date", SortableDates.orderDate(1_600_000_000_000L + random.nextInt(1_000_000_000)))
+                    .put("awsTimeValue", "09:15:00.000"));
+        }
+        String page = rows.toString();
+        ModelAccessor<Order> accessor = ModelAccessors.of(Order.class);
+        Gson gson = GsonFactory.instance();
+        assertEquals(gson.fromJson(rows.getJSONObject(7).toString(), Order.class),
+                ModelAccessors.fromJson(accessor, rows.getJSONObject(7)));
+
+        double gsonPage = best(() -> sink = gson.fromJson(page, Order[].class).length);
+        double streamed = best(() -> {
+            try {
+                sink = ModelAccessors.fromJson(accessor, new JsonReader(new StringReader(page))).size();
+            } catch (IOException error) {
+                throw new AssertionError(error);
+            }
+        });
+        double treePage = best(() -> sink = ModelAccessors.fromJson(accessor, new JSONArray(page)).size());
+        System.out.println(String.format(Locale.US,
+                "%,d orders from the page text: Gson %.0f ms, JsonReader + accessor %.0f ms (%.1fx), "
+                        + "org.json + accessor %.0f ms",
+                ORDERS, gsonPage, streamed, gsonPage / streamed, treePage));
+
+        Field[] fields = new Field[accessor.fieldNames().size()];
+        for (int field = 0; field < fields.length; field++) {
+            fields[field] = Order.class.getDeclaredField(accessor.fieldNames().get(field));
+            fields[field].setAccessible(true);
+        }
+        double reflective = best(() -> {
+            List<Order> orders = new ArrayList<>(ORDERS);
+            try {
+                for (int i = 0; i < ORDERS; i++) {
+                    JSONObject row = rows.getJSONObject(i);
+                    Order order = Order.justId(row.getString("id"));
+                    for (int field = 1; field < fields.length; field++) {
+                        Object value = row.opt(fields[field].getName());
+                        if (value != null) {
+                            Class<?> type = fields[field].getType();
+                            fields[field].set(order, type == Temporal.Time.class
+                                    ? new Temporal.Time(value.toString()) : value);
+                        }
+                    }
+                    orders.add(order);
+                }
+            } catch (IllegalAccessException error) {
+                throw new AssertionError(error);
+            }
+            sink = orders.size();
+        });
+        double accessorRows = best(() -> sink = ModelAccessors.fromJson(accessor, rows).size());
+        System.out.println(String.format(Locale.US,
+                "%,d orders from parsed rows: reflective Field.set %.0f ms, accessor %.0f ms (%.1fx)",
+                ORDERS, reflective, accessorRows, reflective / accessorRows));
+
+        List<Order> orders = ModelAccessors.fromJson(accessor, rows);
+        QueryPredicate predicate = Order.STATUS.eq("Shipped").and(Order.AMOUNT.gt(250));
+        int[] matched = new int[2];
+        double amplify = best(() -> {
+            int count = 0;
+            try {
+                for (Order order : orders) {
+                    if (predicate.evaluate(order)) {
+                        count++;
+                    }
+                }
+            } catch (AmplifyException error) {
+                throw new AssertionError(error);
+            }
+            matched[0] = count;
+        });
+        double generated = best(() -> {
+            int count = 0;
+            try {
+                for (Order order : orders) {
+                    if (ModelAccessors.matches(predicate, order)) {
+                        count++;
+                    }
+                }
+            } catch (AmplifyException error) {
+                throw new AssertionError(error);
+            }
+            matched[1] = count;
+        });
+        assertEquals(matched[0], matched[1]);
+        System.out.println(String.format(Locale.US,
+                "status == Shipped && amount > 250 over %,d orders (%,d match): "
+                        + "QueryPredicate.evaluate %.1f ms, accessor %.1f ms (%.1fx)",
+                ORDERS, matched[1], amplify, generated, amplify / generated));
+    }
+
+    private static double best(Runnable run) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.orderapp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class InMemorySyncStateStore implements SyncStateStore {
+    private final Map<String, Long> values = new HashMap<>();
+    private final Map<String, SyncCheckpoint> checkpoints = new HashMap<>();
+
+    private long get(String key) {
+        Long value = values.get(key);
+        return value == null ? 0 : value;
+    }
+
+    @Override
+    public long getLastSync(String modelName) {
+        return get(modelName + ".lastSync");
+    }
+
+    @Override
+    public void setLastSync(String modelName, long startedAt) {
+        values.put(modelName + ".lastSync", startedAt);
+    }
+
+    @Override
+    public long getBaseSyncBytes(String modelName) {
+        return get(modelName + ".baseBytes");
+    }
+
+    @Override
+    public long getBaseSyncMillis(String modelName) {
+        return get(modelName + ".baseMillis");
+    }
+
+    @Override
+    public void setBaseSyncCost(String modelName, long bytes, long millis) {
+        values.put(modelName + ".baseBytes", bytes);
+        values.put(modelName + ".baseMillis", millis);
+    }
+
+    @Override
+    public SyncCheckpoint getCheckpoint(String modelName) {
+        return checkpoints.get(modelName);
+    }
+
+    @Override
+    public void saveCheckpoint(String modelName, SyncCheckpoint checkpoint) {
+        checkpoints.put(modelName, checkpoint);
+    }
+
+    @Override
+    public void clearCheckpoint(String modelName) {
+        checkpoints.remove(modelName);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Inventory;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.example.orderapp.WarehouseShardedStoreTest.inventory;
+import static org.junit.Assert.*;
+
+public class InventoryColumnsTest {
+    @Test
+    public void updaterKeepsOneRowPerWarehouseAndProduct() {
+        InventoryColumns columns = new InventoryColumns();
+        ModelFeed.Listener<Inventory> updater = columns.updater();
+        updater.loaded(Arrays.asList(inventory("P1", "W1", 100), inventory("P2", "W1", 50),
+                inventory("P1", "W2", 7)));
+        updater.changed(inventory("P1", "W1", 90), false);
+        updater.changed(inventory("P2", "W1", 50), true);
+
+        assertEquals(3, columns.size());
+        assertEquals(90, columns.amount("W1", "P1"));
+        assertEquals(0, columns.amount("W1", "P2"));
+        assertEquals(0, columns.amount("W3", "P1"));
+        assertEquals(97, columns.totalAmount());
+        assertArrayEquals(new long[] {90, 7}, columns.sumBy(InventoryColumns.Dimension.WAREHOUSE));
+        assertEquals(Long.valueOf(97), columns.totalsBy(InventoryColumns.Dimension.PRODUCT).get("P1"));
+        assertEquals(Long.valueOf(0), columns.totalsBy(InventoryColumns.Dimension.PRODUCT).get("P2"));
+    }
+
+    @Test
+    public void growsPastItsInitialCapacity() {
+        InventoryColumns columns = new InventoryColumns();
+        for (int i = 0; i < 1_000; i++) {
+            columns.put(inventory("P" + i, "W" + i % 4, 1));
+        }
+        assertEquals(1_000, columns.size());
+        assertArrayEquals(new long[] {250, 250, 250, 250}, columns.sumBy(InventoryColumns.Dimension.WAREHOUSE));
+    }
+}
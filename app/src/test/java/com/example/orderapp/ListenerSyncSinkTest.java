@@ -0,0 +1,75 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Customer;
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Inventory;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ListenerSyncSinkTest {
+    private final NameSearchIndex names = new NameSearchIndex();
+    private final WarehouseShardedStore warehouses = new WarehouseShardedStore();
+    private final ListenerSyncSink sink = new ListenerSyncSink()
+            .add(Customer.class, NameSearchFeed.customers(names))
+            .add(Employee.class, NameSearchFeed.employees(names))
+            .add(Employee.class, WarehouseStoreFeed.employees(warehouses))
+            .add(Inventory.class, WarehouseStoreFeed.inventory(warehouses));
+
+    private static SyncPage page(String modelName, JSONArray items) throws Exception {
+        String plural = GraphQLSelections.pluralOf(modelName);
+        return GraphQLSyncPageSource.parse(modelName, new JSONObject().put("sync" + plural, new JSONObject()
+                .put("items", items).put("nextToken", JSONObject.NULL).put("startedAt", 1000)).toString());
+    }
+
+    @Test
+    public void appliesRowsAndTombstonesToEveryListenerOfTheModel() throws Exception {
+        names.put(NameSearchIndex.Kind.CUSTOMER, "c1", "Ada");
+        sink.accept("Customer", page("Customer", new JSONArray()
+                .put(FakeSyncBackend.row("Customer", "c1").put("_deleted", true))
+                .put(FakeSyncBackend.row("Customer", "c2").put("name", "Bo").put("_deleted", false))
+                .put(FakeSyncBackend.row("Customer", "c2").put("name", "Bob").put("_deleted", false))));
+        sink.accept("Employee", page("Employee", new JSONArray()
+                .put(FakeSyncBackend.row("Employee", "e1").put("warehouseID", "W1").put("_deleted", false))));
+        sink.accept("Inventory", page("Inventory", new JSONArray()
+                .put(FakeSyncBackend.row("Inventory", "i1").put("productID", "P1").put("warehouseID", "W1")
+                        .put("inventoryAmount", 7).put("_deleted", false))));
+
+        assertTrue(names.search("Ada", 0, 10).isEmpty());
+        assertEquals("Bob", names.search("Bob", 0, 10).get(0).getName());
+        assertEquals("e1", warehouses.employees("W1").get(0).getId());
+        assertEquals(1, names.search(warehouses.employees("W1").get(0).getName(), 0, 10).size());
+        assertEquals(Integer.valueOf(7), warehouses.inventory("W1", "P1").getInventoryAmount());
+    }
+
+    @Test
+    public void syncsOnlyTheModelsWithListeners() throws Exception {
+        assertEquals(Arrays.asList("Customer", "Employee", "Inventory"), sink.modelNames());
+        // Rows of another model are dropped rather than failing the sync.
+        sink.accept("Product", page("Product", new JSONArray()
+                .put(FakeSyncBackend.row("Product", "P1").put("_deleted", false))));
+        assertEquals(0, names.size());
+    }
+
+    @Test
+    public void deltaSyncBringsTheIndexOnlyTheChanges() throws Exception {
+        FakeSyncBackend backend = new FakeSyncBackend("Customer", 20);
+        InMemorySyncStateStore state = new InMemorySyncStateStore();
+        DeltaSyncController controller = new DeltaSyncController(backend, state, sink);
+
+        controller.sync("Customer");
+        assertEquals(20, names.size());
+
+        Thread.sleep(5);
+        backend.put("Customer", 20);
+        DeltaSyncController.Report delta = controller.sync("Customer");
+        assertEquals(DeltaSyncController.Mode.DELTA, delta.getMode());
+        assertEquals(1, delta.getRecords());
+        assertEquals(21, names.size());
+    }
+}
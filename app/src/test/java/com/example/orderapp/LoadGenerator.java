@@ -0,0 +1,310 @@
+package com.example.orderapp;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Generates a dataset for the models of a {@link GraphQLSchema}: records as the JSON
+ * input of their create mutations, keyed by model in an order where every record comes
+ * after the records it points to.
+ *
+ * <p>How many records a model gets is configured either as a plain {@link #count} or as a
+ * range {@link #per} record of a parent model. An {@code xxxID} field that is not the
+ * parent field points to a record of that model picked at random, unless a record already
+ * chosen for the same row points there too: an Order of a Customer takes the Customer's
+ * {@code accountRepresentativeID}, so the dataset stays consistent across paths. Composite
+ * primary keys (Inventory's {@code productID} + {@code warehouseID}) are kept unique.
+ * Scalar values follow the field's name and type; the same seed gives the same dataset.
+ */
+final class LoadGenerator {
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Alan", "Barbara", "Claude", "Donald", "Edsger", "Frances", "Grace", "Hedy", "John",
+            "Katherine", "Linus", "Margaret", "Niklaus", "Radia", "Shafi", "Tim", "Vint", "Whitfield", "Yukihiro"};
+    private static final String[] LAST_NAMES = {
+            "Lovelace", "Turing", "Liskov", "Shannon", "Knuth", "Dijkstra", "Allen", "Hopper", "Lamarr", "McCarthy",
+            "Johnson", "Torvalds", "Hamilton", "Wirth", "Perlman", "Goldwasser", "Berners-Lee", "Cerf", "Diffie",
+            "Matsumoto"};
+    private static final String[] PRODUCTS = {
+            "Widget", "Gadget", "Sprocket", "Gizmo", "Bracket", "Flange", "Valve", "Gasket", "Bearing", "Coupling"};
+    private static final String[] STREETS = {"Main", "Oak", "Pine", "Maple", "Cedar", "Elm", "Lake", "Hill"};
+    private static final String[] CITIES = {"Seattle", "Portland", "Denver", "Austin", "Boston", "Chicago"};
+    private static final String[] STATES = {"WA", "OR", "CO", "TX", "MA", "IL"};
+    private static final String[] STATUSES = {"InProcess", "Shipped", "Delivered", "Cancelled"};
+    private static final String[] JOB_TITLES = {"Helper", "Picker", "Driver", "Supervisor", "Manager"};
+    private static final long TWO_YEARS_MILLIS = 2 * 365 * TemporalCodec.MILLIS_PER_DAY;
+    private static final int KEY_ATTEMPTS = 20;
+
+    private final GraphQLSchema schema;
+    private final Random random;
+    private final long now;
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final Map<String, PerParent> perParent = new HashMap<>();
+
+    LoadGenerator(GraphQLSchema schema, long seed) {
+        this.schema = schema;
+        this.random = new Random(seed);
+        this.now = TemporalCodec.parseDateTimeMillis("2022-06-30T00:00:00Z");
+    }
+
+    /**
+     * A retail-shaped dataset around {@code customers} customers: 1-3 addresses and 0-10
+     * orders each, one representative per 50 customers, one product per 10, and one
+     * warehouse per 1,000 with 5-30 employees and 10-50 stocked products each.
+     */
+    static LoadGenerator retail(GraphQLSchema schema, int customers, long seed) {
+        return new LoadGenerator(schema, seed)
+                .count("AccountRepresentative", Math.max(1, customers / 50))
+                .count("Customer", customers)
+                .per("Address", "customerID", 1, 3)
+                .count("Product", Math.max(10, customers / 10))
+                .per("Order", "customerID", 0, 10)
+                .count("Warehouse", Math.max(1, customers / 1_000))
+                .per("Employee", "warehouseID", 5, 30)
+                .per("Inventory", "warehouseID", 10, 50);
+    }
+
+    LoadGenerator count(String model, int count) {
+        requireModel(model);
+        counts.put(model, count);
+        perParent.remove(model);
+        return this;
+    }
+
+    /** Gives every record pointed to by {@code parentField} between min and max records of the model. */
+    LoadGenerator per(String model, String parentField, int min, int max) {
+        GraphQLSchema.Field field = requireModel(model).fields.get(parentField);
+        if (field == null || field.referencedModel == null) {
+            throw new IllegalArgumentException(model + "." + parentField + " does not point to a model");
+        }
+        perParent.put(model, new PerParent(field, min, max));
+        counts.remove(model);
+        return this;
+    }
+
+    /** @return the records of every configured model, parents before children */
+    Map<String, List<JSONObject>> generate() {
+        Map<String, List<JSONObject>> dataset = new LinkedHashMap<>();
+        Map<String, Map<String, JSONObject>> byId = new HashMap<>();
+        for (GraphQLSchema.Model model : dependencyOrder()) {
+            List<JSONObject> records = new ArrayList<>();
+            Map<String, JSONObject> ids = new HashMap<>();
+            Set<String> keys = new HashSet<>();
+            PerParent per = perParent.get(model.name);
+            if (per != null) {
+                List<JSONObject> parents = dataset.get(per.field.referencedModel);
+                if (parents == null) {
+                    throw new IllegalStateException(model.name + " is generated per "
+                            + per.field.referencedModel + ", which has no count");
+                }
+                for (JSONObject parent : parents) {
+                    int count = per.min + random.nextInt(per.max - per.min + 1);
+                    for (int i = 0; i < count; i++) {
+                        add(model, parent.optString("id"), per.field, records.size(), dataset, byId, keys, records, ids);
+                    }
+                }
+            } else if (counts.containsKey(model.name)) {
+                for (int i = 0; i < counts.get(model.name); i++) {
+                    add(model, null, null, records.size(), dataset, byId, keys, records, ids);
+                }
+            } else {
+                continue;
+            }
+            dataset.put(model.name, records);
+            byId.put(model.name, ids);
+        }
+        return dataset;
+    }
+
+    private void add(GraphQLSchema.Model model, String parentId, GraphQLSchema.Field parentField, int index,
+                     Map<String, List<JSONObject>> dataset, Map<String, Map<String, JSONObject>> byId,
+                     Set<String> keys, List<JSONObject> records, Map<String, JSONObject> ids) {
+        for (int attempt = 0; attempt < KEY_ATTEMPTS; attempt++) {
+            JSONObject record = record(model, parentId, parentField, index, dataset, byId);
+            if (record == null) {
+                return;
+            }
+            StringBuilder key = new StringBuilder();
+            for (String keyField : model.primaryKey()) {
+                key.append(record.opt(keyField)).append('\u0000');
+            }
+            if (keys.add(key.toString())) {
+                records.add(record);
+                ids.put(record.optString("id"), record);
+                return;
+            }
+        }
+    }
+
+    /** @return a new record, or null when a required reference has nothing to point to */
+    private JSONObject record(GraphQLSchema.Model model, String parentId, GraphQLSchema.Field parentField, int index,
+                              Map<String, List<JSONObject>> dataset, Map<String, Map<String, JSONObject>> byId) {
+        JSONObject record = new JSONObject();
+        try {
+            if (parentField != null) {
+                record.put(parentField.name, parentId);
+            }
+            for (GraphQLSchema.Field field : model.references()) {
+                if (record.has(field.name)) {
+                    continue;
+                }
+                String id = sharedReference(record, model, field, byId);
+                if (id == null) {
+                    List<JSONObject> targets = dataset.get(field.referencedModel);
+                    if (targets == null || targets.isEmpty()) {
+                        if (field.required) {
+                            return null;
+                        }
+                        continue;
+                    }
+                    id = targets.get(random.nextInt(targets.size())).optString("id");
+                }
+                record.put(field.name, id);
+            }
+            for (GraphQLSchema.Field field : model.storedFields()) {
+                if (!record.has(field.name)) {
+                    Object value = value(model, field, index);
+                    if (value != null) {
+                        record.put(field.name, value);
+                    }
+                }
+            }
+        } catch (JSONException error) {
+            throw new AssertionError(error);
+        }
+        return record;
+    }
+
+    /** @return the id that a record this row already points to holds in the same field, or null */
+    private static String sharedReference(JSONObject record, GraphQLSchema.Model model, GraphQLSchema.Field field,
+                                          Map<String, Map<String, JSONObject>> byId) {
+        for (GraphQLSchema.Field chosen : model.references()) {
+            String chosenId = record.optString(chosen.name, null);
+            Map<String, JSONObject> targets = byId.get(chosen.referencedModel);
+            JSONObject target = chosenId != null && targets != null ? targets.get(chosenId) : null;
+            if (target != null && target.has(field.name)) {
+                return target.optString(field.name);
+            }
+        }
+        return null;
+    }
+
+    private Object value(GraphQLSchema.Model model, GraphQLSchema.Field field, int index) {
+        if (field.list) {
+            return null;
+        }
+        switch (field.name) {
+            case "id":
+                return new UUID(random.nextLong(), random.nextLong()).toString();
+            case "name":
+                if (model.name.equals("Product")) {
+                    return pick(PRODUCTS) + " " + Integer.toString(index, 36).toUpperCase(Locale.ROOT);
+                }
+                if (model.name.equals("Customer") || model.name.equals("Employee")) {
+                    return pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+                }
+                return model.name + " " + index;
+            case "phoneNumber":
+                return String.format(Locale.US, "555-%03d-%04d", random.nextInt(1_000), random.nextInt(10_000));
+            case "address":
+                return (1 + random.nextInt(9_999)) + " " + pick(STREETS) + " St";
+            case "city":
+                return pick(CITIES);
+            case "state":
+                return pick(STATES);
+            case "status":
+                return pick(STATUSES);
+            case "jobTitle":
+                return pick(JOB_TITLES);
+            case "newHire":
+                return random.nextInt(10) == 0 ? "yes" : "no";
+            case "date":
+                return SortableDates.orderDate(now - (long) (random.nextDouble() * TWO_YEARS_MILLIS));
+            case "startDate":
+                return SortableDates.startDate(now - (long) (random.nextDouble() * 5 * TWO_YEARS_MILLIS));
+            case "salesPeriod":
+                return "2022";
+            case "amount":
+                return 1 + random.nextInt(500);
+            case "inventoryAmount":
+                return random.nextInt(1_000);
+            case "orderTotal":
+                return 0;
+            default:
+                break;
+        }
+        switch (field.type) {
+            case "ID":
+            case "String":
+                return field.name + "-" + Integer.toString(random.nextInt(Integer.MAX_VALUE), 36);
+            case "Int":
+                return random.nextInt(1_000);
+            case "Float":
+                return random.nextDouble() * 1_000;
+            case "Boolean":
+                return random.nextBoolean();
+            case "AWSTime":
+                return TemporalCodec.formatTimeNanos((long) (random.nextDouble() * TemporalCodec.NANOS_PER_DAY));
+            case "AWSDate":
+                return TemporalCodec.formatDate(now - (long) (random.nextDouble() * TWO_YEARS_MILLIS));
+            case "AWSDateTime":
+                return TemporalCodec.formatDateTimeMillis(now - (long) (random.nextDouble() * TWO_YEARS_MILLIS));
+            default:
+                return null;
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /** @return the models ordered so that every model comes after the models it points to */
+    private List<GraphQLSchema.Model> dependencyOrder() {
+        List<GraphQLSchema.Model> ordered = new ArrayList<>();
+        Set<String> visiting = new HashSet<>();
+        for (GraphQLSchema.Model model : schema.models()) {
+            visit(model, ordered, visiting);
+        }
+        return ordered;
+    }
+
+    private void visit(GraphQLSchema.Model model, List<GraphQLSchema.Model> ordered, Set<String> visiting) {
+        if (ordered.contains(model) || !visiting.add(model.name)) {
+            return;
+        }
+        for (GraphQLSchema.Field reference : model.references()) {
+            visit(schema.model(reference.referencedModel), ordered, visiting);
+        }
+        ordered.add(model);
+    }
+
+    private GraphQLSchema.Model requireModel(String name) {
+        GraphQLSchema.Model model = schema.model(name);
+        if (model == null) {
+            throw new IllegalArgumentException("No model " + name + " in the schema");
+        }
+        return model;
+    }
+
+    private static final class PerParent {
+        final GraphQLSchema.Field field;
+        final int min;
+        final int max;
+
+        PerParent(GraphQLSchema.Field field, int min, int max) {
+            this.field = field;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
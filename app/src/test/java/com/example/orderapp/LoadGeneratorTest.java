@@ -0,0 +1,87 @@
+package com.example.orderapp;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LoadGeneratorTest {
+    @Test
+    public void readsTheAppSchema() throws IOException {
+        GraphQLSchema schema = GraphQLSchema.read(GraphQLSchema.APP_SCHEMA);
+        for (GraphQLSchema.Model model : schema.models()) {
+            assertEquals(model.name, GraphQLSelections.pluralOf(model.name), model.plural());
+        }
+        assertEquals(Arrays.asList("productID", "warehouseID"), schema.model("Inventory").primaryKey());
+        assertEquals("Customer", schema.model("Order").fields.get("customerID").referencedModel);
+        assertEquals("AccountRepresentative",
+                schema.model("Order").fields.get("accountRepresentativeID").referencedModel);
+
+        GraphQLSchema.Field addresses = schema.model("Customer").fields.get("address");
+        assertEquals("Address", addresses.connection);
+        assertEquals("customerID", addresses.connectionField);
+        assertEquals("productID", schema.model("Product").fields.get("inventories").connectionField);
+        assertTrue(schema.model("Order").fields.get("amount").required);
+        assertFalse(schema.model("Order").fields.get("awsTimeValue").required);
+    }
+
+    @Test
+    public void generatesReferentiallyConsistentData() throws IOException {
+        GraphQLSchema schema = GraphQLSchema.read(GraphQLSchema.APP_SCHEMA);
+        Map<String, List<JSONObject>> dataset = LoadGenerator.retail(schema, 2_000, 42).generate();
+
+        // Schema order, with every model moved after the models it points to.
+        assertEquals(Arrays.asList("AccountRepresentative", "Customer", "Product", "Order",
+                "Warehouse", "Employee", "Inventory", "Address"), new ArrayList<>(dataset.keySet()));
+        assertEquals(2_000, dataset.get("Customer").size());
+        assertEquals(40, dataset.get("AccountRepresentative").size());
+        int addresses = dataset.get("Address").size();
+        assertTrue(addresses >= 2_000 && addresses <= 6_000);
+
+        Map<String, Map<String, JSONObject>> byId = new HashMap<>();
+        for (Map.Entry<String, List<JSONObject>> model : dataset.entrySet()) {
+            Map<String, JSONObject> ids = new HashMap<>();
+            for (JSONObject record : model.getValue()) {
+                assertNull("duplicate id", ids.put(record.getString("id"), record));
+                for (GraphQLSchema.Field field : schema.model(model.getKey()).storedFields()) {
+                    if (field.required) {
+                        assertTrue(model.getKey() + "." + field.name, record.has(field.name));
+                    }
+                }
+                for (GraphQLSchema.Field reference : schema.model(model.getKey()).references()) {
+                    assertTrue(model.getKey() + "." + reference.name, byId.get(reference.referencedModel)
+                            .containsKey(record.getString(reference.name)));
+                }
+            }
+            byId.put(model.getKey(), ids);
+        }
+
+        for (JSONObject order : dataset.get("Order")) {
+            JSONObject customer = byId.get("Customer").get(order.getString("customerID"));
+            assertEquals(customer.getString("accountRepresentativeID"), order.getString("accountRepresentativeID"));
+            assertTrue(SortableDates.isOrderDate(order.getString("date")));
+        }
+        Set<String> inventoryKeys = new HashSet<>();
+        for (JSONObject inventory : dataset.get("Inventory")) {
+            assertTrue(inventoryKeys.add(inventory.getString("productID") + "/" + inventory.getString("warehouseID")));
+        }
+    }
+
+    @Test
+    public void sameSeedSameDataset() throws IOException {
+        GraphQLSchema schema = GraphQLSchema.read(GraphQLSchema.APP_SCHEMA);
+        assertEquals(LoadGenerator.retail(schema, 100, 7).generate().toString(),
+                LoadGenerator.retail(schema, 100, 7).generate().toString());
+        assertNotEquals(LoadGenerator.retail(schema, 100, 7).generate().toString(),
+                LoadGenerator.retail(schema, 100, 8).generate().toString());
+    }
+}
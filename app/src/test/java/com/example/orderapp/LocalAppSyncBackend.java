@@ -0,0 +1,833 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the AppSync API of a {@link GraphQLSchema}, answering the
+ * operations of the generated queries, mutations and subscriptions documents, and the
+ * documents the app builds itself:
+ * <ul>
+ *     <li>{@code create}, {@code update} and {@code delete<Model>} with a {@code condition},
+ *     with conflict detection on: deletes only mark the row {@code _deleted}, and a stale
+ *     {@code _version} is resolved by the {@link ConflictHandler}, AUTOMERGE as in the app's
+ *     {@code transform.conf.json} unless another is given;</li>
+ *     <li>{@code get<Model>}, {@code list<Models>} and the {@code queryField}s of
+ *     {@code @index}es with a sort key condition and {@code sortDirection};</li>
+ *     <li>{@code sync<Models>} with {@code lastSync};</li>
+ *     <li>{@code onCreate}, {@code onUpdate} and {@code onDelete<Model>} through
+ *     {@link #subscribe}.</li>
+ * </ul>
+ * Lists take a {@code filter}, {@code limit} and {@code nextToken}; like a DynamoDB page,
+ * a page holds at most {@code limit} rows before the filter is applied. {@code @hasMany}
+ * fields resolve to a page of the children. Rows carry the metadata ({@code _version},
+ * {@code _deleted}, {@code _lastChangedAt}) and timestamps that AppSync adds.
+ *
+ * <p>Requests run on a small thread pool, as responses arrive on network threads, and
+ * answers and subscription messages are held back for the {@link NetworkConditions} set
+ * with {@link #setNetwork}. {@link #executeNow} skips both, for tests.
+ */
+class LocalAppSyncBackend implements GraphQLTransport, SubscriptionTransport {
+    /** How an update or delete that names a stale {@code _version} is resolved. */
+    enum ConflictHandler {
+        /**
+         * An update is merged into the stored row: a field the row has no value for takes
+         * the update's, a list takes the union of both, and any other field keeps the stored
+         * value. The merge is written at the next {@code _version} and answered as a success.
+         * A stale delete, or an update of a deleted row, fails as {@code ConflictUnhandled}.
+         */
+        AUTOMERGE,
+        /** The mutation fails with a {@code ConflictUnhandled} error holding the stored row. */
+        OPTIMISTIC_CONCURRENCY
+    }
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final String CREATE = "create";
+    private static final String UPDATE = "update";
+    private static final String DELETE = "delete";
+
+    final GraphQLSchema schema;
+    private final ScheduledExecutorService executor;
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+    private final Map<String, GraphQLDocument> documents = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    /** Orders every write, so a sync token is the sequence number of the last row served. */
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConflictHandler conflictHandler;
+    private volatile NetworkConditions network = NetworkConditions.NONE;
+
+    LocalAppSyncBackend(GraphQLSchema schema, int threads) {
+        this(schema, threads, ConflictHandler.AUTOMERGE);
+    }
+
+    LocalAppSyncBackend(GraphQLSchema schema, int threads, ConflictHandler conflictHandler) {
+        this.schema = schema;
+        this.executor = Executors.newScheduledThreadPool(threads);
+        this.conflictHandler = conflictHandler;
+    }
+
+    /** Applies to requests and subscription messages from now on. */
+    void setNetwork(NetworkConditions network) {
+        this.network = network;
+    }
+
+    @Override
+    public void execute(String document,
+                        Map<String, Object> variables,
+                        Consumer<String> onData,
+                        Consumer<ApiException> onError) {
+        long received = System.nanoTime();
+        Map<String, Object> values = variables != null ? variables : Collections.<String, Object>emptyMap();
+        executor.execute(() -> {
+            String data;
+            try {
+                data = executeNow(document, values);
+            } catch (ApiException error) {
+                deliver(received, requestBytes(document, values) + String.valueOf(error.getMessage()).length(),
+                        () -> onError.accept(error));
+                return;
+            }
+            deliver(received, requestBytes(document, values) + data.length(), () -> onData.accept(data));
+        });
+    }
+
+    @Override
+    public Cancelable subscribe(String document,
+                                Map<String, Object> variables,
+                                Consumer<String> onData,
+                                Consumer<ApiException> onError,
+                                Action onComplete) {
+        // The stand-in's subscriptions end only when cancelled, so onComplete is never called.
+        Subscriber subscriber;
+        try {
+            GraphQLDocument parsed = parse(document);
+            if (!parsed.operation.equals("subscription") || parsed.selections.size() != 1) {
+                throw new ApiException("Expected a subscription to one field", "Use a generated subscription.");
+            }
+            GraphQLDocument.Selection field = parsed.selections.get(0);
+            String event = null;
+            for (String mutation : new String[] {CREATE, UPDATE, DELETE}) {
+                if (field.name.startsWith("on" + capitalize(mutation))) {
+                    event = mutation;
+                }
+            }
+            if (event == null) {
+                throw unknown(field.name);
+            }
+            GraphQLSchema.Model model = model(field.name.substring(("on" + event).length()));
+            Map<String, Object> values = variables != null ? variables : Collections.<String, Object>emptyMap();
+            subscriber = new Subscriber(model, event, field, field.argument("filter", values), onData);
+        } catch (ApiException error) {
+            onError.accept(error);
+            return () -> { };
+        }
+        subscribers.add(subscriber);
+        return () -> {
+            subscriber.active = false;
+            subscribers.remove(subscriber);
+        };
+    }
+
+    /** Runs a query or mutation on the calling thread; @return the JSON of the {@code data} object */
+    String executeNow(String document, Map<String, Object> variables) throws ApiException {
+        GraphQLDocument parsed = parse(document);
+        if (parsed.operation.equals("subscription")) {
+            throw new ApiException("Subscriptions are not executed", "Open them with subscribe().");
+        }
+        JSONObject data = new JSONObject();
+        try {
+            for (GraphQLDocument.Selection field : parsed.selections) {
+                data.put(field.responseKey(), resolve(parsed.operation, field, variables));
+            }
+        } catch (JSONException error) {
+            throw new ApiException("Could not build the response", error, "Check the selection set.");
+        } catch (IllegalArgumentException error) {
+            throw new ApiException(error.getMessage(), error, "Check the arguments.");
+        }
+        return data.toString();
+    }
+
+    /** @return the number of rows of the model, deleted ones included */
+    int rowCount(String modelName) {
+        Table table = tables.get(modelName);
+        return table != null ? table.rows.size() : 0;
+    }
+
+    /** @return the number of open subscriptions */
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    Object resolve(String operation, GraphQLDocument.Selection field, Map<String, Object> variables)
+            throws ApiException, JSONException {
+        String name = field.name;
+        if (operation.equals("mutation")) {
+            for (String mutation : new String[] {CREATE, UPDATE, DELETE}) {
+                if (name.startsWith(mutation)) {
+                    GraphQLSchema.Model model = model(name.substring(mutation.length()));
+                    Object condition = field.argument("condition", variables);
+                    return project(model, write(model, mutation, input(field, variables), condition), field.selections);
+                }
+            }
+            throw unknown(name);
+        }
+        if (!operation.equals("query")) {
+            throw unknown(operation);
+        }
+        GraphQLSchema.Index index = schema.indexByQueryField(name);
+        if (index != null) {
+            return query(index, field.argument(index.partitionField, variables), field, variables);
+        }
+        if (name.startsWith("get")) {
+            GraphQLSchema.Model model = model(name.substring("get".length()));
+            JSONObject row = table(model).rows.get(keyOf(model, field, variables));
+            return row != null ? project(model, row, field.selections) : JSONObject.NULL;
+        }
+        if (name.startsWith("list")) {
+            return scan(modelByPlural(name.substring("list".length())), field, variables, false);
+        }
+        if (name.startsWith("sync")) {
+            return scan(modelByPlural(name.substring("sync".length())), field, variables, true);
+        }
+        throw unknown(name);
+    }
+
+    JSONObject create(GraphQLSchema.Model model, JSONObject input) throws ApiException, JSONException {
+        return write(model, CREATE, input, null);
+    }
+
+    /**
+     * Applies a mutation to the model's table and tells the subscribers of the event.
+     *
+     * @return the row as written
+     */
+    private JSONObject write(GraphQLSchema.Model model, String mutation, JSONObject input, Object condition)
+            throws ApiException, JSONException {
+        if (mutation.equals(CREATE) && !input.has("id")) {
+            input.put("id", UUID.randomUUID().toString());
+        }
+        Table table = table(model);
+        String key = keyOf(model, input);
+        synchronized (table) {
+            JSONObject existing = table.rows.get(key);
+            JSONObject row;
+            if (mutation.equals(CREATE)) {
+                if (existing != null && !existing.optBoolean("_deleted")) {
+                    throw new GraphQLError("ConditionalCheckFailedException", model.name + " " + key + " already exists",
+                            null, "Update the existing record instead.");
+                }
+                row = input;
+            } else {
+                if (existing == null) {
+                    throw new GraphQLError("ConditionalCheckFailedException", model.name + " " + key + " does not exist",
+                            null, "Create the record first.");
+                }
+                boolean stale = !input.has("_version") || input.optInt("_version") != existing.optInt("_version");
+                if (existing.optBoolean("_deleted") || stale && (mutation.equals(DELETE)
+                        || conflictHandler == ConflictHandler.OPTIMISTIC_CONCURRENCY)) {
+                    throw new GraphQLError("ConflictUnhandled", "Conflict resolver rejects mutation.", existing,
+                            "Merge the returned record and retry with its _version.");
+                }
+                row = new JSONObject(existing, JSONObject.getNames(existing));
+                if (mutation.equals(UPDATE)) {
+                    for (String name : JSONObject.getNames(input)) {
+                        row.put(name, stale ? merged(existing.opt(name), input.get(name)) : input.get(name));
+                    }
+                }
+            }
+            if (!matches(existing != null ? existing : new JSONObject(), condition)) {
+                throw new GraphQLError("ConditionalCheckFailedException", "The conditional request failed", null,
+                        "Check the condition.");
+            }
+            long now = System.currentTimeMillis();
+            String timestamp = TemporalCodec.formatDateTimeMillis(now);
+            if (mutation.equals(CREATE)) {
+                row.put("createdAt", timestamp);
+            }
+            row.put("updatedAt", timestamp)
+                    .put("_version", existing != null ? existing.optInt("_version") + 1 : 1)
+                    .put("_deleted", mutation.equals(DELETE))
+                    .put("_lastChangedAt", now);
+            table.write(key, row, sequence.incrementAndGet());
+            // Under the table's lock, so subscribers see the writes of a row in order.
+            publish(model, mutation, row);
+            return row;
+        }
+    }
+
+    /** @return AUTOMERGE's value of a field a stale update sets to {@code incoming} */
+    static Object merged(Object stored, Object incoming) {
+        if (stored == null || stored == JSONObject.NULL) {
+            return incoming;
+        }
+        if (stored instanceof JSONArray && incoming instanceof JSONArray) {
+            JSONArray union = new JSONArray();
+            Set<String> seen = new HashSet<>();
+            for (JSONArray list : new JSONArray[] {(JSONArray) stored, (JSONArray) incoming}) {
+                for (int i = 0; i < list.length(); i++) {
+                    if (seen.add(String.valueOf(list.get(i)))) {
+                        union.put(list.get(i));
+                    }
+                }
+            }
+            return union;
+        }
+        return stored;
+    }
+
+    private void publish(GraphQLSchema.Model model, String mutation, JSONObject row)
+            throws ApiException, JSONException {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.model == model && subscriber.event.equals(mutation) && matches(row, subscriber.filter)) {
+                subscriber.send(new JSONObject()
+                        .put(subscriber.field.responseKey(), project(model, row, subscriber.field.selections))
+                        .toString());
+            }
+        }
+    }
+
+    /** A list or sync page, following the order rows were last written in. */
+    private JSONObject scan(GraphQLSchema.Model model, GraphQLDocument.Selection field, Map<String, Object> variables,
+                            boolean sync) throws ApiException, JSONException {
+        int limit = limit(field, variables);
+        long after = token(field, variables);
+        Object filter = field.argument("filter", variables);
+        Object lastSyncValue = sync ? field.argument("lastSync", variables) : null;
+        long lastSync = lastSyncValue instanceof Number ? ((Number) lastSyncValue).longValue() : Long.MIN_VALUE;
+        long startedAt = System.currentTimeMillis();
+
+        Table table = table(model);
+        JSONArray items = new JSONArray();
+        GraphQLDocument.Selection itemSelection = field.child("items");
+        long last = after;
+        int read = 0;
+        boolean more = false;
+        for (Map.Entry<Long, String> change : table.changes.tailMap(after, false).entrySet()) {
+            if (read == limit) {
+                more = true;
+                break;
+            }
+            last = change.getKey();
+            JSONObject row = table.rows.get(change.getValue());
+            // A row written again since is served at its later position.
+            if (row == null || !change.getKey().equals(table.latest.get(change.getValue()))
+                    || row.optLong("_lastChangedAt") < lastSync) {
+                continue;
+            }
+            read++;
+            if (matches(row, filter)) {
+                items.put(itemSelection != null ? project(model, row, itemSelection.selections) : row);
+            }
+        }
+        return new JSONObject()
+                .put("items", items)
+                .put("nextToken", more ? String.valueOf(last) : JSONObject.NULL)
+                .put("startedAt", sync ? (Object) startedAt : JSONObject.NULL);
+    }
+
+    /** A page of the rows of one partition of an index, in sort key order. */
+    private JSONObject query(GraphQLSchema.Index index, Object partition, GraphQLDocument.Selection field,
+                             Map<String, Object> variables) throws ApiException, JSONException {
+        if (partition == null || partition == JSONObject.NULL) {
+            throw new ApiException(field.name + " needs " + index.partitionField, "Pass the partition key.");
+        }
+        int limit = limit(field, variables);
+        long offset = token(field, variables);
+        Object filter = field.argument("filter", variables);
+        Object keyCondition = index.sortKeyFields.isEmpty()
+                ? null : field.argument(index.sortKeyArgument(), variables);
+        boolean descending = "DESC".equals(field.argument("sortDirection", variables));
+
+        Table table = table(index.model);
+        List<JSONObject> rows = new ArrayList<>();
+        for (String key : table.partition(index, partition.toString())) {
+            JSONObject row = table.rows.get(key);
+            if (row != null && (keyCondition == null || condition(sortKey(index, row), sortKeyOperands(index, keyCondition)))) {
+                rows.add(row);
+            }
+        }
+        Comparator<JSONObject> order = (a, b) -> compare(sortKey(index, a), sortKey(index, b));
+        order = order.thenComparing(row -> row.optString("id"));
+        rows.sort(descending ? order.reversed() : order);
+
+        JSONArray items = new JSONArray();
+        GraphQLDocument.Selection itemSelection = field.child("items");
+        int end = (int) Math.min(rows.size(), offset + limit);
+        for (int i = (int) offset; i < end; i++) {
+            JSONObject row = rows.get(i);
+            if (matches(row, filter)) {
+                items.put(itemSelection != null ? project(index.model, row, itemSelection.selections) : row);
+            }
+        }
+        return new JSONObject()
+                .put("items", items)
+                .put("nextToken", end < rows.size() ? String.valueOf(end) : JSONObject.NULL)
+                .put("startedAt", JSONObject.NULL);
+    }
+
+    /** @return the selected fields of the row; an absent scalar is null, a connection a page of children */
+    JSONObject project(GraphQLSchema.Model model, JSONObject row, List<GraphQLDocument.Selection> selections)
+            throws ApiException, JSONException {
+        if (selections.isEmpty()) {
+            return row;
+        }
+        JSONObject projected = new JSONObject();
+        for (GraphQLDocument.Selection selection : selections) {
+            GraphQLSchema.Field field = model.fields.get(selection.name);
+            Object value;
+            if (field != null && field.connectionIndex != null) {
+                value = query(field.connectionIndex, row.opt("id"), selection, Collections.<String, Object>emptyMap());
+            } else if (selection.name.equals("__typename")) {
+                value = model.name;
+            } else {
+                value = row.opt(selection.name);
+            }
+            projected.put(selection.responseKey(), value != null ? value : JSONObject.NULL);
+        }
+        return projected;
+    }
+
+    GraphQLSchema.Model model(String name) throws ApiException {
+        GraphQLSchema.Model model = schema.model(name);
+        if (model == null) {
+            throw unknown(name);
+        }
+        return model;
+    }
+
+    private GraphQLSchema.Model modelByPlural(String plural) throws ApiException {
+        GraphQLSchema.Model model = schema.modelByPlural(plural);
+        if (model == null) {
+            throw unknown(plural);
+        }
+        return model;
+    }
+
+    Table table(GraphQLSchema.Model model) {
+        return tables.computeIfAbsent(model.name, name -> new Table(model));
+    }
+
+    private GraphQLDocument parse(String document) throws ApiException {
+        try {
+            return documents.computeIfAbsent(document, GraphQLDocument::parse);
+        } catch (IllegalArgumentException error) {
+            throw new ApiException("Malformed document: " + error.getMessage(), error, "Check the document.");
+        }
+    }
+
+    /** Calls back once the network conditions let the answer arrive. */
+    private void deliver(long receivedNanos, long bytes, Runnable callback) {
+        long delay = network.delayNanos(receivedNanos, bytes) - (System.nanoTime() - receivedNanos);
+        if (delay <= 0) {
+            callback.run();
+        } else {
+            executor.schedule(callback, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long requestBytes(String document, Map<String, Object> variables) {
+        return network.limitsBandwidth() ? document.length() + new JSONObject(variables).toString().length() : 0;
+    }
+
+    private static int limit(GraphQLDocument.Selection field, Map<String, Object> variables) {
+        Object limit = field.argument("limit", variables);
+        return limit instanceof Number ? ((Number) limit).intValue() : DEFAULT_LIMIT;
+    }
+
+    private static long token(GraphQLDocument.Selection field, Map<String, Object> variables) throws ApiException {
+        Object token = field.argument("nextToken", variables);
+        try {
+            return token != null && token != JSONObject.NULL ? Long.parseLong(token.toString()) : 0;
+        } catch (NumberFormatException error) {
+            throw new ApiException("Invalid nextToken " + token, error, "Start again without a token.");
+        }
+    }
+
+    /**
+     * Evaluates a {@code Model<X>FilterInput}, {@code Model<X>ConditionInput} or subscription
+     * filter against a row: field conditions, {@code and}, {@code or} and {@code not}.
+     */
+    static boolean matches(JSONObject row, Object filter) {
+        if (!(filter instanceof Map)) {
+            return true;
+        }
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) filter).entrySet()) {
+            Object operand = entry.getValue();
+            if (operand == null) {
+                continue;
+            }
+            switch ((String) entry.getKey()) {
+                case "and":
+                    for (Object part : (List<?>) operand) {
+                        if (!matches(row, part)) {
+                            return false;
+                        }
+                    }
+                    break;
+                case "or":
+                    boolean any = false;
+                    for (Object part : (List<?>) operand) {
+                        any |= matches(row, part);
+                    }
+                    if (!any) {
+                        return false;
+                    }
+                    break;
+                case "not":
+                    if (matches(row, operand)) {
+                        return false;
+                    }
+                    break;
+                default:
+                    if (!condition(row.opt((String) entry.getKey()), (Map<?, ?>) operand)) {
+                        return false;
+                    }
+                    break;
+            }
+        }
+        return true;
+    }
+
+    private static boolean condition(Object value, Map<?, ?> condition) {
+        Object actual = value == JSONObject.NULL ? null : value;
+        for (Map.Entry<?, ?> entry : condition.entrySet()) {
+            Object operand = entry.getValue();
+            boolean holds;
+            switch ((String) entry.getKey()) {
+                case "eq":
+                    holds = equal(actual, operand);
+                    break;
+                case "ne":
+                    holds = !equal(actual, operand);
+                    break;
+                case "gt":
+                    holds = actual != null && compare(actual, operand) > 0;
+                    break;
+                case "ge":
+                    holds = actual != null && compare(actual, operand) >= 0;
+                    break;
+                case "lt":
+                    holds = actual != null && compare(actual, operand) < 0;
+                    break;
+                case "le":
+                    holds = actual != null && compare(actual, operand) <= 0;
+                    break;
+                case "between":
+                    List<?> range = (List<?>) operand;
+                    holds = actual != null && compare(actual, range.get(0)) >= 0 && compare(actual, range.get(1)) <= 0;
+                    break;
+                case "beginsWith":
+                    holds = actual != null && actual.toString().startsWith(operand.toString());
+                    break;
+                case "contains":
+                    holds = contains(actual, operand);
+                    break;
+                case "notContains":
+                    holds = !contains(actual, operand);
+                    break;
+                case "in":
+                    holds = in(actual, (List<?>) operand);
+                    break;
+                case "notIn":
+                    holds = !in(actual, (List<?>) operand);
+                    break;
+                case "attributeExists":
+                    holds = (actual != null) == Boolean.TRUE.equals(operand);
+                    break;
+                default:
+                    throw new IllegalArgumentException("The stand-in does not implement the " + entry.getKey()
+                            + " condition");
+            }
+            if (!holds) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equal(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a instanceof Number && b instanceof Number ? compare(a, b) == 0 : a.toString().equals(b.toString());
+    }
+
+    private static int compare(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        }
+        return String.valueOf(a).compareTo(String.valueOf(b));
+    }
+
+    private static boolean contains(Object value, Object operand) {
+        if (value instanceof JSONArray) {
+            JSONArray elements = (JSONArray) value;
+            for (int i = 0; i < elements.length(); i++) {
+                if (equal(elements.opt(i), operand)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return value != null && value.toString().contains(operand.toString());
+    }
+
+    private static boolean in(Object value, List<?> operands) {
+        for (Object operand : operands) {
+            if (equal(value, operand)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return the row's sort key value for the index: the field's value, or a composite key joined */
+    private static Object sortKey(GraphQLSchema.Index index, JSONObject row) {
+        if (index.sortKeyFields.size() == 1) {
+            Object value = row.opt(index.sortKeyFields.get(0));
+            return value == JSONObject.NULL ? null : value;
+        }
+        StringBuilder key = new StringBuilder();
+        for (String field : index.sortKeyFields) {
+            key.append(key.length() > 0 ? "#" : "").append(row.opt(field));
+        }
+        return key.toString();
+    }
+
+    /** A composite sort key condition names each field; its operands compare joined. */
+    private static Map<?, ?> sortKeyOperands(GraphQLSchema.Index index, Object condition) {
+        Map<String, Object> operands = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) condition).entrySet()) {
+            Object operand = entry.getValue();
+            if (operand instanceof List) {
+                List<Object> joined = new ArrayList<>();
+                for (Object element : (List<?>) operand) {
+                    joined.add(joinKey(index, element));
+                }
+                operand = joined;
+            } else {
+                operand = joinKey(index, operand);
+            }
+            operands.put((String) entry.getKey(), operand);
+        }
+        return operands;
+    }
+
+    private static Object joinKey(GraphQLSchema.Index index, Object operand) {
+        if (!(operand instanceof Map)) {
+            return operand;
+        }
+        StringBuilder key = new StringBuilder();
+        for (String field : index.sortKeyFields) {
+            Object value = ((Map<?, ?>) operand).get(field);
+            if (value == null) {
+                break;
+            }
+            key.append(key.length() > 0 ? "#" : "").append(value);
+        }
+        return key.toString();
+    }
+
+    static JSONObject input(GraphQLDocument.Selection field, Map<String, Object> variables) throws ApiException {
+        Object input = field.argument("input", variables);
+        if (input instanceof JSONObject) {
+            return new JSONObject(input.toString());
+        }
+        if (!(input instanceof Map)) {
+            throw new ApiException("Missing input for " + field.name, "Pass the record as $input.");
+        }
+        return new JSONObject((Map<?, ?>) input);
+    }
+
+    /** @return the primary key of a record, its key field values joined */
+    static String keyOf(GraphQLSchema.Model model, JSONObject record) throws ApiException {
+        StringBuilder key = new StringBuilder();
+        for (String field : model.primaryKey()) {
+            Object value = record.opt(field);
+            if (value == null) {
+                throw new ApiException(model.name + " needs its key field " + field, "Pass every key field.");
+            }
+            key.append(key.length() > 0 ? "#" : "").append(value);
+        }
+        return key.toString();
+    }
+
+    /** @return the primary key named by the arguments of a {@code get} */
+    static String keyOf(GraphQLSchema.Model model, GraphQLDocument.Selection field, Map<String, Object> variables)
+            throws ApiException {
+        Map<String, Object> key = new HashMap<>();
+        for (String keyField : model.primaryKey()) {
+            key.put(keyField, field.argument(keyField, variables));
+        }
+        return keyOf(model, new JSONObject(key));
+    }
+
+    static ApiException unknown(String name) {
+        return new ApiException("The stand-in does not implement " + name, "Use an operation of the generated documents.");
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /** An error AppSync reports with an {@code errorType}, and for a conflict the row as stored. */
+    static final class GraphQLError extends ApiException {
+        final String errorType;
+        final JSONObject data;
+
+        GraphQLError(String errorType, String message, JSONObject data, String recoverySuggestion) {
+            super(errorType + ": " + message, recoverySuggestion);
+            this.errorType = errorType;
+            this.data = data;
+        }
+    }
+
+    /**
+     * A model's rows by primary key, the order they were last written in, and the keys in
+     * each partition of its primary key and indexes. Rows are never changed once written.
+     */
+    static final class Table {
+        final Map<String, JSONObject> rows = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<Long, String> changes = new ConcurrentSkipListMap<>();
+        final Map<String, Long> latest = new ConcurrentHashMap<>();
+        private final Map<GraphQLSchema.Index, Map<String, Set<String>>> partitions = new HashMap<>();
+
+        Table(GraphQLSchema.Model model) {
+            partitions.put(model.primaryIndex(), new ConcurrentHashMap<>());
+            for (GraphQLSchema.Index index : model.indexes()) {
+                partitions.put(index, new ConcurrentHashMap<>());
+            }
+        }
+
+        /** Must hold the table's lock. */
+        void write(String key, JSONObject row, long sequence) {
+            JSONObject previous = rows.put(key, row);
+            Long previousSequence = latest.put(key, sequence);
+            changes.put(sequence, key);
+            if (previousSequence != null) {
+                changes.remove(previousSequence);
+            }
+            for (Map.Entry<GraphQLSchema.Index, Map<String, Set<String>>> index : partitions.entrySet()) {
+                String field = index.getKey().partitionField;
+                if (previous != null && previous.opt(field) != null) {
+                    Set<String> keys = index.getValue().get(previous.opt(field).toString());
+                    if (keys != null) {
+                        keys.remove(key);
+                    }
+                }
+                // Like a DynamoDB index, a row without the partition field is left out.
+                Object value = row.opt(field);
+                if (value != null && value != JSONObject.NULL) {
+                    index.getValue().computeIfAbsent(value.toString(), partition -> ConcurrentHashMap.newKeySet())
+                            .add(key);
+                }
+            }
+        }
+
+        /** @return the keys of the rows in a partition of the index */
+        Collection<String> partition(GraphQLSchema.Index index, String value) {
+            Map<String, Set<String>> keys = partitions.get(index);
+            Set<String> partition = keys != null ? keys.get(value) : null;
+            return partition != null ? partition : Collections.<String>emptySet();
+        }
+    }
+
+    /** One open subscription; its messages arrive in the order they were sent. */
+    private final class Subscriber {
+        final GraphQLSchema.Model model;
+        final String event;
+        final GraphQLDocument.Selection field;
+        final Object filter;
+        private final Consumer<String> onData;
+        private final ArrayDeque<Message> pending = new ArrayDeque<>();
+        private long lastDue = Long.MIN_VALUE;
+        private boolean scheduled;
+        volatile boolean active = true;
+
+        Subscriber(GraphQLSchema.Model model, String event, GraphQLDocument.Selection field, Object filter,
+                   Consumer<String> onData) {
+            this.model = model;
+            this.event = event;
+            this.field = field;
+            this.filter = filter;
+            this.onData = onData;
+        }
+
+        void send(String message) {
+            long now = System.nanoTime();
+            long due;
+            synchronized (this) {
+                due = Math.max(lastDue, now + network.delayNanos(now, message.length()));
+                lastDue = due;
+                pending.add(new Message(message, due));
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            executor.schedule(this::drain, due - now, TimeUnit.NANOSECONDS);
+        }
+
+        private void drain() {
+            while (true) {
+                String message;
+                synchronized (this) {
+                    Message next = pending.peek();
+                    if (next == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    long wait = next.due - System.nanoTime();
+                    if (wait > 0) {
+                        executor.schedule(this::drain, wait, TimeUnit.NANOSECONDS);
+                        return;
+                    }
+                    pending.poll();
+                    message = next.data;
+                }
+                if (active) {
+                    onData.accept(message);
+                }
+            }
+        }
+    }
+
+    private static final class Message {
+        final String data;
+        final long due;
+
+        Message(String data, long due) {
+            this.data = data;
+            this.due = due;
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LocalAppSyncBackendTest {
+    private LocalAppSyncBackend backend;
+
+    @Before
+    public void setUp() throws IOException {
+        backend = new LocalAppSyncBackend(GraphQLSchema.read(GraphQLSchema.APP_SCHEMA), 2);
+    }
+
+    @After
+    public void tearDown() {
+        backend.close();
+    }
+
+    private JSONObject create(String model, JSONObject input) throws Exception {
+        String data = backend.executeNow(SoakHarness.mutation(model),
+                Collections.<String, Object>singletonMap("input", input.toMap()));
+        return new JSONObject(data).getJSONObject("create" + model);
+    }
+
+    @Test
+    public void createsRowsWithSyncMetadata() throws Exception {
+        JSONObject product = create("Product", new JSONObject().put("id", "P1").put("name", "Widget"));
+        assertEquals("P1", product.getString("id"));
+        assertEquals(1, product.getInt("_version"));
+        assertFalse(product.getBoolean("_deleted"));
+        assertTrue(product.getLong("_lastChangedAt") > 0);
+        assertTrue(SortableDates.isOrderDate(product.getString("createdAt")));
+
+        try {
+            create("Product", new JSONObject().put("id", "P1").put("name", "Again"));
+            fail("created the same id twice");
+        } catch (ApiException expected) {
+            assertTrue(expected.getMessage().contains("ConditionalCheckFailed"));
+        }
+
+        String get = "query GetProduct($id: ID!) { getProduct(id: $id) { id name _version } }";
+        JSONObject found = new JSONObject(backend.executeNow(get, Collections.<String, Object>singletonMap("id", "P1")))
+                .getJSONObject("getProduct");
+        assertEquals("Widget", found.getString("name"));
+        assertEquals(3, found.length());
+        assertTrue(new JSONObject(backend.executeNow("query { getProduct(id: \"P2\") { id } }",
+                Collections.<String, Object>emptyMap())).isNull("getProduct"));
+    }
+
+    @Test
+    public void syncPagesThroughEveryRowOnceAndThenOnlyChanges() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            create("Customer", new JSONObject().put("id", "C" + i).put("name", "Customer " + i)
+                    .put("accountRepresentativeID", "AR1"));
+        }
+        Set<String> seen = new HashSet<>();
+        String token = null;
+        long startedAt = 0;
+        int pages = 0;
+        do {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("limit", 10);
+            variables.put("nextToken", token);
+            JSONObject connection = new JSONObject(backend.executeNow(
+                    GraphQLSyncPageSource.document("Customer"), variables)).getJSONObject("syncCustomers");
+            JSONArray items = connection.getJSONArray("items");
+            for (int i = 0; i < items.length(); i++) {
+                assertTrue(seen.add(items.getJSONObject(i).getString("id")));
+            }
+            token = connection.isNull("nextToken") ? null : connection.getString("nextToken");
+            startedAt = connection.getLong("startedAt");
+            pages++;
+        } while (token != null);
+        assertEquals(25, seen.size());
+        assertEquals(3, pages);
+
+        Thread.sleep(2);
+        create("Customer", new JSONObject().put("id", "C99").put("name", "Late").put("accountRepresentativeID", "AR1"));
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("limit", 10);
+        delta.put("lastSync", startedAt + 1);
+        JSONArray changed = new JSONObject(backend.executeNow(GraphQLSyncPageSource.document("Customer"), delta))
+                .getJSONObject("syncCustomers").getJSONArray("items");
+        assertEquals(1, changed.length());
+        assertEquals("C99", changed.getJSONObject(0).getString("id"));
+    }
+
+    @Test
+    public void keysCompositePrimaryKeys() throws Exception {
+        create("Inventory", new JSONObject().put("productID", "P1").put("warehouseID", "W1").put("inventoryAmount", 5));
+        create("Inventory", new JSONObject().put("productID", "P1").put("warehouseID", "W2").put("inventoryAmount", 7));
+        assertEquals(2, backend.rowCount("Inventory"));
+        String get = "query { getInventory(productID: \"P1\", warehouseID: \"W2\") { inventoryAmount } }";
+        assertEquals(7, new JSONObject(backend.executeNow(get, Collections.<String, Object>emptyMap()))
+                .getJSONObject("getInventory").getInt("inventoryAmount"));
+    }
+
+    private JSONObject run(String document, Map<String, Object> variables, String field) throws Exception {
+        return new JSONObject(backend.executeNow(document, variables)).getJSONObject(field);
+    }
+
+    private static Map<String, Object> variables(Object... namesAndValues) {
+        Map<String, Object> variables = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            variables.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return variables;
+    }
+
+    @Test
+    public void staleUpdateIsAutomergedKeepingTheStoredScalars() throws Exception {
+        String update = GraphQLDocument.generatedOperations().get("UpdateOrder");
+        create("Order", new JSONObject().put("id", "O1").put("customerID", "C1").put("accountRepresentativeID", "AR1")
+                .put("productID", "P1").put("status", "InProcess").put("amount", 1));
+        run(update, variables("input", new JSONObject().put("id", "O1").put("status", "Shipped")
+                .put("_version", 1).toMap()), "updateOrder");
+
+        // A second writer still holding version 1 changes the status and sets a field still empty.
+        JSONObject merged = run(update, variables("input", new JSONObject().put("id", "O1").put("status", "Cancelled")
+                .put("awsTimeValue", "09:15:00.000").put("_version", 1).toMap()), "updateOrder");
+        assertEquals("Shipped", merged.getString("status"));
+        assertEquals("09:15:00.000", merged.getString("awsTimeValue"));
+        assertEquals(3, merged.getInt("_version"));
+
+        Map<String, Object> delete = new HashMap<>();
+        delete.put("id", "O1");
+        delete.put("_version", 2);
+        try {
+            backend.executeNow(GraphQLDocument.generatedOperations().get("DeleteOrder"), variables("input", delete));
+            fail("deleted from a stale version");
+        } catch (LocalAppSyncBackend.GraphQLError expected) {
+            assertEquals("ConflictUnhandled", expected.errorType);
+        }
+    }
+
+    @Test
+    public void automergeUnitesLists() {
+        assertEquals("[\"a\",\"b\",\"c\"]", LocalAppSyncBackend.merged(new JSONArray("[\"a\",\"b\"]"),
+                new JSONArray("[\"b\",\"c\"]")).toString());
+        assertEquals("stored", LocalAppSyncBackend.merged("stored", "incoming"));
+        assertEquals("incoming", LocalAppSyncBackend.merged(JSONObject.NULL, "incoming"));
+    }
+
+    @Test
+    public void optimisticConcurrencyNeedsTheCurrentVersion() throws Exception {
+        backend.close();
+        backend = new LocalAppSyncBackend(GraphQLSchema.read(GraphQLSchema.APP_SCHEMA), 2,
+                LocalAppSyncBackend.ConflictHandler.OPTIMISTIC_CONCURRENCY);
+        Map<String, String> operations = GraphQLDocument.generatedOperations();
+        create("Product", new JSONObject().put("id", "P1").put("name", "Widget"));
+        Map<String, Object> rename = new HashMap<>();
+        rename.put("id", "P1");
+        rename.put("name", "Gadget");
+        rename.put("_version", 1);
+        JSONObject renamed = run(operations.get("UpdateProduct"), variables("input", rename), "updateProduct");
+        assertEquals("Gadget", renamed.getString("name"));
+        assertEquals(2, renamed.getInt("_version"));
+
+        // A second writer still holding version 1 conflicts, and learns the stored row.
+        rename.put("name", "Sprocket");
+        try {
+            backend.executeNow(operations.get("UpdateProduct"), variables("input", rename));
+            fail("updated from a stale version");
+        } catch (LocalAppSyncBackend.GraphQLError expected) {
+            assertEquals("ConflictUnhandled", expected.errorType);
+            assertEquals("Gadget", expected.data.getString("name"));
+            assertEquals(2, expected.data.getInt("_version"));
+        }
+        rename.put("_version", 2);
+        try {
+            backend.executeNow(operations.get("UpdateProduct"), variables("input", rename,
+                    "condition", Collections.singletonMap("name", Collections.singletonMap("eq", "Widget"))));
+            fail("updated against a failing condition");
+        } catch (LocalAppSyncBackend.GraphQLError expected) {
+            assertEquals("ConditionalCheckFailedException", expected.errorType);
+        }
+
+        Map<String, Object> delete = new HashMap<>();
+        delete.put("id", "P1");
+        delete.put("_version", 2);
+        JSONObject deleted = run(operations.get("DeleteProduct"), variables("input", delete), "deleteProduct");
+        assertTrue(deleted.getBoolean("_deleted"));
+        assertEquals(3, deleted.getInt("_version"));
+        // The tombstone stays for sync, and a delta sync hands it out.
+        JSONArray synced = run(operations.get("SyncProducts"), variables(), "syncProducts").getJSONArray("items");
+        assertEquals(1, synced.length());
+        assertTrue(synced.getJSONObject(0).getBoolean("_deleted"));
+    }
+
+    @Test
+    public void listsFilterAfterReadingTheLimit() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            create("Order", new JSONObject().put("id", "O" + i).put("customerID", "C1").put("accountRepresentativeID", "AR1")
+                    .put("productID", "P1").put("status", i % 2 == 0 ? "Shipped" : "InProcess").put("amount", i));
+        }
+        String list = GraphQLDocument.generatedOperations().get("ListOrders");
+        Map<String, Object> shipped = Collections.<String, Object>singletonMap("status",
+                Collections.singletonMap("eq", "Shipped"));
+        JSONObject page = run(list, variables("filter", shipped, "limit", 4), "listOrders");
+        assertEquals(2, page.getJSONArray("items").length());
+        assertFalse(page.isNull("nextToken"));
+
+        List<Object> bigOrShipped = new ArrayList<>();
+        bigOrShipped.add(shipped);
+        bigOrShipped.add(Collections.singletonMap("amount", Collections.singletonMap("ge", 8)));
+        JSONArray all = run(list, variables("filter", Collections.singletonMap("or", bigOrShipped)), "listOrders")
+                .getJSONArray("items");
+        assertEquals(6, all.length());
+    }
+
+    @Test
+    public void indexQueriesFollowTheSortKey() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            create("Employee", new JSONObject().put("id", "E" + i).put("name", "Employee " + i)
+                    .put("startDate", "2022-0" + (6 - i) + "-01").put("phoneNumber", "555").put("warehouseID", "W1")
+                    .put("jobTitle", "Picker").put("newHire", i < 5 ? "yes" : "no"));
+        }
+        Map<String, String> operations = GraphQLDocument.generatedOperations();
+        JSONArray newHires = run(operations.get("EmployeesNewHireByStartDate"), variables("newHire", "yes",
+                "startDate", Collections.singletonMap("between", Arrays.asList("2022-02-01", "2022-05-01")),
+                "sortDirection", "DESC"), "employeesNewHireByStartDate").getJSONArray("items");
+        assertEquals(4, newHires.length());
+        assertEquals("2022-05-01", newHires.getJSONObject(0).getString("startDate"));
+        assertEquals("2022-02-01", newHires.getJSONObject(3).getString("startDate"));
+
+        create("AccountRepresentative", new JSONObject().put("id", "AR1").put("salesPeriod", "2022").put("orderTotal", 900));
+        create("AccountRepresentative", new JSONObject().put("id", "AR2").put("salesPeriod", "2022").put("orderTotal", 1000));
+        create("AccountRepresentative", new JSONObject().put("id", "AR3").put("salesPeriod", "2022").put("orderTotal", 80));
+        JSONArray reps = run(operations.get("RepsByPeriodAndTotal"), variables("salesPeriod", "2022",
+                "sortDirection", "DESC", "limit", 2), "repsByPeriodAndTotal").getJSONArray("items");
+        // Numbers sort as numbers, not as strings.
+        assertEquals("AR2", reps.getJSONObject(0).getString("id"));
+        assertEquals("AR1", reps.getJSONObject(1).getString("id"));
+    }
+
+    @Test
+    public void resolvesHasManyConnectionsThroughTheirIndex() throws Exception {
+        create("Customer", new JSONObject().put("id", "C1").put("name", "Ada").put("accountRepresentativeID", "AR1"));
+        String[] dates = {"2022-03-01T00:00:00.000Z", "2022-01-01T00:00:00.000Z", "2022-02-01T00:00:00.000Z"};
+        for (int i = 0; i < dates.length; i++) {
+            create("Order", new JSONObject().put("id", "O" + i).put("customerID", "C1").put("accountRepresentativeID", "AR1")
+                    .put("productID", "P1").put("status", "Shipped").put("amount", 1).put("date", dates[i]));
+        }
+        create("Order", new JSONObject().put("id", "O9").put("customerID", "C2").put("accountRepresentativeID", "AR1")
+                .put("productID", "P1").put("status", "Shipped").put("amount", 1).put("date", dates[0]));
+        JSONObject customer = run(GraphQLDocument.generatedOperations().get("GetCustomer"), variables("id", "C1"),
+                "getCustomer");
+        JSONArray orders = customer.getJSONObject("ordersByDate").getJSONArray("items");
+        assertEquals(3, orders.length());
+        assertEquals("O1", orders.getJSONObject(0).getString("id"));
+        assertEquals("O0", orders.getJSONObject(2).getString("id"));
+        assertEquals(0, customer.getJSONObject("address").getJSONArray("items").length());
+    }
+
+    @Test
+    public void subscriptionsGetMatchingChangesInOrder() throws Exception {
+        backend.setNetwork(new NetworkConditions(5, 5, 0, 1));
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch updates = new CountDownLatch(3);
+        backend.subscribe(SubscriptionManager.document("Order", SubscriptionManager.Event.UPDATE),
+                SubscriptionManager.variables(Collections.singletonMap("customerID", "C1")),
+                data -> {
+                    received.add(data);
+                    updates.countDown();
+                },
+                error -> fail(error.getMessage()), () -> { });
+        create("Order", new JSONObject().put("id", "O1").put("customerID", "C1").put("accountRepresentativeID", "AR1")
+                .put("productID", "P1").put("status", "InProcess").put("amount", 1));
+        create("Order", new JSONObject().put("id", "O2").put("customerID", "C2").put("accountRepresentativeID", "AR1")
+                .put("productID", "P1").put("status", "InProcess").put("amount", 1));
+        String update = GraphQLDocument.generatedOperations().get("UpdateOrder");
+        for (int version = 1; version <= 3; version++) {
+            for (String id : new String[] {"O1", "O2"}) {
+                Map<String, Object> input = new HashMap<>();
+                input.put("id", id);
+                input.put("amount", version * 10);
+                input.put("_version", version);
+                backend.executeNow(update, variables("input", input));
+            }
+        }
+        assertTrue(updates.await(5, TimeUnit.SECONDS));
+        assertEquals(3, received.size());
+        for (int i = 0; i < 3; i++) {
+            JSONObject order = new JSONObject(received.get(i)).getJSONObject("onUpdateOrder");
+            assertEquals("O1", order.getString("id"));
+            assertEquals((i + 1) * 10, order.getInt("amount"));
+        }
+    }
+
+    @Test
+    public void holdsAnswersBackForTheNetwork() throws Exception {
+        backend.setNetwork(new NetworkConditions(50, 0, 10_000, 1));
+        String get = "query { getProduct(id: \"P1\") { id } }";
+        CountDownLatch answered = new CountDownLatch(1);
+        long sent = System.nanoTime();
+        backend.execute(get, null, data -> answered.countDown(), error -> fail(error.getMessage()));
+        assertTrue(answered.await(5, TimeUnit.SECONDS));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent);
+        // 50 ms of latency, and about 50 bytes at 10 KB/s for another 5 ms.
+        assertTrue(millis + " ms", millis >= 54);
+    }
+
+    @Test
+    public void runsEveryGeneratedOperation() throws Exception {
+        GraphQLSchema schema = backend.schema;
+        Map<String, String> operations = GraphQLDocument.generatedOperations();
+        Map<String, List<JSONObject>> dataset = LoadGenerator.retail(schema, 20, 7).count("Blog", 3).generate();
+        Map<String, AtomicInteger> messages = new ConcurrentHashMap<>();
+        for (Map.Entry<String, String> operation : operations.entrySet()) {
+            if (operation.getKey().startsWith("On")) {
+                AtomicInteger count = new AtomicInteger();
+                messages.put(operation.getKey(), count);
+                backend.subscribe(operation.getValue(), null, data -> count.incrementAndGet(),
+                        error -> fail(error.getMessage()), () -> { });
+            }
+        }
+
+        for (Map.Entry<String, List<JSONObject>> model : dataset.entrySet()) {
+            for (JSONObject record : model.getValue()) {
+                backend.executeNow(operations.get("Create" + model.getKey()), variables("input", record.toMap()));
+            }
+        }
+        for (Map.Entry<String, List<JSONObject>> model : dataset.entrySet()) {
+            GraphQLSchema.Model schemaModel = schema.model(model.getKey());
+            String plural = schemaModel.plural();
+            JSONObject first = model.getValue().get(0);
+            Map<String, Object> key = new HashMap<>();
+            for (String keyField : schemaModel.primaryKey()) {
+                key.put(keyField, first.get(keyField));
+            }
+            assertEquals(first.get("id"), run(operations.get("Get" + model.getKey()), key, "get" + model.getKey())
+                    .get("id"));
+            assertEquals(model.getValue().size(), run(operations.get("List" + plural), variables("limit", 10_000),
+                    "list" + plural).getJSONArray("items").length());
+            assertEquals(model.getValue().size(), run(operations.get("Sync" + plural), variables("limit", 10_000),
+                    "sync" + plural).getJSONArray("items").length());
+            for (GraphQLSchema.Index index : schemaModel.indexes()) {
+                if (index.queryField != null && first.has(index.partitionField)) {
+                    String name = Character.toUpperCase(index.queryField.charAt(0)) + index.queryField.substring(1);
+                    assertTrue(name, run(operations.get(name), variables(index.partitionField,
+                            first.get(index.partitionField)), index.queryField).getJSONArray("items").length() > 0);
+                }
+            }
+
+            key.put("_version", 1);
+            backend.executeNow(operations.get("Update" + model.getKey()), variables("input", key));
+            key.put("_version", 2);
+            assertTrue(run(operations.get("Delete" + model.getKey()), variables("input", key),
+                    "delete" + model.getKey()).getBoolean("_deleted"));
+        }
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        for (String model : dataset.keySet()) {
+            for (String event : new String[] {"Create", "Update", "Delete"}) {
+                AtomicInteger count = messages.get("On" + event + model);
+                int expected = event.equals("Create") ? dataset.get(model).size() : 1;
+                while (count.get() < expected && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(5);
+                }
+                assertEquals("On" + event + model, expected, count.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Serves a {@link LocalAppSyncBackend} over HTTP on the loopback interface, as AppSync's
+ * GraphQL endpoint does: a POST of {@code {"query", "variables"}} to {@code /graphql}
+ * answers {@code {"data"}}, or {@code {"data": null, "errors"}} with the {@code errorType}
+ * and, for a conflict, the stored row. Answers wait out the backend's
+ * {@link NetworkConditions}. Subscriptions use AppSync's real-time WebSocket protocol,
+ * which this does not speak; in-process tests subscribe on the backend directly.
+ *
+ * <p>As with AppSync, a request body must not be compressed: one with a
+ * {@code Content-Encoding} other than {@code identity} is refused with 415. An answer of
+ * {@link PayloadCompression#MIN_BYTES} or more goes out in the {@link PayloadCompression}
+ * coding {@code Accept-Encoding} prefers.
+ */
+final class LocalAppSyncServer {
+    static final String PATH = "/graphql";
+
+    private final HttpServer server;
+    private final LocalAppSyncBackend backend;
+
+    private LocalAppSyncServer(HttpServer server, LocalAppSyncBackend backend) {
+        this.server = server;
+        this.backend = backend;
+    }
+
+    /** Starts serving on {@code port}, or on a free port for 0. */
+    static LocalAppSyncServer start(LocalAppSyncBackend backend, int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        LocalAppSyncServer local = new LocalAppSyncServer(server, backend);
+        server.createContext(PATH, local::handle);
+        server.start();
+        return local;
+    }
+
+    /** @return the URL to put in the api section of amplifyconfiguration.json */
+    String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        if (PayloadCompression.Coding.forToken(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                != PayloadCompression.Coding.IDENTITY) {
+            exchange.sendResponseHeaders(415, -1);
+            exchange.close();
+            return;
+        }
+        JSONObject request;
+        try {
+            request = new JSONObject(new String(readAll(exchange.getRequestBody()), StandardCharsets.UTF_8));
+        } catch (IOException | JSONException error) {
+            respond(exchange, 400, errors(new ApiException("Malformed request: " + error.getMessage(), error,
+                    "Send a JSON object with a query.")));
+            return;
+        }
+        String query = request.optString("query", "");
+        JSONObject variables = request.optJSONObject("variables");
+        Map<String, Object> values = variables != null ? variables.toMap() : Collections.<String, Object>emptyMap();
+        // Answered from the backend's threads, once the network conditions allow.
+        backend.execute(query, values,
+                data -> respond(exchange, 200, "{\"data\":" + data + "}"),
+                error -> respond(exchange, 200, errors(error)));
+    }
+
+    private static String errors(ApiException error) {
+        JSONObject entry = new JSONObject().put("message", error.getMessage());
+        if (error instanceof LocalAppSyncBackend.GraphQLError) {
+            LocalAppSyncBackend.GraphQLError graphQLError = (LocalAppSyncBackend.GraphQLError) error;
+            entry.put("errorType", graphQLError.errorType);
+            entry.put("data", graphQLError.data != null ? graphQLError.data : JSONObject.NULL);
+        }
+        return new JSONObject().put("data", JSONObject.NULL).put("errors", new JSONArray().put(entry)).toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        if (bytes.length >= PayloadCompression.MIN_BYTES) {
+            PayloadCompression.Coding coding = PayloadCompression.negotiate(
+                    exchange.getRequestHeaders().getFirst("Accept-Encoding"), PayloadCompression.PREFERRED);
+            if (coding != PayloadCompression.Coding.IDENTITY) {
+                bytes = PayloadCompression.encode(coding, bytes);
+                exchange.getResponseHeaders().set("Content-Encoding", coding.token());
+            }
+        }
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(status, bytes.length);
+            out.write(bytes);
+        } catch (IOException ignored) {
+            // The client went away; nothing is waiting for the answer.
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read; (read = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.orderapp;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class LocalAppSyncServerTest {
+    private LocalAppSyncBackend backend;
+    private LocalAppSyncServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        // Rejecting stale versions, so that a stale update comes back in the errors array.
+        backend = new LocalAppSyncBackend(GraphQLSchema.read(GraphQLSchema.APP_SCHEMA), 2,
+                LocalAppSyncBackend.ConflictHandler.OPTIMISTIC_CONCURRENCY);
+        server = LocalAppSyncServer.start(backend, 0);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+        backend.close();
+    }
+
+    private JSONObject post(String query, Map<String, Object> variables) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(server.endpoint()).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        byte[] body = new JSONObject().put("query", query).put("variables", variables).toString()
+                .getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return new JSONObject(new String(readAll(in), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void answersLikeTheAppSyncEndpoint() throws Exception {
+        Map<String, String> operations = GraphQLDocument.generatedOperations();
+        Map<String, Object> warehouse = new HashMap<>();
+        warehouse.put("id", "W1");
+        warehouse.put("name", "North");
+        JSONObject created = post(operations.get("CreateWarehouse"), Collections.<String, Object>singletonMap("input", warehouse));
+        assertEquals(1, created.getJSONObject("data").getJSONObject("createWarehouse").getInt("_version"));
+
+        warehouse.put("name", "South");
+        warehouse.put("_version", 7);
+        JSONObject conflict = post(operations.get("UpdateWarehouse"), Collections.<String, Object>singletonMap("input", warehouse));
+        assertTrue(conflict.isNull("data"));
+        JSONObject error = conflict.getJSONArray("errors").getJSONObject(0);
+        assertEquals("ConflictUnhandled", error.getString("errorType"));
+        assertEquals("North", error.getJSONObject("data").getString("name"));
+
+        JSONObject unknown = post("query { nothing { id } }", Collections.<String, Object>emptyMap());
+        assertTrue(unknown.getJSONArray("errors").getJSONObject(0).getString("message").contains("nothing"));
+    }
+
+    @Test
+    public void waitsOutTheNetworkConditions() throws Exception {
+        backend.setNetwork(new NetworkConditions(80, 0, 0, 1));
+        long sent = System.nanoTime();
+        JSONObject answer = post("query { getWarehouse(id: \"W1\") { id } }", Collections.<String, Object>emptyMap());
+        assertTrue(answer.getJSONObject("data").isNull("getWarehouse"));
+        assertTrue((System.nanoTime() - sent) / 1_000_000 >= 80);
+    }
+
+    @Test
+    public void negotiatesCompressedAnswersAndRefusesCompressedRequests() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            backend.executeNow(SoakHarness.mutation("Product"), Collections.<String, Object>singletonMap("input",
+                    new JSONObject().put("id", "P" + i).put("name", "Product " + i).toMap()));
+        }
+        String list = "query { listProducts { items { id name _version } } }";
+        byte[] request = new JSONObject().put("query", list).toString().getBytes(StandardCharsets.UTF_8);
+        for (PayloadCompression.Coding coding : PayloadCompression.PREFERRED) {
+            HttpURLConnection connection = (HttpURLConnection) new URL(server.endpoint()).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Accept-Encoding", coding.token() + ", identity;q=0.1");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(request);
+            }
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(coding.token(), connection.getHeaderField("Content-Encoding"));
+            byte[] body;
+            try (InputStream in = connection.getInputStream()) {
+                body = PayloadCompression.decode(coding, readAll(in));
+            }
+            JSONObject answer = new JSONObject(new String(body, StandardCharsets.UTF_8));
+            assertEquals(10, answer.getJSONObject("data").getJSONObject("listProducts").getJSONArray("items")
+                    .length());
+
+            HttpURLConnection compressed = (HttpURLConnection) new URL(server.endpoint()).openConnection();
+            compressed.setRequestMethod("POST");
+            compressed.setDoOutput(true);
+            compressed.setRequestProperty("Content-Encoding", coding.token());
+            try (OutputStream out = compressed.getOutputStream()) {
+                out.write(PayloadCompression.encode(coding, request));
+            }
+            assertEquals(415, compressed.getResponseCode());
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read; (read = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
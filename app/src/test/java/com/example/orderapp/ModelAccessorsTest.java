@@ -0,0 +1,149 @@
+package com.example.orderapp;
+
+import com.amplifyframework.AmplifyException;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateGroup;
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.amplifyframework.datastore.generated.model.AmplifyModelProvider;
+import com.amplifyframework.datastore.generated.model.Customer;
+import com.amplifyframework.datastore.generated.model.Order;
+import com.google.gson.stream.JsonReader;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ModelAccessorsTest {
+    private static Order order(String id, String status, int amount) {
+        return Order.builder()
+                .customerId("C-1024")
+                .accountRepresentativeId("AR-7")
+                .productId("P-311")
+                .status(status)
+                .amount(amount)
+                .date("2022-06-30T12:00:00.000Z")
+                .awsTimeValue(new Temporal.Time("09:15:00.000"))
+                .id(id)
+                .build();
+    }
+
+    @Test
+    public void everyModelHasAnAccessorMatchingTheRegistry() {
+        for (Class<? extends Model> type : AmplifyModelProvider.getInstance().models()) {
+            ModelAccessor<? extends Model> accessor = ModelAccessors.of(type);
+            assertSame(type, accessor.modelClass());
+            List<String> names = new ArrayList<>(ModelRegistry.get().byClass(type).fields.keySet());
+            assertEquals(names, accessor.fieldNames());
+            for (int field = 0; field < names.size(); field++) {
+                assertEquals(field, accessor.fieldIndex(names.get(field)));
+            }
+            assertEquals(-1, accessor.fieldIndex("noSuchField"));
+        }
+        try {
+            ModelAccessors.of(Model.class);
+            fail("found an accessor for the Model interface");
+        } catch (IllegalArgumentException expected) {
+            // Only the generated models have one.
+        }
+    }
+
+    @Test
+    public void readsAndRebuildsAModel() {
+        ModelAccessor<Order> accessor = ModelAccessors.of(Order.class);
+        Order order = order("O-1", "Shipped", 42);
+        Object[] values = new Object[accessor.fieldNames().size()];
+        for (int field = 0; field < values.length; field++) {
+            values[field] = accessor.get(order, field);
+        }
+        assertEquals("Shipped", values[accessor.fieldIndex("status")]);
+        assertEquals(42, values[accessor.fieldIndex("amount")]);
+        assertEquals(order, accessor.newInstance(values));
+
+        assertFalse(accessor.isSettable(accessor.fieldIndex("createdAt")));
+        assertTrue(accessor.isSettable(accessor.fieldIndex("awsTimeValue")));
+        ModelAccessor<Customer> customers = ModelAccessors.of(Customer.class);
+        assertFalse(customers.isSettable(customers.fieldIndex("ordersByDate")));
+        assertEquals(List.class, customers.fieldTypes().get(customers.fieldIndex("ordersByDate")));
+    }
+
+    @Test
+    public void hydratesRowsAsAppSyncReturnsThem() throws IOException {
+        JSONObject row = new JSONObject()
+                .put("__typename", "Order")
+                .put("id", "O-1")
+                .put("customerID", "C-1024")
+                .put("accountRepresentativeID", "AR-7")
+                .put("productID", "P-311")
+                .put("status", "Shipped")
+                .put("amount", 42)
+                .put("date", "2022-06-30T12:00:00.000Z")
+                .put("awsTimeValue", "09:15:00.000")
+                .put("createdAt", "2022-06-30T12:00:01.000Z")
+                .put("_version", 3);
+        ModelAccessor<Order> accessor = ModelAccessors.of(Order.class);
+        assertEquals(order("O-1", "Shipped", 42), ModelAccessors.fromJson(accessor, row));
+
+        JSONObject second = new JSONObject(row.toString()).put("id", "O-2").put("awsTimeValue", JSONObject.NULL);
+        List<Order> orders = ModelAccessors.fromJson(accessor, new JSONArray().put(row).put(second));
+        assertEquals(2, orders.size());
+        assertEquals("O-1", orders.get(0).getId());
+        assertEquals(new Temporal.Time("09:15:00.000"), orders.get(0).getAwsTimeValue());
+        // The values array is shared between rows; a null must not keep the previous value.
+        assertNull(orders.get(1).getAwsTimeValue());
+
+        String page = new JSONArray().put(row).put(second).toString();
+        assertEquals(orders, ModelAccessors.fromJson(accessor, new JsonReader(new StringReader(page))));
+    }
+
+    @Test
+    public void streamedRowsReportTheirTombstones() throws IOException {
+        ModelAccessor<Customer> accessor = ModelAccessors.of(Customer.class);
+        JSONArray rows = new JSONArray()
+                .put(FakeSyncBackend.row("Customer", "c1").put("_deleted", false))
+                .put(FakeSyncBackend.row("Customer", "c2").put("_deleted", true))
+                .put(FakeSyncBackend.row("Customer", "c3"));
+        BitSet deleted = new BitSet();
+        List<Customer> customers = ModelAccessors.fromJson(accessor,
+                new JsonReader(new StringReader(rows.toString())), deleted);
+
+        assertEquals(3, customers.size());
+        assertEquals("c2", customers.get(1).getId());
+        assertEquals(BitSet.valueOf(new long[] {0b010}), deleted);
+
+        JsonReader row = new JsonReader(new StringReader("[" + rows.get(2) + ", null]"));
+        row.beginArray();
+        assertEquals(customers.get(2), ModelAccessors.fromJsonRow(accessor, row));
+        assertNull(ModelAccessors.fromJsonRow(accessor, row));
+        row.endArray();
+    }
+
+    @Test
+    public void matchesAsThePredicateItselfDoes() throws AmplifyException {
+        List<QueryPredicate> predicates = Arrays.<QueryPredicate>asList(
+                Order.STATUS.eq("Shipped"),
+                Order.AMOUNT.gt(40),
+                Order.STATUS.eq("Shipped").and(Order.AMOUNT.gt(50)),
+                Order.STATUS.eq("Delivered").or(Order.AMOUNT.gt(40)),
+                new QueryPredicateGroup(QueryPredicateGroup.Type.NOT,
+                        Collections.<QueryPredicate>singletonList(Order.STATUS.eq("Shipped"))));
+        List<Order> orders = Arrays.asList(
+                order("O-1", "Shipped", 42), order("O-2", "Shipped", 60), order("O-3", "Delivered", 7));
+        for (QueryPredicate predicate : predicates) {
+            for (Order order : orders) {
+                assertEquals(predicate + " on " + order.getId(),
+                        predicate.evaluate(order), ModelAccessors.matches(predicate, order));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.DataStoreItemChange;
+import com.amplifyframework.datastore.generated.model.Blog;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ModelFeedTest {
+    /** The blogs the listener holds, by id. */
+    private final Map<String, String> names = new LinkedHashMap<>();
+    private final ModelFeed.Listener<Blog> listener = (blog, deleted) -> {
+        if (deleted) {
+            names.remove(blog.getId());
+        } else {
+            names.put(blog.getId(), blog.getName());
+        }
+    };
+
+    private Consumer<Cancelable> onStart;
+    private Consumer<DataStoreItemChange<Blog>> onChange;
+    private Consumer<Iterator<Blog>> onLoad;
+    private Consumer<DataStoreException> onLoadError;
+    private int cancelled;
+
+    @SuppressWarnings("unchecked")
+    private ModelFeed<Blog> start() {
+        return ModelFeed.start(Blog.class, listener,
+                new DataStoreObserve() {
+                    @Override
+                    public <T extends Model> void observe(
+                            Class<T> itemClass, Consumer<Cancelable> start, Consumer<DataStoreItemChange<T>> change,
+                            Consumer<DataStoreException> error, Action complete) {
+                        onStart = start;
+                        onChange = (Consumer<DataStoreItemChange<Blog>>) (Consumer<?>) change;
+                    }
+                },
+                new DataStoreQuery() {
+                    @Override
+                    public <T extends Model> void query(
+                            Class<T> itemClass, QueryOptions options,
+                            Consumer<Iterator<T>> result, Consumer<DataStoreException> error) {
+                        onLoad = (Consumer<Iterator<Blog>>) (Consumer<?>) result;
+                        onLoadError = error;
+                    }
+                });
+    }
+
+    private static Blog blog(String id, String name) {
+        return Blog.builder().name(name).id(id).build();
+    }
+
+    private static DataStoreItemChange<Blog> change(DataStoreItemChange.Type type, Blog blog) {
+        return DataStoreItemChange.<Blog>builder()
+                .uuid(blog.getId())
+                .type(type)
+                .initiator(DataStoreItemChange.Initiator.REMOTE)
+                .itemClass(Blog.class)
+                .item(blog)
+                .build();
+    }
+
+    @Test
+    public void loadWaitsForTheObservationToStart() {
+        start();
+        assertNull(onLoad);
+        onStart.accept(() -> cancelled++);
+        assertNotNull(onLoad);
+    }
+
+    @Test
+    public void changesObservedDuringTheLoadAreAppliedAfterIt() {
+        start();
+        onStart.accept(() -> cancelled++);
+        onChange.accept(change(DataStoreItemChange.Type.UPDATE, blog("b1", "new")));
+        onChange.accept(change(DataStoreItemChange.Type.DELETE, blog("b2", "gone")));
+        assertTrue(names.isEmpty());
+
+        // The load was read before those changes.
+        onLoad.accept(Arrays.asList(blog("b1", "old"), blog("b2", "gone"), blog("b3", "kept")).iterator());
+        assertEquals("new", names.get("b1"));
+        assertFalse(names.containsKey("b2"));
+        assertEquals("kept", names.get("b3"));
+
+        onChange.accept(change(DataStoreItemChange.Type.CREATE, blog("b4", "later")));
+        assertEquals("later", names.get("b4"));
+    }
+
+    @Test
+    public void failedLoadStillPassesChangesOn() {
+        start();
+        onStart.accept(() -> cancelled++);
+        onChange.accept(change(DataStoreItemChange.Type.CREATE, blog("b1", "A")));
+        onLoadError.accept(new DataStoreException("Query failed", "Retry."));
+        onChange.accept(change(DataStoreItemChange.Type.CREATE, blog("b2", "B")));
+
+        assertEquals(new ArrayList<>(Arrays.asList("b1", "b2")), new ArrayList<>(names.keySet()));
+    }
+
+    @Test
+    public void cancelStopsTheObservationEvenBeforeItStarts() {
+        ModelFeed<Blog> feed = start();
+        feed.cancel();
+        onStart.accept(() -> cancelled++);
+        assertEquals(1, cancelled);
+        assertNull(onLoad);
+
+        ModelFeed<Blog> running = start();
+        onStart.accept(() -> cancelled++);
+        running.cancel();
+        assertEquals(2, cancelled);
+        onLoad.accept(Arrays.asList(blog("b1", "A")).iterator());
+        onChange.accept(change(DataStoreItemChange.Type.CREATE, blog("b2", "B")));
+        assertTrue(names.isEmpty());
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.amplifyframework.datastore.generated.model.AmplifyModelProvider;
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Order;
+import com.amplifyframework.util.GsonFactory;
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH microbenchmarks of the generated models: the step builder chain, copyOfBuilder(),
+ * equals/hashCode/toString, a Gson round trip as DataStore and the staged save queue do
+ * it, AmplifyModelProvider.models() and the {@link ModelRegistry} lookups. Run with
+ * {@code ./gradlew :app:jmh}, which writes {@code app/baselines/models-<versionName>.json}.
+ * Commit that file as a release's baseline only if it was measured against the real
+ * Amplify runtime; none is committed yet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelJmh {
+    private static final String ORDER_ID = "0b4d4a1c-5f1e-4c4b-9a57-1d2f3e4a5b6c";
+
+    private Gson gson;
+    private Order order;
+    private Order equalOrder;
+    private Order otherOrder;
+    private Employee employee;
+    private String orderJson;
+    private String employeeJson;
+
+    @Setup
+    public void setUp() {
+        gson = GsonFactory.instance();
+        order = order(ORDER_ID, "Shipped");
+        equalOrder = order(ORDER_ID, "Shipped");
+        // Differs only in the last field equals() compares before the timestamps.
+        otherOrder = order.copyOfBuilder().awsTimeValue(new Temporal.Time("18:30:00.000")).build();
+        employee = Employee.builder()
+                .name("Grace Hopper")
+                .startDate("2019-04-01")
+                .phoneNumber("555-010-2030")
+                .warehouseId("W-17")
+                .jobTitle("Supervisor")
+                .newHire("no")
+                .id("E-1906")
+                .build();
+        orderJson = gson.toJson(order);
+        employeeJson = gson.toJson(employee);
+    }
+
+    private static Order order(String id, String status) {
+        return Order.builder()
+                .customerId("C-1024")
+                .accountRepresentativeId("AR-7")
+                .productId("P-311")
+                .status(status)
+                .amount(42)
+                .date("2022-06-30T12:00:00.000Z")
+                .awsTimeValue(new Temporal.Time("09:15:00.000"))
+                .id(id)
+                .build();
+    }
+
+    @Benchmark
+    public Order orderBuilder() {
+        return order(ORDER_ID, "InProcess");
+    }
+
+    /** Without an id, build() draws a random UUID. */
+    @Benchmark
+    public Order orderBuilderWithoutId() {
+        return Order.builder()
+                .customerId("C-1024")
+                .accountRepresentativeId("AR-7")
+                .productId("P-311")
+                .status("InProcess")
+                .amount(42)
+                .date("2022-06-30T12:00:00.000Z")
+                .build();
+    }
+
+    @Benchmark
+    public Order orderCopyOfBuilder() {
+        return order.copyOfBuilder().status("Delivered").build();
+    }
+
+    @Benchmark
+    public boolean orderEqualsEqual() {
+        return order.equals(equalOrder);
+    }
+
+    @Benchmark
+    public boolean orderEqualsDifferent() {
+        return order.equals(otherOrder);
+    }
+
+    @Benchmark
+    public int orderHashCode() {
+        return order.hashCode();
+    }
+
+    @Benchmark
+    public String orderToString() {
+        return order.toString();
+    }
+
+    @Benchmark
+    public String orderToJson() {
+        return gson.toJson(order);
+    }
+
+    @Benchmark
+    public Order orderFromJson() {
+        return gson.fromJson(orderJson, Order.class);
+    }
+
+    @Benchmark
+    public int employeeHashCode() {
+        return employee.hashCode();
+    }
+
+    @Benchmark
+    public String employeeToJson() {
+        return gson.toJson(employee);
+    }
+
+    @Benchmark
+    public Employee employeeFromJson() {
+        return gson.fromJson(employeeJson, Employee.class);
+    }
+
+    @Benchmark
+    public Set<Class<? extends Model>> providerModels() {
+        return AmplifyModelProvider.getInstance().models();
+    }
+
+    @Benchmark
+    public ModelRegistry.Entry registryByName() {
+        return ModelRegistry.get().byName("Order");
+    }
+
+    @Benchmark
+    public ModelRegistry.FieldInfo registryField() {
+        return ModelRegistry.get().byClass(Order.class).field("customerID");
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.amplifyframework.datastore.generated.model.Inventory;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ModelPatchTest {
+    private LocalAppSyncBackend backend;
+
+    @Before
+    public void setUp() throws IOException {
+        backend = new LocalAppSyncBackend(GraphQLSchema.read(GraphQLSchema.APP_SCHEMA), 2);
+    }
+
+    @After
+    public void tearDown() {
+        backend.close();
+    }
+
+    private static Order order(String status) {
+        return Order.builder()
+                .customerId("C-1024")
+                .accountRepresentativeId("AR-7")
+                .productId("P-311")
+                .status(status)
+                .amount(42)
+                .date("2022-06-30T12:00:00.000Z")
+                .awsTimeValue(new Temporal.Time("09:15:00.000"))
+                .id("O-1")
+                .build();
+    }
+
+    @Test
+    public void recordsOnlyWhatChanged() {
+        Order order = order("InProcess");
+        ModelPatch<Order> patch = ModelPatch.of(order, 3);
+        assertTrue(patch.isEmpty());
+        assertSame(order, patch.apply());
+
+        patch.set(Order.STATUS, "Shipped").set(Order.AMOUNT, 42);
+        assertEquals(Collections.singletonList("status"), patch.changedFields());
+        assertEquals("Shipped", patch.get("status"));
+        assertEquals("InProcess", order.getStatus());
+        assertEquals(order.copyOfBuilder().status("Shipped").build(), patch.apply());
+
+        patch.set(Order.STATUS, "InProcess");
+        assertTrue(patch.isEmpty());
+    }
+
+    @Test
+    public void refusesFieldsAnUpdateCannotChange() {
+        ModelPatch<Order> patch = ModelPatch.of(order("InProcess"), 1);
+        for (Object[] change : new Object[][] {
+                {"id", "O-2"}, {"createdAt", null}, {"status", null}, {"amount", "42"}, {"price", 1}}) {
+            try {
+                patch.set((String) change[0], change[1]);
+                fail("set " + Arrays.toString(change));
+            } catch (IllegalArgumentException expected) {
+                assertTrue(patch.isEmpty());
+            }
+        }
+        patch.set(Order.AWS_TIME_VALUE, null);
+        assertEquals(Collections.singletonList("awsTimeValue"), patch.changedFields());
+    }
+
+    @Test
+    public void sendsTheKeyTheChangesAndTheVersion() {
+        Map<String, Object> order = ModelPatch.of(order("InProcess"), 3)
+                .set(Order.STATUS, "Shipped")
+                .set(Order.AWS_TIME_VALUE, new Temporal.Time("10:00:00.000"))
+                .variables();
+        assertTrue(new JSONObject(order).similar(new JSONObject("{\"input\":{\"id\":\"O-1\",\"status\":\"Shipped\","
+                + "\"awsTimeValue\":\"10:00:00.000\",\"_version\":3}}")));
+
+        Inventory inventory = Inventory.builder().productId("P-311").warehouseId("W-17").inventoryAmount(100)
+                .id("I-1").build();
+        ModelPatch<Inventory> patch = ModelPatch.of(inventory, 7).set(Inventory.INVENTORY_AMOUNT, 95);
+        assertTrue(new JSONObject(patch.variables()).similar(new JSONObject("{\"input\":{\"productID\":\"P-311\","
+                + "\"warehouseID\":\"W-17\",\"inventoryAmount\":95,\"_version\":7}}")));
+        assertTrue(patch.document().startsWith("mutation UpdateInventory($input: UpdateInventoryInput!)"));
+    }
+
+    @Test
+    public void appliesOnTheBackendAtTheNextVersion() throws Exception {
+        Order order = order("InProcess");
+        JSONObject input = new JSONObject()
+                .put("id", order.getId())
+                .put("customerID", order.getCustomerId())
+                .put("accountRepresentativeID", order.getAccountRepresentativeId())
+                .put("productID", order.getProductId())
+                .put("status", order.getStatus())
+                .put("amount", order.getAmount())
+                .put("date", order.getDate())
+                .put("awsTimeValue", order.getAwsTimeValue().format());
+        backend.executeNow(SoakHarness.mutation("Order"),
+                Collections.<String, Object>singletonMap("input", input.toMap()));
+
+        ModelPatch<Order> saved = send(ModelPatch.of(order, 1).set(Order.STATUS, "Shipped"))
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(2, saved.version());
+        assertTrue(saved.isEmpty());
+        assertEquals(order.copyOfBuilder().status("Shipped").build(), saved.base());
+
+        saved = send(saved.set(Order.AMOUNT, 50)).get(5, TimeUnit.SECONDS);
+        assertEquals(3, saved.version());
+        assertEquals("Shipped", saved.base().getStatus());
+        assertEquals(Integer.valueOf(50), saved.base().getAmount());
+    }
+
+    @Test
+    public void mergeThatKeptTheStoredValueIsAConflict() throws Exception {
+        Inventory inventory = Inventory.builder().productId("P-311").warehouseId("W-17").inventoryAmount(100)
+                .id("I-1").build();
+        backend.executeNow(SoakHarness.mutation("Inventory"), Collections.<String, Object>singletonMap("input",
+                new JSONObject().put("id", "I-1").put("productID", "P-311").put("warehouseID", "W-17")
+                        .put("inventoryAmount", 100).toMap()));
+        CompletableFuture<ModelPatch<Inventory>> taken = new CompletableFuture<>();
+        ModelPatch.of(inventory, 1).set(Inventory.INVENTORY_AMOUNT, 90)
+                .send(backend, taken::complete, (ApiException error) -> taken.completeExceptionally(error));
+        assertEquals(2, taken.get(5, TimeUnit.SECONDS).version());
+
+        // Still at version 1: the backend's AUTOMERGE keeps the stored 90 and answers with it.
+        CompletableFuture<ModelPatch<Inventory>> stale = new CompletableFuture<>();
+        ModelPatch.of(inventory, 1).set(Inventory.INVENTORY_AMOUNT, 99)
+                .send(backend, stale::complete, (ApiException error) -> stale.completeExceptionally(error));
+        try {
+            stale.get(5, TimeUnit.SECONDS);
+            fail("a merge that dropped inventoryAmount was reported saved");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof ModelPatch.MergedException);
+            assertTrue(expected.getCause().getMessage().contains("[inventoryAmount] at _version 3"));
+            assertTrue(RemoteUpdates.isConflict((ApiException) expected.getCause()));
+        }
+    }
+
+    @Test
+    public void staleVersionIsRejectedUnderOptimisticConcurrency() throws Exception {
+        backend.close();
+        backend = new LocalAppSyncBackend(GraphQLSchema.read(GraphQLSchema.APP_SCHEMA), 2,
+                LocalAppSyncBackend.ConflictHandler.OPTIMISTIC_CONCURRENCY);
+        Order order = order("InProcess");
+        backend.executeNow(SoakHarness.mutation("Order"), Collections.<String, Object>singletonMap("input",
+                new JSONObject().put("id", order.getId()).put("customerID", order.getCustomerId())
+                        .put("accountRepresentativeID", order.getAccountRepresentativeId())
+                        .put("productID", order.getProductId()).put("status", order.getStatus())
+                        .put("amount", order.getAmount()).put("date", order.getDate())
+                        .put("awsTimeValue", order.getAwsTimeValue().format()).toMap()));
+        send(ModelPatch.of(order, 1).set(Order.STATUS, "Shipped")).get(5, TimeUnit.SECONDS);
+        try {
+            send(ModelPatch.of(order, 1).set(Order.AMOUNT, 50)).get(5, TimeUnit.SECONDS);
+            fail("a stale version was accepted");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause().getMessage().startsWith("ConflictUnhandled"));
+            assertTrue(RemoteUpdates.isConflict((ApiException) expected.getCause()));
+        }
+    }
+
+    private CompletableFuture<ModelPatch<Order>> send(ModelPatch<Order> patch) {
+        CompletableFuture<ModelPatch<Order>> result = new CompletableFuture<>();
+        patch.send(backend, result::complete, (ApiException error) -> result.completeExceptionally(error));
+        return result;
+    }
+}
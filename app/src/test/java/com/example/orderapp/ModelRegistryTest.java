@@ -0,0 +1,88 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.annotations.Index;
+import com.amplifyframework.datastore.generated.model.AmplifyModelProvider;
+import com.amplifyframework.datastore.generated.model.Inventory;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ModelRegistryTest {
+    @Test
+    public void providerHandsOutOneImmutableSet() {
+        AmplifyModelProvider provider = AmplifyModelProvider.getInstance();
+        assertSame(provider.models(), provider.models());
+        assertEquals(9, provider.models().size());
+        try {
+            provider.models().clear();
+            fail("the model set can be changed");
+        } catch (UnsupportedOperationException expected) {
+            // Shared between callers, so it must not be.
+        }
+    }
+
+    @Test
+    public void looksModelsUpByNameClassAndClassName() {
+        ModelRegistry registry = ModelRegistry.get();
+        ModelRegistry.Entry order = registry.byName("Order");
+        assertSame(order, registry.byClass(Order.class));
+        assertSame(order, registry.byClassName(Order.class.getName()));
+        assertNull(registry.byName("Invoice"));
+        assertNull(registry.byClass(String.class));
+        assertEquals(AmplifyModelProvider.getInstance().models().size(), registry.entries().size());
+        assertEquals("Inventories", registry.byClass(Inventory.class).pluralName);
+    }
+
+    @Test
+    public void precomputesFieldsAndIndexes() {
+        ModelRegistry.Entry order = ModelRegistry.get().byName("Order");
+        ModelRegistry.FieldInfo customer = order.field("customerID");
+        assertSame(Order.CUSTOMER_ID, customer.queryField);
+        assertEquals("ID", customer.targetType);
+        assertTrue(customer.required);
+        ModelRegistry.FieldInfo createdAt = order.field("createdAt");
+        assertTrue(createdAt.readOnly);
+        assertNull(createdAt.queryField);
+        assertEquals("id", order.fields.keySet().iterator().next());
+
+        assertEquals(3, order.indexes.size());
+        Index byRepresentative = order.index("byRepresentativebyDate");
+        assertEquals(Arrays.asList("accountRepresentativeID", "date"), Arrays.asList(byRepresentative.fields()));
+        assertNull(order.index("byNothing"));
+        assertEquals(Collections.singletonList("id"), order.primaryKey);
+        assertEquals(Arrays.asList("productID", "warehouseID"),
+                ModelRegistry.get().byClass(Inventory.class).primaryKey);
+    }
+
+    @Test
+    public void everyThreadSeesTheSameRegistry() throws InterruptedException {
+        Set<Object> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException error) {
+                    return;
+                }
+                seen.add(ModelRegistry.get());
+                seen.add(AmplifyModelProvider.getInstance());
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(2, seen.size());
+    }
+}
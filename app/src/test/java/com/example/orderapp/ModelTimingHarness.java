@@ -0,0 +1,149 @@
+package com.example.orderapp;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * Times the {@link ModelJmh} benchmarks with a plain loop where JMH cannot run, and writes
+ * the results in the shape of JMH's JSON report so they can stand in for a baseline. It runs
+ * in-process with JMH's warmup and measurement iterations, but without forks or JMH's
+ * blackholes, so its scores are rougher than JMH's; each entry says it came from here.
+ * Run with {@code ./gradlew :app:modelTimings}.
+ */
+public final class ModelTimingHarness {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 1_000_000_000L;
+    private static final int CALLS_PER_CHECK = 1_000;
+    /** Student's t for a 99.9% interval over 5 iterations, as JMH reports the error. */
+    private static final double T_999_4 = 8.610;
+
+    /** Keeps the results alive so the calls cannot be optimized away. */
+    private static int sink;
+
+    private ModelTimingHarness() {
+    }
+
+    /** Arguments: the report file, then optionally a regex of the benchmarks to run. */
+    public static void main(String[] args) throws Exception {
+        File report = new File(args[0]);
+        Pattern include = Pattern.compile(args.length > 1 ? args[1] : ".*");
+        ModelJmh state = new ModelJmh();
+        state.setUp();
+
+        JSONArray results = new JSONArray();
+        for (Map.Entry<String, Callable<Object>> benchmark : benchmarks(state).entrySet()) {
+            String name = ModelJmh.class.getName() + "." + benchmark.getKey();
+            if (!include.matcher(name).find()) {
+                continue;
+            }
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                iteration(benchmark.getValue());
+            }
+            double[] scores = new double[MEASUREMENT_ITERATIONS];
+            for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+                scores[i] = iteration(benchmark.getValue());
+            }
+            results.put(result(name, scores));
+            System.out.println(String.format(Locale.US, "%-60s %10.3f ns/op", name, mean(scores)));
+        }
+        report.getAbsoluteFile().getParentFile().mkdirs();
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(report), StandardCharsets.UTF_8)) {
+            out.write(results.toString(4));
+            out.write('\n');
+        }
+    }
+
+    /** Every {@link Benchmark} method of {@link ModelJmh}, called directly rather than by reflection. */
+    static Map<String, Callable<Object>> benchmarks(ModelJmh state) {
+        Map<String, Callable<Object>> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("employeeFromJson", state::employeeFromJson);
+        benchmarks.put("employeeHashCode", state::employeeHashCode);
+        benchmarks.put("employeeToJson", state::employeeToJson);
+        benchmarks.put("orderBuilder", state::orderBuilder);
+        benchmarks.put("orderBuilderWithoutId", state::orderBuilderWithoutId);
+        benchmarks.put("orderCopyOfBuilder", state::orderCopyOfBuilder);
+        benchmarks.put("orderEqualsDifferent", state::orderEqualsDifferent);
+        benchmarks.put("orderEqualsEqual", state::orderEqualsEqual);
+        benchmarks.put("orderFromJson", state::orderFromJson);
+        benchmarks.put("orderHashCode", state::orderHashCode);
+        benchmarks.put("orderToJson", state::orderToJson);
+        benchmarks.put("orderToString", state::orderToString);
+        benchmarks.put("providerModels", state::providerModels);
+        benchmarks.put("registryByName", state::registryByName);
+        benchmarks.put("registryField", state::registryField);
+        for (Method method : ModelJmh.class.getMethods()) {
+            if (method.isAnnotationPresent(Benchmark.class) && !benchmarks.containsKey(method.getName())) {
+                throw new IllegalStateException("ModelJmh." + method.getName() + " has no timing here");
+            }
+        }
+        return benchmarks;
+    }
+
+    /** @return the average nanoseconds a call over one iteration */
+    private static double iteration(Callable<Object> benchmark) throws Exception {
+        long calls = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < CALLS_PER_CHECK; i++) {
+                sink += benchmark.call().hashCode();
+            }
+            calls += CALLS_PER_CHECK;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        return (double) elapsed / calls;
+    }
+
+    private static double mean(double[] scores) {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+
+    private static JSONObject result(String name, double[] scores) {
+        double mean = mean(scores);
+        double squares = 0;
+        for (double score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+        double error = T_999_4 * Math.sqrt(squares / (scores.length - 1)) / Math.sqrt(scores.length);
+        JSONArray raw = new JSONArray();
+        for (double score : scores) {
+            raw.put(score);
+        }
+        return new JSONObject()
+                .put("harness", ModelTimingHarness.class.getSimpleName() + " (plain timing loop, not JMH)")
+                .put("benchmark", name)
+                .put("mode", "avgt")
+                .put("threads", 1)
+                .put("forks", 0)
+                .put("jdkVersion", System.getProperty("java.version"))
+                .put("vmName", System.getProperty("java.vm.name"))
+                .put("warmupIterations", WARMUP_ITERATIONS)
+                .put("warmupTime", "1 s")
+                .put("measurementIterations", MEASUREMENT_ITERATIONS)
+                .put("measurementTime", "1 s")
+                .put("primaryMetric", new JSONObject()
+                        .put("score", mean)
+                        .put("scoreError", error)
+                        .put("scoreConfidence", new JSONArray().put(mean - error).put(mean + error))
+                        .put("scoreUnit", "ns/op")
+                        .put("rawData", new JSONArray().put(raw)));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.orderapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Lookup latency over 100,000 Customer, Employee and Product names, for exact and
+ * one-typo prefixes, against scanning every (already normalized) name for a word that starts with the query.
+ */
+public class NameSearchBenchmark {
+    private static final int RECORDS = 100_000;
+    private static final int LOOKUPS = 20_000;
+    private static final String[] FIRST = {
+            "Ada", "Alan", "Barbara", "Claude", "Donald", "Edsger", "Frances", "Grace", "Hedy", "John",
+            "Katherine", "Linus", "Margaret", "Niklaus", "Radia", "Shafi", "Tim", "Vint", "Whitfield", "Yukihiro"};
+    private static final String[] LAST = {
+            "Lovelace", "Turing", "Liskov", "Shannon", "Knuth", "Dijkstra", "Allen", "Hopper", "Lamarr", "McCarthy",
+            "Johnson", "Torvalds", "Hamilton", "Wirth", "Perlman", "Goldwasser", "Berners-Lee", "Cerf", "Diffie",
+            "Matsumoto"};
+    private static final String[] PRODUCT = {
+            "Widget", "Gadget", "Sprocket", "Gizmo", "Bracket", "Flange", "Valve", "Gasket", "Bearing", "Coupling"};
+
+    @Test
+    public void lookupLatencyAt100kRecords() {
+        Random random = new Random(42);
+        NameSearchIndex index = new NameSearchIndex();
+        List<String> names = new ArrayList<>(RECORDS);
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < RECORDS; i++) {
+            String name;
+            NameSearchIndex.Kind kind;
+            if (i % 3 == 2) {
+                kind = NameSearchIndex.Kind.PRODUCT;
+                name = PRODUCT[random.nextInt(PRODUCT.length)] + " " + Integer.toString(i, 36).toUpperCase(Locale.ROOT);
+            } else {
+                kind = i % 3 == 0 ? NameSearchIndex.Kind.CUSTOMER : NameSearchIndex.Kind.EMPLOYEE;
+                name = FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)]
+                        + " " + Integer.toString(i, 36);
+            }
+            index.put(kind, String.valueOf(i), name);
+            names.add(name);
+        }
+        System.out.println(String.format(Locale.US, "Indexed %,d names in %d ms",
+                RECORDS, (System.nanoTime() - buildStart) / 1_000_000));
+
+        String[] queries = new String[LOOKUPS];
+        String[] typos = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String[] words = NameSearchIndex.normalize(names.get(random.nextInt(RECORDS))).split(" ");
+            String word = words[random.nextInt(words.length)];
+            String prefix = word.substring(0, Math.min(word.length(), 3 + random.nextInt(4)));
+            queries[i] = prefix;
+            // Swap in a wrong letter after the first one.
+            int at = 1 + random.nextInt(Math.max(1, prefix.length() - 1));
+            typos[i] = at < prefix.length()
+                    ? prefix.substring(0, at) + (char) ('a' + random.nextInt(26)) + prefix.substring(at + 1)
+                    : prefix + 'x';
+        }
+
+        for (int round = 0; round < 3; round++) {
+            double exact = perLookupMicros(index, queries, 0);
+            double oneTypo = perLookupMicros(index, typos, 1);
+            System.out.println(String.format(Locale.US,
+                    "round %d: exact prefix %.1f us/lookup, one typo %.1f us/lookup", round, exact, oneTypo));
+        }
+        double scan = perScanMicros(names, queries);
+        System.out.println(String.format(Locale.US, "scanning every name: %.1f us/lookup", scan));
+    }
+
+    private static double perLookupMicros(NameSearchIndex index, String[] queries, int maxTypos) {
+        long found = 0;
+        long start = System.nanoTime();
+        for (String query : queries) {
+            found += index.search(query, maxTypos, 20).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (found == 0) {
+            throw new AssertionError("nothing found");
+        }
+        return elapsed / 1e3 / queries.length;
+    }
+
+    private static double perScanMicros(List<String> names, String[] queries) {
+        List<List<String>> terms = new ArrayList<>(names.size());
+        for (String name : names) {
+            terms.add(NameSearchIndex.terms(name));
+        }
+        int lookups = queries.length / 20;
+        long found = 0;
+        long start = System.nanoTime();
+        for (int q = 0; q < lookups; q++) {
+            String query = queries[q];
+            int hits = 0;
+            for (int i = 0; i < terms.size() && hits < 20; i++) {
+                for (String term : terms.get(i)) {
+                    if (term.startsWith(query)) {
+                        hits++;
+                        break;
+                    }
+                }
+            }
+            found += hits;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (found == 0) {
+            throw new AssertionError("nothing found");
+        }
+        return elapsed / 1e3 / lookups;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.orderapp;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NameSearchIndexTest {
+    private static String names(List<NameSearchIndex.Hit> hits) {
+        StringBuilder names = new StringBuilder();
+        for (NameSearchIndex.Hit hit : hits) {
+            names.append(hit.getName()).append(", ");
+        }
+        return names.length() > 0 ? names.substring(0, names.length() - 2) : "";
+    }
+
+    private static NameSearchIndex index() {
+        NameSearchIndex index = new NameSearchIndex();
+        index.put(NameSearchIndex.Kind.CUSTOMER, "C1", "Ada Lovelace");
+        index.put(NameSearchIndex.Kind.CUSTOMER, "C2", "Alan Turing");
+        index.put(NameSearchIndex.Kind.EMPLOYEE, "E1", "Grace  Hopper");
+        index.put(NameSearchIndex.Kind.PRODUCT, "P1", "Lamp");
+        return index;
+    }
+
+    @Test
+    public void findsNamesByPrefixOfAnyWord() {
+        NameSearchIndex index = index();
+        assertEquals("Ada Lovelace", names(index.search("ad", 0, 10)));
+        assertEquals("Ada Lovelace", names(index.search("LOVE", 0, 10)));
+        assertEquals("Grace  Hopper", names(index.search("grace hop", 0, 10)));
+        assertEquals("", names(index.search("xyz", 0, 10)));
+
+        NameSearchIndex.Hit hit = index.search("hop", 0, 10).get(0);
+        assertEquals(NameSearchIndex.Kind.EMPLOYEE, hit.getKind());
+        assertEquals("E1", hit.getId());
+        assertEquals(0, hit.getTypos());
+    }
+
+    @Test
+    public void toleratesTyposAndRanksExactMatchesFirst() {
+        NameSearchIndex index = index();
+        assertEquals("", names(index.search("luvel", 0, 10)));
+        List<NameSearchIndex.Hit> hits = index.search("luvel", 1, 10);
+        assertEquals("Ada Lovelace", names(hits));
+        assertEquals(1, hits.get(0).getTypos());
+
+        index.put(NameSearchIndex.Kind.PRODUCT, "P2", "Lamb Chops");
+        List<NameSearchIndex.Hit> lamp = index.search("lamp", 1, 10);
+        assertEquals("Lamp, Lamb Chops", names(lamp));
+        assertEquals(0, lamp.get(0).getTypos());
+        assertEquals(1, lamp.get(1).getTypos());
+    }
+
+    @Test
+    public void reportsEachRecordOnceAndHonoursTheLimit() {
+        NameSearchIndex index = new NameSearchIndex();
+        index.put(NameSearchIndex.Kind.CUSTOMER, "C1", "Anna Annabel");
+        for (int i = 0; i < 20; i++) {
+            index.put(NameSearchIndex.Kind.PRODUCT, "P" + i, "Anvil " + i);
+        }
+        List<NameSearchIndex.Hit> hits = index.search("anna", 1, 100);
+        assertEquals(1, hits.stream().filter(hit -> hit.getId().equals("C1")).count());
+        assertEquals(5, index.search("an", 0, 5).size());
+    }
+
+    @Test
+    public void followsRenamesAndRemovals() {
+        NameSearchIndex index = index();
+        index.put(NameSearchIndex.Kind.CUSTOMER, "C1", "Ada King");
+        assertEquals("", names(index.search("lovelace", 0, 10)));
+        assertEquals("Ada King", names(index.search("king", 0, 10)));
+
+        index.remove(NameSearchIndex.Kind.CUSTOMER, "C1");
+        assertEquals("", names(index.search("ada", 0, 10)));
+        index.put(NameSearchIndex.Kind.PRODUCT, "P1", null);
+        assertEquals("", names(index.search("lamp", 0, 10)));
+        assertEquals(2, index.size());
+    }
+}
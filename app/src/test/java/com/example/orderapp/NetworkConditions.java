@@ -0,0 +1,73 @@
+package com.example.orderapp;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The link between the app and the local AppSync stand-in: a latency added to every
+ * answer and subscription message, with a random jitter, and a bandwidth that transfers
+ * share, so a large response also holds up the ones behind it. Jitter comes from a
+ * seeded generator, so the same requests in the same order see the same delays. One
+ * instance models one link; its state is guarded by its lock.
+ */
+final class NetworkConditions {
+    /** No delay at all. */
+    static final NetworkConditions NONE = new NetworkConditions(0, 0, 0, 0);
+
+    final long latencyMs;
+    final long jitterMs;
+    /** 0 for unlimited. */
+    final long bytesPerSecond;
+    private final Random random;
+    /** When the transfers queued so far are through, on the {@link System#nanoTime} clock. */
+    private long linkFreeAt = Long.MIN_VALUE;
+
+    NetworkConditions(long latencyMs, long jitterMs, long bytesPerSecond, long seed) {
+        if (latencyMs < 0 || jitterMs < 0 || bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Latency, jitter and bandwidth cannot be negative");
+        }
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.bytesPerSecond = bytesPerSecond;
+        this.random = new Random(seed);
+    }
+
+    /** A good LTE connection: 40 ms, 10 ms of jitter, 1.5 MB/s. */
+    static NetworkConditions lte(long seed) {
+        return new NetworkConditions(40, 10, 1_500_000, seed);
+    }
+
+    /** A poor 3G connection: 150 ms, 50 ms of jitter, 100 KB/s. */
+    static NetworkConditions slow3g(long seed) {
+        return new NetworkConditions(150, 50, 100_000, seed);
+    }
+
+    boolean isNone() {
+        return latencyMs == 0 && jitterMs == 0 && bytesPerSecond == 0;
+    }
+
+    boolean limitsBandwidth() {
+        return bytesPerSecond > 0;
+    }
+
+    /**
+     * Queues a transfer of {@code bytes} on the link.
+     *
+     * @return how long after {@code nowNanos} the transfer arrives
+     */
+    synchronized long delayNanos(long nowNanos, long bytes) {
+        if (isNone()) {
+            return 0;
+        }
+        long delay = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        if (jitterMs > 0) {
+            delay += (long) (random.nextDouble() * TimeUnit.MILLISECONDS.toNanos(jitterMs));
+        }
+        if (bytesPerSecond > 0) {
+            long start = Math.max(nowNanos, linkFreeAt);
+            linkFreeAt = start + bytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+            delay += linkFreeAt - nowNanos;
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Group-by-customer and group-by-status totals over Orders, computed with streams over
+ * the model list and with {@link OrderColumns}. Reports the time per group-by after
+ * warm-up and the cost of building the columns once from the list.
+ */
+public class OrderAnalyticsBenchmark {
+    private static final int ORDERS = 500_000;
+    private static final int CUSTOMERS = 10_000;
+    private static final int ROUNDS = 20;
+    private static final String[] STATUSES = {"InProcess", "Shipped", "Delivered", "Cancelled"};
+
+    private static volatile Object sink;
+
+    @Test
+    public void columnsVersusStreams() {
+        Random random = new Random(42);
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(OrderColumnsTest.order("" + i, "c" + random.nextInt(CUSTOMERS),
+                    "AR" + random.nextInt(1_000), "P" + random.nextInt(5_000),
+                    STATUSES[random.nextInt(STATUSES.length)], random.nextInt(500), "2022-01-20"));
+        }
+
+        long start = System.nanoTime();
+        OrderColumns columns = OrderColumns.of(orders);
+        double buildMillis = (System.nanoTime() - start) / 1e6;
+
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            streams(orders);
+            columns(columns);
+        }
+        start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            streams(orders);
+        }
+        double streamMillis = (System.nanoTime() - start) / 1e6 / ROUNDS;
+        start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            columns(columns);
+        }
+        double columnMillis = (System.nanoTime() - start) / 1e6 / ROUNDS;
+
+        System.out.println(String.format(Locale.US,
+                "%,d orders, customer+status group-by: streams %.1f ms, columns %.1f ms (%.1fx); "
+                        + "building columns %.0f ms",
+                ORDERS, streamMillis, columnMillis, streamMillis / columnMillis, buildMillis));
+    }
+
+    private static void streams(List<Order> orders) {
+        Map<String, Long> byCustomer = orders.stream()
+                .collect(Collectors.groupingBy(Order::getCustomerId, Collectors.summingLong(Order::getAmount)));
+        Map<String, Long> byStatus = orders.stream()
+                .collect(Collectors.groupingBy(Order::getStatus, Collectors.summingLong(Order::getAmount)));
+        sink = byCustomer.size() + byStatus.size();
+    }
+
+    private static void columns(OrderColumns columns) {
+        long[] byCustomer = columns.sumBy(OrderColumns.Dimension.CUSTOMER);
+        long[] byStatus = columns.sumBy(OrderColumns.Dimension.STATUS);
+        sink = byCustomer.length + byStatus.length;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class OrderColumnsTest {
+    static Order order(String id, String customerId, String repId, String productId, String status,
+                       int amount, String date) {
+        return Order.builder()
+                .customerId(customerId)
+                .accountRepresentativeId(repId)
+                .productId(productId)
+                .status(status)
+                .amount(amount)
+                .date(date)
+                .id(id)
+                .build();
+    }
+
+    private final List<Order> orders = Arrays.asList(
+            order("1", "c1", "AR1", "P1", "InProcess", 10, "2022-01-10"),
+            order("2", "c2", "AR1", "P2", "Shipped", 20, "2022-02-10"),
+            order("3", "c1", "AR2", "P1", "Shipped", 30, "2022-03-10T08:00:00Z"),
+            order("4", "c3", "AR2", "P3", "InProcess", 40, "Mon Jan 10 2022"));
+
+    @Test
+    public void groupsAmountsByDimension() {
+        OrderColumns columns = OrderColumns.of(orders);
+
+        assertEquals(100, columns.totalAmount());
+        Map<String, Long> byCustomer = columns.totalsBy(OrderColumns.Dimension.CUSTOMER);
+        assertEquals(Long.valueOf(40), byCustomer.get("c1"));
+        assertEquals(Long.valueOf(40), byCustomer.get("c3"));
+        Map<String, Long> byStatus = columns.totalsBy(OrderColumns.Dimension.STATUS);
+        assertEquals(Long.valueOf(50), byStatus.get("InProcess"));
+        assertEquals(Long.valueOf(50), byStatus.get("Shipped"));
+
+        StringDictionary reps = columns.dictionary(OrderColumns.Dimension.REPRESENTATIVE);
+        int[] counts = columns.countBy(OrderColumns.Dimension.REPRESENTATIVE);
+        assertEquals(2, counts[reps.codeOf("AR2")]);
+    }
+
+    @Test
+    public void dateRangeSkipsUnparseableDates() {
+        OrderColumns columns = OrderColumns.of(orders);
+        assertEquals(OrderColumns.UNKNOWN_DATE, columns.dateAt(3));
+
+        long from = OrderColumns.epochMillis("2022-02-01");
+        long to = OrderColumns.epochMillis("2022-04-01");
+        long[] byProduct = columns.sumBy(OrderColumns.Dimension.PRODUCT, from, to);
+        StringDictionary products = columns.dictionary(OrderColumns.Dimension.PRODUCT);
+        assertEquals(30, byProduct[products.codeOf("P1")]);
+        assertEquals(20, byProduct[products.codeOf("P2")]);
+        assertEquals(0, byProduct[products.codeOf("P3")]);
+    }
+}
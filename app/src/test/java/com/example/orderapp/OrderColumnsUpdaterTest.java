@@ -0,0 +1,56 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class OrderColumnsUpdaterTest {
+    private final List<OrderColumns> built = new CopyOnWriteArrayList<>();
+
+    private static Order order(String id, int amount) {
+        return OrderColumnsTest.order(id, "C1", "AR1", "P1", "New", amount, "2022-01-20");
+    }
+
+    private void awaitBuilds(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (built.size() < count) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void burstOfSnapshotsBuildsOnceFromTheNewest() throws Exception {
+        OrderColumnsUpdater updater = new OrderColumnsUpdater(100, built::add);
+        updater.submit(Collections.singletonList(order("o1", 1)));
+        updater.submit(Arrays.asList(order("o1", 1), order("o2", 2)));
+        updater.submit(Arrays.asList(order("o1", 1), order("o2", 2), order("o3", 3)));
+
+        awaitBuilds(1);
+        Thread.sleep(200);
+        assertEquals(1, built.size());
+        assertEquals(3, built.get(0).size());
+        assertEquals(6, built.get(0).totalAmount());
+
+        updater.submit(Collections.singletonList(order("o4", 4)));
+        awaitBuilds(2);
+        assertEquals(4, built.get(1).totalAmount());
+        updater.close();
+    }
+
+    @Test
+    public void closedUpdaterBuildsNothing() throws Exception {
+        OrderColumnsUpdater updater = new OrderColumnsUpdater(10, built::add);
+        updater.close();
+        updater.submit(Collections.singletonList(order("o1", 1)));
+        Thread.sleep(100);
+        assertTrue(built.isEmpty());
+    }
+}
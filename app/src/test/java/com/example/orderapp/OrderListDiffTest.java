@@ -0,0 +1,99 @@
+package com.example.orderapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OrderListDiffTest {
+    private static OrderRow row(String id, int amount) {
+        return new OrderRow(id, "Customer", amount, "InProcess", "2022-01-01");
+    }
+
+    @Test
+    public void identicalListsHaveNoEdits() {
+        List<OrderRow> rows = Arrays.asList(row("a", 1), row("b", 2));
+        assertTrue(OrderListDiff.between(rows, rows).isEmpty());
+    }
+
+    @Test
+    public void reportsInsertsRemovalsAndChanges() {
+        List<OrderRow> before = Arrays.asList(row("a", 1), row("b", 2), row("c", 3));
+        List<OrderRow> after = Arrays.asList(row("new", 9), row("a", 1), row("c", 4));
+
+        OrderListDiff diff = OrderListDiff.between(before, after);
+        assertEquals(Collections.singletonList(1), diff.getRemoved());
+        assertEquals(Collections.singletonList(0), diff.getInserted());
+        assertEquals(Collections.singletonList(2), diff.getChanged());
+        assertTrue(diff.getMoved().isEmpty());
+    }
+
+    @Test
+    public void movesOnlyTheRowsOutOfOrder() {
+        List<OrderRow> before = Arrays.asList(row("a", 1), row("b", 2), row("c", 3), row("d", 4));
+        List<OrderRow> after = Arrays.asList(row("d", 4), row("a", 1), row("b", 2), row("c", 3));
+
+        OrderListDiff diff = OrderListDiff.between(before, after);
+        assertEquals(Collections.singletonList(0), diff.getMoved());
+        assertTrue(diff.getChanged().isEmpty());
+    }
+
+    /** Applies the diff's edits to a copy of {@code before}, taking rows from {@code after}. */
+    private static List<OrderRow> replay(List<OrderRow> before, List<OrderRow> after) {
+        List<OrderRow> shown = new ArrayList<>(before);
+        OrderListDiff.between(before, after).applyTo(new OrderListDiff.Updates() {
+            @Override
+            public void removed(int position) {
+                shown.remove(position);
+            }
+
+            @Override
+            public void inserted(int position) {
+                shown.add(position, after.get(position));
+            }
+
+            @Override
+            public void changed(int position) {
+                shown.set(position, after.get(position));
+            }
+        });
+        return shown;
+    }
+
+    @Test
+    public void replayedEditsTurnTheOldListIntoTheNew() {
+        List<OrderRow> before = Arrays.asList(row("a", 1), row("b", 2), row("c", 3), row("d", 4), row("e", 5));
+        List<OrderRow> after = Arrays.asList(row("new", 9), row("d", 4), row("a", 1), row("c", 6), row("b", 2));
+        assertEquals(after, replay(before, after));
+
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<OrderRow> old = randomRows(random);
+            List<OrderRow> next = randomRows(random);
+            assertEquals(next, replay(old, next));
+        }
+    }
+
+    private static List<OrderRow> randomRows(Random random) {
+        List<OrderRow> rows = new ArrayList<>();
+        for (int id = 0; id < 12; id++) {
+            if (random.nextBoolean()) {
+                rows.add(row("o" + id, random.nextInt(3)));
+            }
+        }
+        Collections.shuffle(rows, random);
+        return rows;
+    }
+
+    @Test
+    public void snapshotAgainstEmptyListIsAllInserts() {
+        List<OrderRow> after = Arrays.asList(row("a", 1), row("b", 2));
+        OrderListDiff diff = OrderListDiff.between(Collections.<OrderRow>emptyList(), after);
+        assertEquals(Arrays.asList(0, 1), diff.getInserted());
+    }
+}
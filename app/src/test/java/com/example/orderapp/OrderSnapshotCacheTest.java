@@ -0,0 +1,56 @@
+package com.example.orderapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OrderSnapshotCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<OrderRow> rows(int count) {
+        List<OrderRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new OrderRow("o" + i, "Customer " + (i % 7), 10 * i,
+                    i % 2 == 0 ? "InProcess" : "Shipped", "2022-01-" + (10 + i % 20)));
+        }
+        return rows;
+    }
+
+    @Test
+    public void savedRowsLoadBackInOrder() throws Exception {
+        OrderSnapshotCache cache = new OrderSnapshotCache(new File(folder.getRoot(), "orders.bin"));
+        List<OrderRow> rows = rows(50);
+        cache.save(rows);
+        assertEquals(rows, cache.load());
+    }
+
+    @Test
+    public void repeatedNamesAndStatusesAreStoredOnce() throws Exception {
+        String encoded = new String(OrderSnapshotCache.encode(rows(500)), StandardCharsets.UTF_8);
+        assertEquals(encoded.indexOf("Customer 3"), encoded.lastIndexOf("Customer 3"));
+        assertEquals(encoded.indexOf("Shipped"), encoded.lastIndexOf("Shipped"));
+    }
+
+    @Test
+    public void missingOrCorruptSnapshotLoadsEmpty() throws Exception {
+        File file = new File(folder.getRoot(), "orders.bin");
+        OrderSnapshotCache cache = new OrderSnapshotCache(file);
+        assertTrue(cache.load().isEmpty());
+
+        byte[] encoded = OrderSnapshotCache.encode(rows(10));
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(Arrays.copyOf(encoded, encoded.length / 2));
+        }
+        assertTrue(cache.load().isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares fixed sync page sizes with {@link AdaptivePageSizer}: base syncs of Blog and
+ * Customer through {@link GraphQLSyncPageSource} from a {@link LocalAppSyncBackend} behind
+ * LTE and slow 3G {@link NetworkConditions}. Times are measured, so they vary from run to
+ * run.
+ */
+public class PageSizingBenchmark {
+    private static final int ROWS = 5_000;
+
+    private LocalAppSyncBackend backend;
+
+    /** Times each page fetch. */
+    private static final class TimedSource implements SyncPageSource {
+        private final SyncPageSource source;
+        long worstPageMillis;
+        int pagesOverBudget;
+
+        TimedSource(SyncPageSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public SyncPage fetch(String modelName, Long lastSync, String nextToken, int limit)
+                throws ApiException {
+            long start = System.nanoTime();
+            SyncPage page = source.fetch(modelName, lastSync, nextToken, limit);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            worstPageMillis = Math.max(worstPageMillis, millis);
+            if (millis > AdaptivePageSizer.DEFAULT_TARGET_PAGE_MILLIS) {
+                pagesOverBudget++;
+            }
+            return page;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        backend = new LocalAppSyncBackend(GraphQLSchema.read(GraphQLSchema.APP_SCHEMA), 2);
+        for (int i = 0; i < ROWS; i++) {
+            backend.executeNow(SoakHarness.mutation("Blog"), Collections.<String, Object>singletonMap("input",
+                    new JSONObject().put("id", "b" + i).put("name", "Blog " + i).toMap()));
+            backend.executeNow(SoakHarness.mutation("Customer"), Collections.<String, Object>singletonMap("input",
+                    new JSONObject().put("id", "c" + i).put("name", "Customer " + i)
+                            .put("phoneNumber", "123-456-7890").put("accountRepresentativeID", "AR" + i % 100)
+                            .toMap()));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        backend.close();
+    }
+
+    private static AdaptivePageSizer fixed(int limit) {
+        return new AdaptivePageSizer(AdaptivePageSizer.DEFAULT_TARGET_PAGE_MILLIS,
+                AdaptivePageSizer.DEFAULT_MAX_PAGE_BYTES, limit, limit, limit);
+    }
+
+    private void run(String label, String network, String modelName, AdaptivePageSizer sizer) throws Exception {
+        TimedSource source = new TimedSource(new GraphQLSyncPageSource(backend));
+        DeltaSyncController controller = new DeltaSyncController(source, new InMemorySyncStateStore(),
+                (model, items) -> { }, DeltaSyncController.DEFAULT_RETENTION_MS,
+                DeltaSyncController.DEFAULT_TOKEN_RETENTION_MS, sizer);
+        DeltaSyncController.Report report = controller.sync(modelName);
+        assertEquals(ROWS, report.getRecords());
+        System.out.println(String.format(Locale.US,
+                "%-6s %-9s %-10s pages=%-4d bytes=%-9d total=%6d ms worstPage=%5d ms overBudget=%d",
+                network, modelName, label, report.getPages(), report.getBytes(), report.getMillis(),
+                source.worstPageMillis, source.pagesOverBudget));
+    }
+
+    /** A fresh link per run, so one run's queued transfers do not hold up the next. */
+    private void connect(String network) {
+        backend.setNetwork(network.equals("lte") ? NetworkConditions.lte(7) : NetworkConditions.slow3g(7));
+    }
+
+    @Test
+    public void fixedVersusAdaptive() throws Exception {
+        for (String network : new String[] {"lte", "slow3g"}) {
+            for (String modelName : new String[] {"Blog", "Customer"}) {
+                for (int limit : new int[] {100, 1000}) {
+                    connect(network);
+                    run("fixed-" + limit, network, modelName, fixed(limit));
+                }
+                connect(network);
+                run("adaptive", network, modelName, new AdaptivePageSizer());
+            }
+        }
+    }
+}
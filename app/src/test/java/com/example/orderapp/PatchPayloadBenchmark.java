@@ -0,0 +1,109 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.amplifyframework.datastore.generated.model.Inventory;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Request bytes of a one-field update, Order.status and Inventory.inventoryAmount: the
+ * generated {@code Update<Model>} document with every field in its input, as a full model
+ * save sends it, against a {@link ModelPatch}. Also the local cost of the change:
+ * {@code copyOfBuilder().build()} against {@link ModelPatch#apply}.
+ */
+public class PatchPayloadBenchmark {
+    private static final int UPDATES = 100_000;
+    private static final int ROUNDS = 5;
+
+    private static volatile Object sink;
+
+    @Test
+    public void patchVersusFullUpdate() throws Exception {
+        Map<String, String> operations = GraphQLDocument.generatedOperations();
+        Order order = Order.builder()
+                .customerId("5f0c2a6e-3b1d-4e8a-9c57-2d1f3e4a5b6c")
+                .accountRepresentativeId("9a8b7c6d-5e4f-4a3b-8c2d-1e0f9a8b7c6d")
+                .productId("1c2d3e4f-5a6b-4c7d-8e9f-0a1b2c3d4e5f")
+                .status("InProcess")
+                .amount(42)
+                .date(SortableDates.orderDate(1_656_590_400_000L))
+                .awsTimeValue(new Temporal.Time("09:15:00.000"))
+                .id("0b4d4a1c-5f1e-4c4b-9a57-1d2f3e4a5b6c")
+                .build();
+        Inventory inventory = Inventory.builder()
+                .productId("1c2d3e4f-5a6b-4c7d-8e9f-0a1b2c3d4e5f")
+                .warehouseId("7e6d5c4b-3a29-4817-a6b5-c4d3e2f1a0b9")
+                .inventoryAmount(100)
+                .id("2f3e4d5c-6b7a-4988-b7c6-d5e4f3a2b1c0")
+                .build();
+
+        report("Order.status", operations.get("UpdateOrder"), order,
+                ModelPatch.of(order, 4).set(Order.STATUS, "Shipped"));
+        report("Inventory.inventoryAmount", operations.get("UpdateInventory"), inventory,
+                ModelPatch.of(inventory, 4).set(Inventory.INVENTORY_AMOUNT, 95));
+
+        double rebuild = best(() -> {
+            Order updated = order;
+            for (int i = 0; i < UPDATES; i++) {
+                updated = order.copyOfBuilder().status(i % 2 == 0 ? "Shipped" : "Delivered").build();
+            }
+            sink = updated;
+        });
+        double patched = best(() -> {
+            Order updated = order;
+            for (int i = 0; i < UPDATES; i++) {
+                updated = ModelPatch.of(order, 4).set(Order.STATUS, i % 2 == 0 ? "Shipped" : "Delivered").apply();
+            }
+            sink = updated;
+        });
+        System.out.println(String.format(Locale.US,
+                "%,d status changes: copyOfBuilder().build() %.1f ms, ModelPatch.apply() %.1f ms",
+                UPDATES, rebuild, patched));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <M extends Model> void report(String change, String fullDocument, M model, ModelPatch<M> patch) {
+        ModelAccessor<M> accessor = ModelAccessors.of((Class<M>) model.getClass());
+        M updated = patch.apply();
+        Map<String, Object> input = new LinkedHashMap<>();
+        for (int field = 0; field < accessor.fieldNames().size(); field++) {
+            if (accessor.isSettable(field)) {
+                Object value = accessor.get(updated, field);
+                input.put(accessor.fieldNames().get(field), value instanceof Temporal.Time
+                        ? ((Temporal.Time) value).format() : value);
+            }
+        }
+        input.put("_version", patch.version());
+        int full = bytes(fullDocument, new JSONObject().put("input", input));
+        int minimal = bytes(patch.document(), new JSONObject(patch.variables()));
+        int fullVariables = new JSONObject().put("input", input).toString().length();
+        int minimalVariables = new JSONObject(patch.variables()).toString().length();
+        System.out.println(String.format(Locale.US,
+                "%s: full update %,d bytes (input %,d), patch %,d bytes (input %,d), %.0f%% smaller",
+                change, full, fullVariables, minimal, minimalVariables, 100.0 * (full - minimal) / full));
+    }
+
+    /** @return the size of the request body, {@code {"query", "variables"}}, in UTF-8 */
+    private static int bytes(String document, JSONObject variables) {
+        return new JSONObject().put("query", document).put("variables", variables).toString()
+                .getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static double best(Runnable run) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
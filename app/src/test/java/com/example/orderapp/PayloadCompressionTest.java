@@ -0,0 +1,96 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class PayloadCompressionTest {
+    private static final byte[] MUTATION = ("{\"query\":\"mutation UpdateOrder($input: UpdateOrderInput!) {"
+            + " updateOrder(input: $input) { " + GraphQLSelections.of("Order") + " } }\",\"variables\":{\"input\":"
+            + "{\"id\":\"0b4d4a1c-5f1e-4c4b-9a57-1d2f3e4a5b6c\",\"status\":\"Shipped\",\"_version\":4}}}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void everyCodingRoundTrips() throws IOException {
+        for (PayloadCompression.Coding coding : PayloadCompression.Coding.values()) {
+            byte[] encoded = PayloadCompression.encode(coding, MUTATION);
+            assertArrayEquals(coding.token(), MUTATION, PayloadCompression.decode(coding, encoded));
+            assertSame(coding, PayloadCompression.Coding.forToken(coding.token().toUpperCase()));
+        }
+        assertSame(PayloadCompression.Coding.IDENTITY, PayloadCompression.Coding.forToken(null));
+        assertNull(PayloadCompression.Coding.forToken("br"));
+    }
+
+    @Test
+    public void theFieldDictionaryHelpsSmallBodiesMost() {
+        int gzip = PayloadCompression.encode(PayloadCompression.Coding.GZIP, MUTATION).length;
+        int deflate = PayloadCompression.encode(PayloadCompression.Coding.DEFLATE, MUTATION).length;
+        int dictionary = PayloadCompression.encode(PayloadCompression.Coding.FIELD_DICTIONARY, MUTATION).length;
+        assertTrue(deflate < gzip);
+        assertTrue(dictionary + " vs " + deflate, dictionary < deflate * 0.8);
+        String text = new String(PayloadCompression.dictionary(), StandardCharsets.UTF_8);
+        assertTrue(text.contains("\"" + Order.ACCOUNT_REPRESENTATIVE_ID.getFieldName() + "\":"));
+        assertTrue(text.contains("\"__typename\":\"Inventory\""));
+    }
+
+    @Test
+    public void refusesBrokenAndOversizedBodies() {
+        byte[] deflated = PayloadCompression.encode(PayloadCompression.Coding.FIELD_DICTIONARY, MUTATION);
+        try {
+            PayloadCompression.decode(PayloadCompression.Coding.FIELD_DICTIONARY,
+                    Arrays.copyOf(deflated, deflated.length / 2));
+            fail("decoded a truncated body");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("Truncated"));
+        }
+        try {
+            PayloadCompression.decode(PayloadCompression.Coding.GZIP, MUTATION);
+            fail("decoded a plain body as gzip");
+        } catch (IOException expected) {
+            // Not in gzip format.
+        }
+        // Deflate needs the dictionary to read what was written with it.
+        try {
+            PayloadCompression.decode(PayloadCompression.Coding.DEFLATE, deflated);
+            fail("inflated without the dictionary");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("deflate"));
+        }
+
+        byte[] bomb = PayloadCompression.encode(PayloadCompression.Coding.GZIP,
+                new byte[PayloadCompression.MAX_DECODED_BYTES + 1]);
+        try {
+            PayloadCompression.decode(PayloadCompression.Coding.GZIP, bomb);
+            fail("inflated past the limit");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("inflates past"));
+        }
+    }
+
+    @Test
+    public void negotiatesByQualityThenPreference() {
+        String offer = PayloadCompression.acceptEncoding(PayloadCompression.PREFERRED);
+        assertEquals(PayloadCompression.Coding.FIELD_DICTIONARY.token() + ", gzip;q=0.9, deflate;q=0.8", offer);
+        assertSame(PayloadCompression.Coding.FIELD_DICTIONARY,
+                PayloadCompression.negotiate(offer, PayloadCompression.PREFERRED));
+        // A server without the same dictionary answers with the next best.
+        assertSame(PayloadCompression.Coding.GZIP, PayloadCompression.negotiate(
+                "x-deflate-fields-00000000, gzip;q=0.9, deflate;q=0.8", PayloadCompression.PREFERRED));
+        assertSame(PayloadCompression.Coding.DEFLATE, PayloadCompression.negotiate(
+                "gzip;q=0.5, deflate", PayloadCompression.PREFERRED));
+        assertSame(PayloadCompression.Coding.GZIP, PayloadCompression.negotiate(
+                "deflate;q=0, *;q=0.3", Arrays.asList(PayloadCompression.Coding.DEFLATE,
+                        PayloadCompression.Coding.GZIP)));
+        assertSame(PayloadCompression.Coding.IDENTITY, PayloadCompression.negotiate(
+                "br", PayloadCompression.PREFERRED));
+        assertSame(PayloadCompression.Coding.IDENTITY, PayloadCompression.negotiate(
+                null, Collections.singletonList(PayloadCompression.Coding.GZIP)));
+    }
+}
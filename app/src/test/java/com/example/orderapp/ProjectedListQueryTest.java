@@ -0,0 +1,108 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ProjectedListQueryTest {
+    private static final int CUSTOMERS = 500;
+
+    private LocalAppSyncBackend backend;
+
+    @Before
+    public void setUp() throws Exception {
+        backend = new LocalAppSyncBackend(GraphQLSchema.read(GraphQLSchema.APP_SCHEMA), 2);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            backend.executeNow(SoakHarness.mutation("Customer"), Collections.<String, Object>singletonMap("input",
+                    new JSONObject().put("id", "c" + i).put("name", "Customer " + i)
+                            .put("phoneNumber", "123-456-7890").put("accountRepresentativeID", "AR" + i / 50)
+                            .toMap()));
+        }
+        Map<String, Object> tombstone = new HashMap<>();
+        tombstone.put("id", "c" + (CUSTOMERS - 1));
+        tombstone.put("_version", 1);
+        backend.executeNow(GraphQLDocument.generatedOperations().get("DeleteCustomer"),
+                Collections.<String, Object>singletonMap("input", tombstone));
+    }
+
+    @After
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Test
+    public void documentSelectsOnlyDeclaredFields() {
+        String document = ProjectedListQuery.document(CustomerName.PROJECTION);
+        assertTrue(document.contains("listCustomers(filter: $filter, limit: $limit, nextToken: $nextToken)"));
+        assertTrue(document.contains("items { id name _deleted }"));
+        assertFalse(document.contains("ordersByDate"));
+    }
+
+    @Test
+    public void projectedPageIsSmallerThanFullSelection() throws Exception {
+        ProjectedListQuery<CustomerName> query = new ProjectedListQuery<>(backend, CustomerName.PROJECTION);
+        Map<String, Object> variables = Collections.<String, Object>singletonMap("limit", CUSTOMERS);
+
+        ProjectedListQuery.Page<CustomerName> page = query.parse(
+                backend.executeNow(ProjectedListQuery.document(CustomerName.PROJECTION), variables));
+        List<CustomerName> names = page.getItems();
+        assertEquals(CUSTOMERS - 1, names.size());
+        assertEquals(1, query.getStats().getPages());
+
+        // The same page with the scalar fields the generated queries select.
+        String full = backend.executeNow("query ListCustomers($limit: Int) { listCustomers(limit: $limit) {"
+                + " items { " + GraphQLSelections.of("Customer") + " } nextToken } }", variables);
+        long fullBytes = full.getBytes(StandardCharsets.UTF_8).length;
+        long projectedBytes = query.getStats().getPayloadBytes();
+        assertTrue(projectedBytes + " vs " + fullBytes, projectedBytes * 3 < fullBytes);
+    }
+
+    @Test
+    public void passesTheFilterAndPagesThroughShortPages() throws Exception {
+        CustomerLookup lookup = new CustomerLookup(backend);
+        List<List<CustomerName>> results = Collections.synchronizedList(new ArrayList<>());
+        List<ApiException> errors = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+
+        // Customer 1, 10-19 and 100-199: more than one page holds a match.
+        lookup.find("Customer 1", 20, found -> {
+            results.add(found);
+            done.countDown();
+        }, error -> {
+            errors.add(error);
+            done.countDown();
+        });
+        lookup.find("Nobody", 20, found -> {
+            results.add(found);
+            done.countDown();
+        }, error -> {
+            errors.add(error);
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(errors.isEmpty());
+        List<CustomerName> found = results.get(0).size() == 20 ? results.get(0) : results.get(1);
+        List<CustomerName> none = found == results.get(0) ? results.get(1) : results.get(0);
+        assertEquals(20, found.size());
+        for (CustomerName name : found) {
+            assertTrue(name.getName(), name.getName().startsWith("Customer 1"));
+        }
+        assertTrue(none.isEmpty());
+        assertTrue(lookup.getStats().getPages() > 2);
+    }
+}
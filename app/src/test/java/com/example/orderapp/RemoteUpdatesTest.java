@@ -0,0 +1,120 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.datastore.generated.model.Inventory;
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RemoteUpdatesTest {
+    private LocalAppSyncBackend backend;
+    /** The documents sent, by operation name. */
+    private final List<String> operations = Collections.synchronizedList(new ArrayList<>());
+    /** Runs once before the next update mutation reaches the backend, while it is set. */
+    private Runnable beforeUpdate;
+
+    /** Runs each request on the calling thread. */
+    private final GraphQLTransport direct = (document, variables, onData, onError) -> {
+        String data;
+        try {
+            data = backend.executeNow(document, variables);
+        } catch (ApiException error) {
+            onError.accept(error);
+            return;
+        }
+        onData.accept(data);
+    };
+
+    private final GraphQLTransport transport = (document, variables, onData, onError) -> {
+        String operation = AmplifyGraphQLTransport.operationName(document);
+        operations.add(operation);
+        if (operation.startsWith("Update") && beforeUpdate != null) {
+            Runnable run = beforeUpdate;
+            beforeUpdate = null;
+            run.run();
+        }
+        direct.execute(document, variables, onData, onError);
+    };
+
+    private final RemoteUpdates updates = new RemoteUpdates(transport);
+
+    @Before
+    public void setUp() throws Exception {
+        backend = new LocalAppSyncBackend(GraphQLSchema.read(GraphQLSchema.APP_SCHEMA), 2);
+        create("Order", FakeSyncBackend.row("Order", "O-1").put("status", "InProcess"));
+        create("Inventory", FakeSyncBackend.row("Inventory", "I-1")
+                .put("productID", "P-1").put("warehouseID", "W-1").put("inventoryAmount", 10));
+    }
+
+    @After
+    public void tearDown() {
+        backend.close();
+    }
+
+    private void create(String modelName, JSONObject input) throws ApiException {
+        backend.executeNow(SoakHarness.mutation(modelName), Collections.<String, Object>singletonMap("input",
+                input.toMap()));
+    }
+
+    private static <T> Consumer<T> completing(CompletableFuture<T> result) {
+        return result::complete;
+    }
+
+    private static <T> Consumer<ApiException> failing(CompletableFuture<T> result) {
+        return result::completeExceptionally;
+    }
+
+    @Test
+    public void sendsOnlyTheChangedField() throws Exception {
+        CompletableFuture<Order> shipped = new CompletableFuture<>();
+        updates.setOrderStatus("O-1", "Shipped", completing(shipped), failing(shipped));
+
+        Order order = shipped.get(5, TimeUnit.SECONDS);
+        assertEquals("Shipped", order.getStatus());
+        assertEquals("Order O-1", order.getCustomerId());
+        assertEquals(Arrays.asList("GetOrder", "UpdateOrder"), operations);
+    }
+
+    @Test
+    public void conflictIsRedoneOnAFreshRead() throws Exception {
+        // Someone else takes 3 units between the read and the update.
+        beforeUpdate = () -> {
+            CompletableFuture<Inventory> other = new CompletableFuture<>();
+            new RemoteUpdates(direct).adjustInventory("P-1", "W-1", -3, completing(other), failing(other));
+            assertTrue(other.isDone());
+        };
+        CompletableFuture<Inventory> taken = new CompletableFuture<>();
+        updates.adjustInventory("P-1", "W-1", -1, completing(taken), failing(taken));
+
+        assertEquals(Integer.valueOf(6), taken.get(5, TimeUnit.SECONDS).getInventoryAmount());
+        assertEquals(Arrays.asList("GetInventory", "UpdateInventory", "GetInventory", "UpdateInventory"),
+                operations);
+    }
+
+    @Test
+    public void missingRecordFails() throws Exception {
+        CompletableFuture<Order> shipped = new CompletableFuture<>();
+        updates.setOrderStatus("O-2", "Shipped", completing(shipped), failing(shipped));
+        try {
+            shipped.get(5, TimeUnit.SECONDS);
+            fail("shipped a missing order");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause().getMessage().contains("O-2"));
+        }
+        assertEquals(Collections.singletonList("GetOrder"), operations);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.AccountRepresentative;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RepLeaderboardTest {
+    private static AccountRepresentative rep(String id, String period, Integer orderTotal) {
+        return AccountRepresentative.builder()
+                .id(id)
+                .salesPeriod(period)
+                .orderTotal(orderTotal)
+                .build();
+    }
+
+    private static String ids(List<RepLeaderboard.Standing> standings) {
+        StringBuilder ids = new StringBuilder();
+        for (RepLeaderboard.Standing standing : standings) {
+            ids.append(standing.getRepresentativeId()).append(' ');
+        }
+        return ids.toString().trim();
+    }
+
+    @Test
+    public void ranksRepresentativesOfAPeriodByTotal() {
+        RepLeaderboard leaderboard = new RepLeaderboard(new SalesReportEngine());
+        leaderboard.representativeSaved(rep("AR1", "2022", 50));
+        leaderboard.representativeSaved(rep("AR2", "2022", 70));
+        leaderboard.representativeSaved(rep("AR3", "2022", 50));
+        leaderboard.representativeSaved(rep("AR4", "2021", 999));
+
+        assertEquals("AR2 AR1 AR3", ids(leaderboard.top("2022", 20)));
+        assertEquals("AR2 AR1", ids(leaderboard.top("2022", 2)));
+        assertTrue(leaderboard.top("2020", 20).isEmpty());
+
+        leaderboard.representativeSaved(rep("AR3", "2022", 80));
+        leaderboard.representativeSaved(rep("AR2", "2021", 70));
+        assertEquals("AR3 AR1", ids(leaderboard.top("2022", 20)));
+        assertEquals("AR4 AR2", ids(leaderboard.top("2021", 20)));
+
+        leaderboard.representativeDeleted("AR3");
+        assertEquals("AR1", ids(leaderboard.top("2022", 20)));
+    }
+
+    @Test
+    public void followsTotalsRecomputedFromOrders() {
+        SalesReportEngine engine = new SalesReportEngine();
+        RepLeaderboard leaderboard = new RepLeaderboard(engine);
+        leaderboard.representativeSaved(rep("AR1", "2022", 10));
+        leaderboard.representativeSaved(rep("AR2", "2022", 20));
+
+        engine.rebuild(OrderColumns.of(Arrays.asList(
+                OrderColumnsTest.order("1", "c1", "AR1", "P1", "InProcess", 30, "2022-05-01"))));
+        assertEquals("AR1 AR2", ids(leaderboard.top("2022", 20)));
+        assertEquals(30, leaderboard.top("2022", 1).get(0).getTotal());
+
+        engine.orderSaved(OrderColumnsTest.order("2", "c1", "AR2", "P1", "InProcess", 35, "2022-05-02"));
+        assertEquals("AR2 AR1", ids(leaderboard.top("2022", 20)));
+        // A period the representative is not ranked in does not move it.
+        engine.orderSaved(OrderColumnsTest.order("3", "c1", "AR1", "P1", "InProcess", 500, "2021-05-02"));
+        assertEquals("AR2 AR1", ids(leaderboard.top("2022", 20)));
+    }
+
+    @Test
+    public void latestPeriodIsTheNewestWithRepresentatives() {
+        RepLeaderboard leaderboard = new RepLeaderboard(new SalesReportEngine());
+        assertNull(leaderboard.latestPeriod());
+        leaderboard.representativeSaved(rep("AR1", "2021", 50));
+        leaderboard.representativeSaved(rep("AR2", "2023", 70));
+        assertEquals("2023", leaderboard.latestPeriod());
+
+        leaderboard.representativeDeleted("AR2");
+        assertEquals("2021", leaderboard.latestPeriod());
+    }
+}
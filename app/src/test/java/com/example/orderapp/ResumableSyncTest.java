@@ -0,0 +1,150 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.model.Model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ResumableSyncTest {
+    private static final int ROWS = 50_000;
+
+    /**
+     * Fails random fetches, either before the request reaches the backend or after the
+     * backend has served the page and the response is lost on the way back.
+     */
+    private static final class FlakySource implements SyncPageSource {
+        private final FakeSyncBackend backend;
+        private final Random random = new Random(31);
+        int failures;
+
+        FlakySource(FakeSyncBackend backend) {
+            this.backend = backend;
+        }
+
+        @Override
+        public SyncPage fetch(String modelName, Long lastSync, String nextToken, int limit) throws ApiException {
+            if (random.nextInt(10) == 0) {
+                failures++;
+                throw new ApiException("Connection lost before request", "Retry");
+            }
+            SyncPage page = backend.fetch(modelName, lastSync, nextToken, limit);
+            if (random.nextInt(10) == 0) {
+                failures++;
+                throw new ApiException("Connection lost during response", "Retry");
+            }
+            return page;
+        }
+    }
+
+    @Test
+    public void interruptedBaseSyncResumesFromCheckpoint() throws Exception {
+        FakeSyncBackend backend = new FakeSyncBackend("Order", ROWS);
+        long fullSyncBytes = backend.fetch("Order", null, null, ROWS).getPayloadBytes();
+        backend.bytesServed = 0;
+        backend.pagesServed = 0;
+
+        FlakySource source = new FlakySource(backend);
+        InMemorySyncStateStore state = new InMemorySyncStateStore();
+        Set<String> received = new HashSet<>();
+        int attempts = 0;
+        DeltaSyncController.Report report = null;
+        while (report == null) {
+            attempts++;
+            // A new controller per attempt stands in for the process restarting.
+            DeltaSyncController controller = new DeltaSyncController(source, state,
+                    (modelName, page) -> page.getItems().forEach(item -> received.add(item.getId())));
+            try {
+                report = controller.sync("Order");
+            } catch (ApiException interrupted) {
+                assertTrue(attempts < 1000);
+            }
+        }
+
+        double ratio = (double) backend.bytesServed / fullSyncBytes;
+        assertTrue(source.failures > 0);
+        assertEquals(source.failures + 1, attempts);
+        assertEquals(ROWS, received.size());
+        assertEquals(DeltaSyncController.Mode.BASE, report.getMode());
+        assertNull(state.getCheckpoint("Order"));
+        assertTrue("transfer ratio " + ratio, ratio < 1.25);
+    }
+
+    private static SyncCheckpoint checkpoint(String nextToken, int pages, int limit, long savedAt) {
+        return new SyncCheckpoint(DeltaSyncController.Mode.BASE, 0, 1, nextToken, pages, pages * limit,
+                pages * 1000L, limit, savedAt);
+    }
+
+    private static DeltaSyncController controller(SyncPageSource source, InMemorySyncStateStore state,
+                                                  List<Model> received) {
+        return new DeltaSyncController(source, state, (modelName, page) -> received.addAll(page.getItems()),
+                DeltaSyncController.DEFAULT_RETENTION_MS, DeltaSyncController.DEFAULT_TOKEN_RETENTION_MS,
+                new AdaptivePageSizer());
+    }
+
+    @Test
+    public void resumesAtTheSavedLimit() throws Exception {
+        FakeSyncBackend backend = new FakeSyncBackend("Order", 2000);
+        InMemorySyncStateStore state = new InMemorySyncStateStore();
+        state.saveCheckpoint("Order", checkpoint("0:400", 1, 400, System.currentTimeMillis()));
+        List<Model> received = new ArrayList<>();
+
+        DeltaSyncController.Report report = controller(backend, state, received).sync("Order");
+
+        assertEquals("0:400", backend.requestedTokens.get(0));
+        assertEquals(400, (int) backend.requestedLimits.get(0));
+        assertEquals(1600, received.size());
+        assertEquals(2000, report.getRecords());
+    }
+
+    @Test
+    public void rejectedTokenRestartsTheModel() throws Exception {
+        FakeSyncBackend backend = new FakeSyncBackend("Order", 300);
+        InMemorySyncStateStore state = new InMemorySyncStateStore();
+        state.saveCheckpoint("Order", checkpoint("0:100", 1, 100, System.currentTimeMillis()));
+        backend.expireTokens();
+        List<Model> received = new ArrayList<>();
+
+        DeltaSyncController.Report report = controller(backend, state, received).sync("Order");
+
+        assertEquals("0:100", backend.requestedTokens.get(0));
+        assertNull(backend.requestedTokens.get(1));
+        assertEquals(300, received.size());
+        assertEquals(300, report.getRecords());
+        assertNull(state.getCheckpoint("Order"));
+    }
+
+    @Test
+    public void expiredCheckpointIsNotResumed() throws Exception {
+        FakeSyncBackend backend = new FakeSyncBackend("Order", 300);
+        InMemorySyncStateStore state = new InMemorySyncStateStore();
+        state.saveCheckpoint("Order", checkpoint("0:100", 1, 100,
+                System.currentTimeMillis() - DeltaSyncController.DEFAULT_TOKEN_RETENTION_MS - 1));
+        List<Model> received = new ArrayList<>();
+
+        controller(backend, state, received).sync("Order");
+
+        assertNull(backend.requestedTokens.get(0));
+        assertEquals(300, received.size());
+    }
+
+    @Test
+    public void graphQLSourceReportsARejectedToken() throws Exception {
+        LocalAppSyncBackend appSync = new LocalAppSyncBackend(GraphQLSchema.read(GraphQLSchema.APP_SCHEMA), 1);
+        try {
+            new GraphQLSyncPageSource(appSync).fetch("Order", null, "not-a-token", 100);
+            fail("Expected the token to be rejected");
+        } catch (SyncTokenRejectedException expected) {
+            assertTrue(expected.getMessage().contains("Order"));
+        } finally {
+            appSync.close();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.junit.Test;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Sales totals over 1M orders from 1,000 representatives across three years: the
+ * fork/join rebuild on one worker and on every core, and the cost of one incremental
+ * order update compared with rebuilding.
+ */
+public class SalesReportBenchmark {
+    private static final int ORDERS = 1_000_000;
+    private static final int REPRESENTATIVES = 1_000;
+    private static final int UPDATES = 100_000;
+
+    @Test
+    public void rebuildAndIncrementalUpdates() {
+        // Generated on demand so that the million Order objects never exist at once.
+        List<Order> orders = new AbstractList<Order>() {
+            @Override
+            public Order get(int i) {
+                return order(i, i % 500);
+            }
+
+            @Override
+            public int size() {
+                return ORDERS;
+            }
+        };
+        OrderColumns columns = OrderColumns.of(orders);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        double sequentialMillis = rebuildMillis(new SalesReportEngine(new ForkJoinPool(1)), columns);
+        SalesReportEngine engine = new SalesReportEngine(new ForkJoinPool(cores));
+        double parallelMillis = rebuildMillis(engine, columns);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            engine.orderSaved(order(i * 7 % ORDERS, i % 400));
+        }
+        double updateMicros = (System.nanoTime() - start) / 1e3 / UPDATES;
+
+        System.out.println(String.format(Locale.US,
+                "%,d orders: rebuild on 1 worker %.0f ms, on %d workers %.0f ms; "
+                        + "incremental update %.2f us (%,.0fx cheaper than a rebuild)",
+                ORDERS, sequentialMillis, cores, parallelMillis, updateMicros,
+                parallelMillis * 1e3 / updateMicros));
+    }
+
+    private static Order order(int i, int amount) {
+        return OrderColumnsTest.order("" + i, "c" + (i % 10_000), "AR" + (i % REPRESENTATIVES), "P1",
+                "InProcess", amount, (2020 + i % 3) + "-0" + (1 + i % 9) + "-15");
+    }
+
+    private static double rebuildMillis(SalesReportEngine engine, OrderColumns columns) {
+        engine.rebuild(columns);
+        long start = System.nanoTime();
+        int rounds = 5;
+        for (int round = 0; round < rounds; round++) {
+            engine.rebuild(columns);
+        }
+        return (System.nanoTime() - start) / 1e6 / rounds;
+    }
+}
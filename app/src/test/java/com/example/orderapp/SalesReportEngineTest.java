@@ -0,0 +1,125 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Order;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class SalesReportEngineTest {
+    private static Order order(String id, String repId, int amount, String date) {
+        return OrderColumnsTest.order(id, "c1", repId, "P1", "InProcess", amount, date);
+    }
+
+    @Test
+    public void totalsPerRepresentativeAndYear() {
+        SalesReportEngine engine = new SalesReportEngine();
+        engine.rebuild(OrderColumns.of(Arrays.asList(
+                order("1", "AR1", 10, "2022-01-10"),
+                order("2", "AR1", 20, "2022-12-31"),
+                order("3", "AR1", 40, "2023-01-01"),
+                order("4", "AR2", 5, "2022-06-01"),
+                order("5", "AR2", 7, "not a date"))));
+
+        assertEquals(30, engine.total("2022", "AR1"));
+        assertEquals(40, engine.total("2023", "AR1"));
+        assertEquals(5, engine.total("2022", "AR2"));
+        assertEquals(0, engine.total("2023", "AR2"));
+        assertEquals(new HashSet<>(Arrays.asList("AR1", "AR2")), engine.drainDirty());
+        assertTrue(engine.drainDirty().isEmpty());
+    }
+
+    @Test
+    public void parallelRebuildMatchesSequentialSums() {
+        List<Order> orders = new ArrayList<>();
+        long expected = 0;
+        for (int i = 0; i < 5 * SalesReportEngine.LEAF_ROWS; i++) {
+            orders.add(order("" + i, "AR" + (i % 3), i % 100, i % 2 == 0 ? "2022-03-01" : "2021-03-01"));
+            if (i % 3 == 1 && i % 2 == 0) {
+                expected += i % 100;
+            }
+        }
+        SalesReportEngine engine = new SalesReportEngine(new ForkJoinPool(4));
+        engine.rebuild(OrderColumns.of(orders));
+        assertEquals(expected, engine.total("2022", "AR1"));
+    }
+
+    @Test
+    public void changesMoveOnlyTheChangedAmount() {
+        SalesReportEngine engine = new SalesReportEngine();
+        engine.rebuild(OrderColumns.of(Arrays.asList(
+                order("1", "AR1", 10, "2022-01-10"),
+                order("2", "AR2", 20, "2022-01-10"))));
+        engine.drainDirty();
+        List<String> changes = new ArrayList<>();
+        engine.addListener(new SalesReportEngine.Listener() {
+            @Override
+            public void totalChanged(String salesPeriod, String representativeId, long total) {
+                changes.add(salesPeriod + "/" + representativeId + "=" + total);
+            }
+
+            @Override
+            public void totalsReplaced() {
+            }
+        });
+
+        engine.orderSaved(order("1", "AR2", 15, "2022-01-10"));
+        assertEquals(0, engine.total("2022", "AR1"));
+        assertEquals(35, engine.total("2022", "AR2"));
+        assertEquals(Arrays.asList("2022/AR1=0", "2022/AR2=35"), changes);
+
+        engine.orderSaved(order("3", "AR1", 5, "2022-02-01"));
+        engine.orderDeleted(order("2", "AR2", 20, "2022-01-10"));
+        assertEquals(5, engine.total("2022", "AR1"));
+        assertEquals(15, engine.total("2022", "AR2"));
+        assertEquals(new HashSet<>(Arrays.asList("AR1", "AR2")), engine.drainDirty());
+
+        // Saving an unchanged order leaves the totals and dirty set alone.
+        engine.orderSaved(order("3", "AR1", 5, "2022-02-01"));
+        assertTrue(engine.drainDirty().isEmpty());
+    }
+
+    @Test
+    public void changesDuringARebuildAreAppliedAfterIt() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        CountDownLatch poolTaken = new CountDownLatch(1);
+        CountDownLatch poolBusy = new CountDownLatch(1);
+        pool.execute(() -> {
+            poolTaken.countDown();
+            try {
+                poolBusy.await();
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        poolTaken.await();
+        SalesReportEngine engine = new SalesReportEngine(pool);
+        engine.orderSaved(order("0", "AR1", 1_000, "2022-01-10"));
+        Thread rebuild = new Thread(() -> engine.rebuild(OrderColumns.of(Arrays.asList(
+                order("1", "AR1", 100, "2022-01-10"),
+                order("2", "AR1", 10, "2022-02-10")))));
+        rebuild.start();
+        while (pool.getQueuedSubmissionCount() == 0) {
+            Thread.sleep(1);
+        }
+
+        // The rebuild is waiting for the pool; these changes come after its snapshot.
+        engine.orderSaved(order("3", "AR1", 50, "2022-03-10"));
+        engine.orderSaved(order("1", "AR1", 30, "2022-01-10"));
+        engine.orderDeleted(order("2", "AR1", 10, "2022-02-10"));
+        poolBusy.countDown();
+        rebuild.join();
+
+        assertEquals(80, engine.total("2022", "AR1"));
+        engine.orderSaved(order("4", "AR1", 5, "2022-04-10"));
+        assertEquals(85, engine.total("2022", "AR1"));
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.DataStoreItemChange;
+import com.amplifyframework.datastore.generated.model.AccountRepresentative;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class SalesReportFeedTest {
+    private final List<Model> saved = new CopyOnWriteArrayList<>();
+
+    /** Starts each observation at once and never reports a change. */
+    private static final DataStoreObserve QUIET = new DataStoreObserve() {
+        @Override
+        public <T extends Model> void observe(
+                Class<T> itemClass, Consumer<Cancelable> start, Consumer<DataStoreItemChange<T>> change,
+                Consumer<DataStoreException> error, Action complete) {
+            start.accept(() -> { });
+        }
+    };
+
+    @Test
+    public void orderTotalIsClampedToAnInt() {
+        assertEquals(1_234, SalesReportFeed.orderTotal(1_234, "AR1"));
+        assertEquals(Integer.MAX_VALUE, SalesReportFeed.orderTotal(3_000_000_000L, "AR1"));
+        assertEquals(Integer.MIN_VALUE, SalesReportFeed.orderTotal(-3_000_000_000L, "AR1"));
+    }
+
+    @Test
+    public void totalsAreWrittenOnlyOnceTheDataStoreIsReady() throws Exception {
+        FakeDataStore store = new FakeDataStore().put(
+                AccountRepresentative.builder().id("AR1").salesPeriod("2022").orderTotal(500).build(),
+                OrderColumnsTest.order("o1", "C1", "AR1", "P1", "New", 10, "2022-01-20"));
+        SalesReportEngine engine = new SalesReportEngine();
+        SalesReportFeed feed = new SalesReportFeed(engine, new RepLeaderboard(engine), saved::add, 10);
+        feed.start(QUIET, store);
+
+        Thread.sleep(100);
+        assertTrue("wrote a total of a partial sync", saved.isEmpty());
+
+        feed.dataStoreReady();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (saved.isEmpty()) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+        feed.dataStoreReady();
+        Thread.sleep(100);
+        assertEquals(1, saved.size());
+        assertEquals(Integer.valueOf(10), ((AccountRepresentative) saved.get(0)).getOrderTotal());
+        feed.close();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.orderapp;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Soak test: a retail dataset from {@link LoadGenerator} written into a
+ * {@link LocalAppSyncBackend} at a fixed rate while clients sync, reporting throughput,
+ * latency percentiles and heap use. Sizes and rates come from system properties, e.g.
+ * {@code ./gradlew testDebugUnitTest -Pbenchmarks -Psoak.seconds=600 -Psoak.writesPerSecond=5000};
+ * {@code soak.latencyMs} and {@code soak.bytesPerSecond} put {@link NetworkConditions} in
+ * front of the backend.
+ */
+public class SoakBenchmark {
+    private static final int CUSTOMERS = Integer.getInteger("soak.customers", 20_000);
+    private static final int SECONDS = Integer.getInteger("soak.seconds", 20);
+    private static final int WRITES_PER_SECOND = Integer.getInteger("soak.writesPerSecond", 2_000);
+    private static final int SYNCS_PER_SECOND = Integer.getInteger("soak.syncsPerSecond", 50);
+    private static final int BACKEND_THREADS = Integer.getInteger("soak.backendThreads", 4);
+    private static final long LATENCY_MS = Long.getLong("soak.latencyMs", 0);
+    private static final long BYTES_PER_SECOND = Long.getLong("soak.bytesPerSecond", 0);
+
+    @Test
+    public void soak() throws Exception {
+        GraphQLSchema schema = GraphQLSchema.read(GraphQLSchema.APP_SCHEMA);
+        long start = System.nanoTime();
+        Map<String, List<JSONObject>> dataset = LoadGenerator.retail(schema, CUSTOMERS, 42).generate();
+        int records = 0;
+        StringBuilder sizes = new StringBuilder();
+        for (Map.Entry<String, List<JSONObject>> model : dataset.entrySet()) {
+            records += model.getValue().size();
+            sizes.append(' ').append(model.getKey()).append('=').append(model.getValue().size());
+        }
+        System.out.println(String.format(Locale.US, "Generated %,d records in %d ms:%s",
+                records, (System.nanoTime() - start) / 1_000_000, sizes));
+
+        LocalAppSyncBackend backend = new LocalAppSyncBackend(schema, BACKEND_THREADS);
+        backend.setNetwork(new NetworkConditions(LATENCY_MS, LATENCY_MS / 4, BYTES_PER_SECOND, 42));
+        try {
+            SoakHarness harness = new SoakHarness(backend, Arrays.asList("Customer", "Order", "Inventory"));
+            SoakHarness.Report report = harness.run(dataset, WRITES_PER_SECOND, SYNCS_PER_SECOND,
+                    SECONDS * 1_000L, 5_000);
+            System.out.println(String.format(Locale.US, "%d s at %,d writes/s and %d syncs/s:%n%s",
+                    SECONDS, WRITES_PER_SECOND, SYNCS_PER_SECOND, report));
+        } finally {
+            backend.close();
+        }
+    }
+}
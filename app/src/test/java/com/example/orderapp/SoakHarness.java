@@ -0,0 +1,175 @@
+package com.example.orderapp;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a {@link GraphQLTransport} at fixed rates for a fixed time: create mutations for
+ * the records of a {@link LoadGenerator} dataset, in order, and sync queries of random
+ * models. Requests are issued on a schedule whether or not earlier ones have answered
+ * (open loop), so a backend that falls behind shows up as growing latency instead of a
+ * quietly lower request rate; at most {@link #MAX_IN_FLIGHT} wait for an answer, beyond
+ * that requests are counted as dropped.
+ *
+ * <p>The {@link Report} holds the throughput and latency percentiles of each kind of
+ * request, and the heap in use, sampled every {@link #SAMPLE_MS} ms.
+ */
+final class SoakHarness {
+    static final int MAX_IN_FLIGHT = 10_000;
+    static final long TICK_MS = 5;
+    static final long SAMPLE_MS = 1_000;
+    private static final int SYNC_PAGE = 100;
+
+    private final GraphQLTransport transport;
+    private final List<String> syncModels;
+
+    SoakHarness(GraphQLTransport transport, List<String> syncModels) {
+        this.transport = transport;
+        this.syncModels = syncModels;
+    }
+
+    /**
+     * Runs for {@code durationMs}, then waits up to {@code drainMs} for answers still
+     * outstanding. Writes stop early when the dataset runs out.
+     */
+    Report run(Map<String, List<JSONObject>> dataset, double writesPerSecond, double syncsPerSecond,
+               long durationMs, long drainMs) throws InterruptedException {
+        List<String> writeModels = new ArrayList<>();
+        List<JSONObject> writes = new ArrayList<>();
+        for (Map.Entry<String, List<JSONObject>> model : dataset.entrySet()) {
+            for (JSONObject record : model.getValue()) {
+                writeModels.add(model.getKey());
+                writes.add(record);
+            }
+        }
+
+        Report report = new Report(durationMs);
+        AtomicInteger inFlight = new AtomicInteger();
+        Random random = new Random(1);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        long[] issued = new long[2];
+        long[] lastSample = {start};
+        report.sampleHeap();
+        scheduler.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            double elapsedSeconds = (now - start) / 1e9;
+            while (issued[0] < Math.min(writes.size(), (long) (elapsedSeconds * writesPerSecond))) {
+                int index = (int) issued[0]++;
+                issue(report.writes, inFlight, mutation(writeModels.get(index)),
+                        Collections.<String, Object>singletonMap("input", writes.get(index).toMap()));
+            }
+            while (issued[1] < (long) (elapsedSeconds * syncsPerSecond)) {
+                issued[1]++;
+                String model = syncModels.get(random.nextInt(syncModels.size()));
+                Map<String, Object> variables = new HashMap<>();
+                variables.put("limit", SYNC_PAGE);
+                issue(report.syncs, inFlight, GraphQLSyncPageSource.document(model), variables);
+            }
+            if (now - lastSample[0] >= TimeUnit.MILLISECONDS.toNanos(SAMPLE_MS)) {
+                lastSample[0] = now;
+                report.sampleHeap();
+            }
+        }, 0, TICK_MS, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(durationMs);
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        long drainUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainMs);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        report.sampleHeap();
+        report.unanswered = inFlight.get();
+        return report;
+    }
+
+    private void issue(Requests requests, AtomicInteger inFlight, String document, Map<String, Object> variables) {
+        if (inFlight.incrementAndGet() > MAX_IN_FLIGHT) {
+            inFlight.decrementAndGet();
+            requests.dropped.incrementAndGet();
+            return;
+        }
+        long sent = System.nanoTime();
+        transport.execute(document, variables,
+                data -> {
+                    requests.latency.record(System.nanoTime() - sent);
+                    requests.completed.incrementAndGet();
+                    inFlight.decrementAndGet();
+                },
+                error -> {
+                    requests.latency.record(System.nanoTime() - sent);
+                    requests.failed.incrementAndGet();
+                    inFlight.decrementAndGet();
+                }
+        );
+    }
+
+    /** @return a create mutation of the model with its scalar selection set */
+    static String mutation(String modelName) {
+        return "mutation Create" + modelName + "($input: Create" + modelName + "Input!) {"
+                + " create" + modelName + "(input: $input) { " + GraphQLSelections.of(modelName) + " } }";
+    }
+
+    static final class Requests {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+
+        String summary(long durationMs) {
+            return String.format(Locale.US,
+                    "%,d ok (%,.0f/s), %d failed, %d dropped, p50 %,d us, p90 %,d us, p99 %,d us",
+                    completed.get(), completed.get() * 1000.0 / durationMs, failed.get(), dropped.get(),
+                    latency.percentileMicros(50), latency.percentileMicros(90), latency.percentileMicros(99));
+        }
+    }
+
+    static final class Report {
+        final Requests writes = new Requests();
+        final Requests syncs = new Requests();
+        final long durationMs;
+        private final List<Long> heapSamples = Collections.synchronizedList(new ArrayList<>());
+        int unanswered;
+
+        Report(long durationMs) {
+            this.durationMs = durationMs;
+        }
+
+        void sampleHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            heapSamples.add(runtime.totalMemory() - runtime.freeMemory());
+        }
+
+        long maxHeapBytes() {
+            synchronized (heapSamples) {
+                return Collections.max(heapSamples);
+            }
+        }
+
+        long lastHeapBytes() {
+            synchronized (heapSamples) {
+                return heapSamples.get(heapSamples.size() - 1);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "writes: %s%nsyncs: %s%nheap: max %,d MB, end %,d MB; %d unanswered",
+                    writes.summary(durationMs), syncs.summary(durationMs),
+                    maxHeapBytes() >> 20, lastHeapBytes() >> 20, unanswered);
+        }
+    }
+}
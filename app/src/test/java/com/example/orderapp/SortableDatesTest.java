@@ -0,0 +1,59 @@
+package com.example.orderapp;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SortableDatesTest {
+    @Test
+    public void encodesFixedWidthIsoValues() {
+        long millis = Instant.parse("2022-01-20T10:11:12.345Z").toEpochMilli();
+        assertEquals("2022-01-20T10:11:12.345Z", SortableDates.orderDate(millis));
+        assertEquals("2022-01-20", SortableDates.startDate(millis));
+        assertTrue(SortableDates.isOrderDate("2022-01-20T10:11:12.345Z"));
+        assertFalse(SortableDates.isOrderDate("2022-01-20T10:11:12.3450Z"));
+        assertFalse(SortableDates.isOrderDate("2022-01-20"));
+        assertTrue(SortableDates.isStartDate("2022-01-20"));
+        assertFalse(SortableDates.isStartDate("2022-01-2022"));
+        assertFalse(SortableDates.isStartDate(null));
+    }
+
+    @Test
+    public void convertsValuesWrittenBeforeTheEncoding() {
+        assertEquals("2022-01-01", SortableDates.toStartDate("2022-01-2022"));
+        assertEquals("2022-01-20", SortableDates.toStartDate("2022-01-20T23:59:59Z"));
+        assertEquals("2022-01-20T00:00:00.000Z", SortableDates.toOrderDate("2022-01-20"));
+        assertEquals("2022-01-20T08:11:12.000Z", SortableDates.toOrderDate("2022-01-20T10:11:12+02:00"));
+
+        long millis = Instant.parse("2022-03-04T05:06:07Z").toEpochMilli();
+        assertEquals("2022-03-04T05:06:07.000Z", SortableDates.toOrderDate(String.valueOf(new Date(millis))));
+
+        assertNull(SortableDates.toOrderDate("yesterday"));
+        assertNull(SortableDates.toStartDate("2022-01-2023"));
+        assertNull(SortableDates.toStartDate(null));
+    }
+
+    @Test
+    public void stringOrderIsTimeOrder() {
+        Random random = new Random(3);
+        List<Long> instants = new ArrayList<>();
+        List<String> encoded = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long millis = (long) (random.nextDouble() * 4_000_000_000_000L);
+            instants.add(millis);
+            encoded.add(SortableDates.orderDate(millis));
+        }
+        Collections.sort(instants);
+        Collections.sort(encoded);
+        for (int i = 0; i < instants.size(); i++) {
+            assertEquals(SortableDates.orderDate(instants.get(i)), encoded.get(i));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.orderapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Saves per second a click handler can issue: appending to the staged save log,
+ * compared with a durable write per save. Each direct {@code DataStore.save} pays for a
+ * durable write in its own SQLite transaction, so the durable write is the floor of the
+ * direct path's cost.
+ */
+public class StagedSaveBenchmark {
+    private static final int SAVES = 7_000;
+    /** Roughly one Employee as the queue encodes it. */
+    private static final byte[] RECORD = ("com.amplifyframework.datastore.generated.model.Employee\n"
+            + "{\"id\":\"3001\",\"name\":\"Employee3001\",\"startDate\":\"2022-01-20\",\"phoneNumber\":\"123-456-7890\","
+            + "\"warehouseID\":\"WareHouse3001\",\"jobTitle\":\"Helper\",\"newHire\":\"no\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void stagedVersusDurablePerSave() throws Exception {
+        WriteAheadLog log = WriteAheadLog.open(new File(folder.getRoot(), "staged.log"), 16 * 1024 * 1024);
+        long start = System.nanoTime();
+        for (int i = 0; i < SAVES; i++) {
+            log.append(RECORD);
+        }
+        double stagedPerSecond = SAVES / ((System.nanoTime() - start) / 1e9);
+        log.close();
+
+        try (RandomAccessFile direct = new RandomAccessFile(new File(folder.getRoot(), "direct.db"), "rw")) {
+            start = System.nanoTime();
+            for (int i = 0; i < SAVES; i++) {
+                direct.write(RECORD);
+                direct.getFD().sync();
+            }
+        }
+        double directPerSecond = SAVES / ((System.nanoTime() - start) / 1e9);
+
+        System.out.println(String.format(Locale.US,
+                "%d saves: staged %.0f saves/s, durable per save %.0f saves/s (%.0fx)",
+                SAVES, stagedPerSecond, directPerSecond, stagedPerSecond / directPerSecond));
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.datastore.DataStoreException;
+import com.amplifyframework.datastore.generated.model.Blog;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class StagedSaveQueueTest {
+    private static final long WAIT_MS = 10_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Every save the queue issues, as "id=name", in order. */
+    private final List<String> attempts = Collections.synchronizedList(new ArrayList<>());
+
+    private static Blog blog(String id, String name) {
+        return Blog.builder().name(name).id(id).build();
+    }
+
+    private File path() throws Exception {
+        File path = folder.newFile("saves.log");
+        path.delete();
+        return path;
+    }
+
+    private static void awaitDrained(StagedSaveQueue queue) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (queue.pending() > 0) {
+            assertTrue("Still " + queue.pending() + " staged", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void fullLogBlocksTheSaverInsteadOfSavingAroundIt() throws Exception {
+        CountDownLatch storeUp = new CountDownLatch(1);
+        StagedSaveQueue queue = StagedSaveQueue.open(path(), 2048, (item, delete, onDone, onError) -> {
+            try {
+                storeUp.await();
+            } catch (InterruptedException error) {
+                throw new AssertionError(error);
+            }
+            attempts.add(item.getId() + "=" + ((Blog) item).getName());
+            onDone.call();
+        }, WAIT_MS, 10);
+
+        List<String> saved = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            saved.add("b" + i % 3 + "=v" + i);
+        }
+        Thread saver = new Thread(() -> {
+            for (String save : saved) {
+                String[] parts = save.split("=");
+                queue.save(blog(parts[0], parts[1]));
+            }
+        });
+        saver.start();
+        saver.join(200);
+        assertTrue("The saver should wait for room", saver.isAlive());
+        assertTrue(attempts.isEmpty());
+
+        storeUp.countDown();
+        saver.join(WAIT_MS);
+        assertFalse(saver.isAlive());
+        awaitDrained(queue);
+        // Every save went through the log, so the last one of each blog landed last.
+        assertEquals(saved, attempts);
+    }
+
+    @Test
+    public void timedOutBatchIsWaitedOnAgainNotResaved() throws Exception {
+        List<Action> callbacks = Collections.synchronizedList(new ArrayList<>());
+        StagedSaveQueue queue = StagedSaveQueue.open(path(), 4096, (item, delete, onDone, onError) -> {
+            attempts.add(item.getId());
+            callbacks.add(onDone);
+        }, 20, 10);
+
+        queue.save(blog("b0", "A"));
+        queue.save(blog("b1", "B"));
+        Thread.sleep(200);
+        // Several timeouts have passed; b0 is still waited on, not saved again.
+        assertEquals(1, Collections.frequency(attempts, "b0"));
+        assertEquals(2, queue.pending());
+
+        callbacks.get(0).call();
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (callbacks.size() < 2) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+        callbacks.get(1).call();
+        awaitDrained(queue);
+        assertEquals(Arrays.asList("b0", "b1"), attempts);
+    }
+
+    @Test
+    public void failedSaveIsRetriedWithTheSavesBehindIt() throws Exception {
+        StagedSaveQueue queue = StagedSaveQueue.open(path(), 4096, new FailingStore("b1", 1), WAIT_MS, 10);
+
+        queue.save(blog("b0", "A"));
+        queue.save(blog("b1", "B"));
+        queue.save(blog("b2", "C"));
+        awaitDrained(queue);
+
+        // b2 may have been saved alongside the failed b1; either way it is saved again after it.
+        assertEquals(1, Collections.frequency(attempts, "b0"));
+        assertEquals(2, Collections.frequency(attempts, "b1"));
+        assertEquals(Arrays.asList("b1", "b2"), attempts.subList(attempts.size() - 2, attempts.size()));
+    }
+
+    @Test
+    public void saveThatKeepsFailingIsDropped() throws Exception {
+        StagedSaveQueue queue = StagedSaveQueue.open(path(), 4096, new FailingStore("b1", Integer.MAX_VALUE),
+                WAIT_MS, 1);
+
+        queue.save(blog("b0", "A"));
+        queue.save(blog("b1", "B"));
+        queue.save(blog("b2", "C"));
+        awaitDrained(queue);
+
+        assertEquals(StagedSaveQueue.MAX_ATTEMPTS, Collections.frequency(attempts, "b1"));
+        assertEquals("b2", attempts.get(attempts.size() - 1));
+    }
+
+    @Test
+    public void closeDrainsTheLogAndEndsTheWorker() throws Exception {
+        CountDownLatch storeUp = new CountDownLatch(1);
+        StagedSaveQueue queue = StagedSaveQueue.open(path(), 4096, (item, delete, onDone, onError) -> {
+            try {
+                storeUp.await();
+            } catch (InterruptedException error) {
+                throw new AssertionError(error);
+            }
+            attempts.add(item.getId());
+            onDone.call();
+        }, WAIT_MS, 10);
+        queue.save(blog("b0", "A"));
+        queue.save(blog("b1", "B"));
+
+        queue.close();
+        try {
+            queue.save(blog("b2", "C"));
+            fail("Saved after close");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("b2"));
+        }
+        assertFalse(queue.awaitClosed(50));
+
+        storeUp.countDown();
+        assertTrue(queue.awaitClosed(WAIT_MS));
+        assertEquals(Arrays.asList("b0", "b1"), attempts);
+    }
+
+    @Test
+    public void reopeningWaitsForTheClosingQueue() throws Exception {
+        File path = path();
+        CountDownLatch storeUp = new CountDownLatch(1);
+        StagedSaveQueue first = StagedSaveQueue.open(path, 4096, (item, delete, onDone, onError) -> {
+            try {
+                storeUp.await();
+            } catch (InterruptedException error) {
+                throw new AssertionError(error);
+            }
+            attempts.add(item.getId());
+            onDone.call();
+        }, WAIT_MS, 10);
+        first.save(blog("b0", "A"));
+        first.close();
+
+        List<StagedSaveQueue> reopened = new ArrayList<>();
+        Thread opener = new Thread(() -> {
+            try {
+                reopened.add(StagedSaveQueue.open(path, 4096, (item, delete, onDone, onError) -> {
+                    attempts.add("again " + item.getId());
+                    onDone.call();
+                }, WAIT_MS, 10));
+            } catch (Exception error) {
+                throw new AssertionError(error);
+            }
+        });
+        opener.start();
+        opener.join(100);
+        assertTrue("The second queue should wait for the first", opener.isAlive());
+
+        storeUp.countDown();
+        opener.join(WAIT_MS);
+        assertFalse(opener.isAlive());
+        // The first queue drained b0, so the second has nothing to save again.
+        assertEquals(0, reopened.get(0).pending());
+        assertEquals(Collections.singletonList("b0"), attempts);
+        reopened.get(0).close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void modelLargerThanTheLogIsRejected() throws Exception {
+        StagedSaveQueue queue = StagedSaveQueue.open(path(), 256, (item, delete, onDone, onError) -> onDone.call(),
+                WAIT_MS, 10);
+        char[] name = new char[200];
+        Arrays.fill(name, 'x');
+        queue.save(blog("b0", new String(name)));
+    }
+
+    /** Fails the first {@code failures} saves of one model. */
+    private final class FailingStore implements DataStoreWrite {
+        private final String failingId;
+        private int failures;
+
+        FailingStore(String failingId, int failures) {
+            this.failingId = failingId;
+            this.failures = failures;
+        }
+
+        @Override
+        public void write(Model item, boolean delete, Action onDone,
+                          Consumer<DataStoreException> onError) {
+            attempts.add(item.getId());
+            if (item.getId().equals(failingId) && failures > 0) {
+                failures--;
+                onError.accept(new DataStoreException("Disk full", "Free some space."));
+            } else {
+                onDone.call();
+            }
+        }
+    }
+}
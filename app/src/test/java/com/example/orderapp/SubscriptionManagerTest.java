@@ -0,0 +1,123 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SubscriptionManagerTest {
+    /** Records every upstream subscription and lets the test push messages into it. */
+    private static final class FakeTransport implements SubscriptionTransport {
+        final List<String> documents = new ArrayList<>();
+        final List<Map<String, Object>> variables = new ArrayList<>();
+        final List<Consumer<String>> sinks = new ArrayList<>();
+        final List<Consumer<ApiException>> failures = new ArrayList<>();
+        final List<Action> completions = new ArrayList<>();
+        int cancelled;
+
+        @Override
+        public Cancelable subscribe(String document, Map<String, Object> variables,
+                                    Consumer<String> onData, Consumer<ApiException> onError,
+                                    Action onComplete) {
+            documents.add(document);
+            this.variables.add(variables);
+            sinks.add(onData);
+            failures.add(onError);
+            completions.add(onComplete);
+            return () -> cancelled++;
+        }
+    }
+
+    private final FakeTransport transport = new FakeTransport();
+    private final List<ApiException> errors = new ArrayList<>();
+    private final SubscriptionManager manager = new SubscriptionManager(transport, errors::add);
+
+    @Test
+    public void identicalSubscriptionsShareOneUpstream() {
+        List<JSONObject> first = new ArrayList<>();
+        List<JSONObject> second = new ArrayList<>();
+        Map<String, String> rep = Collections.singletonMap("accountRepresentativeID", "AR1");
+
+        Cancelable a = manager.subscribe("Order", SubscriptionManager.Event.CREATE, rep, first::add);
+        Cancelable b = manager.subscribe("Order", SubscriptionManager.Event.CREATE, rep, second::add);
+        manager.subscribe("Order", SubscriptionManager.Event.UPDATE, rep, record -> { });
+
+        assertEquals(2, transport.documents.size());
+        assertTrue(transport.documents.get(0).startsWith(
+                "subscription OnCreateOrder($filter: ModelSubscriptionOrderFilterInput) { onCreateOrder(filter: $filter)"));
+        assertEquals("{filter={accountRepresentativeID={eq=AR1}}}", transport.variables.get(0).toString());
+
+        transport.sinks.get(0).accept("{\"onCreateOrder\": {\"id\": \"o1\", \"accountRepresentativeID\": \"AR1\"}}");
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+
+        a.cancel();
+        assertEquals(0, transport.cancelled);
+        b.cancel();
+        assertEquals(1, transport.cancelled);
+        assertEquals(1, manager.openChannelCount());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void messagesForOtherRepsAreCountedButNotDelivered() {
+        List<JSONObject> delivered = new ArrayList<>();
+        manager.subscribe("Order", SubscriptionManager.Event.CREATE,
+                Collections.singletonMap("accountRepresentativeID", "AR1"), delivered::add);
+
+        transport.sinks.get(0).accept("{\"onCreateOrder\": {\"id\": \"o2\", \"accountRepresentativeID\": \"AR2\"}}");
+
+        assertTrue(delivered.isEmpty());
+        SubscriptionManager.ChannelStats stats =
+                manager.getStats().get("onCreateOrder{accountRepresentativeID=AR1}");
+        assertEquals(1, stats.getReceived());
+        assertEquals(0, stats.getDelivered());
+    }
+
+    @Test
+    public void failedChannelIsReopenedForTheNextSubscriber() {
+        List<JSONObject> delivered = new ArrayList<>();
+        int[] closed = new int[1];
+        manager.subscribe("Order", SubscriptionManager.Event.CREATE, Collections.<String, String>emptyMap(),
+                delivered::add, () -> closed[0]++);
+
+        transport.failures.get(0).accept(new ApiException("Connection lost", "Subscribe again."));
+        assertEquals(1, closed[0]);
+        assertEquals(1, errors.size());
+        assertEquals(1, transport.cancelled);
+        assertEquals(0, manager.openChannelCount());
+
+        manager.subscribe("Order", SubscriptionManager.Event.CREATE, Collections.<String, String>emptyMap(),
+                delivered::add);
+        assertEquals(2, transport.documents.size());
+        transport.sinks.get(1).accept("{\"onCreateOrder\": {\"id\": \"o3\"}}");
+        assertEquals(1, delivered.size());
+        // A late error from the failed upstream leaves the new channel open.
+        transport.failures.get(0).accept(new ApiException("Connection lost", "Subscribe again."));
+        assertEquals(1, closed[0]);
+        assertEquals(1, manager.openChannelCount());
+    }
+
+    @Test
+    public void completedChannelIsClosed() {
+        int[] closed = new int[1];
+        manager.subscribe("Order", SubscriptionManager.Event.DELETE, Collections.<String, String>emptyMap(),
+                record -> { }, () -> closed[0]++);
+
+        transport.completions.get(0).call();
+
+        assertEquals(1, closed[0]);
+        assertEquals(0, manager.openChannelCount());
+        assertTrue(errors.isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.orderapp;
+
+import com.amplifyframework.api.ApiException;
+import com.amplifyframework.datastore.generated.model.Customer;
+import com.amplifyframework.datastore.generated.model.Employee;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SyncRunnerTest {
+    private static final int CUSTOMERS = 5_000;
+    private static final int EMPLOYEES = 1_000;
+
+    /** AppSync for two models, behind a connection that is lost after a given number of pages. */
+    private static final class Network implements SyncPageSource {
+        final Map<String, FakeSyncBackend> backends = new HashMap<>();
+        volatile int pagesUntilLost = Integer.MAX_VALUE;
+
+        Network() {
+            backends.put("Customer", new FakeSyncBackend("Customer", CUSTOMERS));
+            backends.put("Employee", new FakeSyncBackend("Employee", EMPLOYEES));
+        }
+
+        @Override
+        public SyncPage fetch(String modelName, Long lastSync, String nextToken, int limit) throws ApiException {
+            if (pagesUntilLost-- <= 0) {
+                throw new ApiException("Unable to resolve host", "Check the connection.");
+            }
+            return backends.get(modelName).fetch(modelName, lastSync, nextToken, limit);
+        }
+
+        long bytesServed() {
+            long bytes = 0;
+            for (FakeSyncBackend backend : backends.values()) {
+                bytes += backend.bytesServed;
+            }
+            return bytes;
+        }
+    }
+
+    private final Network network = new Network();
+    private final InMemorySyncStateStore state = new InMemorySyncStateStore();
+    private final NameSearchIndex names = new NameSearchIndex();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    /** Wired as MainActivity wires it. */
+    private final ListenerSyncSink sink = new ListenerSyncSink()
+            .add(Customer.class, NameSearchFeed.customers(names))
+            .add(Employee.class, NameSearchFeed.employees(names));
+    private final SyncRunner runner = new SyncRunner(new DeltaSyncController(network, state, sink),
+            sink.modelNames(), executor);
+
+    @After
+    public void tearDown() {
+        runner.close();
+    }
+
+    /** Waits for the runs queued so far; the executor runs one task at a time. */
+    private void settle() throws Exception {
+        executor.submit(() -> { }).get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void reconnectContinuesFromTheCheckpoint() throws Exception {
+        long fullSyncBytes = network.backends.get("Customer").fetch("Customer", null, null, CUSTOMERS)
+                .getPayloadBytes()
+                + network.backends.get("Employee").fetch("Employee", null, null, EMPLOYEES).getPayloadBytes();
+        network.backends.values().forEach(backend -> backend.bytesServed = 0);
+
+        // Startup: the connection drops partway through Customer.
+        network.pagesUntilLost = 3;
+        runner.requestSync();
+        settle();
+        assertNotNull(state.getCheckpoint("Customer"));
+        assertTrue(names.size() > 0 && names.size() < CUSTOMERS);
+
+        // onAvailable
+        network.pagesUntilLost = Integer.MAX_VALUE;
+        runner.requestSync();
+        settle();
+
+        assertEquals(CUSTOMERS + EMPLOYEES, names.size());
+        assertNull(state.getCheckpoint("Customer"));
+        assertTrue(state.getLastSync("Customer") > 0);
+        assertTrue(state.getLastSync("Employee") > 0);
+        double ratio = (double) network.bytesServed() / fullSyncBytes;
+        assertTrue("transfer ratio " + ratio, ratio < 1.1);
+
+        // The next launch or reconnect is a delta sync that finds nothing new.
+        network.backends.values().forEach(backend -> backend.bytesServed = 0);
+        runner.requestSync();
+        settle();
+        assertEquals(0, network.bytesServed());
+    }
+
+    @Test
+    public void requestsDuringARunFoldIntoOneMore() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        runner.requestSync();
+        runner.requestSync();
+        runner.requestSync();
+        release.countDown();
+        settle();
+
+        assertEquals(1, network.backends.get("Employee").requestedTokens.stream().filter(t -> t == null).count());
+    }
+
+    @Test
+    public void closedRunnerIgnoresRequests() throws Exception {
+        runner.close();
+        runner.requestSync();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, network.bytesServed());
+    }
+}
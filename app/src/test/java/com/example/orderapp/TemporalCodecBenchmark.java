@@ -0,0 +1,101 @@
+package com.example.orderapp;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Parses 1,000,000 AWSDateTime and AWSTime strings with {@link TemporalCodec} and with
+ * {@code java.time}, and sorts them by their epoch values and by parsing inside the
+ * comparator. Reports the best of several rounds.
+ */
+public class TemporalCodecBenchmark {
+    private static final int TIMESTAMPS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    private static volatile long sink;
+
+    @Test
+    public void parseAMillionTimestamps() {
+        Random random = new Random(42);
+        long from = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+        String[] dateTimes = new String[TIMESTAMPS];
+        String[] times = new String[TIMESTAMPS];
+        for (int i = 0; i < TIMESTAMPS; i++) {
+            long millis = from + (long) (random.nextDouble() * 3 * 365 * TemporalCodec.MILLIS_PER_DAY);
+            // Half UTC as AppSync writes createdAt, half with an offset.
+            dateTimes[i] = i % 2 == 0
+                    ? TemporalCodec.formatDateTimeMillis(millis)
+                    : OffsetDateTime.parse(TemporalCodec.formatDateTimeMillis(millis)).toLocalDateTime() + "+02:00";
+            times[i] = TemporalCodec.formatTimeNanos((long) (random.nextDouble() * TemporalCodec.NANOS_PER_DAY));
+        }
+
+        double codecDateTimes = best(() -> {
+            long sum = 0;
+            for (String text : dateTimes) {
+                sum += TemporalCodec.parseDateTimeMillis(text);
+            }
+            sink = sum;
+        });
+        double javaTimeDateTimes = best(() -> {
+            long sum = 0;
+            for (String text : dateTimes) {
+                sum += OffsetDateTime.parse(text).toInstant().toEpochMilli();
+            }
+            sink = sum;
+        });
+        double codecTimes = best(() -> {
+            long sum = 0;
+            for (String text : times) {
+                sum += TemporalCodec.parseTimeNanos(text);
+            }
+            sink = sum;
+        });
+        double javaTimeTimes = best(() -> {
+            long sum = 0;
+            for (String text : times) {
+                sum += LocalTime.parse(text).toNanoOfDay();
+            }
+            sink = sum;
+        });
+        System.out.println(String.format(Locale.US,
+                "%,d AWSDateTime: codec %.0f ms, java.time %.0f ms (%.1fx)",
+                TIMESTAMPS, codecDateTimes, javaTimeDateTimes, javaTimeDateTimes / codecDateTimes));
+        System.out.println(String.format(Locale.US,
+                "%,d AWSTime: codec %.0f ms, java.time %.0f ms (%.1fx)",
+                TIMESTAMPS, codecTimes, javaTimeTimes, javaTimeTimes / codecTimes));
+
+        double sortByKey = best(() -> {
+            long[] keys = new long[TIMESTAMPS];
+            for (int i = 0; i < TIMESTAMPS; i++) {
+                keys[i] = TemporalCodec.parseDateTimeMillis(dateTimes[i]);
+            }
+            Arrays.sort(keys);
+            sink = keys[0];
+        });
+        double sortByParsing = best(() -> {
+            String[] sorted = dateTimes.clone();
+            Arrays.sort(sorted, (a, b) -> OffsetDateTime.parse(a).toInstant()
+                    .compareTo(OffsetDateTime.parse(b).toInstant()));
+            sink = sorted[0].length();
+        });
+        System.out.println(String.format(Locale.US,
+                "sorting %,d AWSDateTime: epoch keys %.0f ms, parsing in the comparator %.0f ms (%.1fx)",
+                TIMESTAMPS, sortByKey, sortByParsing, sortByParsing / sortByKey));
+    }
+
+    private static double best(Runnable run) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.orderapp;
+
+import com.amplifyframework.core.model.temporal.Temporal;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TemporalCodecTest {
+    private static final DateTimeFormatter ISO_MILLIS =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    @Test
+    public void parsesDatesAndDateTimesToEpochMillis() {
+        assertEquals(0, TemporalCodec.parseDateTimeMillis("1970-01-01"));
+        assertEquals(Instant.parse("2022-01-20T00:00:00Z").toEpochMilli(),
+                TemporalCodec.parseDateTimeMillis("2022-01-20"));
+        assertEquals(Instant.parse("2022-01-20T10:11:12.345Z").toEpochMilli(),
+                TemporalCodec.parseDateTimeMillis("2022-01-20T10:11:12.345Z"));
+        assertEquals(OffsetDateTime.parse("2022-01-20T10:11:12.345678+05:30").toInstant().toEpochMilli(),
+                TemporalCodec.parseDateTimeMillis("2022-01-20T10:11:12.345678+05:30"));
+        assertEquals(OffsetDateTime.parse("1969-12-31T23:59-01:00").toInstant().toEpochMilli(),
+                TemporalCodec.parseDateTimeMillis("1969-12-31T23:59-01:00"));
+        assertEquals(Instant.parse("2024-02-29T23:59:59Z").toEpochMilli(),
+                TemporalCodec.parseDateTimeMillis("2024-02-29T23:59:59"));
+    }
+
+    @Test
+    public void rejectsMalformedDates() {
+        for (String text : new String[] {"", "2022-01-2022", "2023-02-29", "2022-13-01", "2022-1-20",
+                "Thu Jan 20 10:11:12 UTC 2022", "2022-01-20 10:11", "2022-01-20T25:00Z",
+                "2022-01-20T10:11:12.Z", "2022-01-20T10:11:12.1234567890Z", "2022-01-20T10:11+5", "2022-01-20TZ"}) {
+            assertEquals(text, TemporalCodec.INVALID, TemporalCodec.parseDateTimeMillis(text));
+        }
+    }
+
+    @Test
+    public void parsesTimesToNanosOfDay() {
+        assertEquals(LocalTime.parse("21:37:56.955359").toNanoOfDay(),
+                TemporalCodec.parseTimeNanos("21:37:56.955359000"));
+        assertEquals(LocalTime.parse("21:37").toNanoOfDay(), TemporalCodec.parseTimeNanos("21:37"));
+        assertEquals(LocalTime.parse("00:30").toNanoOfDay(), TemporalCodec.parseTimeNanos("01:30+01:00"));
+        assertEquals(LocalTime.parse("23:30").toNanoOfDay(), TemporalCodec.parseTimeNanos("00:30+01:00"));
+        assertEquals(TemporalCodec.INVALID, TemporalCodec.parseTimeNanos("24:00"));
+        assertEquals(TemporalCodec.INVALID, TemporalCodec.timeNanos(null));
+        assertEquals(LocalTime.parse("21:37:56.955359").toNanoOfDay(),
+                TemporalCodec.timeNanos(new Temporal.Time("21:37:56.955359000")));
+    }
+
+    @Test
+    public void formatsWhatItParses() {
+        assertEquals("21:37:56.955359000", TemporalCodec.formatTimeNanos(TemporalCodec.parseTimeNanos("21:37:56.955359")));
+        assertEquals("1969-12-31T23:59:59.999Z", TemporalCodec.formatDateTimeMillis(-1));
+        assertEquals("2022-01-20", TemporalCodec.formatDate(TemporalCodec.parseDateTimeMillis("2022-01-20T23:00Z")));
+
+        Random random = new Random(7);
+        long from = Instant.parse("1600-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2400-01-01T00:00:00Z").toEpochMilli();
+        for (int i = 0; i < 100_000; i++) {
+            long millis = from + (long) (random.nextDouble() * (to - from));
+            String formatted = TemporalCodec.formatDateTimeMillis(millis);
+            assertEquals(ISO_MILLIS.format(Instant.ofEpochMilli(millis)), formatted);
+            assertEquals(millis, TemporalCodec.parseDateTimeMillis(formatted));
+            assertEquals(Instant.ofEpochMilli(millis).atOffset(ZoneOffset.UTC).toLocalDate().toString(),
+                    TemporalCodec.formatDate(millis));
+        }
+    }
+
+    @Test
+    public void cacheReturnsWhatTheCodecParses() {
+        TemporalCodec.DateTimeCache cache = new TemporalCodec.DateTimeCache();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(TemporalCodec.parseDateTimeMillis("2022-01-20"), cache.parse("2022-01-20"));
+            assertEquals(TemporalCodec.INVALID, cache.parse("2022-01-2022"));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Inventory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WarehouseShardedStoreTest {
+    static Employee employee(String id, String warehouseId) {
+        return Employee.builder()
+                .name("Employee" + id)
+                .startDate("2022-01-20")
+                .phoneNumber("123-456-7890")
+                .warehouseId(warehouseId)
+                .jobTitle("Helper")
+                .newHire("no")
+                .id(id)
+                .build();
+    }
+
+    static Inventory inventory(String productId, String warehouseId, int amount) {
+        return Inventory.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .inventoryAmount(amount)
+                .build();
+    }
+
+    @Test
+    public void employeeMovingWarehouseLeavesOldShard() {
+        WarehouseShardedStore store = new WarehouseShardedStore();
+        store.putEmployee(employee("1", "W1"));
+        store.putEmployee(employee("1", "W2"));
+
+        assertTrue(store.employees("W1").isEmpty());
+        assertEquals(1, store.employees("W2").size());
+
+        store.removeEmployee(employee("1", "W2"));
+        assertTrue(store.employees("W2").isEmpty());
+    }
+
+    @Test
+    public void inventoryIsKeyedByProductWithinWarehouse() {
+        WarehouseShardedStore store = new WarehouseShardedStore();
+        store.putInventory(inventory("P1", "W1", 100));
+        store.putInventory(inventory("P2", "W1", 50));
+        store.putInventory(inventory("P1", "W2", 7));
+
+        assertEquals(150, store.totalInventory("W1"));
+        assertEquals(7, store.inventory("W2", "P1").getInventoryAmount().intValue());
+        assertNull(store.inventory("W2", "P2"));
+        assertNull(store.adjustInventory("W3", "P1", 1));
+    }
+
+    @Test
+    public void fullestInventoryLooksAcrossWarehouses() {
+        WarehouseShardedStore store = new WarehouseShardedStore();
+        store.putInventory(inventory("P1", "W1", 5));
+        store.putInventory(inventory("P1", "W2", 9));
+        store.putInventory(inventory("P2", "W3", 50));
+        store.putInventory(inventory("P1", "W4", 7));
+
+        assertEquals("W2", store.fullestInventory("P1").getWarehouseId());
+        assertNull(store.fullestInventory("P3"));
+        store.removeInventory(inventory("P1", "W2", 9));
+        assertEquals("W4", store.fullestInventory("P1").getWarehouseId());
+    }
+
+    @Test
+    public void concurrentAdjustmentsAreNotLost() throws Exception {
+        WarehouseShardedStore store = new WarehouseShardedStore();
+        store.putInventory(inventory("P1", "W1", 0));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    store.adjustInventory("W1", "P1", 1);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(8000, store.inventory("W1", "P1").getInventoryAmount().intValue());
+    }
+
+    @Test
+    public void concurrentMovesLeaveAnEmployeeInOneWarehouse() throws Exception {
+        WarehouseShardedStore store = new WarehouseShardedStore();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String warehouseId = "W" + t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    store.putEmployee(employee("1", warehouseId));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int found = 0;
+        for (int t = 0; t < 8; t++) {
+            found += store.employees("W" + t).size();
+        }
+        assertEquals(1, found);
+    }
+}
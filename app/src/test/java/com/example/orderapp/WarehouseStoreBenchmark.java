@@ -0,0 +1,188 @@
+package com.example.orderapp;
+
+import com.amplifyframework.datastore.generated.model.Employee;
+import com.amplifyframework.datastore.generated.model.Inventory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Operations per second on 1,000 warehouses as threads are added, for the sharded store
+ * and for the same data behind one global read/write lock. Each operation picks a random
+ * warehouse: half read one Inventory row, a third adjust one, and the rest sum the
+ * warehouse's stock or list its employees.
+ */
+public class WarehouseStoreBenchmark {
+    private static final int WAREHOUSES = 1_000;
+    private static final int EMPLOYEES_PER_WAREHOUSE = 10;
+    private static final int PRODUCTS_PER_WAREHOUSE = 20;
+    private static final int OPERATIONS_PER_THREAD = 500_000;
+
+    interface Store {
+        Inventory inventory(String warehouseId, String productId);
+
+        Inventory adjustInventory(String warehouseId, String productId, int delta);
+
+        long totalInventory(String warehouseId);
+
+        List<Employee> employees(String warehouseId);
+    }
+
+    @Test
+    public void shardedVersusGlobalLock() throws Exception {
+        WarehouseShardedStore sharded = new WarehouseShardedStore();
+        GlobalLockStore global = new GlobalLockStore();
+        for (int w = 0; w < WAREHOUSES; w++) {
+            String warehouseId = "WareHouse" + w;
+            for (int e = 0; e < EMPLOYEES_PER_WAREHOUSE; e++) {
+                Employee employee = WarehouseShardedStoreTest.employee(w + "-" + e, warehouseId);
+                sharded.putEmployee(employee);
+                global.putEmployee(employee);
+            }
+            for (int p = 0; p < PRODUCTS_PER_WAREHOUSE; p++) {
+                Inventory row = WarehouseShardedStoreTest.inventory("P" + p, warehouseId, 100);
+                sharded.putInventory(row);
+                global.putInventory(row);
+            }
+        }
+        Store shardedStore = new Store() {
+            @Override
+            public Inventory inventory(String warehouseId, String productId) {
+                return sharded.inventory(warehouseId, productId);
+            }
+
+            @Override
+            public Inventory adjustInventory(String warehouseId, String productId, int delta) {
+                return sharded.adjustInventory(warehouseId, productId, delta);
+            }
+
+            @Override
+            public long totalInventory(String warehouseId) {
+                return sharded.totalInventory(warehouseId);
+            }
+
+            @Override
+            public List<Employee> employees(String warehouseId) {
+                return sharded.employees(warehouseId);
+            }
+        };
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(8, cores); threads *= 2) {
+            // Warm up both before measuring each thread count.
+            run(shardedStore, threads);
+            run(global, threads);
+            double shardedRate = run(shardedStore, threads);
+            double globalRate = run(global, threads);
+            System.out.println(String.format(Locale.US,
+                    "%2d threads on %d cores: sharded %,.0f ops/s, global lock %,.0f ops/s (%.1fx)",
+                    threads, cores, shardedRate, globalRate, shardedRate / globalRate));
+        }
+    }
+
+    private static double run(Store store, int threadCount) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    String warehouseId = "WareHouse" + random.nextInt(WAREHOUSES);
+                    String productId = "P" + random.nextInt(PRODUCTS_PER_WAREHOUSE);
+                    int operation = random.nextInt(6);
+                    if (operation < 3) {
+                        store.inventory(warehouseId, productId);
+                    } else if (operation < 5) {
+                        store.adjustInventory(warehouseId, productId, random.nextBoolean() ? 1 : -1);
+                    } else if (random.nextBoolean()) {
+                        store.totalInventory(warehouseId);
+                    } else {
+                        store.employees(warehouseId);
+                    }
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return (double) threadCount * OPERATIONS_PER_THREAD / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /** The same data and operations as the sharded store, guarded by a single lock. */
+    private static final class GlobalLockStore implements Store {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Map<String, Employee>> employees = new HashMap<>();
+        private final Map<String, Map<String, Inventory>> inventory = new HashMap<>();
+
+        void putEmployee(Employee employee) {
+            employees.computeIfAbsent(employee.getWarehouseId(), id -> new HashMap<>())
+                    .put(employee.getId(), employee);
+        }
+
+        void putInventory(Inventory row) {
+            inventory.computeIfAbsent(row.getWarehouseId(), id -> new HashMap<>())
+                    .put(row.getProductId(), row);
+        }
+
+        @Override
+        public Inventory inventory(String warehouseId, String productId) {
+            lock.readLock().lock();
+            try {
+                return inventory.get(warehouseId).get(productId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Inventory adjustInventory(String warehouseId, String productId, int delta) {
+            lock.writeLock().lock();
+            try {
+                Map<String, Inventory> rows = inventory.get(warehouseId);
+                Inventory row = rows.get(productId);
+                Inventory updated = row.copyOfBuilder()
+                        .inventoryAmount(row.getInventoryAmount() + delta)
+                        .build();
+                rows.put(productId, updated);
+                return updated;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public long totalInventory(String warehouseId) {
+            lock.readLock().lock();
+            try {
+                long total = 0;
+                for (Inventory row : inventory.get(warehouseId).values()) {
+                    total += row.getInventoryAmount();
+                }
+                return total;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public List<Employee> employees(String warehouseId) {
+            lock.readLock().lock();
+            try {
+                return new ArrayList<>(employees.get(warehouseId).values());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.orderapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WriteAheadLogTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void undrainedRecordsSurviveReopen() throws Exception {
+        File path = folder.newFile("saves.log");
+        path.delete();
+        WriteAheadLog log = WriteAheadLog.open(path, 4096);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(log.append(bytes("record " + i)));
+        }
+        log.markDrained(2);
+        log.close();
+
+        WriteAheadLog reopened = WriteAheadLog.open(path, 4096);
+        List<byte[]> pending = reopened.peek(10);
+
+        assertEquals(3, reopened.pending());
+        assertEquals("record 2", text(pending.get(0)));
+        assertEquals("record 4", text(pending.get(2)));
+    }
+
+    @Test
+    public void fullyDrainedLogStartsOver() throws Exception {
+        File path = new File(folder.getRoot(), "saves.log");
+        WriteAheadLog log = WriteAheadLog.open(path, 64);
+        assertTrue(log.append(bytes("0123456789012345678901234567890123456789")));
+        assertFalse(log.append(bytes("0123456789")));
+
+        log.markDrained(1);
+        assertTrue(log.append(bytes("0123456789")));
+        assertEquals("0123456789", text(log.peek(1).get(0)));
+    }
+
+    @Test
+    public void compactionMakesRoomBehindDrainedRecords() throws Exception {
+        WriteAheadLog log = WriteAheadLog.open(new File(folder.getRoot(), "saves.log"), 140);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(log.append(bytes("record-" + i + "-xxxxxxx")));
+        }
+        log.markDrained(4);
+
+        assertTrue(log.append(bytes("record-6-xxxxxxx")));
+        List<byte[]> pending = log.peek(10);
+        assertEquals(3, pending.size());
+        assertEquals("record-4-xxxxxxx", text(pending.get(0)));
+        assertEquals("record-6-xxxxxxx", text(pending.get(2)));
+    }
+}
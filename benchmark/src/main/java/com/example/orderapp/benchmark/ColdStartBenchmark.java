@@ -0,0 +1,54 @@
+package com.example.orderapp.benchmark;
+
+import android.os.SystemClock;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Cold-starts the app and reports {@code timeToInitialDisplayMs}, the time to its first
+ * frame, and {@code timeToFullDisplayMs}, the time until MainActivity calls
+ * {@code reportFullyDrawn()} on first rendering the order list, i.e. the time to first data.
+ *
+ * <p>Run on a device with {@code ./gradlew :benchmark:connectedBenchmarkAndroidTest}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ColdStartBenchmark {
+    private static final String PACKAGE_NAME = "com.example.orderapp";
+    private static final int ITERATIONS = 10;
+    /** The first snapshot is read from the local database, well within this. */
+    private static final long FIRST_DATA_WAIT_MS = 3000;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void coldStart() {
+        benchmarkRule.measureRepeated(
+                PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                CompilationMode.DEFAULT,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    SystemClock.sleep(FIRST_DATA_WAIT_MS);
+                    return Unit.INSTANCE;
+                });
+    }
+}